@@ -23,13 +23,59 @@ create table company_key_result
 );
 
 -- historization inspired by https://stackoverflow.com/questions/56295703/how-to-store-table-history-in-postgresql
+-- partitioned by the month of the change, see create_history_partitions
 create table company_key_result_history
 (
-    id                int primary key generated always as identity,
+    -- no identity column, which partitioned tables only support from PostgreSQL 17 on
+    id                serial,
     ref_id            int         NOT NULL references company_key_result (id) ON DELETE CASCADE,
     change_time_stamp timestamptz NOT NULL DEFAULT now(),
-    historical_data   jsonb       NOT NULL
-);
+    -- a keyframe holds the whole replaced row, any other entry only the columns replaced by its change
+    keyframe          boolean     NOT NULL DEFAULT true,
+    -- a compacted entry is the keyframe retained for a day or week, which holds the row at the end of it instead
+    compacted         boolean     NOT NULL DEFAULT false,
+    historical_data   jsonb       NOT NULL,
+    -- the primary key of a partitioned table has to contain the partition key
+    primary key (id, change_time_stamp)
+) partition by range (change_time_stamp);
+
+-- takes the changes outside of the monthly partitions, so they are never lost
+create table company_key_result_history_default partition of company_key_result_history default;
+
+-- the history of a key result is paginated by a cursor on (change_time_stamp, id), newest first
+create index company_key_result_history_ref_id_change_time_stamp_id_idx
+    on company_key_result_history (ref_id, change_time_stamp desc, id desc);
+
+-- the snapshots are rebuilt in the order of the changes, from the next newer keyframe
+create index company_key_result_history_ref_id_id_idx
+    on company_key_result_history (ref_id, id);
+
+-- the values of every history entry, narrow and typed, so time ranges are read without parsing the jsonb snapshots
+-- partitioned like the history, so the partitions of a month are detached together
+create table company_key_result_history_point
+(
+    history_id        int         NOT NULL,
+    ref_id            int         NOT NULL references company_key_result (id) ON DELETE CASCADE,
+    change_time_stamp timestamptz NOT NULL,
+    current_value     decimal     NOT NULL,
+    goal_value        decimal     NOT NULL,
+    confidence_level  decimal     NOT NULL,
+    achievement       decimal     NOT NULL,
+    -- set together with the compacted entry, whose values are then the ones after the change
+    compacted         boolean     NOT NULL DEFAULT false,
+    primary key (history_id, change_time_stamp),
+    foreign key (history_id, change_time_stamp) references company_key_result_history (id, change_time_stamp)
+        ON UPDATE CASCADE ON DELETE CASCADE
+) partition by range (change_time_stamp);
+
+create table company_key_result_history_point_default partition of company_key_result_history_point default;
+
+-- the points are appended in the order of their change time stamp, so a block range index covers scans of all key results
+create index company_key_result_history_point_change_time_stamp_idx
+    on company_key_result_history_point using brin (change_time_stamp);
+
+create index company_key_result_history_point_ref_id_change_time_stamp_idx
+    on company_key_result_history_point (ref_id, change_time_stamp);
 
 create table business_unit
 (
@@ -63,13 +109,59 @@ create table business_unit_key_result
 );
 
 -- historization inspired by https://stackoverflow.com/questions/56295703/how-to-store-table-history-in-postgresql
+-- partitioned by the month of the change, see create_history_partitions
 create table business_unit_key_result_history
 (
-    id                int primary key generated always as identity,
+    -- no identity column, which partitioned tables only support from PostgreSQL 17 on
+    id                serial,
     ref_id            int         NOT NULL references business_unit_key_result (id) ON DELETE CASCADE,
     change_time_stamp timestamptz NOT NULL DEFAULT now(),
-    historical_data   jsonb       NOT NULL
-);
+    -- a keyframe holds the whole replaced row, any other entry only the columns replaced by its change
+    keyframe          boolean     NOT NULL DEFAULT true,
+    -- a compacted entry is the keyframe retained for a day or week, which holds the row at the end of it instead
+    compacted         boolean     NOT NULL DEFAULT false,
+    historical_data   jsonb       NOT NULL,
+    -- the primary key of a partitioned table has to contain the partition key
+    primary key (id, change_time_stamp)
+) partition by range (change_time_stamp);
+
+-- takes the changes outside of the monthly partitions, so they are never lost
+create table business_unit_key_result_history_default partition of business_unit_key_result_history default;
+
+-- the history of a key result is paginated by a cursor on (change_time_stamp, id), newest first
+create index business_unit_key_result_history_ref_id_change_time_stamp_id_idx
+    on business_unit_key_result_history (ref_id, change_time_stamp desc, id desc);
+
+-- the snapshots are rebuilt in the order of the changes, from the next newer keyframe
+create index business_unit_key_result_history_ref_id_id_idx
+    on business_unit_key_result_history (ref_id, id);
+
+-- the values of every history entry, narrow and typed, so time ranges are read without parsing the jsonb snapshots
+-- partitioned like the history, so the partitions of a month are detached together
+create table business_unit_key_result_history_point
+(
+    history_id        int         NOT NULL,
+    ref_id            int         NOT NULL references business_unit_key_result (id) ON DELETE CASCADE,
+    change_time_stamp timestamptz NOT NULL,
+    current_value     decimal     NOT NULL,
+    goal_value        decimal     NOT NULL,
+    confidence_level  decimal     NOT NULL,
+    achievement       decimal     NOT NULL,
+    -- set together with the compacted entry, whose values are then the ones after the change
+    compacted         boolean     NOT NULL DEFAULT false,
+    primary key (history_id, change_time_stamp),
+    foreign key (history_id, change_time_stamp) references business_unit_key_result_history (id, change_time_stamp)
+        ON UPDATE CASCADE ON DELETE CASCADE
+) partition by range (change_time_stamp);
+
+create table business_unit_key_result_history_point_default partition of business_unit_key_result_history_point default;
+
+-- the points are appended in the order of their change time stamp, so a block range index covers scans of all key results
+create index business_unit_key_result_history_point_change_time_stamp_idx
+    on business_unit_key_result_history_point using brin (change_time_stamp);
+
+create index business_unit_key_result_history_point_ref_id_change_time_stamp_idx
+    on business_unit_key_result_history_point (ref_id, change_time_stamp);
 
 create table role
 (
@@ -98,13 +190,240 @@ create table okr_user
     username         varchar(64) NOT NULL UNIQUE,
     password         varchar(64) NOT NULL DEFAULT 'passwort',
     role_id          int         REFERENCES Role (id) ON DELETE SET NULL,
-    business_unit_id int REFERENCES business_unit (id) ON DELETE SET DEFAULT
+    business_unit_id int REFERENCES business_unit (id) ON DELETE SET DEFAULT,
+    -- incremented whenever the authorities of the user change, which invalidates all tokens issued before
+    token_version    int         NOT NULL DEFAULT 0
+);
+
+-- the ids of the tokens revoked by a logout, kept until the tokens would have expired anyway
+create table revoked_token
+(
+    token_id   varchar(64) primary key,
+    expires_at timestamptz NOT NULL
 );
 
+create index revoked_token_expires_at_idx on revoked_token (expires_at);
+
+-- endregion
+
+-- region row_version
+
+-- xmin is the id of the transaction which wrote the current version of a row, so it changes with every write of the
+-- row and is used to derive the ETags of the REST resources, the count and the sum of all versions of a set of rows
+-- change with every insert, update and delete in that set
+CREATE FUNCTION row_version(transaction_id xid)
+    RETURNS bigint
+    LANGUAGE sql
+    IMMUTABLE
+AS
+$$
+SELECT transaction_id::text::bigint
+$$;
+
+-- endregion
+
+-- region table_version
+
+-- the version of every table, which is incremented by each statement writing the table, so that the ETags of whole
+-- collections are read from a few rows instead of all rows of their tables. The incremented row stays locked until the
+-- writing transaction ends, so a version never becomes visible before the rows written with it
+create table table_version
+(
+    table_name text primary key,
+    version    bigint NOT NULL
+);
+
+CREATE FUNCTION increment_table_version(written_table text)
+    RETURNS void
+    LANGUAGE sql
+AS
+$$
+INSERT INTO table_version (table_name, version)
+VALUES (written_table, 1)
+ON CONFLICT (table_name) DO UPDATE SET version = table_version.version + 1
+$$;
+
+-- the versions of the given tables joined by dots, tables which were never written have version 0
+CREATE FUNCTION table_versions(VARIADIC table_names text[])
+    RETURNS text
+    LANGUAGE sql
+    STABLE
+AS
+$$
+SELECT string_agg(coalesce(v.version, 0)::text, '.' ORDER BY t.position)
+FROM unnest(table_names) WITH ORDINALITY t(table_name, position)
+         LEFT JOIN table_version v ON v.table_name = t.table_name
+$$;
+
+-- endregion
+
+-- region history partitions
+
+-- creates the monthly partitions of the history and point tables, from the month of first_month on, unless they exist.
+-- Queries bounded by the change time stamp only read the partitions of their months, and vacuum mostly visits the
+-- partition of the current month, as the older ones are no longer written
+CREATE FUNCTION create_history_partitions(first_month timestamptz, months int)
+    RETURNS int
+    LANGUAGE plpgsql
+    SET lock_timeout = '5s'
+AS
+$$
+DECLARE
+    parent         text;
+    month_start    timestamp;
+    partition_name text;
+    created        int := 0;
+BEGIN
+    FOR month_offset IN 0 .. months - 1
+        LOOP
+            month_start := date_trunc('month', first_month AT TIME ZONE 'UTC') + make_interval(months => month_offset);
+            FOREACH parent IN ARRAY ARRAY ['company_key_result_history', 'company_key_result_history_point',
+                'business_unit_key_result_history', 'business_unit_key_result_history_point']
+                LOOP
+                    partition_name := parent || to_char(month_start, '"_p"YYYY_MM');
+                    CONTINUE WHEN to_regclass(partition_name) IS NOT NULL;
+                    BEGIN
+                        EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                                       partition_name,
+                                       parent,
+                                       month_start AT TIME ZONE 'UTC',
+                                       (month_start + interval '1 month') AT TIME ZONE 'UTC');
+                        created := created + 1;
+                    EXCEPTION
+                        -- the default partition already holds changes of that month, which stay there
+                        WHEN check_violation THEN
+                            RAISE WARNING 'partition % not created, as the default partition holds rows of its month', partition_name;
+                    END;
+                END LOOP;
+        END LOOP;
+    RETURN created;
+END
+$$;
+
+-- detaches the monthly partitions, which end before expire_before, and drops them unless drop_expired is false. The
+-- partitions of the point tables go first, as they reference the ones of the history tables. Partitions, which are
+-- kept as standalone tables, lose that reference, so the history partition of the same month can be detached as well
+CREATE FUNCTION expire_history_partitions(expire_before timestamptz, drop_expired boolean)
+    RETURNS int
+    LANGUAGE plpgsql
+    SET lock_timeout = '5s'
+AS
+$$
+DECLARE
+    parent      text;
+    expired     regclass;
+    foreign_key name;
+    detached    int := 0;
+BEGIN
+    FOREACH parent IN ARRAY ARRAY ['company_key_result_history_point', 'company_key_result_history',
+        'business_unit_key_result_history_point', 'business_unit_key_result_history']
+        LOOP
+            FOR expired IN SELECT c.oid::regclass
+                           FROM pg_inherits i
+                                    JOIN pg_class c ON c.oid = i.inhrelid
+                           WHERE i.inhparent = parent::regclass
+                             AND c.relname ~ ('^' || parent || '_p\d{4}_\d{2}$')
+                             AND (to_date(right(c.relname, 7), 'YYYY_MM') + interval '1 month') AT TIME ZONE 'UTC' <= expire_before
+                LOOP
+                    EXECUTE format('ALTER TABLE %I DETACH PARTITION %s', parent, expired);
+                    -- detaching fires no triggers, but removes rows from the parent
+                    PERFORM increment_table_version(parent);
+                    IF drop_expired THEN
+                        EXECUTE format('DROP TABLE %s', expired);
+                    ELSE
+                        FOR foreign_key IN SELECT con.conname
+                                           FROM pg_constraint con
+                                           WHERE con.conrelid = expired
+                                             AND con.contype = 'f'
+                                             AND con.confrelid IN ('company_key_result_history'::regclass,
+                                                                   'business_unit_key_result_history'::regclass)
+                            LOOP
+                                EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', expired, foreign_key);
+                            END LOOP;
+                    END IF;
+                    detached := detached + 1;
+                END LOOP;
+        END LOOP;
+    RETURN detached;
+END
+$$;
+
+-- the partitions of the current and the next two months, the application creates the following ones ahead of time
+SELECT create_history_partitions(now(), 3);
+
 -- endregion
 
 -- region triggers
 
+-- region notify_okr_change
+
+-- publishes every change of a key result on the okr_change channel, so that all application nodes can react to it,
+-- identical notifications within one transaction are only delivered once
+CREATE OR REPLACE FUNCTION notify_okr_change(entity text, operation text, entity_id int, objective_id int)
+    RETURNS void
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    PERFORM pg_notify('okr_change', json_build_object(
+            'entity', entity,
+            'operation', operation,
+            'id', entity_id,
+            'objectiveId', objective_id
+        )::text);
+END
+$$;
+
+-- endregion
+
+-- region increment_table_version
+
+CREATE FUNCTION increment_written_table_version()
+    RETURNS TRIGGER
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    PERFORM increment_table_version(TG_TABLE_NAME);
+    RETURN NULL;
+END
+$$;
+
+-- every table, from which the representation of a collection is built
+DO
+$$
+    DECLARE
+        written_table text;
+    BEGIN
+        FOREACH written_table IN ARRAY ARRAY ['company_objective', 'company_key_result', 'company_key_result_history',
+            'business_unit', 'business_unit_objective', 'business_unit_key_result', 'business_unit_key_result_history',
+            'okr_user', 'role', 'privilege', 'privileges_in_role']
+            LOOP
+                EXECUTE format('CREATE TRIGGER %I AFTER INSERT OR UPDATE OR DELETE ON %I '
+                                   'FOR EACH STATEMENT EXECUTE PROCEDURE increment_written_table_version()',
+                               written_table || '_version', written_table);
+            END LOOP;
+    END
+$$;
+
+-- endregion
+
+-- region replaced_columns
+
+-- the columns of the old row, whose value differs in the new row
+CREATE FUNCTION replaced_columns(old_row jsonb, new_row jsonb)
+    RETURNS jsonb
+    LANGUAGE sql
+    IMMUTABLE
+AS
+$$
+SELECT coalesce(jsonb_object_agg(o.key, o.value), '{}'::jsonb)
+FROM jsonb_each(old_row) o
+WHERE o.value IS DISTINCT FROM new_row -> o.key
+$$;
+
+-- endregion
+
 -- historization inspired by https://stackoverflow.com/questions/56295703/how-to-store-table-history-in-postgresql
 -- region do_businessunit_keyresult_historization
 
@@ -113,9 +432,34 @@ CREATE OR REPLACE FUNCTION do_businessunit_keyresult_historization()
     LANGUAGE plpgsql
 AS
 $$
+DECLARE
+    new_history_id        int;
+    new_change_time_stamp timestamptz;
+    is_keyframe           boolean;
 BEGIN
-    INSERT INTO business_unit_key_result_history (ref_id, historical_data)
-    VALUES (old.id, to_jsonb(old));
+    -- every 16th entry of a key result is a keyframe, which bounds the entries read to rebuild a snapshot
+    SELECT NOT exists(SELECT 1
+                      FROM (SELECT h.keyframe
+                            FROM business_unit_key_result_history h
+                            WHERE h.ref_id = old.id
+                            ORDER BY h.id DESC
+                            LIMIT 15) recent
+                      WHERE recent.keyframe)
+    INTO is_keyframe;
+    -- the generated achievement is not yet computed in the new row, so it is always kept
+    INSERT INTO business_unit_key_result_history (ref_id, keyframe, historical_data)
+    VALUES (old.id,
+            is_keyframe,
+            CASE
+                WHEN is_keyframe THEN to_jsonb(old)
+                ELSE replaced_columns(to_jsonb(old), to_jsonb(new)) || jsonb_build_object('achievement', old.achievement)
+                END)
+    RETURNING id, change_time_stamp INTO new_history_id, new_change_time_stamp;
+    INSERT INTO business_unit_key_result_history_point
+        (history_id, ref_id, change_time_stamp, current_value, goal_value, confidence_level, achievement)
+    VALUES (new_history_id, old.id, new_change_time_stamp, old.current_value, old.goal_value, old.confidence_level,
+            old.achievement);
+    PERFORM notify_okr_change(TG_TABLE_NAME, TG_OP, new.id, new.business_unit_objective_id);
     RETURN NEW;
 end
 $$;
@@ -135,9 +479,34 @@ CREATE OR REPLACE FUNCTION do_company_keyresult_historization()
     LANGUAGE plpgsql
 AS
 $$
+DECLARE
+    new_history_id        int;
+    new_change_time_stamp timestamptz;
+    is_keyframe           boolean;
 BEGIN
-    INSERT INTO company_key_result_history (ref_id, historical_data)
-    VALUES (old.id, to_jsonb(old));
+    -- every 16th entry of a key result is a keyframe, which bounds the entries read to rebuild a snapshot
+    SELECT NOT exists(SELECT 1
+                      FROM (SELECT h.keyframe
+                            FROM company_key_result_history h
+                            WHERE h.ref_id = old.id
+                            ORDER BY h.id DESC
+                            LIMIT 15) recent
+                      WHERE recent.keyframe)
+    INTO is_keyframe;
+    -- the generated achievement is not yet computed in the new row, so it is always kept
+    INSERT INTO company_key_result_history (ref_id, keyframe, historical_data)
+    VALUES (old.id,
+            is_keyframe,
+            CASE
+                WHEN is_keyframe THEN to_jsonb(old)
+                ELSE replaced_columns(to_jsonb(old), to_jsonb(new)) || jsonb_build_object('achievement', old.achievement)
+                END)
+    RETURNING id, change_time_stamp INTO new_history_id, new_change_time_stamp;
+    INSERT INTO company_key_result_history_point
+        (history_id, ref_id, change_time_stamp, current_value, goal_value, confidence_level, achievement)
+    VALUES (new_history_id, old.id, new_change_time_stamp, old.current_value, old.goal_value, old.confidence_level,
+            old.achievement);
+    PERFORM notify_okr_change(TG_TABLE_NAME, TG_OP, new.id, new.company_objective_id);
     RETURN NEW;
 end
 $$;
@@ -167,6 +536,7 @@ BEGIN
     SET achievement = subq.average
     FROM subq
     WHERE id = NEW.company_objective_id;
+    PERFORM notify_okr_change(TG_TABLE_NAME, TG_OP, NEW.id, NEW.company_objective_id);
     RETURN NEW;
 END
 $$;
@@ -196,6 +566,7 @@ BEGIN
     SET achievement = subq.average
     FROM subq
     WHERE id = NEW.business_unit_objective_id;
+    PERFORM notify_okr_change(TG_TABLE_NAME, TG_OP, NEW.id, NEW.business_unit_objective_id);
     RETURN NEW;
 END
 $$;
@@ -208,6 +579,44 @@ EXECUTE PROCEDURE update_businessunit_objective_achievement();
 
 -- endregion
 
+-- region notify_keyresult_deletion
+
+CREATE FUNCTION notify_company_keyresult_deletion()
+    RETURNS TRIGGER
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    PERFORM notify_okr_change(TG_TABLE_NAME, TG_OP, OLD.id, OLD.company_objective_id);
+    RETURN OLD;
+END
+$$;
+
+CREATE TRIGGER notify_company_keyresult_deletion
+    AFTER DELETE
+    ON company_key_result
+    FOR EACH ROW
+EXECUTE PROCEDURE notify_company_keyresult_deletion();
+
+CREATE FUNCTION notify_businessunit_keyresult_deletion()
+    RETURNS TRIGGER
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    PERFORM notify_okr_change(TG_TABLE_NAME, TG_OP, OLD.id, OLD.business_unit_objective_id);
+    RETURN OLD;
+END
+$$;
+
+CREATE TRIGGER notify_businessunit_keyresult_deletion
+    AFTER DELETE
+    ON business_unit_key_result
+    FOR EACH ROW
+EXECUTE PROCEDURE notify_businessunit_keyresult_deletion();
+
+-- endregion
+
 -- endregion
 
 -- region insert sample data
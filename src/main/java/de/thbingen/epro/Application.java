@@ -1,12 +1,17 @@
 package de.thbingen.epro;
 
+import de.thbingen.epro.config.ChangeNotificationConfig;
+import de.thbingen.epro.config.DashboardStreamConfig;
 import de.thbingen.epro.config.JwtConfig;
+import de.thbingen.epro.config.ResponseCacheConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-@EnableConfigurationProperties(JwtConfig.class)
+@EnableConfigurationProperties({JwtConfig.class, DashboardStreamConfig.class, ChangeNotificationConfig.class, ResponseCacheConfig.class})
+@EnableScheduling
 public class Application {
 
     public static void main(String[] args) {
@@ -0,0 +1,20 @@
+package de.thbingen.epro.cache;
+
+/**
+ * The regions of the {@link ResponseCache}. Every region contains the responses of the endpoints, which render the
+ * same kind of entities, so a write only has to evict the regions whose representations it changes.
+ */
+public enum CacheRegion {
+    /**
+     * {@code GET /dashboard}, with and without a {@code businessUnitId}
+     */
+    DASHBOARD,
+    /**
+     * {@code GET /companyObjectives}
+     */
+    COMPANY_OBJECTIVES,
+    /**
+     * {@code GET /businessUnitObjectives} and {@code GET /businessUnits/{id}/objectives}
+     */
+    BUSINESS_UNIT_OBJECTIVES
+}
@@ -0,0 +1,38 @@
+package de.thbingen.epro.cache;
+
+/**
+ * A response as it was written by a controller, together with an optional gzip compressed copy of its body
+ */
+public class CachedResponse {
+
+    private final String contentType;
+    private final String eTag;
+    private final byte[] body;
+    private final byte[] gzippedBody;
+
+    public CachedResponse(String contentType, String eTag, byte[] body, byte[] gzippedBody) {
+        this.contentType = contentType;
+        this.eTag = eTag;
+        this.body = body;
+        this.gzippedBody = gzippedBody;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * @return the gzip compressed body, or {@code null} if the body was not compressed
+     */
+    public byte[] getGzippedBody() {
+        return gzippedBody;
+    }
+}
@@ -0,0 +1,188 @@
+package de.thbingen.epro.cache;
+
+import de.thbingen.epro.config.ResponseCacheConfig;
+import de.thbingen.epro.notification.OkrChangeEvent;
+import de.thbingen.epro.notification.OkrResyncEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the serialized responses of the endpoints listed in {@link CacheRegion}, so they are rendered only once after
+ * every change instead of on every request.
+ * <p>
+ * The services evict the regions, whose representations they change, right after every write. Because the
+ * key results change the achievements of their objectives through the triggers of the database, every
+ * {@link OkrChangeEvent} evicts the region of the objectives of the changed key result and the dashboard as well,
+ * which also covers the key results written by other nodes. Only an {@link OkrResyncEvent}, after which notifications
+ * may have been missed, evicts all regions.
+ * Every region counts its evictions, and a response is only stored if no eviction happened while it was rendered, so
+ * a response built from data, which was read before a write, never outlives that write.
+ */
+@Component
+public class ResponseCache {
+
+    private final ResponseCacheConfig responseCacheConfig;
+    private final Map<CacheRegion, Region> regions = new EnumMap<>(CacheRegion.class);
+
+    /**
+     * Default constructor to be used for Constructor Injection
+     *
+     * @param responseCacheConfig The configuration of the size and compression of the cache
+     */
+    public ResponseCache(ResponseCacheConfig responseCacheConfig) {
+        this.responseCacheConfig = responseCacheConfig;
+        for (CacheRegion cacheRegion : CacheRegion.values()) {
+            regions.put(cacheRegion, new Region(responseCacheConfig.getMaxEntries()));
+        }
+    }
+
+    /**
+     * @return true if responses are cached at all
+     */
+    public boolean isEnabled() {
+        return responseCacheConfig.isEnabled();
+    }
+
+    /**
+     * Returns the response stored for the given {@code key}
+     *
+     * @param cacheRegion the region of the requested endpoint
+     * @param key         the key built from the request
+     * @return the stored response or {@code null}, if there is none
+     */
+    public CachedResponse get(CacheRegion cacheRegion, String key) {
+        return regions.get(cacheRegion).get(key);
+    }
+
+    /**
+     * Returns the current generation of the given region, which has to be read before the response is rendered and
+     * passed to {@link #put(CacheRegion, String, long, String, String, byte[])} afterwards
+     *
+     * @param cacheRegion the region of the requested endpoint
+     * @return the number of evictions of the region so far
+     */
+    public long getGeneration(CacheRegion cacheRegion) {
+        return regions.get(cacheRegion).getGeneration();
+    }
+
+    /**
+     * Stores the given response, unless the region was evicted since {@code generation} was read
+     *
+     * @param cacheRegion the region of the requested endpoint
+     * @param key         the key built from the request
+     * @param generation  the generation of the region, which was read before the response was rendered
+     * @param contentType the content type of the response
+     * @param eTag        the ETag of the response, may be null
+     * @param body        the serialized body of the response
+     */
+    public void put(CacheRegion cacheRegion, String key, long generation, String contentType, String eTag, byte[] body) {
+        byte[] gzippedBody = null;
+        if (responseCacheConfig.isGzip() && body.length >= responseCacheConfig.getGzipMinSize()) {
+            gzippedBody = gzip(body);
+        }
+        regions.get(cacheRegion).put(key, generation, new CachedResponse(contentType, eTag, body, gzippedBody));
+    }
+
+    /**
+     * Removes all responses of the given regions
+     *
+     * @param cacheRegions the regions, whose representations were changed by a write
+     */
+    public void evict(CacheRegion... cacheRegions) {
+        for (CacheRegion cacheRegion : cacheRegions) {
+            regions.get(cacheRegion).clear();
+        }
+    }
+
+    /**
+     * Removes all responses of all regions
+     */
+    public void evictAll() {
+        evict(CacheRegion.values());
+    }
+
+    /**
+     * Removes the responses, which render the objective of the changed key result, because its achievement may have
+     * changed
+     *
+     * @param okrChangeEvent the change of a key result
+     */
+    @EventListener
+    public void onOkrChange(OkrChangeEvent okrChangeEvent) {
+        switch (okrChangeEvent.getEntity()) {
+            case COMPANY_KEY_RESULT:
+                if (okrChangeEvent.getOperation() == OkrChangeEvent.Operation.DELETE) {
+                    // the business unit objectives referencing the deleted key result lose that reference
+                    evict(CacheRegion.COMPANY_OBJECTIVES, CacheRegion.BUSINESS_UNIT_OBJECTIVES, CacheRegion.DASHBOARD);
+                } else {
+                    evict(CacheRegion.COMPANY_OBJECTIVES, CacheRegion.DASHBOARD);
+                }
+                break;
+            case BUSINESS_UNIT_KEY_RESULT:
+                evict(CacheRegion.BUSINESS_UNIT_OBJECTIVES, CacheRegion.DASHBOARD);
+                break;
+        }
+    }
+
+    /**
+     * Removes all responses, because changes may have been missed while the change notifications were not received
+     *
+     * @param okrResyncEvent the (re)connect of the change notifications
+     */
+    @EventListener
+    public void onOkrResync(OkrResyncEvent okrResyncEvent) {
+        evictAll();
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(compressed)) {
+            gzipOutputStream.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static class Region {
+
+        private final Map<String, CachedResponse> entries;
+        private long generation;
+
+        Region(int maxEntries) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+
+        synchronized CachedResponse get(String key) {
+            return entries.get(key);
+        }
+
+        synchronized long getGeneration() {
+            return generation;
+        }
+
+        synchronized void put(String key, long generation, CachedResponse cachedResponse) {
+            if (this.generation == generation) {
+                entries.put(key, cachedResponse);
+            }
+        }
+
+        synchronized void clear() {
+            generation++;
+            entries.clear();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package de.thbingen.epro.cache;
+
+import de.thbingen.epro.security.AuthenticatedUser;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Answers the requests of the endpoints listed in {@link CacheRegion} from the {@link ResponseCache}, without invoking
+ * the controller, and stores the responses rendered by the controller otherwise.
+ * <p>
+ * The filter is registered with the default order, so it runs after the filter chain of Spring Security and the
+ * current user is already authenticated. The cached endpoints all require the same authority, which is part of the
+ * key, so a response is only ever served to users, for whom the controller would have rendered the same response.
+ * The current date is part of the key as well, because the endpoints fall back to the current year, if no dates are
+ * given.
+ */
+@Component
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final Pattern BUSINESS_UNIT_OBJECTIVES_PATH = Pattern.compile("/businessUnits/[^/]+/objectives");
+    // honored by the links of the responses, if the server is configured to trust them
+    private static final List<String> FORWARDED_HEADERS = List.of(
+            "Forwarded", "X-Forwarded-Proto", "X-Forwarded-Host", "X-Forwarded-Port", "X-Forwarded-Prefix"
+    );
+
+    private final ResponseCache responseCache;
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    /**
+     * Default constructor to be used for Constructor Injection
+     *
+     * @param responseCache The cache, in which the responses are stored
+     */
+    public ResponseCacheFilter(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !responseCache.isEnabled()
+                || !HttpMethod.GET.matches(request.getMethod())
+                || cacheRegionOf(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        CacheRegion cacheRegion = cacheRegionOf(request);
+        String key = keyOf(request);
+
+        CachedResponse cachedResponse = responseCache.get(cacheRegion, key);
+        if (cachedResponse != null) {
+            write(request, response, cachedResponse);
+            return;
+        }
+
+        long generation = responseCache.getGeneration(cacheRegion);
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, responseWrapper);
+        if (responseWrapper.getStatus() == HttpServletResponse.SC_OK && !request.isAsyncStarted()) {
+            responseCache.put(
+                    cacheRegion,
+                    key,
+                    generation,
+                    responseWrapper.getContentType(),
+                    responseWrapper.getHeader(HttpHeaders.ETAG),
+                    responseWrapper.getContentAsByteArray()
+            );
+        }
+        responseWrapper.copyBodyToResponse();
+    }
+
+    /**
+     * Returns the region of the endpoint, which is requested by the given request
+     *
+     * @param request the current request
+     * @return the {@link CacheRegion} or {@code null}, if the endpoint is not cached
+     */
+    CacheRegion cacheRegionOf(HttpServletRequest request) {
+        String path = urlPathHelper.getPathWithinApplication(request);
+        switch (path) {
+            case "/dashboard":
+                return CacheRegion.DASHBOARD;
+            case "/companyObjectives":
+                return CacheRegion.COMPANY_OBJECTIVES;
+            case "/businessUnitObjectives":
+                return CacheRegion.BUSINESS_UNIT_OBJECTIVES;
+            default:
+                return BUSINESS_UNIT_OBJECTIVES_PATH.matcher(path).matches() ? CacheRegion.BUSINESS_UNIT_OBJECTIVES : null;
+        }
+    }
+
+    /**
+     * Builds the key of the given request from the base URI and the forwarded headers, the path, the parameters in a
+     * defined order, the accepted media types, the authorities of the current user and the current date. The links in
+     * the cached bodies are absolute, so a response rendered for one host or proxy must not be served to another.
+     *
+     * @param request the current request
+     * @return the key, under which the response to the request is stored
+     */
+    String keyOf(HttpServletRequest request) {
+        StringJoiner key = new StringJoiner("|");
+        key.add(ServletUriComponentsBuilder.fromContextPath(request).toUriString());
+        for (String forwardedHeader : FORWARDED_HEADERS) {
+            key.add(String.valueOf(request.getHeader(forwardedHeader)));
+        }
+        key.add(urlPathHelper.getPathWithinApplication(request));
+        new TreeMap<>(request.getParameterMap()).forEach((name, values) -> key.add(name + "=" + String.join(",", values)));
+        key.add(String.valueOf(request.getHeader(HttpHeaders.ACCEPT)));
+        key.add(authoritiesOfCurrentUser());
+        key.add(LocalDate.now().toString());
+        return key.toString();
+    }
+
+    private void write(HttpServletRequest request, HttpServletResponse response, CachedResponse cachedResponse) throws IOException {
+        if (cachedResponse.getETag() != null && new ServletWebRequest(request, response).checkNotModified(cachedResponse.getETag())) {
+            return;
+        }
+
+        byte[] body = cachedResponse.getBody();
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (cachedResponse.getGzippedBody() != null && acceptsGzip(request)) {
+            body = cachedResponse.getGzippedBody();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(cachedResponse.getContentType());
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && Arrays.stream(acceptEncoding.split(","))
+                .map(String::trim)
+                .anyMatch(encoding -> encoding.startsWith("gzip") && !encoding.endsWith(";q=0"));
+    }
+
+    private String authoritiesOfCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return "";
+        }
+        if (authentication.getPrincipal() instanceof AuthenticatedUser authenticatedUser) {
+            return authenticatedUser.getPrivileges().getKey();
+        }
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * This Package contains the cache for the serialized responses of the most frequently read endpoints and the filter,
+ * which answers requests from it without invoking the controllers
+ */
+package de.thbingen.epro.cache;
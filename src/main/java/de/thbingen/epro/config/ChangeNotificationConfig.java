@@ -0,0 +1,46 @@
+package de.thbingen.epro.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "change-notification")
+public class ChangeNotificationConfig {
+
+    /**
+     * Whether the change notifications of the database are received at all
+     */
+    private boolean enabled = true;
+    /**
+     * Time in milliseconds the listener waits for new notifications before checking whether it has been stopped
+     */
+    private Integer pollTimeout = 10000;
+    /**
+     * Time in milliseconds the listener waits before reconnecting after the connection to the database was lost
+     */
+    private Long reconnectDelay = 5000L;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Integer getPollTimeout() {
+        return pollTimeout;
+    }
+
+    public void setPollTimeout(Integer pollTimeout) {
+        this.pollTimeout = pollTimeout;
+    }
+
+    public Long getReconnectDelay() {
+        return reconnectDelay;
+    }
+
+    public void setReconnectDelay(Long reconnectDelay) {
+        this.reconnectDelay = reconnectDelay;
+    }
+}
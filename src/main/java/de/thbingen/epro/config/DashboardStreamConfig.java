@@ -0,0 +1,72 @@
+package de.thbingen.epro.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "dashboard.stream")
+public class DashboardStreamConfig {
+
+    /**
+     * Time in milliseconds after which a subscription of the dashboard stream is closed and the client has to reconnect
+     */
+    private Long timeout = 1800000L;
+    /**
+     * Interval in milliseconds in which an empty comment is sent to every subscriber to detect closed connections
+     */
+    private Long heartbeatInterval = 15000L;
+    /**
+     * Maximum number of events waiting to be sent to a single subscriber. A subscriber, which does not keep up, is
+     * closed and has to reconnect
+     */
+    private Integer queueCapacity = 64;
+    /**
+     * Number of threads sending the queued events to the subscribers
+     */
+    private Integer senderThreads = 8;
+    /**
+     * Time in milliseconds, within which a single event has to be sent to a subscriber. A subscriber, whose send takes
+     * longer, is closed, so a stalled client does not hold a sender thread
+     */
+    private Long writeTimeout = 10000L;
+
+    public Long getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Long timeout) {
+        this.timeout = timeout;
+    }
+
+    public Long getHeartbeatInterval() {
+        return heartbeatInterval;
+    }
+
+    public void setHeartbeatInterval(Long heartbeatInterval) {
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+    public Integer getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(Integer queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public Integer getSenderThreads() {
+        return senderThreads;
+    }
+
+    public void setSenderThreads(Integer senderThreads) {
+        this.senderThreads = senderThreads;
+    }
+
+    public Long getWriteTimeout() {
+        return writeTimeout;
+    }
+
+    public void setWriteTimeout(Long writeTimeout) {
+        this.writeTimeout = writeTimeout;
+    }
+}
@@ -0,0 +1,83 @@
+package de.thbingen.epro.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "history-compaction")
+public class HistoryCompactionConfig {
+
+    /**
+     * Whether the scheduled compaction of the key result history runs at all
+     */
+    private boolean enabled = true;
+    /**
+     * Cron expression of the compaction runs, by default every night
+     */
+    private String cron = "0 30 3 * * *";
+    /**
+     * Number of days, for which every history entry is kept
+     */
+    private Integer keepAllDays = 30;
+    /**
+     * Number of days, up to which the newest entry of every day is kept, rewritten to hold the values at the end of the
+     * day. Of older entries only the newest of every week is kept, holding the values at the end of the week
+     */
+    private Integer keepDailyDays = 365;
+    /**
+     * Maximum number of history entries rewritten or deleted in a single transaction
+     */
+    private Integer batchSize = 500;
+    /**
+     * Time in milliseconds to pause between two batches, which leaves the database to the requests
+     */
+    private Long batchDelay = 100L;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getCron() {
+        return cron;
+    }
+
+    public void setCron(String cron) {
+        this.cron = cron;
+    }
+
+    public Integer getKeepAllDays() {
+        return keepAllDays;
+    }
+
+    public void setKeepAllDays(Integer keepAllDays) {
+        this.keepAllDays = keepAllDays;
+    }
+
+    public Integer getKeepDailyDays() {
+        return keepDailyDays;
+    }
+
+    public void setKeepDailyDays(Integer keepDailyDays) {
+        this.keepDailyDays = keepDailyDays;
+    }
+
+    public Integer getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(Integer batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Long getBatchDelay() {
+        return batchDelay;
+    }
+
+    public void setBatchDelay(Long batchDelay) {
+        this.batchDelay = batchDelay;
+    }
+}
@@ -0,0 +1,73 @@
+package de.thbingen.epro.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "history-partitions")
+public class HistoryPartitionConfig {
+
+    /**
+     * Whether the monthly partitions of the key result history are maintained by the application
+     */
+    private boolean enabled = true;
+    /**
+     * Cron expression of the maintenance runs, by default every night
+     */
+    private String cron = "0 0 3 * * *";
+    /**
+     * Number of months after the current one, whose partitions are created ahead of time
+     */
+    private Integer monthsAhead = 2;
+    /**
+     * Number of months, after which a partition expires, counted from the end of its month. 0 keeps all partitions.
+     * The expiration ends the weekly entries kept by the compaction of the history after
+     * {@link HistoryCompactionConfig#getKeepDailyDays()} days, so it should be well beyond those
+     */
+    private Integer retainMonths = 36;
+    /**
+     * Whether expired partitions are dropped, or only detached and kept as standalone tables, e.g. to be archived. As
+     * dropping loses the weekly history for good, it has to be enabled explicitly
+     */
+    private boolean dropExpired = false;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getCron() {
+        return cron;
+    }
+
+    public void setCron(String cron) {
+        this.cron = cron;
+    }
+
+    public Integer getMonthsAhead() {
+        return monthsAhead;
+    }
+
+    public void setMonthsAhead(Integer monthsAhead) {
+        this.monthsAhead = monthsAhead;
+    }
+
+    public Integer getRetainMonths() {
+        return retainMonths;
+    }
+
+    public void setRetainMonths(Integer retainMonths) {
+        this.retainMonths = retainMonths;
+    }
+
+    public boolean isDropExpired() {
+        return dropExpired;
+    }
+
+    public void setDropExpired(boolean dropExpired) {
+        this.dropExpired = dropExpired;
+    }
+}
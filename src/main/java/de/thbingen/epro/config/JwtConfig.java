@@ -11,7 +11,20 @@ public class JwtConfig {
     private String issuer;
     private String type;
     private String audience;
+    /**
+     * Time in milliseconds an access token stays valid, clients holding a refresh token get a new one without the
+     * password
+     */
     private Long expiration;
+    /**
+     * Time in milliseconds a refresh token stays valid. Every refresh token can only be redeemed once
+     */
+    private Long refreshExpiration = 604800000L;
+    /**
+     * Whether new tokens carry the privileges, the id and the business unit of the user, so requests are authorized
+     * without loading the user. Tokens of the other kind stay valid until they expire
+     */
+    private boolean selfContained = false;
 
     public String getSecret() {
         return secret;
@@ -52,4 +65,20 @@ public class JwtConfig {
     public void setExpiration(Long expiration) {
         this.expiration = expiration;
     }
+
+    public Long getRefreshExpiration() {
+        return refreshExpiration;
+    }
+
+    public void setRefreshExpiration(Long refreshExpiration) {
+        this.refreshExpiration = refreshExpiration;
+    }
+
+    public boolean isSelfContained() {
+        return selfContained;
+    }
+
+    public void setSelfContained(boolean selfContained) {
+        this.selfContained = selfContained;
+    }
 }
@@ -0,0 +1,71 @@
+package de.thbingen.epro.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "login")
+public class LoginConfig {
+
+    /**
+     * Number of threads checking passwords, which bounds the CPU taken by logins regardless of the number of requests
+     */
+    private Integer threads = 2;
+    /**
+     * Maximum number of logins waiting for a thread, further logins are rejected with 429 - Too Many Requests
+     */
+    private Integer queueCapacity = 32;
+    /**
+     * Time in milliseconds a login waits for its result, before it is given up with 503 - Service Unavailable
+     */
+    private Long maxWait = 5000L;
+    /**
+     * Number of seconds sent in the Retry-After header of rejected logins
+     */
+    private Integer retryAfter = 1;
+    /**
+     * The log rounds of BCrypt used for new password hashes. Stored hashes with a different strength are rehashed on
+     * the next successful login
+     */
+    private Integer bcryptStrength = 10;
+
+    public Integer getThreads() {
+        return threads;
+    }
+
+    public void setThreads(Integer threads) {
+        this.threads = threads;
+    }
+
+    public Integer getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(Integer queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public Long getMaxWait() {
+        return maxWait;
+    }
+
+    public void setMaxWait(Long maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    public Integer getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(Integer retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+
+    public Integer getBcryptStrength() {
+        return bcryptStrength;
+    }
+
+    public void setBcryptStrength(Integer bcryptStrength) {
+        this.bcryptStrength = bcryptStrength;
+    }
+}
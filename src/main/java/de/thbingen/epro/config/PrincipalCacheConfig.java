@@ -0,0 +1,48 @@
+package de.thbingen.epro.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "principal-cache")
+public class PrincipalCacheConfig {
+
+    /**
+     * Whether the principals of authenticated users are kept between requests at all
+     */
+    private boolean enabled = true;
+    /**
+     * Maximum number of principals kept, the least recently used ones are dropped first. How long a principal is kept
+     * is bounded by {@code jwt.expiration}
+     */
+    private Integer maxEntries = 1024;
+    /**
+     * Time in milliseconds the token version of a user is trusted before it is read again. Changes made on this node
+     * take effect immediately, this only bounds how long changes made on other nodes go unnoticed
+     */
+    private Long tokenVersionMaxAge = 10000L;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Integer getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(Integer maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public Long getTokenVersionMaxAge() {
+        return tokenVersionMaxAge;
+    }
+
+    public void setTokenVersionMaxAge(Long tokenVersionMaxAge) {
+        this.tokenVersionMaxAge = tokenVersionMaxAge;
+    }
+}
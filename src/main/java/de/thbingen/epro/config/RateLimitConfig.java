@@ -0,0 +1,94 @@
+package de.thbingen.epro.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitConfig {
+
+    /**
+     * Whether requests exceeding their limit are rejected with 429 - Too Many Requests
+     */
+    private boolean enabled = true;
+    /**
+     * Maximum number of clients tracked per endpoint group, the buckets of idle clients are dropped first
+     */
+    private Integer maxBuckets = 10000;
+    /**
+     * Limit of /login and /refresh per IP address
+     */
+    private Limit login = new Limit(10, 0.2);
+    /**
+     * Limit of all requests changing data per user, or per IP address for requests without a user
+     */
+    private Limit write = new Limit(30, 5.0);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Integer getMaxBuckets() {
+        return maxBuckets;
+    }
+
+    public void setMaxBuckets(Integer maxBuckets) {
+        this.maxBuckets = maxBuckets;
+    }
+
+    public Limit getLogin() {
+        return login;
+    }
+
+    public void setLogin(Limit login) {
+        this.login = login;
+    }
+
+    public Limit getWrite() {
+        return write;
+    }
+
+    public void setWrite(Limit write) {
+        this.write = write;
+    }
+
+    public static class Limit {
+
+        /**
+         * Number of requests a client may send at once
+         */
+        private Integer capacity;
+        /**
+         * Number of requests per second, which are added to the allowance of a client, up to the capacity
+         */
+        private Double refillPerSecond;
+
+        public Limit() {
+        }
+
+        public Limit(Integer capacity, Double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+        }
+
+        public Integer getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(Integer capacity) {
+            this.capacity = capacity;
+        }
+
+        public Double getRefillPerSecond() {
+            return refillPerSecond;
+        }
+
+        public void setRefillPerSecond(Double refillPerSecond) {
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+}
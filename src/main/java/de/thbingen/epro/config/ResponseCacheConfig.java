@@ -0,0 +1,58 @@
+package de.thbingen.epro.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "response-cache")
+public class ResponseCacheConfig {
+
+    /**
+     * Whether the serialized responses of the cached endpoints are kept at all
+     */
+    private boolean enabled = true;
+    /**
+     * Maximum number of responses kept per cache region, the least recently used ones are dropped first
+     */
+    private Integer maxEntries = 256;
+    /**
+     * Whether a gzip compressed copy of every cached response is kept, which is sent to clients accepting gzip
+     */
+    private boolean gzip = true;
+    /**
+     * Size in bytes from which on a response is compressed, smaller responses are always sent uncompressed
+     */
+    private Integer gzipMinSize = 1024;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Integer getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(Integer maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    public void setGzip(boolean gzip) {
+        this.gzip = gzip;
+    }
+
+    public Integer getGzipMinSize() {
+        return gzipMinSize;
+    }
+
+    public void setGzipMinSize(Integer gzipMinSize) {
+        this.gzipMinSize = gzipMinSize;
+    }
+}
@@ -0,0 +1,34 @@
+package de.thbingen.epro.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "token-cache")
+public class TokenCacheConfig {
+
+    /**
+     * Whether the claims of verified tokens are kept, so the signature of a token is only checked on its first use
+     */
+    private boolean enabled = true;
+    /**
+     * Maximum number of verified tokens kept, the least recently used ones are dropped first
+     */
+    private Integer maxEntries = 4096;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Integer getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(Integer maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+}
@@ -0,0 +1,36 @@
+package de.thbingen.epro.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "token-revocation")
+public class TokenRevocationConfig {
+
+    /**
+     * Whether revoked tokens are also stored in the database, so they stay revoked after a restart and are seen by
+     * all application nodes
+     */
+    private boolean persistent = false;
+    /**
+     * Interval in milliseconds in which the revoked tokens, which have expired in the meantime, are dropped and the
+     * tokens revoked on other nodes are read from the database
+     */
+    private Long pruneInterval = 60000L;
+
+    public boolean isPersistent() {
+        return persistent;
+    }
+
+    public void setPersistent(boolean persistent) {
+        this.persistent = persistent;
+    }
+
+    public Long getPruneInterval() {
+        return pruneInterval;
+    }
+
+    public void setPruneInterval(Long pruneInterval) {
+        this.pruneInterval = pruneInterval;
+    }
+}
@@ -8,6 +8,8 @@ import de.thbingen.epro.model.dto.OkrUserPostDto;
 import de.thbingen.epro.model.entity.BusinessUnit;
 import de.thbingen.epro.model.entity.BusinessUnitObjective;
 import de.thbingen.epro.model.entity.OkrUser;
+import de.thbingen.epro.security.AccessRule;
+import de.thbingen.epro.security.Authorized;
 import de.thbingen.epro.service.BusinessUnitObjectiveService;
 import de.thbingen.epro.service.BusinessUnitService;
 import de.thbingen.epro.service.OkrUserService;
@@ -21,8 +23,8 @@ import org.springframework.hateoas.MediaTypes;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.persistence.EntityNotFoundException;
 import javax.validation.Valid;
@@ -60,11 +62,15 @@ public class BusinessUnitController {
      * Returns all Business Units of the requested Page
      *
      * @param pageable Allows requesting a certain page of a certain size with a certain sort
+     * @param webRequest the current request, used to answer conditional requests
      * @return The requested Page of Business Units
      */
     @GetMapping(produces = MediaTypes.HAL_JSON_VALUE)
-    @PreAuthorize("hasAuthority('read')")
-    public PagedModel<EntityModel<BusinessUnitDto>> findAll(@PageableDefault Pageable pageable) {
+    @Authorized(AccessRule.READ)
+    public PagedModel<EntityModel<BusinessUnitDto>> findAll(@PageableDefault Pageable pageable, WebRequest webRequest) {
+        if (ETags.checkNotModified(webRequest, businessUnitService.getVersionOfAll())) {
+            return null;
+        }
         return pagedResourcesAssembler.toModel(businessUnitService.findAll(pageable));
     }
 
@@ -74,11 +80,16 @@ public class BusinessUnitController {
      * Will throw an EntityNotFoundException if there is no BusinessUnit with the given id
      *
      * @param id the id of the requested BusinessUnit
+     * @param webRequest the current request, used to answer conditional requests
      * @return the requested BusinessUnit
      */
     @GetMapping(value = "/{id}", produces = MediaTypes.HAL_JSON_VALUE)
-    @PreAuthorize("hasAuthority('read')")
-    public BusinessUnitDto findById(@PathVariable Long id) {
+    @Authorized(AccessRule.READ)
+    public BusinessUnitDto findById(@PathVariable Long id, WebRequest webRequest) {
+        Optional<String> version = businessUnitService.getVersionById(id);
+        if (version.isPresent() && ETags.checkNotModified(webRequest, version.get())) {
+            return null;
+        }
         Optional<BusinessUnitDto> result = businessUnitService.findById(id);
         if (result.isPresent()) {
             return result.get();
@@ -94,7 +105,7 @@ public class BusinessUnitController {
      * @return the newly added BusinessUnit
      */
     @PostMapping(produces = MediaTypes.HAL_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
-    @PreAuthorize("hasAuthority('change_all_BU_OKRs')")
+    @Authorized(AccessRule.CHANGE_ALL_BU_OKRS)
     public ResponseEntity<BusinessUnitDto> addNew(@RequestBody @Valid BusinessUnitDto newBusinessUnit) {
         BusinessUnitDto businessUnitDto = businessUnitService.insertBusinessUnit(newBusinessUnit);
         return ResponseEntity
@@ -112,7 +123,7 @@ public class BusinessUnitController {
      * @return the newly updated BusinessUnit
      */
     @PutMapping(value = "/{id}", produces = MediaTypes.HAL_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
-    @PreAuthorize("hasAuthority('change_all_BU_OKRs') or (hasAuthority('change_own_BU_OKRs') and @customExpressions.belongsToBusinessUnit(#id, principal.username))")
+    @Authorized(AccessRule.CHANGE_BUSINESS_UNIT)
     public ResponseEntity<BusinessUnitDto> updateById(@PathVariable Long id, @RequestBody @Valid BusinessUnitDto businessUnitDto) {
         if (!businessUnitService.existsById(id)) {
             throw new EntityNotFoundException("No BusinessUnit with this id exists");
@@ -130,7 +141,7 @@ public class BusinessUnitController {
      * @return an empty Response with the noContent Status Code
      */
     @DeleteMapping("/{id}")
-    @PreAuthorize("hasAuthority('change_all_BU_OKRs')")
+    @Authorized(AccessRule.CHANGE_ALL_BU_OKRS)
     public ResponseEntity<Void> deleteById(@PathVariable Long id) {
         if (!businessUnitService.existsById(id)) {
             throw new EntityNotFoundException("No BusinessUnit with this id exists");
@@ -155,7 +166,7 @@ public class BusinessUnitController {
             value = "/{id}/objectives",
             produces = MediaTypes.HAL_JSON_VALUE
     )
-    @PreAuthorize("hasAuthority('read')")
+    @Authorized(AccessRule.READ)
     public PagedModel<EntityModel<BusinessUnitObjectiveDto>> getAllBusinessUnitObjectives(
             @PageableDefault Pageable pageable,
             @PathVariable Long id,
@@ -189,7 +200,7 @@ public class BusinessUnitController {
             produces = MediaTypes.HAL_JSON_VALUE,
             consumes = MediaType.APPLICATION_JSON_VALUE
     )
-    @PreAuthorize("hasAuthority('change_all_BU_OKRs') or (hasAuthority('change_own_BU_OKRs') and @customExpressions.belongsToBusinessUnit(#id, principal.username))")
+    @Authorized(AccessRule.CHANGE_BUSINESS_UNIT)
     public ResponseEntity<BusinessUnitObjectiveDto> addNewBusinessUnitObjective(
             @PathVariable Long id,
             @RequestBody @Valid BusinessUnitObjectiveDto newBusinessUnitObjectiveDto
@@ -218,7 +229,7 @@ public class BusinessUnitController {
             value = "/{id}/users",
             produces = MediaTypes.HAL_JSON_VALUE
     )
-    @PreAuthorize("hasAuthority('view_users')")
+    @Authorized(AccessRule.VIEW_USERS)
     public PagedModel<EntityModel<OkrUserDto>> getAllOkrUsers(@PageableDefault Pageable pageable, @PathVariable Long id) {
         if (!businessUnitService.existsById(id)) {
             throw new EntityNotFoundException("No BusinessUnit with this id exists");
@@ -238,7 +249,7 @@ public class BusinessUnitController {
             consumes = MediaType.APPLICATION_JSON_VALUE,
             produces = MediaTypes.HAL_JSON_VALUE
     )
-    @PreAuthorize("hasAuthority('add_users')")
+    @Authorized(AccessRule.ADD_USERS)
     public ResponseEntity<OkrUserDto> addNewUser(@PathVariable Long id, @RequestBody @Valid OkrUserPostDto newOkrUserDto) {
         if (businessUnitService.existsById(id)) {
             OkrUserDto okrUserDto = okrUserService.insertOkrUserByBusinessUnitId(newOkrUserDto, id);
@@ -1,28 +1,42 @@
 package de.thbingen.epro.controller;
 
+import de.thbingen.epro.exception.InvalidDateRangeException;
 import de.thbingen.epro.model.dto.BusinessUnitKeyResultDto;
 import de.thbingen.epro.model.dto.BusinessUnitKeyResultHistoryDto;
 import de.thbingen.epro.model.dto.BusinessUnitKeyResultUpdateDto;
+import de.thbingen.epro.model.dto.HistoryBucket;
+import de.thbingen.epro.model.dto.KeyResultHistoryBucketDto;
+import de.thbingen.epro.model.dto.KeyResultHistoryPointDto;
 import de.thbingen.epro.model.entity.BusinessUnitKeyResult;
 import de.thbingen.epro.model.entity.CompanyKeyResult;
+import de.thbingen.epro.pagination.KeysetCursor;
+import de.thbingen.epro.pagination.KeysetPage;
+import de.thbingen.epro.pagination.KeysetPagedModel;
+import de.thbingen.epro.security.AccessRule;
+import de.thbingen.epro.security.Authorized;
 import de.thbingen.epro.service.BusinessUnitKeyResultHistoryService;
 import de.thbingen.epro.service.BusinessUnitKeyResultService;
 import de.thbingen.epro.service.CompanyKeyResultService;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.MediaTypes;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.persistence.EntityNotFoundException;
 import javax.validation.Valid;
+import java.time.OffsetDateTime;
 import java.util.Optional;
 
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
 /**
  * This controller is responsible for the /businessUnitKeyResults endpoint
  */
@@ -33,14 +47,12 @@ public class BusinessUnitKeyResultController {
     private final BusinessUnitKeyResultService businessUnitKeyResultService;
     private final BusinessUnitKeyResultHistoryService businessUnitKeyResultHistoryService;
     private final PagedResourcesAssembler<BusinessUnitKeyResultDto> pagedResourcesAssembler;
-    private final PagedResourcesAssembler<BusinessUnitKeyResultHistoryDto> businessUnitKeyResultHistoryDtoPagedResourcesAssembler;
     private final CompanyKeyResultService companyKeyResultService;
 
-    public BusinessUnitKeyResultController(BusinessUnitKeyResultService businessUnitKeyResultService, BusinessUnitKeyResultHistoryService businessUnitKeyResultHistoryService, PagedResourcesAssembler<BusinessUnitKeyResultDto> pagedResourcesAssembler, PagedResourcesAssembler<BusinessUnitKeyResultHistoryDto> businessUnitKeyResultHistoryDtoPagedResourcesAssembler, CompanyKeyResultService companyKeyResultService) {
+    public BusinessUnitKeyResultController(BusinessUnitKeyResultService businessUnitKeyResultService, BusinessUnitKeyResultHistoryService businessUnitKeyResultHistoryService, PagedResourcesAssembler<BusinessUnitKeyResultDto> pagedResourcesAssembler, CompanyKeyResultService companyKeyResultService) {
         this.businessUnitKeyResultService = businessUnitKeyResultService;
         this.businessUnitKeyResultHistoryService = businessUnitKeyResultHistoryService;
         this.pagedResourcesAssembler = pagedResourcesAssembler;
-        this.businessUnitKeyResultHistoryDtoPagedResourcesAssembler = businessUnitKeyResultHistoryDtoPagedResourcesAssembler;
         this.companyKeyResultService = companyKeyResultService;
     }
 
@@ -48,11 +60,15 @@ public class BusinessUnitKeyResultController {
      * Returns all {@link de.thbingen.epro.model.entity.BusinessUnitKeyResult}s of the requested Page
      *
      * @param pageable the parameters, which determine which page to return
+     * @param webRequest the current request, used to answer conditional requests
      * @return The requested Page of BusinessUnitKeyResults
      */
     @GetMapping(produces = MediaTypes.HAL_JSON_VALUE)
-    @PreAuthorize("hasAuthority('read')")
-    public PagedModel<EntityModel<BusinessUnitKeyResultDto>> findAll(@PageableDefault Pageable pageable) {
+    @Authorized(AccessRule.READ)
+    public PagedModel<EntityModel<BusinessUnitKeyResultDto>> findAll(@PageableDefault Pageable pageable, WebRequest webRequest) {
+        if (ETags.checkNotModified(webRequest, businessUnitKeyResultService.getVersionOfAll())) {
+            return null;
+        }
         return pagedResourcesAssembler.toModel(businessUnitKeyResultService.findAllBusinessUnitKeyResults(pageable));
     }
 
@@ -60,14 +76,19 @@ public class BusinessUnitKeyResultController {
      * Returns the {@link BusinessUnitKeyResult} with the given id
      *
      * @param id of the BusinessUnitKeyResult which should be returned
+     * @param webRequest the current request, used to answer conditional requests
      * @return the BusinessUnitKeyResult with the given id
      */
     @GetMapping(
             value = "/{id}",
             produces = MediaTypes.HAL_JSON_VALUE
     )
-    @PreAuthorize("hasAuthority('read')")
-    public BusinessUnitKeyResultDto findById(@PathVariable Long id) {
+    @Authorized(AccessRule.READ)
+    public BusinessUnitKeyResultDto findById(@PathVariable Long id, WebRequest webRequest) {
+        Optional<String> version = businessUnitKeyResultService.getVersionById(id);
+        if (version.isPresent() && ETags.checkNotModified(webRequest, version.get())) {
+            return null;
+        }
         Optional<BusinessUnitKeyResultDto> result = businessUnitKeyResultService.findById(id);
         if (result.isPresent()) {
             return result.get();
@@ -87,7 +108,7 @@ public class BusinessUnitKeyResultController {
             produces = MediaTypes.HAL_JSON_VALUE,
             consumes = MediaType.APPLICATION_JSON_VALUE
     )
-    @PreAuthorize("hasAuthority('change_all_BU_OKRs') or hasAuthority('change_own_BU_OKRs') and @customExpressions.buKeyResultBelongsToSameBuAsUser(#id, principal.username)")
+    @Authorized(AccessRule.CHANGE_BUSINESS_UNIT_KEY_RESULT)
     public ResponseEntity<BusinessUnitKeyResultDto> updateById(
             @PathVariable Long id,
             @RequestBody @Valid BusinessUnitKeyResultUpdateDto businessUnitKeyResultDto
@@ -105,7 +126,7 @@ public class BusinessUnitKeyResultController {
      * @return NoContent
      */
     @DeleteMapping("/{id}")
-    @PreAuthorize("hasAuthority('change_all_BU_OKRs') or hasAuthority('change_own_BU_OKRs') and @customExpressions.buKeyResultBelongsToSameBuAsUser(#id, principal.username)")
+    @Authorized(AccessRule.CHANGE_BUSINESS_UNIT_KEY_RESULT)
     public ResponseEntity<Void> deleteById(@PathVariable Long id) {
         if (!businessUnitKeyResultService.existsById(id)) {
             throw new EntityNotFoundException("No BusinessUnitKeyResult with this id exists");
@@ -115,24 +136,105 @@ public class BusinessUnitKeyResultController {
     }
 
     /**
-     * Returns the complete history belonging to the {@link BusinessUnitKeyResult} with the given id
+     * Returns the history belonging to the {@link BusinessUnitKeyResult} with the given id, from the newest to the
+     * oldest entry. The pages are linked by cursors, which are part of the {@code next} and {@code prev} links.
      *
-     * @param pageable the parameters, determining which page to return
-     * @param id       the id of the BusinessUnitKeyResult of which the history should be returned
-     * @return the complete history
+     * @param id         the id of the BusinessUnitKeyResult of which the history should be returned
+     * @param cursor     the cursor taken from a link of the previous response, none for the first page
+     * @param size       the maximum number of entries in the page
+     * @param count      whether the total number of entries should be returned as well
+     * @param webRequest the current request, used to answer conditional requests
+     * @return the requested page of the history
      */
     @GetMapping(value = "/{id}/history", produces = MediaTypes.HAL_JSON_VALUE)
-    @PreAuthorize("hasAuthority('read')")
-    public PagedModel<EntityModel<BusinessUnitKeyResultHistoryDto>> getHistory(
-            @PageableDefault Pageable pageable,
-            @PathVariable Long id
+    @Authorized(AccessRule.READ)
+    public KeysetPagedModel<BusinessUnitKeyResultHistoryDto> getHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(defaultValue = "false") Boolean count,
+            WebRequest webRequest
     ) {
         if (!businessUnitKeyResultService.existsById(id)) {
             throw new EntityNotFoundException("No BusinessUnitKeyResult with this id exists");
         }
-        return businessUnitKeyResultHistoryDtoPagedResourcesAssembler.toModel(
-                businessUnitKeyResultHistoryService.findAllByBusinessUnitKeyResultId(id, pageable)
+        if (ETags.checkNotModified(webRequest, businessUnitKeyResultHistoryService.getVersionOfAll())) {
+            return null;
+        }
+        KeysetPage<BusinessUnitKeyResultHistoryDto> page = businessUnitKeyResultHistoryService.findAllByBusinessUnitKeyResultId(
+                id, KeysetCursor.decode(cursor), KeysetLinks.limitSize(size), count
         );
+        return KeysetLinks.toModel(page, cursor,
+                pageCursor -> methodOn(BusinessUnitKeyResultController.class).getHistory(id, pageCursor, size, count, null));
+    }
+
+    /**
+     * Returns the values, which the {@link BusinessUnitKeyResult} with the given id had before each of its changes in
+     * the given time range, from the oldest to the newest change. Each value links to the full snapshot of the history
+     * entry.
+     *
+     * @param id         the id of the BusinessUnitKeyResult of which the values should be returned
+     * @param from       the start of the time range, inclusive, defaults to 30 days before its end
+     * @param to         the end of the time range, exclusive, defaults to now
+     * @param webRequest the current request, used to answer conditional requests
+     * @return the values in the time range
+     */
+    @GetMapping(value = "/{id}/history/points", produces = MediaTypes.HAL_JSON_VALUE)
+    @Authorized(AccessRule.READ)
+    public CollectionModel<KeyResultHistoryPointDto> getHistoryPoints(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Optional<OffsetDateTime> from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Optional<OffsetDateTime> to,
+            WebRequest webRequest
+    ) {
+        OffsetDateTime end = to.orElse(OffsetDateTime.now());
+        OffsetDateTime start = from.orElse(end.minusDays(30));
+        if (!start.isBefore(end)) {
+            throw new InvalidDateRangeException();
+        }
+        if (!businessUnitKeyResultService.existsById(id)) {
+            throw new EntityNotFoundException("No BusinessUnitKeyResult with this id exists");
+        }
+        if (ETags.checkNotModified(webRequest, businessUnitKeyResultHistoryService.getVersionOfAll())) {
+            return null;
+        }
+        return CollectionModel.of(businessUnitKeyResultHistoryService.findPointsByBusinessUnitKeyResultId(id, start, end));
+    }
+
+    /**
+     * Returns the values, which the {@link BusinessUnitKeyResult} with the given id had after its changes in the given
+     * time range, aggregated into buckets of an hour, a day or a week. Each bucket holds the last, minimum, maximum and
+     * average value and confidence level, only buckets with at least one change are returned.
+     *
+     * @param id         the id of the BusinessUnitKeyResult of which the values should be returned
+     * @param from       the start of the time range, inclusive, defaults to 30 days before its end
+     * @param to         the end of the time range, exclusive, defaults to now
+     * @param bucket     the size of the buckets, one of hour, day or week
+     * @param webRequest the current request, used to answer conditional requests
+     * @return the buckets in the time range, from the oldest to the newest
+     */
+    @GetMapping(value = "/{id}/history/series", produces = MediaTypes.HAL_JSON_VALUE)
+    @Authorized(AccessRule.READ)
+    public CollectionModel<KeyResultHistoryBucketDto> getHistorySeries(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Optional<OffsetDateTime> from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Optional<OffsetDateTime> to,
+            @RequestParam(defaultValue = "day") String bucket,
+            WebRequest webRequest
+    ) {
+        HistoryBucket historyBucket = HistoryBucket.of(bucket);
+        OffsetDateTime end = to.orElse(OffsetDateTime.now());
+        OffsetDateTime start = from.orElse(end.minusDays(30));
+        if (!start.isBefore(end)) {
+            throw new InvalidDateRangeException();
+        }
+        if (!businessUnitKeyResultService.existsById(id)) {
+            throw new EntityNotFoundException("No BusinessUnitKeyResult with this id exists");
+        }
+        if (ETags.checkNotModified(webRequest, businessUnitKeyResultHistoryService.getVersionOfAll())) {
+            return null;
+        }
+        return CollectionModel.of(businessUnitKeyResultHistoryService.findSeriesByBusinessUnitKeyResultId(id, start, end, historyBucket));
     }
 
     /**
@@ -145,7 +247,7 @@ public class BusinessUnitKeyResultController {
             value = "/{businessUnitKeyResultId}/companyKeyResultReference/{companyKeyResultId}",
             method = {RequestMethod.PUT, RequestMethod.POST}
     )
-    @PreAuthorize("hasAuthority('change_all_BU_OKRs') or hasAuthority('change_own_BU_OKRs') and @customExpressions.buKeyResultBelongsToSameBuAsUser(#businessUnitKeyResultId, principal.username)")
+    @Authorized(value = AccessRule.CHANGE_BUSINESS_UNIT_KEY_RESULT, id = "businessUnitKeyResultId")
     public ResponseEntity<Void> referenceCompanyKeyResult(
             @PathVariable Long businessUnitKeyResultId,
             @PathVariable Long companyKeyResultId
@@ -169,7 +271,7 @@ public class BusinessUnitKeyResultController {
      * @return No Content
      */
     @DeleteMapping("/{businessUnitKeyResultId}/companyKeyResultReference")
-    @PreAuthorize("hasAuthority('change_all_BU_OKRs') or hasAuthority('change_own_BU_OKRs') and @customExpressions.buKeyResultBelongsToSameBuAsUser(#businessUnitKeyResultId, principal.username)")
+    @Authorized(value = AccessRule.CHANGE_BUSINESS_UNIT_KEY_RESULT, id = "businessUnitKeyResultId")
     public ResponseEntity<Void> deleteCompanyKeyResultReference(
             @PathVariable Long businessUnitKeyResultId
     ) {
@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.persistence.EntityNotFoundException;
 import java.util.Optional;
@@ -34,23 +35,32 @@ public class BusinessUnitKeyResultHistoryController {
     /**
      * Returns all {@link de.thbingen.epro.model.entity.BusinessUnitKeyResultHistory} Items
      * @param pageable The parameters determining which page to return
+     * @param webRequest the current request, used to answer conditional requests
      * @return the requested page of historical BusinessUnitKeyResults
      */
     @GetMapping(produces = MediaTypes.HAL_JSON_VALUE)
-    public PagedModel<EntityModel<BusinessUnitKeyResultHistoryDto>> getAll(@PageableDefault Pageable pageable) {
+    public PagedModel<EntityModel<BusinessUnitKeyResultHistoryDto>> getAll(@PageableDefault Pageable pageable, WebRequest webRequest) {
+        if (ETags.checkNotModified(webRequest, businessUnitKeyResultHistoryService.getVersionOfAll())) {
+            return null;
+        }
         return pagedResourcesAssembler.toModel(businessUnitKeyResultHistoryService.findAll(pageable));
     }
 
     /**
      * Returns the {@link de.thbingen.epro.model.entity.BusinessUnitKeyResultHistory} Item with the given id
      * @param id of the BusinessUnitKeyResultHistory Item to be returned
+     * @param webRequest the current request, used to answer conditional requests
      * @return the requested historical BusinessUnitKeyResult
      */
     @GetMapping(
             value = "/{id}",
             produces = MediaTypes.HAL_JSON_VALUE
     )
-    public BusinessUnitKeyResultHistoryDto getById(@PathVariable Long id) {
+    public BusinessUnitKeyResultHistoryDto getById(@PathVariable Long id, WebRequest webRequest) {
+        Optional<String> version = businessUnitKeyResultHistoryService.getVersionById(id);
+        if (version.isPresent() && ETags.checkNotModified(webRequest, version.get())) {
+            return null;
+        }
         Optional<BusinessUnitKeyResultHistoryDto> result = businessUnitKeyResultHistoryService.findById(id);
         if (result.isPresent())
             return result.get();
@@ -5,6 +5,8 @@ import de.thbingen.epro.model.dto.BusinessUnitKeyResultDto;
 import de.thbingen.epro.model.dto.BusinessUnitKeyResultPostDto;
 import de.thbingen.epro.model.dto.BusinessUnitObjectiveDto;
 import de.thbingen.epro.model.entity.BusinessUnitObjective;
+import de.thbingen.epro.security.AccessRule;
+import de.thbingen.epro.security.Authorized;
 import de.thbingen.epro.service.BusinessUnitKeyResultService;
 import de.thbingen.epro.service.BusinessUnitObjectiveService;
 import de.thbingen.epro.service.CompanyKeyResultService;
@@ -18,8 +20,8 @@ import org.springframework.hateoas.MediaTypes;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.persistence.EntityNotFoundException;
 import javax.validation.Valid;
@@ -54,23 +56,28 @@ public class BusinessUnitObjectiveController {
      * Returns all {@link de.thbingen.epro.model.entity.BusinessUnitObjective}s of the requested Page, that have a
      * start Date that starts after the given start date and an end date that ends after the given end date
      *
-     * @param pageable the parameters determining which page to return
-     * @param start    the start date after which {@link de.thbingen.epro.model.entity.BusinessUnitObjective}s must start to be returned
-     * @param end      the end date before which {@link de.thbingen.epro.model.entity.BusinessUnitObjective}s must end to be returned
+     * @param pageable   the parameters determining which page to return
+     * @param start      the start date after which {@link de.thbingen.epro.model.entity.BusinessUnitObjective}s must start to be returned
+     * @param end        the end date before which {@link de.thbingen.epro.model.entity.BusinessUnitObjective}s must end to be returned
+     * @param webRequest the current request, used to answer conditional requests
      * @return the requested {@link de.thbingen.epro.model.entity.BusinessUnitObjective}s
      */
     @GetMapping(produces = MediaTypes.HAL_JSON_VALUE)
-    @PreAuthorize("hasAuthority('read')")
+    @Authorized(AccessRule.READ)
     public PagedModel<EntityModel<BusinessUnitObjectiveDto>> findAll(
             @PageableDefault Pageable pageable,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Optional<LocalDate> start,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Optional<LocalDate> end
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Optional<LocalDate> end,
+            WebRequest webRequest
     ) {
         LocalDate startDate = start.orElse(LocalDate.now().with(firstDayOfYear()));
         LocalDate endDate = end.orElse(LocalDate.now().with(lastDayOfYear()));
         if (startDate.isAfter(endDate)) {
             throw new InvalidDateRangeException();
         }
+        if (ETags.checkNotModified(webRequest, businessUnitObjectiveService.getVersionOfAll())) {
+            return null;
+        }
         return pagedResourcesAssembler.toModel(
                 businessUnitObjectiveService.getAllBusinessUnitObjectives(
                         pageable,
@@ -84,11 +91,16 @@ public class BusinessUnitObjectiveController {
      * Returns the {@link de.thbingen.epro.model.entity.BusinessUnitObjective} with the given id
      *
      * @param id of the {@link de.thbingen.epro.model.entity.BusinessUnitObjective} to be returned
+     * @param webRequest the current request, used to answer conditional requests
      * @return the {@link BusinessUnitObjective} with the given id
      */
     @GetMapping(value = "/{id}", produces = MediaTypes.HAL_JSON_VALUE)
-    @PreAuthorize("hasAuthority('read')")
-    public BusinessUnitObjectiveDto findById(@PathVariable Long id) {
+    @Authorized(AccessRule.READ)
+    public BusinessUnitObjectiveDto findById(@PathVariable Long id, WebRequest webRequest) {
+        Optional<String> version = businessUnitObjectiveService.getVersionById(id);
+        if (version.isPresent() && ETags.checkNotModified(webRequest, version.get())) {
+            return null;
+        }
         Optional<BusinessUnitObjectiveDto> result = businessUnitObjectiveService.findById(id);
         if (result.isPresent()) {
             return result.get();
@@ -107,7 +119,7 @@ public class BusinessUnitObjectiveController {
             produces = MediaTypes.HAL_JSON_VALUE,
             consumes = MediaType.APPLICATION_JSON_VALUE
     )
-    @PreAuthorize("hasAuthority('change_all_BU_OKRs') or hasAuthority('change_own_BU_OKRs') and @customExpressions.buObjectiveBelongsToSameBuAsUser(#id, principal.username)")
+    @Authorized(AccessRule.CHANGE_BUSINESS_UNIT_OBJECTIVE)
     public ResponseEntity<BusinessUnitObjectiveDto> updateById(
             @PathVariable Long id,
             @RequestBody @Valid BusinessUnitObjectiveDto businessUnitObjectiveDto
@@ -124,7 +136,7 @@ public class BusinessUnitObjectiveController {
      * @return no content
      */
     @DeleteMapping("/{id}")
-    @PreAuthorize("hasAuthority('change_all_BU_OKRs') or hasAuthority('change_own_BU_OKRs') and @customExpressions.buObjectiveBelongsToSameBuAsUser(#id, principal.username)")
+    @Authorized(AccessRule.CHANGE_BUSINESS_UNIT_OBJECTIVE)
     public ResponseEntity<Void> deleteById(@PathVariable Long id) {
         if (!businessUnitObjectiveService.existsById(id)) {
             throw new EntityNotFoundException("No BusinessUnitObjective with this businessUnitObjectiveId exists");
@@ -146,7 +158,7 @@ public class BusinessUnitObjectiveController {
             value = "/{businessUnitObjectiveId}/companyKeyResultReference/{companyKeyResultId}",
             method = {RequestMethod.PUT, RequestMethod.POST}
     )
-    @PreAuthorize("hasAuthority('change_all_BU_OKRs') or hasAuthority('change_own_BU_OKRs') and @customExpressions.buObjectiveBelongsToSameBuAsUser(#businessUnitObjectiveId, principal.username)")
+    @Authorized(value = AccessRule.CHANGE_BUSINESS_UNIT_OBJECTIVE, id = "businessUnitObjectiveId")
     public ResponseEntity<Void> referenceCompanyKeyResult(
             @PathVariable Long businessUnitObjectiveId,
             @PathVariable Long companyKeyResultId
@@ -171,7 +183,7 @@ public class BusinessUnitObjectiveController {
      * @return no content
      */
     @DeleteMapping("/{businessUnitObjectiveId}/companyKeyResultReference")
-    @PreAuthorize("hasAuthority('change_all_BU_OKRs') or hasAuthority('change_own_BU_OKRs') and @customExpressions.buObjectiveBelongsToSameBuAsUser(#businessUnitObjectiveId, principal.username)")
+    @Authorized(value = AccessRule.CHANGE_BUSINESS_UNIT_OBJECTIVE, id = "businessUnitObjectiveId")
     public ResponseEntity<Void> deleteCompanyKeyResultReference(
             @PathVariable Long businessUnitObjectiveId
     ) {
@@ -201,7 +213,7 @@ public class BusinessUnitObjectiveController {
             value = "/{businessUnitObjectiveId}/keyResults",
             produces = MediaTypes.HAL_JSON_VALUE
     )
-    @PreAuthorize("hasAuthority('read')")
+    @Authorized(AccessRule.READ)
     public PagedModel<EntityModel<BusinessUnitKeyResultDto>> findAll(
             @PathVariable Long businessUnitObjectiveId,
             @PageableDefault Pageable pageable
@@ -222,7 +234,7 @@ public class BusinessUnitObjectiveController {
             produces = MediaTypes.HAL_JSON_VALUE,
             consumes = MediaType.APPLICATION_JSON_VALUE
     )
-    @PreAuthorize("hasAuthority('change_all_BU_OKRs') or hasAuthority('change_own_BU_OKRs') and @customExpressions.buObjectiveBelongsToSameBuAsUser(#businessUnitObjectiveId, principal.username)")
+    @Authorized(value = AccessRule.CHANGE_BUSINESS_UNIT_OBJECTIVE, id = "businessUnitObjectiveId")
     public ResponseEntity<BusinessUnitKeyResultDto> addNewKeyResult(
             @PathVariable Long businessUnitObjectiveId,
             @RequestBody @Valid BusinessUnitKeyResultPostDto newBusinessUnitKeyResultDto
@@ -1,26 +1,40 @@
 package de.thbingen.epro.controller;
 
+import de.thbingen.epro.exception.InvalidDateRangeException;
 import de.thbingen.epro.model.dto.CompanyKeyResultDto;
 import de.thbingen.epro.model.dto.CompanyKeyResultHistoryDto;
 import de.thbingen.epro.model.dto.CompanyKeyResultUpdateDto;
+import de.thbingen.epro.model.dto.HistoryBucket;
+import de.thbingen.epro.model.dto.KeyResultHistoryBucketDto;
+import de.thbingen.epro.model.dto.KeyResultHistoryPointDto;
+import de.thbingen.epro.pagination.KeysetCursor;
+import de.thbingen.epro.pagination.KeysetPage;
+import de.thbingen.epro.pagination.KeysetPagedModel;
+import de.thbingen.epro.security.AccessRule;
+import de.thbingen.epro.security.Authorized;
 import de.thbingen.epro.service.CompanyKeyResultHistoryService;
 import de.thbingen.epro.service.CompanyKeyResultService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.MediaTypes;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.persistence.EntityNotFoundException;
 import javax.validation.Valid;
+import java.time.OffsetDateTime;
 import java.util.Optional;
 
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
 /**
  * This Controller is responsible for everything under the /companyKeyResults endpoint
  */
@@ -30,26 +44,29 @@ public class CompanyKeyResultController {
 
     private final CompanyKeyResultService companyKeyResultService;
     private final PagedResourcesAssembler<CompanyKeyResultDto> pagedResourcesAssembler;
-    private final PagedResourcesAssembler<CompanyKeyResultHistoryDto> companyKeyResultHistoryDtoPagedResourcesAssembler;
     private final CompanyKeyResultHistoryService companyKeyResultHistoryService;
 
-    public CompanyKeyResultController(CompanyKeyResultService companyKeyResultService, PagedResourcesAssembler<CompanyKeyResultDto> pagedResourcesAssembler, PagedResourcesAssembler<CompanyKeyResultHistoryDto> companyKeyResultHistoryDtoPagedResourcesAssembler, CompanyKeyResultHistoryService companyKeyResultHistoryService) {
+    public CompanyKeyResultController(CompanyKeyResultService companyKeyResultService, PagedResourcesAssembler<CompanyKeyResultDto> pagedResourcesAssembler, CompanyKeyResultHistoryService companyKeyResultHistoryService) {
         this.companyKeyResultService = companyKeyResultService;
         this.pagedResourcesAssembler = pagedResourcesAssembler;
-        this.companyKeyResultHistoryDtoPagedResourcesAssembler = companyKeyResultHistoryDtoPagedResourcesAssembler;
         this.companyKeyResultHistoryService = companyKeyResultHistoryService;
     }
 
     /**
      * Returns all {@link de.thbingen.epro.model.entity.CompanyKeyResult}s
      * @param pageable the parameters determining which page to return
+     * @param webRequest the current request, used to answer conditional requests
      * @return all {@link de.thbingen.epro.model.entity.CompanyKeyResult}s of the requested page
      */
     @GetMapping(produces = MediaTypes.HAL_JSON_VALUE)
-    @PreAuthorize("hasAuthority('read')")
+    @Authorized(AccessRule.READ)
     public PagedModel<EntityModel<CompanyKeyResultDto>> findAll(
-            @PageableDefault Pageable pageable
+            @PageableDefault Pageable pageable,
+            WebRequest webRequest
     ) {
+        if (ETags.checkNotModified(webRequest, companyKeyResultService.getVersionOfAll())) {
+            return null;
+        }
         Page<CompanyKeyResultDto> allCompanyKeyResults = companyKeyResultService.findAllCompanyKeyResults(pageable);
         return pagedResourcesAssembler.toModel(allCompanyKeyResults);
     }
@@ -57,14 +74,19 @@ public class CompanyKeyResultController {
     /**
      * Returns the {@link de.thbingen.epro.model.entity.CompanyKeyResult} with the given id
      * @param id of the {@link de.thbingen.epro.model.entity.CompanyKeyResult} to be returned
+     * @param webRequest the current request, used to answer conditional requests
      * @return the {@link de.thbingen.epro.model.entity.CompanyKeyResult} with the given id
      */
     @GetMapping(
             value = "/{id}",
             produces = MediaTypes.HAL_JSON_VALUE
     )
-    @PreAuthorize("hasAuthority('read')")
-    public CompanyKeyResultDto findById(@PathVariable Long id) {
+    @Authorized(AccessRule.READ)
+    public CompanyKeyResultDto findById(@PathVariable Long id, WebRequest webRequest) {
+        Optional<String> version = companyKeyResultService.getVersionById(id);
+        if (version.isPresent() && ETags.checkNotModified(webRequest, version.get())) {
+            return null;
+        }
         Optional<CompanyKeyResultDto> result = companyKeyResultService.findById(id);
         if (result.isPresent()) {
             return result.get();
@@ -84,7 +106,7 @@ public class CompanyKeyResultController {
             produces = MediaTypes.HAL_JSON_VALUE,
             consumes = MediaType.APPLICATION_JSON_VALUE
     )
-    @PreAuthorize("hasAuthority('change_CO_OKRs')")
+    @Authorized(AccessRule.CHANGE_CO_OKRS)
     public ResponseEntity<CompanyKeyResultDto> updateById(
             @PathVariable Long id,
             @RequestBody @Valid CompanyKeyResultUpdateDto companyKeyResultDto
@@ -101,7 +123,7 @@ public class CompanyKeyResultController {
      * @return
      */
     @DeleteMapping("/{id}")
-    @PreAuthorize("hasAuthority('change_CO_OKRs')")
+    @Authorized(AccessRule.CHANGE_CO_OKRS)
     public ResponseEntity<Void> deleteById(@PathVariable Long id) {
         if (!companyKeyResultService.existsById(id)) {
             throw new EntityNotFoundException("No CompanyKeyResult with this id exists");
@@ -111,22 +133,105 @@ public class CompanyKeyResultController {
     }
 
     /**
-     * Get the requested page of history for the {@link de.thbingen.epro.model.entity.CompanyKeyResult} with the given id
-     * @param pageable the parameters determining which page to return
+     * Get the requested page of history for the {@link de.thbingen.epro.model.entity.CompanyKeyResult} with the given id,
+     * from the newest to the oldest entry. The pages are linked by cursors, which are part of the {@code next} and
+     * {@code prev} links.
      * @param id of the {@link de.thbingen.epro.model.entity.CompanyKeyResult} for which the history shall be returned
+     * @param cursor the cursor taken from a link of the previous response, none for the first page
+     * @param size the maximum number of entries in the page
+     * @param count whether the total number of entries should be returned as well
+     * @param webRequest the current request, used to answer conditional requests
      * @return the requested page of history for the {@link de.thbingen.epro.model.entity.CompanyKeyResult} with the given id
      */
     @GetMapping(value = "/{id}/history", produces = MediaTypes.HAL_JSON_VALUE)
-    @PreAuthorize("hasAuthority('read')")
-    public PagedModel<EntityModel<CompanyKeyResultHistoryDto>> getHistory(
-            @PageableDefault Pageable pageable,
-            @PathVariable Long id
+    @Authorized(AccessRule.READ)
+    public KeysetPagedModel<CompanyKeyResultHistoryDto> getHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(defaultValue = "false") Boolean count,
+            WebRequest webRequest
     ) {
         if (!companyKeyResultService.existsById(id)) {
             throw new EntityNotFoundException("No CompanyKeyResult with this id exists");
         }
-        return companyKeyResultHistoryDtoPagedResourcesAssembler.toModel(
-                companyKeyResultHistoryService.findAllByCompanyKeyResultId(id, pageable)
+        if (ETags.checkNotModified(webRequest, companyKeyResultHistoryService.getVersionOfAll())) {
+            return null;
+        }
+        KeysetPage<CompanyKeyResultHistoryDto> page = companyKeyResultHistoryService.findAllByCompanyKeyResultId(
+                id, KeysetCursor.decode(cursor), KeysetLinks.limitSize(size), count
         );
+        return KeysetLinks.toModel(page, cursor,
+                pageCursor -> methodOn(CompanyKeyResultController.class).getHistory(id, pageCursor, size, count, null));
+    }
+
+    /**
+     * Returns the values, which the {@link de.thbingen.epro.model.entity.CompanyKeyResult} with the given id had before
+     * each of its changes in the given time range, from the oldest to the newest change. Each value links to the full
+     * snapshot of the history entry.
+     *
+     * @param id         the id of the CompanyKeyResult of which the values should be returned
+     * @param from       the start of the time range, inclusive, defaults to 30 days before its end
+     * @param to         the end of the time range, exclusive, defaults to now
+     * @param webRequest the current request, used to answer conditional requests
+     * @return the values in the time range
+     */
+    @GetMapping(value = "/{id}/history/points", produces = MediaTypes.HAL_JSON_VALUE)
+    @Authorized(AccessRule.READ)
+    public CollectionModel<KeyResultHistoryPointDto> getHistoryPoints(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Optional<OffsetDateTime> from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Optional<OffsetDateTime> to,
+            WebRequest webRequest
+    ) {
+        OffsetDateTime end = to.orElse(OffsetDateTime.now());
+        OffsetDateTime start = from.orElse(end.minusDays(30));
+        if (!start.isBefore(end)) {
+            throw new InvalidDateRangeException();
+        }
+        if (!companyKeyResultService.existsById(id)) {
+            throw new EntityNotFoundException("No CompanyKeyResult with this id exists");
+        }
+        if (ETags.checkNotModified(webRequest, companyKeyResultHistoryService.getVersionOfAll())) {
+            return null;
+        }
+        return CollectionModel.of(companyKeyResultHistoryService.findPointsByCompanyKeyResultId(id, start, end));
+    }
+
+    /**
+     * Returns the values, which the {@link de.thbingen.epro.model.entity.CompanyKeyResult} with the given id had after
+     * its changes in the given time range, aggregated into buckets of an hour, a day or a week. Each bucket holds the
+     * last, minimum, maximum and average value and confidence level, only buckets with at least one change are
+     * returned.
+     *
+     * @param id         the id of the CompanyKeyResult of which the values should be returned
+     * @param from       the start of the time range, inclusive, defaults to 30 days before its end
+     * @param to         the end of the time range, exclusive, defaults to now
+     * @param bucket     the size of the buckets, one of hour, day or week
+     * @param webRequest the current request, used to answer conditional requests
+     * @return the buckets in the time range, from the oldest to the newest
+     */
+    @GetMapping(value = "/{id}/history/series", produces = MediaTypes.HAL_JSON_VALUE)
+    @Authorized(AccessRule.READ)
+    public CollectionModel<KeyResultHistoryBucketDto> getHistorySeries(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Optional<OffsetDateTime> from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Optional<OffsetDateTime> to,
+            @RequestParam(defaultValue = "day") String bucket,
+            WebRequest webRequest
+    ) {
+        HistoryBucket historyBucket = HistoryBucket.of(bucket);
+        OffsetDateTime end = to.orElse(OffsetDateTime.now());
+        OffsetDateTime start = from.orElse(end.minusDays(30));
+        if (!start.isBefore(end)) {
+            throw new InvalidDateRangeException();
+        }
+        if (!companyKeyResultService.existsById(id)) {
+            throw new EntityNotFoundException("No CompanyKeyResult with this id exists");
+        }
+        if (ETags.checkNotModified(webRequest, companyKeyResultHistoryService.getVersionOfAll())) {
+            return null;
+        }
+        return CollectionModel.of(companyKeyResultHistoryService.findSeriesByCompanyKeyResultId(id, start, end, historyBucket));
     }
 }
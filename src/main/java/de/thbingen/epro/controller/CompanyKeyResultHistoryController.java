@@ -1,6 +1,8 @@
 package de.thbingen.epro.controller;
 
 import de.thbingen.epro.model.dto.CompanyKeyResultHistoryDto;
+import de.thbingen.epro.security.AccessRule;
+import de.thbingen.epro.security.Authorized;
 import de.thbingen.epro.service.CompanyKeyResultHistoryService;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
@@ -8,11 +10,11 @@ import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.MediaTypes;
 import org.springframework.hateoas.PagedModel;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.persistence.EntityNotFoundException;
 import java.util.Optional;
@@ -35,27 +37,37 @@ public class CompanyKeyResultHistoryController {
     /**
      * Returns all {@link de.thbingen.epro.model.entity.CompanyKeyResultHistory} items
      * @param pageable the parameters determining which page to return
+     * @param webRequest the current request, used to answer conditional requests
      * @return the requested page of {@link de.thbingen.epro.model.entity.CompanyKeyResultHistory} items
      */
     @GetMapping(produces = MediaTypes.HAL_JSON_VALUE)
-    @PreAuthorize("hasAuthority('read')")
+    @Authorized(AccessRule.READ)
     public PagedModel<EntityModel<CompanyKeyResultHistoryDto>> getAll(
-            @PageableDefault Pageable pageable
+            @PageableDefault Pageable pageable,
+            WebRequest webRequest
     ) {
+        if (ETags.checkNotModified(webRequest, companyKeyResultHistoryService.getVersionOfAll())) {
+            return null;
+        }
         return pagedResourcesAssembler.toModel(companyKeyResultHistoryService.findAll(pageable));
     }
 
     /**
      * return the {@link de.thbingen.epro.model.entity.CompanyKeyResultHistory} item with the given id
      * @param id of the {@link de.thbingen.epro.model.entity.CompanyKeyResultHistory} to be returned
+     * @param webRequest the current request, used to answer conditional requests
      * @return the requested {@link de.thbingen.epro.model.entity.CompanyKeyResultHistory} item
      */
     @GetMapping(
             value = "/{id}",
             produces = MediaTypes.HAL_JSON_VALUE
     )
-    @PreAuthorize("hasAuthority('read')")
-    public CompanyKeyResultHistoryDto getById(@PathVariable Long id) {
+    @Authorized(AccessRule.READ)
+    public CompanyKeyResultHistoryDto getById(@PathVariable Long id, WebRequest webRequest) {
+        Optional<String> version = companyKeyResultHistoryService.getVersionById(id);
+        if (version.isPresent() && ETags.checkNotModified(webRequest, version.get())) {
+            return null;
+        }
         Optional<CompanyKeyResultHistoryDto> result = companyKeyResultHistoryService.findById(id);
         if (result.isPresent())
             return result.get();
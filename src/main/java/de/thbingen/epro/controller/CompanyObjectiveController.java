@@ -5,6 +5,8 @@ import de.thbingen.epro.model.dto.CompanyKeyResultDto;
 import de.thbingen.epro.model.dto.CompanyKeyResultPostDto;
 import de.thbingen.epro.model.dto.CompanyObjectiveDto;
 import de.thbingen.epro.model.entity.BusinessUnitObjective;
+import de.thbingen.epro.security.AccessRule;
+import de.thbingen.epro.security.Authorized;
 import de.thbingen.epro.service.CompanyKeyResultService;
 import de.thbingen.epro.service.CompanyObjectiveService;
 import org.springframework.data.domain.Pageable;
@@ -17,8 +19,8 @@ import org.springframework.hateoas.MediaTypes;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.persistence.EntityNotFoundException;
 import javax.validation.Valid;
@@ -51,23 +53,28 @@ public class CompanyObjectiveController {
      * Returns all {@link de.thbingen.epro.model.entity.CompanyObjective}s of the requested Page, that have a
      * start Date that starts after the given start date and an end date that ends after the given end date
      *
-     * @param pageable the parameters determining which page to return
-     * @param start    the start date after which {@link de.thbingen.epro.model.entity.CompanyObjective}s must start to be returned
-     * @param end      the end date before which {@link de.thbingen.epro.model.entity.CompanyObjective}s must end to be returned
+     * @param pageable   the parameters determining which page to return
+     * @param start      the start date after which {@link de.thbingen.epro.model.entity.CompanyObjective}s must start to be returned
+     * @param end        the end date before which {@link de.thbingen.epro.model.entity.CompanyObjective}s must end to be returned
+     * @param webRequest the current request, used to answer conditional requests
      * @return the requested {@link de.thbingen.epro.model.entity.CompanyObjective}s
      */
     @GetMapping(produces = MediaTypes.HAL_JSON_VALUE)
-    @PreAuthorize("hasAuthority('read')")
+    @Authorized(AccessRule.READ)
     public PagedModel<EntityModel<CompanyObjectiveDto>> findAll(
             @PageableDefault Pageable pageable,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Optional<LocalDate> start,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Optional<LocalDate> end
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Optional<LocalDate> end,
+            WebRequest webRequest
     ) {
         LocalDate startDate = start.orElse(LocalDate.now().with(firstDayOfYear()));
         LocalDate endDate = end.orElse(LocalDate.now().with(lastDayOfYear()));
         if (startDate.isAfter(endDate)) {
             throw new InvalidDateRangeException();
         }
+        if (ETags.checkNotModified(webRequest, companyObjectiveService.getVersionOfAll())) {
+            return null;
+        }
         return pagedResourcesAssembler.toModel(
                 companyObjectiveService.getAllCompanyObjectives(
                         pageable,
@@ -81,14 +88,19 @@ public class CompanyObjectiveController {
      * Returns the {@link de.thbingen.epro.model.entity.CompanyObjective} with the given id
      *
      * @param id of the {@link de.thbingen.epro.model.entity.CompanyObjective} to be returned
+     * @param webRequest the current request, used to answer conditional requests
      * @return the {@link de.thbingen.epro.model.entity.CompanyObjective} with the given id
      */
     @GetMapping(
             value = "/{id}",
             produces = MediaTypes.HAL_JSON_VALUE
     )
-    @PreAuthorize("hasAuthority('read')")
-    public CompanyObjectiveDto findById(@PathVariable Long id) {
+    @Authorized(AccessRule.READ)
+    public CompanyObjectiveDto findById(@PathVariable Long id, WebRequest webRequest) {
+        Optional<String> version = companyObjectiveService.getVersionById(id);
+        if (version.isPresent() && ETags.checkNotModified(webRequest, version.get())) {
+            return null;
+        }
         Optional<CompanyObjectiveDto> result = companyObjectiveService.findById(id);
         if (result.isPresent()) {
             return result.get();
@@ -105,7 +117,7 @@ public class CompanyObjectiveController {
             produces = MediaTypes.HAL_JSON_VALUE,
             consumes = MediaType.APPLICATION_JSON_VALUE
     )
-    @PreAuthorize("hasAuthority('change_CO_OKRs')")
+    @Authorized(AccessRule.CHANGE_CO_OKRS)
     public ResponseEntity<CompanyObjectiveDto> addNew(@RequestBody @Valid CompanyObjectiveDto newCompanyObjective) {
         CompanyObjectiveDto companyObjectiveDto = companyObjectiveService.insertCompanyObjective(newCompanyObjective);
         return ResponseEntity.created(companyObjectiveDto.getRequiredLink(IanaLinkRelations.SELF).toUri()).body(companyObjectiveDto);
@@ -122,7 +134,7 @@ public class CompanyObjectiveController {
             produces = MediaTypes.HAL_JSON_VALUE,
             consumes = MediaType.APPLICATION_JSON_VALUE
     )
-    @PreAuthorize("hasAuthority('change_CO_OKRs')")
+    @Authorized(AccessRule.CHANGE_CO_OKRS)
     public ResponseEntity<CompanyObjectiveDto> updateById(
             @PathVariable Long id,
             @RequestBody @Valid CompanyObjectiveDto companyObjectiveDto
@@ -140,7 +152,7 @@ public class CompanyObjectiveController {
      * @return no content
      */
     @DeleteMapping("/{id}")
-    @PreAuthorize("hasAuthority('change_CO_OKRs')")
+    @Authorized(AccessRule.CHANGE_CO_OKRS)
     public ResponseEntity<Void> deleteById(@PathVariable Long id) {
         if (!companyObjectiveService.existsById(id)) {
             throw new EntityNotFoundException("No CompanyObjective with this id exists");
@@ -161,7 +173,7 @@ public class CompanyObjectiveController {
             value = "/{id}/keyResults",
             produces = MediaTypes.HAL_JSON_VALUE
     )
-    @PreAuthorize("hasAuthority('read')")
+    @Authorized(AccessRule.READ)
     public PagedModel<EntityModel<CompanyKeyResultDto>> findAllCompanyKeyResultsByCompanyObjectiveId(
             @PageableDefault Pageable pageable,
             @PathVariable Long id
@@ -182,7 +194,7 @@ public class CompanyObjectiveController {
             produces = MediaTypes.HAL_JSON_VALUE,
             consumes = MediaType.APPLICATION_JSON_VALUE
     )
-    @PreAuthorize("hasAuthority('change_CO_OKRs')")
+    @Authorized(AccessRule.CHANGE_CO_OKRS)
     public ResponseEntity<CompanyKeyResultDto> addNew(
             @PathVariable Long id,
             @RequestBody @Valid CompanyKeyResultPostDto newCompanyKeyResultDto
@@ -1,13 +1,25 @@
 package de.thbingen.epro.controller;
 
+import de.thbingen.epro.model.dto.dashboard.BusinessUnitDashboard;
 import de.thbingen.epro.model.dto.dashboard.DashboardItem;
+import de.thbingen.epro.security.AccessRule;
+import de.thbingen.epro.security.Authorized;
+import de.thbingen.epro.service.BusinessUnitService;
 import de.thbingen.epro.service.DashboardService;
+import de.thbingen.epro.service.DashboardStreamService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.http.MediaType;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.persistence.EntityNotFoundException;
+import java.time.LocalDate;
+import java.util.Optional;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
@@ -17,9 +29,13 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final BusinessUnitService businessUnitService;
+    private final DashboardStreamService dashboardStreamService;
 
-    public DashboardController(DashboardService dashboardService) {
+    public DashboardController(DashboardService dashboardService, BusinessUnitService businessUnitService, DashboardStreamService dashboardStreamService) {
         this.dashboardService = dashboardService;
+        this.businessUnitService = businessUnitService;
+        this.dashboardStreamService = dashboardStreamService;
     }
 
     /**
@@ -27,13 +43,59 @@ public class DashboardController {
      * currently active and its {@link de.thbingen.epro.model.entity.BusinessUnitKeyResult}s as well as the currently
      * active {@link de.thbingen.epro.model.entity.CompanyObjective}s with their {@link de.thbingen.epro.model.entity.CompanyKeyResult}s
      *
+     * @param webRequest the current request, used to answer conditional requests
      * @return the current dashboard
      */
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    @PreAuthorize("hasAuthority('read')")
-    public CollectionModel<DashboardItem> getDashboard() {
+    @Authorized(AccessRule.READ)
+    public CollectionModel<DashboardItem> getDashboard(WebRequest webRequest) {
+        if (ETags.checkNotModified(webRequest, dashboardService.getVersion())) {
+            return null;
+        }
         CollectionModel<DashboardItem> collectionModel = CollectionModel.of(dashboardService.getDashboardItems());
-        collectionModel.add(linkTo(methodOn(DashboardController.class).getDashboard()).withSelfRel());
+        collectionModel.add(linkTo(methodOn(DashboardController.class).getDashboard(null)).withSelfRel());
         return collectionModel;
     }
+
+    /**
+     * Gets the dashboard of a single {@link de.thbingen.epro.model.entity.BusinessUnit}, which only contains its
+     * {@link de.thbingen.epro.model.entity.BusinessUnitObjective}s active on the given date, grouped under the
+     * {@link de.thbingen.epro.model.entity.CompanyKeyResult}s they reference
+     *
+     * @param businessUnitId the id of the {@link de.thbingen.epro.model.entity.BusinessUnit}
+     * @param date           the date for which the dashboard is requested, defaults to the current date
+     * @param webRequest     the current request, used to answer conditional requests
+     * @return the dashboard of the {@link de.thbingen.epro.model.entity.BusinessUnit}
+     */
+    @GetMapping(params = "businessUnitId", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Authorized(AccessRule.READ)
+    public BusinessUnitDashboard getBusinessUnitDashboard(
+            @RequestParam Long businessUnitId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Optional<LocalDate> date,
+            WebRequest webRequest
+    ) {
+        if (!businessUnitService.existsById(businessUnitId)) {
+            throw new EntityNotFoundException("No BusinessUnit with this id exists");
+        }
+        LocalDate dashboardDate = date.orElse(LocalDate.now());
+        if (ETags.checkNotModified(webRequest, dashboardService.getVersion(), dashboardDate)) {
+            return null;
+        }
+        BusinessUnitDashboard businessUnitDashboard = dashboardService.getBusinessUnitDashboard(businessUnitId, dashboardDate);
+        businessUnitDashboard.add(linkTo(methodOn(DashboardController.class).getBusinessUnitDashboard(businessUnitId, Optional.of(dashboardDate), null)).withSelfRel());
+        return businessUnitDashboard;
+    }
+
+    /**
+     * Opens a Server-Sent Events stream of the current dashboard. The first event named {@code dashboard} contains the
+     * same items as {@link #getDashboard(WebRequest)}, afterwards every change is sent as an event named {@code change} containing
+     * a {@link de.thbingen.epro.model.dto.dashboard.DashboardChange}.
+     *
+     * @return the emitter of the stream, the request thread is released immediately
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Authorized(AccessRule.READ)
+    public SseEmitter streamDashboard() {
+        return dashboardStreamService.subscribe();
+    }
 }
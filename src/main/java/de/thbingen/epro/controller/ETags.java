@@ -0,0 +1,57 @@
+package de.thbingen.epro.controller;
+
+import de.thbingen.epro.security.AuthenticatedUser;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.StringJoiner;
+import java.util.stream.Collectors;
+
+/**
+ * Support for conditional GET requests.
+ * <p>
+ * The strong ETags are built from versions, which the services read from the database without loading the requested
+ * entities, and from the authorities of the current user, because some of the links depend on them. If the client
+ * already has the current representation, it is answered with {@code 304 Not Modified} before any assembler or
+ * Jackson runs.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * Compares the ETag built from the given versions with the {@code If-None-Match} header of the request. If they
+     * match, the response is turned into {@code 304 Not Modified}, otherwise the ETag is added to the response.
+     *
+     * @param webRequest the current request
+     * @param versions   the versions of everything the requested representation is built from
+     * @return true if the response is {@code 304 Not Modified} and the handler should return {@code null} right away
+     */
+    static boolean checkNotModified(WebRequest webRequest, Object... versions) {
+        StringJoiner eTag = new StringJoiner("|");
+        for (Object version : versions) {
+            eTag.add(String.valueOf(version));
+        }
+        eTag.add(authoritiesOfCurrentUser());
+        return webRequest.checkNotModified(DigestUtils.md5DigestAsHex(eTag.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String authoritiesOfCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return "";
+        }
+        if (authentication.getPrincipal() instanceof AuthenticatedUser authenticatedUser) {
+            return authenticatedUser.getPrivileges().getKey();
+        }
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
+}
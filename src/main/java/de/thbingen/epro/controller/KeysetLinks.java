@@ -0,0 +1,66 @@
+package de.thbingen.epro.controller;
+
+import de.thbingen.epro.pagination.KeysetPage;
+import de.thbingen.epro.pagination.KeysetPagedModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+/**
+ * Support for the endpoints, which are paginated by a cursor instead of a page number.
+ * <p>
+ * The links to the neighbouring pages carry the encoded cursors, so clients only ever follow the {@code next} and
+ * {@code prev} links and never build a cursor themselves.
+ */
+final class KeysetLinks {
+
+    /**
+     * The same upper bound Spring Data applies to the size of a {@link org.springframework.data.domain.Pageable}
+     */
+    static final int MAX_SIZE = 2000;
+
+    private KeysetLinks() {
+    }
+
+    /**
+     * Limits the requested size of a page to the range from 1 to {@link #MAX_SIZE}
+     *
+     * @param size the requested size
+     * @return the size of the page to read
+     */
+    static int limitSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    /**
+     * Builds the representation of the given page with its {@code self}, {@code first}, {@code prev} and {@code next}
+     * links
+     *
+     * @param page       the page to represent
+     * @param cursor     the encoded cursor of the current request, {@code null} for the first page
+     * @param invocation invokes the handler method on a proxy created with
+     *                   {@link org.springframework.hateoas.server.mvc.WebMvcLinkBuilder#methodOn(Class, Object...)},
+     *                   passing the given encoded cursor and the other parameters of the current request
+     * @param <T>        the type of the content
+     * @return the representation of the page
+     */
+    static <T> KeysetPagedModel<T> toModel(KeysetPage<T> page, String cursor, Function<String, Object> invocation) {
+        List<Link> links = new ArrayList<>();
+        links.add(linkTo(invocation.apply(cursor)).withSelfRel());
+        if (cursor != null) {
+            links.add(linkTo(invocation.apply(null)).withRel(IanaLinkRelations.FIRST));
+        }
+        if (page.getPrevious() != null) {
+            links.add(linkTo(invocation.apply(page.getPrevious().encode())).withRel(IanaLinkRelations.PREV));
+        }
+        if (page.getNext() != null) {
+            links.add(linkTo(invocation.apply(page.getNext().encode())).withRel(IanaLinkRelations.NEXT));
+        }
+        return new KeysetPagedModel<>(page.getContent(), links, page.getTotalElements());
+    }
+}
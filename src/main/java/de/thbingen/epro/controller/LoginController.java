@@ -1,29 +1,118 @@
 package de.thbingen.epro.controller;
 
+import de.thbingen.epro.config.JwtConfig;
+import de.thbingen.epro.security.IssuedTokens;
+import de.thbingen.epro.security.LoginExecutor;
+import de.thbingen.epro.security.TokenAuthenticationFilter;
 import de.thbingen.epro.security.UserAuthenticationService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CookieValue;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
+import javax.servlet.http.HttpServletRequest;
+import java.time.Duration;
 import java.util.Map;
 
 @RestController
 public class LoginController {
 
+    /**
+     * The name of the cookie holding the refresh token, which is only sent along with requests to /refresh
+     */
+    public static final String REFRESH_TOKEN_COOKIE = "refresh_token";
 
     private final UserAuthenticationService authentication;
+    private final LoginExecutor loginExecutor;
+    private final JwtConfig jwtConfig;
 
-    public LoginController(UserAuthenticationService authentication) {
+    public LoginController(UserAuthenticationService authentication, LoginExecutor loginExecutor, JwtConfig jwtConfig) {
         this.authentication = authentication;
+        this.loginExecutor = loginExecutor;
+        this.jwtConfig = jwtConfig;
     }
 
+    /**
+     * Checks the password of the user and returns an access token in the body. The refresh token is set as a cookie.
+     *
+     * @param body    the username and the password
+     * @param request the current request, used to derive the path of the cookie
+     * @return the access token
+     */
     @PostMapping(
             value = "/login",
             consumes = MediaType.APPLICATION_JSON_VALUE
     )
-    public String login(@RequestBody Map<String, String> body) {
-        return authentication.login(body.get("username"), body.get("password"))
+    public ResponseEntity<String> login(@RequestBody Map<String, String> body, HttpServletRequest request) {
+        IssuedTokens issuedTokens = loginExecutor.execute(() -> authentication.login(body.get("username"), body.get("password")))
                 .orElseThrow(() -> new RuntimeException("invalid login and/or password"));
+        return withRefreshTokenCookie(issuedTokens, request);
+    }
+
+    /**
+     * Redeems the refresh token from the cookie for a new access token and a new refresh token, without checking the
+     * password. Every refresh token can only be redeemed once, redeeming it a second time ends the session.
+     *
+     * @param refreshToken the refresh token set by the previous login or refresh
+     * @param request      the current request, used to derive the path of the cookie
+     * @return the new access token or 401 - Unauthorized, if the refresh token is invalid, expired or already used
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<String> refresh(
+            @CookieValue(name = REFRESH_TOKEN_COOKIE, required = false) String refreshToken,
+            HttpServletRequest request
+    ) {
+        if (refreshToken == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return authentication.refresh(refreshToken)
+                .map(issuedTokens -> withRefreshTokenCookie(issuedTokens, request))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+    }
+
+    /**
+     * Revokes the token of the request and the refresh token of the same login, so neither can be used anymore,
+     * even though they have not expired yet
+     *
+     * @param token   the token of the request
+     * @param request the current request, used to derive the path of the cookie
+     * @return no content
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @RequestAttribute(TokenAuthenticationFilter.TOKEN_ATTRIBUTE) String token,
+            HttpServletRequest request
+    ) {
+        authentication.logout(token);
+        return ResponseEntity.noContent()
+                .header(HttpHeaders.SET_COOKIE, refreshTokenCookie("", Duration.ZERO, request).toString())
+                .build();
+    }
+
+    private ResponseEntity<String> withRefreshTokenCookie(IssuedTokens issuedTokens, HttpServletRequest request) {
+        ResponseCookie cookie = refreshTokenCookie(
+                issuedTokens.getRefreshToken(),
+                Duration.ofMillis(jwtConfig.getRefreshExpiration()),
+                request
+        );
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, cookie.toString())
+                .body(issuedTokens.getAccessToken());
+    }
+
+    private ResponseCookie refreshTokenCookie(String value, Duration maxAge, HttpServletRequest request) {
+        return ResponseCookie.from(REFRESH_TOKEN_COOKIE, value)
+                .httpOnly(true)
+                .secure(request.isSecure())
+                .sameSite("Strict")
+                .path(request.getContextPath() + "/refresh")
+                .maxAge(maxAge)
+                .build();
     }
 }
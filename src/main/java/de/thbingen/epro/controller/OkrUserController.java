@@ -3,6 +3,8 @@ package de.thbingen.epro.controller;
 import de.thbingen.epro.model.dto.OkrUserDto;
 import de.thbingen.epro.model.dto.OkrUserPostDto;
 import de.thbingen.epro.model.dto.OkrUserUpdateDto;
+import de.thbingen.epro.security.AccessRule;
+import de.thbingen.epro.security.Authorized;
 import de.thbingen.epro.service.OkrUserService;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
@@ -13,8 +15,8 @@ import org.springframework.hateoas.MediaTypes;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.persistence.EntityNotFoundException;
 import javax.validation.Valid;
@@ -38,11 +40,15 @@ public class OkrUserController {
      * Returns all OkrUsers of the requested Page
      *
      * @param pageable Allows requesting a certain page of a certain size with a certain sort
+     * @param webRequest the current request, used to answer conditional requests
      * @return The requested Page of OkrUsers
      */
     @GetMapping(produces = MediaTypes.HAL_JSON_VALUE)
-    @PreAuthorize("hasAuthority('view_users')")
-    public PagedModel<EntityModel<OkrUserDto>> findAll(@PageableDefault Pageable pageable) {
+    @Authorized(AccessRule.VIEW_USERS)
+    public PagedModel<EntityModel<OkrUserDto>> findAll(@PageableDefault Pageable pageable, WebRequest webRequest) {
+        if (ETags.checkNotModified(webRequest, okrUserService.getVersionOfAll())) {
+            return null;
+        }
         return pagedResourcesAssembler.toModel(okrUserService.findAll(pageable));
     }
 
@@ -51,15 +57,20 @@ public class OkrUserController {
      * <p>
      * Will throw an EntitiyNotFoundException if there is no OkrUser with the given id
      *
-     * @param id  Id of the requested OkrUser
+     * @param id         Id of the requested OkrUser
+     * @param webRequest the current request, used to answer conditional requests
      * @return The requested OkrUser
      */
     @GetMapping(
             value = "/{id}",
             produces = MediaTypes.HAL_JSON_VALUE
     )
-    @PreAuthorize("hasAuthority('view_users') or (hasAuthority('read') and @customExpressions.isSameUser(#id, principal.username))")
-    public OkrUserDto findById(@PathVariable Long id) {
+    @Authorized(AccessRule.VIEW_USER_OR_SELF)
+    public OkrUserDto findById(@PathVariable Long id, WebRequest webRequest) {
+        Optional<String> version = okrUserService.getVersionById(id);
+        if (version.isPresent() && ETags.checkNotModified(webRequest, version.get())) {
+            return null;
+        }
         Optional<OkrUserDto> result = okrUserService.findById(id);
         if (result.isPresent())
             return result.get();
@@ -78,7 +89,7 @@ public class OkrUserController {
             produces = MediaTypes.HAL_JSON_VALUE,
             consumes = MediaType.APPLICATION_JSON_VALUE
     )
-    @PreAuthorize("hasAuthority('add_users')")
+    @Authorized(AccessRule.ADD_USERS)
     public ResponseEntity<OkrUserDto> addNew(@RequestBody @Valid OkrUserPostDto newUser) {
         OkrUserDto okrUserDto = okrUserService.insertOkrUser(newUser);
         return ResponseEntity.created(okrUserDto.getRequiredLink(IanaLinkRelations.SELF).toUri()).body(okrUserDto);
@@ -97,7 +108,7 @@ public class OkrUserController {
             produces = MediaTypes.HAL_JSON_VALUE,
             consumes = MediaType.APPLICATION_JSON_VALUE
     )
-    @PreAuthorize("hasAuthority('change_users')")
+    @Authorized(AccessRule.CHANGE_USERS)
     public ResponseEntity<OkrUserDto> updateById(@PathVariable Long id, @RequestBody @Valid OkrUserUpdateDto okrUserDto) {
         if (!okrUserService.existsById(id))
             throw new EntityNotFoundException("No OkrUser with this id exists");
@@ -113,7 +124,7 @@ public class OkrUserController {
      * @return An empty response with the noContent Status Code
      */
     @DeleteMapping("/{id}")
-    @PreAuthorize("hasAuthority('change_users')")
+    @Authorized(AccessRule.CHANGE_USERS)
     public ResponseEntity<Void> deleteById(@PathVariable Long id) {
         if (!okrUserService.existsById(id)) {
             throw new EntityNotFoundException("No OkrUser with this id exists");
@@ -136,7 +147,7 @@ public class OkrUserController {
             produces = MediaTypes.HAL_JSON_VALUE,
             consumes = MediaType.APPLICATION_JSON_VALUE
     )
-    @PreAuthorize("hasAuthority('add_users')")
+    @Authorized(AccessRule.ADD_USERS)
     public ResponseEntity<Void> setRole(@PathVariable Long id, @PathVariable Long roleId) {
         if (!okrUserService.existsById(id)) {
             throw new EntityNotFoundException("No OkrUser with this id exists");
@@ -156,7 +167,7 @@ public class OkrUserController {
             value = "/{id}/businessUnits/{businessUnitId}",
             method = {RequestMethod.POST, RequestMethod.PUT}
     )
-    @PreAuthorize("hasAuthority('change_users')")
+    @Authorized(AccessRule.CHANGE_USERS)
     public ResponseEntity<Void> setBusinessUnit(
             @PathVariable Long id,
             @PathVariable Long businessUnitId
@@ -1,6 +1,8 @@
 package de.thbingen.epro.controller;
 
 import de.thbingen.epro.model.dto.PrivilegeDto;
+import de.thbingen.epro.security.AccessRule;
+import de.thbingen.epro.security.Authorized;
 import de.thbingen.epro.service.PrivilegeService;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
@@ -11,8 +13,8 @@ import org.springframework.hateoas.MediaTypes;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.persistence.EntityNotFoundException;
 import javax.validation.Valid;
@@ -23,7 +25,7 @@ import java.util.Optional;
  */
 @RestController
 @RequestMapping("/privileges")
-@PreAuthorize("hasAuthority('access_privileges')")
+@Authorized(AccessRule.ACCESS_PRIVILEGES)
 public class PrivilegeController {
 
     private final PrivilegeService privilegeService;
@@ -37,12 +39,16 @@ public class PrivilegeController {
      * Returns all Privileges of the requested Page
      *
      * @param pageable Allows requesting a certain page of a certain size with a certain sort
+     * @param webRequest the current request, used to answer conditional requests
      * @return The requested Page of Privileges
      */
     @GetMapping(
             produces = MediaTypes.HAL_JSON_VALUE
     )
-    public PagedModel<EntityModel<PrivilegeDto>> findAll(@PageableDefault Pageable pageable) {
+    public PagedModel<EntityModel<PrivilegeDto>> findAll(@PageableDefault Pageable pageable, WebRequest webRequest) {
+        if (ETags.checkNotModified(webRequest, privilegeService.getVersionOfAll())) {
+            return null;
+        }
         return pagedResourcesAssembler.toModel(privilegeService.findAll(pageable));
     }
     /**
@@ -51,13 +57,18 @@ public class PrivilegeController {
      * Will throw an EntityNotFoundException if there is no Privilege with the given id
      *
      * @param id The id of the requested Privilege
+     * @param webRequest the current request, used to answer conditional requests
      * @return The requested Privilege
      */
     @GetMapping(
             value = "/{id}",
             produces = MediaTypes.HAL_JSON_VALUE
     )
-    public PrivilegeDto findById(@PathVariable Long id) {
+    public PrivilegeDto findById(@PathVariable Long id, WebRequest webRequest) {
+        Optional<String> version = privilegeService.getVersionById(id);
+        if (version.isPresent() && ETags.checkNotModified(webRequest, version.get())) {
+            return null;
+        }
         Optional<PrivilegeDto> result = privilegeService.findById(id);
         if (result.isPresent())
             return result.get();
@@ -4,6 +4,8 @@ package de.thbingen.epro.controller;
 import de.thbingen.epro.model.dto.OkrUserDto;
 import de.thbingen.epro.model.dto.PrivilegeDto;
 import de.thbingen.epro.model.dto.RoleDto;
+import de.thbingen.epro.security.AccessRule;
+import de.thbingen.epro.security.Authorized;
 import de.thbingen.epro.service.OkrUserService;
 import de.thbingen.epro.service.PrivilegeService;
 import de.thbingen.epro.service.RoleService;
@@ -16,8 +18,8 @@ import org.springframework.hateoas.MediaTypes;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.persistence.EntityNotFoundException;
 import javax.validation.Valid;
@@ -28,7 +30,7 @@ import java.util.Optional;
  */
 @RestController
 @RequestMapping("/roles")
-@PreAuthorize("hasAuthority('access_roles')")
+@Authorized(AccessRule.ACCESS_ROLES)
 public class RoleController {
 
     private final RoleService roleService;
@@ -52,10 +54,14 @@ public class RoleController {
      * Returns all Roles of the requested Page
      *
      * @param pageable Allows requesting a certain page of a certain size with a certain sort
+     * @param webRequest the current request, used to answer conditional requests
      * @return The requested Page of Roles
      */
     @GetMapping(produces = MediaTypes.HAL_JSON_VALUE)
-    public PagedModel<EntityModel<RoleDto>> findAll(@PageableDefault Pageable pageable) {
+    public PagedModel<EntityModel<RoleDto>> findAll(@PageableDefault Pageable pageable, WebRequest webRequest) {
+        if (ETags.checkNotModified(webRequest, roleService.getVersionOfAll())) {
+            return null;
+        }
         return pagedResourcesAssembler.toModel(roleService.findAll(pageable));
     }
     /**
@@ -64,13 +70,18 @@ public class RoleController {
      * Will throw an EntityNotFoundException if there is no Role with the given id
      *
      * @param id The id of the requested Role
+     * @param webRequest the current request, used to answer conditional requests
      * @return The requested Role
      */
     @GetMapping(
             value = "/{id}",
             produces = MediaTypes.HAL_JSON_VALUE
     )
-    public RoleDto findById(@PathVariable Long id) {
+    public RoleDto findById(@PathVariable Long id, WebRequest webRequest) {
+        Optional<String> version = roleService.getVersionById(id);
+        if (version.isPresent() && ETags.checkNotModified(webRequest, version.get())) {
+            return null;
+        }
         Optional<RoleDto> result = roleService.findById(id);
         if (result.isPresent())
             return result.get();
@@ -0,0 +1,7 @@
+package de.thbingen.epro.exception;
+
+/**
+ * An Exception to be thrown when a cursor is given, which was not handed out by the application
+ */
+public class InvalidCursorException extends RuntimeException {
+}
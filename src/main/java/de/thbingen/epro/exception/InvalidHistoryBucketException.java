@@ -0,0 +1,7 @@
+package de.thbingen.epro.exception;
+
+/**
+ * An Exception to be thrown when the history of a key result is requested in buckets of an unknown size
+ */
+public class InvalidHistoryBucketException extends RuntimeException {
+}
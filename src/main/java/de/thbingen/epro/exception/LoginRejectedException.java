@@ -0,0 +1,30 @@
+package de.thbingen.epro.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * An Exception to be thrown when a login is not processed, because too many logins are already waiting or because
+ * it waited too long for its password to be checked
+ */
+public class LoginRejectedException extends RuntimeException {
+
+    private final HttpStatus httpStatus;
+    private final int retryAfter;
+
+    /**
+     * @param httpStatus the status to answer the login with
+     * @param retryAfter the number of seconds after which the client may try again
+     */
+    public LoginRejectedException(HttpStatus httpStatus, int retryAfter) {
+        this.httpStatus = httpStatus;
+        this.retryAfter = retryAfter;
+    }
+
+    public HttpStatus getHttpStatus() {
+        return httpStatus;
+    }
+
+    public int getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -67,6 +67,49 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(apiError, apiError.getHttpStatus());
     }
 
+    /**
+     * Handles Errors, which are due to a cursor being given in the request, that was not taken from a link of a
+     * previous response.
+     *
+     * @param exception the exception
+     * @return a ResponseEntity, that represents the error
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    ResponseEntity<Object> handleInvalidCursor(InvalidCursorException exception) {
+        ApiError apiError = new ApiError(HttpStatus.BAD_REQUEST);
+        apiError.setMessage("Invalid Cursor. Make sure to use the cursors from the links of the previous page");
+        return new ResponseEntity<>(apiError, apiError.getHttpStatus());
+    }
+
+    /**
+     * Handles Errors, which are due to the history of a key result being requested in buckets of an unknown size.
+     *
+     * @param exception the exception
+     * @return a ResponseEntity, that represents the error
+     */
+    @ExceptionHandler(InvalidHistoryBucketException.class)
+    ResponseEntity<Object> handleInvalidHistoryBucket(InvalidHistoryBucketException exception) {
+        ApiError apiError = new ApiError(HttpStatus.BAD_REQUEST);
+        apiError.setMessage("Invalid Bucket. Make sure to use one of hour, day or week");
+        return new ResponseEntity<>(apiError, apiError.getHttpStatus());
+    }
+
+    /**
+     * Handles logins, which were rejected because the application is busy checking other logins. The client is told
+     * when to try again with the Retry-After header.
+     *
+     * @param exception the exception
+     * @return a ResponseEntity, that represents the error
+     */
+    @ExceptionHandler(LoginRejectedException.class)
+    ResponseEntity<Object> handleLoginRejected(LoginRejectedException exception) {
+        ApiError apiError = new ApiError(exception.getHttpStatus());
+        apiError.setMessage("Too many logins at the moment. Try again later");
+        return ResponseEntity.status(apiError.getHttpStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfter()))
+                .body(apiError);
+    }
+
     /**
      * This Method handles Errors, which are due to invalid json in the request body.
      *
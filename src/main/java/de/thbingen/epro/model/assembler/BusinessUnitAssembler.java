@@ -5,8 +5,8 @@ import de.thbingen.epro.model.dto.BusinessUnitDto;
 import de.thbingen.epro.model.dto.BusinessUnitObjectiveDto;
 import de.thbingen.epro.model.dto.OkrUserDto;
 import de.thbingen.epro.model.entity.BusinessUnit;
-import de.thbingen.epro.model.entity.OkrUser;
 import de.thbingen.epro.model.mapper.BusinessUnitMapper;
+import de.thbingen.epro.security.AuthenticatedUser;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.hateoas.server.core.AnnotationLinkRelationProvider;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -30,17 +30,17 @@ public class BusinessUnitAssembler implements RepresentationModelAssembler<Busin
 
     @Override
     public BusinessUnitDto toModel(BusinessUnit entity) {
-        OkrUser okrUser = (OkrUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        AuthenticatedUser authenticatedUser = (AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
         BusinessUnitDto businessUnitDto = businessUnitMapper.businessUnitToDto(entity)
-                .add(linkTo(methodOn(BusinessUnitController.class).findById(entity.getId())).withSelfRel());
+                .add(linkTo(methodOn(BusinessUnitController.class).findById(entity.getId(), null)).withSelfRel());
         if (entity.getBusinessUnitObjectives() != null && !entity.getBusinessUnitObjectives().isEmpty()) {
             businessUnitDto.add(linkTo(methodOn(BusinessUnitController.class)
                     .getAllBusinessUnitObjectives(null, entity.getId(), Optional.empty(), Optional.empty()))
                     .withRel(annotationLinkRelationProvider.getCollectionResourceRelFor(BusinessUnitObjectiveDto.class))
             );
         }
-        if (okrUser.hasPrivilege("view_users") && entity.getOkrUsers() != null && !entity.getOkrUsers().isEmpty()) {
+        if (authenticatedUser.hasPrivilege("view_users") && entity.getOkrUsers() != null && !entity.getOkrUsers().isEmpty()) {
             businessUnitDto.add(linkTo(methodOn(BusinessUnitController.class)
                     .getAllOkrUsers(null, entity.getId()))
                     .withRel(annotationLinkRelationProvider.getCollectionResourceRelFor(OkrUserDto.class))
@@ -8,6 +8,7 @@ import de.thbingen.epro.model.dto.BusinessUnitKeyResultHistoryDto;
 import de.thbingen.epro.model.dto.BusinessUnitObjectiveDto;
 import de.thbingen.epro.model.dto.CompanyKeyResultDto;
 import de.thbingen.epro.model.entity.BusinessUnitKeyResult;
+import de.thbingen.epro.model.projection.BusinessUnitKeyResultProjection;
 import de.thbingen.epro.model.mapper.BusinessUnitKeyResultMapper;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.hateoas.server.core.AnnotationLinkRelationProvider;
@@ -30,24 +31,56 @@ public class BusinessUnitKeyResultAssembler implements RepresentationModelAssemb
     @Override
     public BusinessUnitKeyResultDto toModel(BusinessUnitKeyResult entity) {
         BusinessUnitKeyResultDto businessUnitKeyResultDto = mapper.businessUnitKeyResultToDto(entity)
-                .add(linkTo(methodOn(BusinessUnitKeyResultController.class).findById(entity.getId())).withSelfRel());
+                .add(linkTo(methodOn(BusinessUnitKeyResultController.class).findById(entity.getId(), null)).withSelfRel());
 
 
         if (entity.getBusinessUnitObjective() != null) {
             businessUnitKeyResultDto.add(
-                    linkTo(methodOn(BusinessUnitObjectiveController.class).findById(entity.getBusinessUnitObjective().getId()))
+                    linkTo(methodOn(BusinessUnitObjectiveController.class).findById(entity.getBusinessUnitObjective().getId(), null))
                             .withRel(annotationLinkRelationProvider.getItemResourceRelFor(BusinessUnitObjectiveDto.class))
             );
         }
         if (entity.getCompanyKeyResult() != null) {
             businessUnitKeyResultDto.add(
-                    linkTo(methodOn(CompanyKeyResultController.class).findById(entity.getCompanyKeyResult().getId()))
+                    linkTo(methodOn(CompanyKeyResultController.class).findById(entity.getCompanyKeyResult().getId(), null))
                             .withRel(annotationLinkRelationProvider.getItemResourceRelFor(CompanyKeyResultDto.class))
             );
         }
-        if (entity.getBusinessUnitKeyResultHistories() != null && !entity.getBusinessUnitKeyResultHistories().isEmpty()) {
+        if (entity.hasHistory()) {
             businessUnitKeyResultDto.add(
-                    linkTo(methodOn(BusinessUnitKeyResultController.class).getHistory(null, entity.getId()))
+                    linkTo(methodOn(BusinessUnitKeyResultController.class).getHistory(entity.getId(), null, null, null, null))
+                            .withRel(annotationLinkRelationProvider.getCollectionResourceRelFor(BusinessUnitKeyResultHistoryDto.class))
+            );
+        }
+        return businessUnitKeyResultDto;
+    }
+
+    /**
+     * Converts the given {@link BusinessUnitKeyResultProjection} into a {@link BusinessUnitKeyResultDto} with the same
+     * links as {@link #toModel(BusinessUnitKeyResult)}
+     *
+     * @param projection the projection, whose {@code hasHistory} flag has already been set
+     * @return the {@link BusinessUnitKeyResultDto} with its links
+     */
+    public BusinessUnitKeyResultDto toModel(BusinessUnitKeyResultProjection projection) {
+        BusinessUnitKeyResultDto businessUnitKeyResultDto = mapper.businessUnitKeyResultProjectionToDto(projection)
+                .add(linkTo(methodOn(BusinessUnitKeyResultController.class).findById(projection.getId(), null)).withSelfRel());
+
+        if (projection.getBusinessUnitObjectiveId() != null) {
+            businessUnitKeyResultDto.add(
+                    linkTo(methodOn(BusinessUnitObjectiveController.class).findById(projection.getBusinessUnitObjectiveId(), null))
+                            .withRel(annotationLinkRelationProvider.getItemResourceRelFor(BusinessUnitObjectiveDto.class))
+            );
+        }
+        if (projection.getCompanyKeyResultId() != null) {
+            businessUnitKeyResultDto.add(
+                    linkTo(methodOn(CompanyKeyResultController.class).findById(projection.getCompanyKeyResultId(), null))
+                            .withRel(annotationLinkRelationProvider.getItemResourceRelFor(CompanyKeyResultDto.class))
+            );
+        }
+        if (projection.hasHistory()) {
+            businessUnitKeyResultDto.add(
+                    linkTo(methodOn(BusinessUnitKeyResultController.class).getHistory(projection.getId(), null, null, null, null))
                             .withRel(annotationLinkRelationProvider.getCollectionResourceRelFor(BusinessUnitKeyResultHistoryDto.class))
             );
         }
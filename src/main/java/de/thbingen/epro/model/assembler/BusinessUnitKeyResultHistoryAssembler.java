@@ -30,10 +30,10 @@ public class BusinessUnitKeyResultHistoryAssembler
     @Override
     public BusinessUnitKeyResultHistoryDto toModel(BusinessUnitKeyResultHistory entity) {
         BusinessUnitKeyResultHistoryDto businessUnitKeyResultHistory = businessUnitKeyResultHistoryMapper.businessUnitKeyResultHistoryToDto(entity)
-                .add(linkTo(methodOn(controllerClass).getById(entity.getId())).withSelfRel());
+                .add(linkTo(methodOn(controllerClass).getById(entity.getId(), null)).withSelfRel());
 
         businessUnitKeyResultHistory.add(
-                linkTo(methodOn(BusinessUnitKeyResultController.class).findById(entity.getCurrentBusinessUnitKeyResult().getId()))
+                linkTo(methodOn(BusinessUnitKeyResultController.class).findById(entity.getCurrentBusinessUnitKeyResult().getId(), null))
                         .withRel(annotationLinkRelationProvider.getItemResourceRelFor(BusinessUnitKeyResultDto.class))
         );
 
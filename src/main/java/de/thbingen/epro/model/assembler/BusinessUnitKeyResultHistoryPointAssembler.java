@@ -0,0 +1,35 @@
+package de.thbingen.epro.model.assembler;
+
+import de.thbingen.epro.controller.BusinessUnitKeyResultHistoryController;
+import de.thbingen.epro.model.dto.BusinessUnitKeyResultHistoryDto;
+import de.thbingen.epro.model.dto.KeyResultHistoryPointDto;
+import de.thbingen.epro.model.entity.BusinessUnitKeyResultHistoryPoint;
+import de.thbingen.epro.model.mapper.KeyResultHistoryPointMapper;
+import org.springframework.hateoas.server.RepresentationModelAssembler;
+import org.springframework.hateoas.server.core.AnnotationLinkRelationProvider;
+import org.springframework.stereotype.Component;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+@Component
+public class BusinessUnitKeyResultHistoryPointAssembler
+        implements RepresentationModelAssembler<BusinessUnitKeyResultHistoryPoint, KeyResultHistoryPointDto> {
+
+    private final KeyResultHistoryPointMapper keyResultHistoryPointMapper;
+    private final AnnotationLinkRelationProvider annotationLinkRelationProvider;
+
+    public BusinessUnitKeyResultHistoryPointAssembler(KeyResultHistoryPointMapper keyResultHistoryPointMapper, AnnotationLinkRelationProvider annotationLinkRelationProvider) {
+        this.keyResultHistoryPointMapper = keyResultHistoryPointMapper;
+        this.annotationLinkRelationProvider = annotationLinkRelationProvider;
+    }
+
+    @Override
+    public KeyResultHistoryPointDto toModel(BusinessUnitKeyResultHistoryPoint entity) {
+        return keyResultHistoryPointMapper.businessUnitKeyResultHistoryPointToDto(entity)
+                .add(
+                        linkTo(methodOn(BusinessUnitKeyResultHistoryController.class).getById(entity.getHistoryId(), null))
+                                .withRel(annotationLinkRelationProvider.getItemResourceRelFor(BusinessUnitKeyResultHistoryDto.class))
+                );
+    }
+}
@@ -9,6 +9,7 @@ import de.thbingen.epro.model.dto.BusinessUnitKeyResultDto;
 import de.thbingen.epro.model.dto.BusinessUnitObjectiveDto;
 import de.thbingen.epro.model.dto.CompanyKeyResultDto;
 import de.thbingen.epro.model.entity.BusinessUnitObjective;
+import de.thbingen.epro.model.projection.BusinessUnitObjectiveProjection;
 import de.thbingen.epro.model.mapper.BusinessUnitObjectiveMapper;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.hateoas.server.core.AnnotationLinkRelationProvider;
@@ -33,9 +34,9 @@ public class BusinessUnitObjectiveAssembler implements RepresentationModelAssemb
     @Override
     public BusinessUnitObjectiveDto toModel(BusinessUnitObjective entity) {
         BusinessUnitObjectiveDto businessUnitObjectiveDto = mapper.businessUnitObjectiveToDto(entity)
-                .add(linkTo(methodOn(BusinessUnitObjectiveController.class).findById(entity.getId())).withSelfRel())
+                .add(linkTo(methodOn(BusinessUnitObjectiveController.class).findById(entity.getId(), null)).withSelfRel())
                 .add(
-                        linkTo(methodOn(BusinessUnitController.class).findById(entity.getBusinessUnit().getId()))
+                        linkTo(methodOn(BusinessUnitController.class).findById(entity.getBusinessUnit().getId(), null))
                                 .withRel(annotationLinkRelationProvider.getItemResourceRelFor(BusinessUnitDto.class))
                 );
 
@@ -45,7 +46,7 @@ public class BusinessUnitObjectiveAssembler implements RepresentationModelAssemb
                             .stream()
                             .map(businessUnitKeyResult ->
                                     linkTo(methodOn(BusinessUnitKeyResultController.class)
-                                            .findById(businessUnitKeyResult.getId())
+                                            .findById(businessUnitKeyResult.getId(), null)
                                     ).withRel(annotationLinkRelationProvider.getCollectionResourceRelFor(BusinessUnitKeyResultDto.class))
                             )
                             .collect(Collectors.toList()));
@@ -53,7 +54,41 @@ public class BusinessUnitObjectiveAssembler implements RepresentationModelAssemb
 
         if (entity.getCompanyKeyResult() != null) {
             businessUnitObjectiveDto.add(
-                    linkTo(methodOn(CompanyKeyResultController.class).findById(entity.getCompanyKeyResult().getId()))
+                    linkTo(methodOn(CompanyKeyResultController.class).findById(entity.getCompanyKeyResult().getId(), null))
+                            .withRel(annotationLinkRelationProvider.getItemResourceRelFor(CompanyKeyResultDto.class))
+            );
+        }
+        return businessUnitObjectiveDto;
+    }
+
+    /**
+     * Converts the given {@link BusinessUnitObjectiveProjection} into a {@link BusinessUnitObjectiveDto} with the same
+     * links as {@link #toModel(BusinessUnitObjective)}
+     *
+     * @param projection the projection, whose key result ids have already been set
+     * @return the {@link BusinessUnitObjectiveDto} with its links
+     */
+    public BusinessUnitObjectiveDto toModel(BusinessUnitObjectiveProjection projection) {
+        BusinessUnitObjectiveDto businessUnitObjectiveDto = mapper.businessUnitObjectiveProjectionToDto(projection)
+                .add(linkTo(methodOn(BusinessUnitObjectiveController.class).findById(projection.getId(), null)).withSelfRel())
+                .add(
+                        linkTo(methodOn(BusinessUnitController.class).findById(projection.getBusinessUnitId(), null))
+                                .withRel(annotationLinkRelationProvider.getItemResourceRelFor(BusinessUnitDto.class))
+                );
+
+        businessUnitObjectiveDto.add(
+                projection.getBusinessUnitKeyResultIds()
+                        .stream()
+                        .map(businessUnitKeyResultId ->
+                                linkTo(methodOn(BusinessUnitKeyResultController.class)
+                                        .findById(businessUnitKeyResultId, null)
+                                ).withRel(annotationLinkRelationProvider.getCollectionResourceRelFor(BusinessUnitKeyResultDto.class))
+                        )
+                        .collect(Collectors.toList()));
+
+        if (projection.getCompanyKeyResultId() != null) {
+            businessUnitObjectiveDto.add(
+                    linkTo(methodOn(CompanyKeyResultController.class).findById(projection.getCompanyKeyResultId(), null))
                             .withRel(annotationLinkRelationProvider.getItemResourceRelFor(CompanyKeyResultDto.class))
             );
         }
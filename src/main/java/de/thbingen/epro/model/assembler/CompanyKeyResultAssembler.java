@@ -3,6 +3,7 @@ package de.thbingen.epro.model.assembler;
 import de.thbingen.epro.controller.*;
 import de.thbingen.epro.model.dto.*;
 import de.thbingen.epro.model.entity.CompanyKeyResult;
+import de.thbingen.epro.model.projection.CompanyKeyResultProjection;
 import de.thbingen.epro.model.mapper.CompanyKeyResultMapper;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.hateoas.server.core.AnnotationLinkRelationProvider;
@@ -27,32 +28,32 @@ public class CompanyKeyResultAssembler implements RepresentationModelAssembler<C
     @Override
     public CompanyKeyResultDto toModel(CompanyKeyResult entity) {
         CompanyKeyResultDto companyKeyResultDto = companyKeyResultMapper.companyKeyResultToDto(entity)
-                .add(linkTo(methodOn(CompanyKeyResultController.class).findById(entity.getId())).withSelfRel());
+                .add(linkTo(methodOn(CompanyKeyResultController.class).findById(entity.getId(), null)).withSelfRel());
 
         if (entity.getCompanyObjective() != null) {
             companyKeyResultDto.add(
-                    linkTo(methodOn(CompanyObjectiveController.class).findById(entity.getCompanyObjective().getId()))
+                    linkTo(methodOn(CompanyObjectiveController.class).findById(entity.getCompanyObjective().getId(), null))
                             .withRel(annotationLinkRelationProvider.getItemResourceRelFor(CompanyObjectiveDto.class))
             );
         }
-        if (entity.getCompanyKeyResultHistories() != null && !entity.getCompanyKeyResultHistories().isEmpty()) {
+        if (entity.hasHistory()) {
             companyKeyResultDto.add(
-                    linkTo(methodOn(CompanyKeyResultHistoryController.class).getAll(null))
+                    linkTo(methodOn(CompanyKeyResultHistoryController.class).getAll(null, null))
                             .withRel(annotationLinkRelationProvider.getCollectionResourceRelFor(CompanyKeyResultHistoryDto.class))
             );
         }
         if (entity.getBusinessUnitObjectives() != null && !entity.getBusinessUnitObjectives().isEmpty()) {
             companyKeyResultDto.add(
                     entity.getBusinessUnitObjectives().stream().map(businessUnitObjective ->
-                                    linkTo(methodOn(BusinessUnitObjectiveController.class).findById(businessUnitObjective.getId()))
+                                    linkTo(methodOn(BusinessUnitObjectiveController.class).findById(businessUnitObjective.getId(), null))
                                             .withRel(annotationLinkRelationProvider.getCollectionResourceRelFor(BusinessUnitObjectiveDto.class)))
                             .collect(Collectors.toList())
             );
         }
         if (entity.getBusinessUnitKeyResults() != null && !entity.getBusinessUnitKeyResults().isEmpty()) {
             companyKeyResultDto.add(
-                    entity.getCompanyKeyResultHistories().stream().map(businessUnitKeyResult ->
-                                    linkTo(methodOn(BusinessUnitKeyResultController.class).findById(businessUnitKeyResult.getId()))
+                    entity.getBusinessUnitKeyResults().stream().map(businessUnitKeyResult ->
+                                    linkTo(methodOn(BusinessUnitKeyResultController.class).findById(businessUnitKeyResult.getId(), null))
                                             .withRel(annotationLinkRelationProvider.getCollectionResourceRelFor(BusinessUnitKeyResultDto.class)))
                             .collect(Collectors.toList())
             );
@@ -60,4 +61,43 @@ public class CompanyKeyResultAssembler implements RepresentationModelAssembler<C
 
         return companyKeyResultDto;
     }
-}
\ No newline at end of file
+
+    /**
+     * Converts the given {@link CompanyKeyResultProjection} into a {@link CompanyKeyResultDto} with the same links as
+     * {@link #toModel(CompanyKeyResult)}
+     *
+     * @param projection the projection, whose referencing ids and {@code hasHistory} flag have already been set
+     * @return the {@link CompanyKeyResultDto} with its links
+     */
+    public CompanyKeyResultDto toModel(CompanyKeyResultProjection projection) {
+        CompanyKeyResultDto companyKeyResultDto = companyKeyResultMapper.companyKeyResultProjectionToDto(projection)
+                .add(linkTo(methodOn(CompanyKeyResultController.class).findById(projection.getId(), null)).withSelfRel());
+
+        if (projection.getCompanyObjectiveId() != null) {
+            companyKeyResultDto.add(
+                    linkTo(methodOn(CompanyObjectiveController.class).findById(projection.getCompanyObjectiveId(), null))
+                            .withRel(annotationLinkRelationProvider.getItemResourceRelFor(CompanyObjectiveDto.class))
+            );
+        }
+        if (projection.hasHistory()) {
+            companyKeyResultDto.add(
+                    linkTo(methodOn(CompanyKeyResultHistoryController.class).getAll(null, null))
+                            .withRel(annotationLinkRelationProvider.getCollectionResourceRelFor(CompanyKeyResultHistoryDto.class))
+            );
+        }
+        companyKeyResultDto.add(
+                projection.getBusinessUnitObjectiveIds().stream().map(businessUnitObjectiveId ->
+                                linkTo(methodOn(BusinessUnitObjectiveController.class).findById(businessUnitObjectiveId, null))
+                                        .withRel(annotationLinkRelationProvider.getCollectionResourceRelFor(BusinessUnitObjectiveDto.class)))
+                        .collect(Collectors.toList())
+        );
+        companyKeyResultDto.add(
+                projection.getBusinessUnitKeyResultIds().stream().map(businessUnitKeyResultId ->
+                                linkTo(methodOn(BusinessUnitKeyResultController.class).findById(businessUnitKeyResultId, null))
+                                        .withRel(annotationLinkRelationProvider.getCollectionResourceRelFor(BusinessUnitKeyResultDto.class)))
+                        .collect(Collectors.toList())
+        );
+
+        return companyKeyResultDto;
+    }
+}
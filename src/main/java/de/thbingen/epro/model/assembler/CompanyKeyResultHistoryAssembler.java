@@ -32,12 +32,12 @@ public class CompanyKeyResultHistoryAssembler
     @Override
     public CompanyKeyResultHistoryDto toModel(CompanyKeyResultHistory entity) {
         return companyKeyResultHistoryMapper.companyKeyResultHistoryToDto(entity)
-                .add(linkTo(methodOn(controllerClass).getById(entity.getId())).withSelfRel())
+                .add(linkTo(methodOn(controllerClass).getById(entity.getId(), null)).withSelfRel())
                 .add(
-                        linkTo(methodOn(CompanyKeyResultController.class).findById(entity.getCompanyKeyResult().getId()))
+                        linkTo(methodOn(CompanyKeyResultController.class).findById(entity.getCompanyKeyResult().getId(), null))
                                 .withRel(annotationLinkRelationProvider.getItemResourceRelFor(CompanyKeyResultDto.class)))
                 .add(
-                        linkTo(methodOn(CompanyObjectiveController.class).findById(entity.getHistoricalCompanyKeyResult().getCompanyObjectiveId()))
+                        linkTo(methodOn(CompanyObjectiveController.class).findById(entity.getHistoricalCompanyKeyResult().getCompanyObjectiveId(), null))
                                 .withRel(annotationLinkRelationProvider.getItemResourceRelFor(CompanyObjectiveDto.class))
                 );
     }
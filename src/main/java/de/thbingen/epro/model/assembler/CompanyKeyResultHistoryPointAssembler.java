@@ -0,0 +1,35 @@
+package de.thbingen.epro.model.assembler;
+
+import de.thbingen.epro.controller.CompanyKeyResultHistoryController;
+import de.thbingen.epro.model.dto.CompanyKeyResultHistoryDto;
+import de.thbingen.epro.model.dto.KeyResultHistoryPointDto;
+import de.thbingen.epro.model.entity.CompanyKeyResultHistoryPoint;
+import de.thbingen.epro.model.mapper.KeyResultHistoryPointMapper;
+import org.springframework.hateoas.server.RepresentationModelAssembler;
+import org.springframework.hateoas.server.core.AnnotationLinkRelationProvider;
+import org.springframework.stereotype.Component;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+@Component
+public class CompanyKeyResultHistoryPointAssembler
+        implements RepresentationModelAssembler<CompanyKeyResultHistoryPoint, KeyResultHistoryPointDto> {
+
+    private final KeyResultHistoryPointMapper keyResultHistoryPointMapper;
+    private final AnnotationLinkRelationProvider annotationLinkRelationProvider;
+
+    public CompanyKeyResultHistoryPointAssembler(KeyResultHistoryPointMapper keyResultHistoryPointMapper, AnnotationLinkRelationProvider annotationLinkRelationProvider) {
+        this.keyResultHistoryPointMapper = keyResultHistoryPointMapper;
+        this.annotationLinkRelationProvider = annotationLinkRelationProvider;
+    }
+
+    @Override
+    public KeyResultHistoryPointDto toModel(CompanyKeyResultHistoryPoint entity) {
+        return keyResultHistoryPointMapper.companyKeyResultHistoryPointToDto(entity)
+                .add(
+                        linkTo(methodOn(CompanyKeyResultHistoryController.class).getById(entity.getHistoryId(), null))
+                                .withRel(annotationLinkRelationProvider.getItemResourceRelFor(CompanyKeyResultHistoryDto.class))
+                );
+    }
+}
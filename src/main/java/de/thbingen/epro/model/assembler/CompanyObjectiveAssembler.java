@@ -4,6 +4,7 @@ import de.thbingen.epro.controller.CompanyObjectiveController;
 import de.thbingen.epro.model.dto.CompanyKeyResultDto;
 import de.thbingen.epro.model.dto.CompanyObjectiveDto;
 import de.thbingen.epro.model.entity.CompanyObjective;
+import de.thbingen.epro.model.projection.CompanyObjectiveProjection;
 import de.thbingen.epro.model.mapper.CompanyObjectiveMapper;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.hateoas.server.core.AnnotationLinkRelationProvider;
@@ -28,7 +29,7 @@ public class CompanyObjectiveAssembler implements RepresentationModelAssembler<C
     @Override
     public CompanyObjectiveDto toModel(CompanyObjective entity) {
         CompanyObjectiveDto companyObjectiveDto = companyObjectiveMapper.companyObjectiveToDto(entity)
-                .add(linkTo(methodOn(controllerClass).findById(entity.getId())).withSelfRel());
+                .add(linkTo(methodOn(controllerClass).findById(entity.getId(), null)).withSelfRel());
 
         if (entity.getCompanyKeyResults() != null && !entity.getCompanyKeyResults().isEmpty()) {
             companyObjectiveDto.add(
@@ -39,4 +40,25 @@ public class CompanyObjectiveAssembler implements RepresentationModelAssembler<C
 
         return companyObjectiveDto;
     }
+
+    /**
+     * Converts the given {@link CompanyObjectiveProjection} into a {@link CompanyObjectiveDto} with the same links as
+     * {@link #toModel(CompanyObjective)}
+     *
+     * @param projection the projection, whose {@code hasCompanyKeyResults} flag has already been set
+     * @return the {@link CompanyObjectiveDto} with its links
+     */
+    public CompanyObjectiveDto toModel(CompanyObjectiveProjection projection) {
+        CompanyObjectiveDto companyObjectiveDto = companyObjectiveMapper.companyObjectiveProjectionToDto(projection)
+                .add(linkTo(methodOn(controllerClass).findById(projection.getId(), null)).withSelfRel());
+
+        if (projection.hasCompanyKeyResults()) {
+            companyObjectiveDto.add(
+                    linkTo(methodOn(CompanyObjectiveController.class).findAllCompanyKeyResultsByCompanyObjectiveId(null, projection.getId()))
+                            .withRel(annotationLinkRelationProvider.getCollectionResourceRelFor(CompanyKeyResultDto.class))
+            );
+        }
+
+        return companyObjectiveDto;
+    }
 }
@@ -8,6 +8,7 @@ import de.thbingen.epro.model.dto.OkrUserDto;
 import de.thbingen.epro.model.dto.RoleDto;
 import de.thbingen.epro.model.entity.OkrUser;
 import de.thbingen.epro.model.mapper.OkrUserMapper;
+import de.thbingen.epro.security.AuthenticatedUser;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.hateoas.server.core.AnnotationLinkRelationProvider;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -29,20 +30,20 @@ public class OkrUserAssembler implements RepresentationModelAssembler<OkrUser, O
 
     @Override
     public OkrUserDto toModel(OkrUser entity) {
-        OkrUser okrUser = (OkrUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        AuthenticatedUser authenticatedUser = (AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
         OkrUserDto okrUserDto = okrUserMapper.okrUserToDto(entity)
-                .add(linkTo(methodOn(OkrUserController.class).findById(entity.getId())).withSelfRel());
+                .add(linkTo(methodOn(OkrUserController.class).findById(entity.getId(), null)).withSelfRel());
 
-        if (okrUser.hasPrivilege("access_roles") && entity.getRole() != null) {
+        if (authenticatedUser.hasPrivilege("access_roles") && entity.getRole() != null) {
             okrUserDto.add(
-                    linkTo(methodOn(RoleController.class).findById(entity.getRole().getId()))
+                    linkTo(methodOn(RoleController.class).findById(entity.getRole().getId(), null))
                             .withRel(annotationLinkRelationProvider.getItemResourceRelFor(RoleDto.class))
             );
         }
         if (entity.getBusinessUnit() != null) {
             okrUserDto.add(
-                    linkTo(methodOn(BusinessUnitController.class).findById(entity.getBusinessUnit().getId()))
+                    linkTo(methodOn(BusinessUnitController.class).findById(entity.getBusinessUnit().getId(), null))
                             .withRel(annotationLinkRelationProvider.getItemResourceRelFor(BusinessUnitDto.class))
             );
         }
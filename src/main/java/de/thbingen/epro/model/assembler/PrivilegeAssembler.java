@@ -4,9 +4,9 @@ import de.thbingen.epro.controller.PrivilegeController;
 import de.thbingen.epro.controller.RoleController;
 import de.thbingen.epro.model.dto.PrivilegeDto;
 import de.thbingen.epro.model.dto.RoleDto;
-import de.thbingen.epro.model.entity.OkrUser;
 import de.thbingen.epro.model.entity.Privilege;
 import de.thbingen.epro.model.mapper.PrivilegeMapper;
+import de.thbingen.epro.security.AuthenticatedUser;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.hateoas.server.core.AnnotationLinkRelationProvider;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -30,14 +30,14 @@ public class PrivilegeAssembler implements RepresentationModelAssembler<Privileg
 
     @Override
     public PrivilegeDto toModel(Privilege entity) {
-        OkrUser okrUser = (OkrUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        AuthenticatedUser authenticatedUser = (AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
         PrivilegeDto privilegeDto = privilegeMapper.privilegeToDto(entity)
-                .add(linkTo(methodOn(PrivilegeController.class).findById(entity.getId())).withSelfRel());
+                .add(linkTo(methodOn(PrivilegeController.class).findById(entity.getId(), null)).withSelfRel());
 
-        if (okrUser.hasPrivilege("access_roles") && entity.getRoles() != null && !entity.getRoles().isEmpty()) {
+        if (authenticatedUser.hasPrivilege("access_roles") && entity.getRoles() != null && !entity.getRoles().isEmpty()) {
             privilegeDto.add(
-                    entity.getRoles().stream().map(role -> linkTo(methodOn(RoleController.class).findById(role.getId()))
+                    entity.getRoles().stream().map(role -> linkTo(methodOn(RoleController.class).findById(role.getId(), null))
                                     .withRel(annotationLinkRelationProvider.getCollectionResourceRelFor(RoleDto.class)))
                             .collect(Collectors.toList())
             );
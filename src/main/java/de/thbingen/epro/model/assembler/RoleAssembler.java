@@ -4,9 +4,9 @@ import de.thbingen.epro.controller.RoleController;
 import de.thbingen.epro.model.dto.OkrUserDto;
 import de.thbingen.epro.model.dto.PrivilegeDto;
 import de.thbingen.epro.model.dto.RoleDto;
-import de.thbingen.epro.model.entity.OkrUser;
 import de.thbingen.epro.model.entity.Role;
 import de.thbingen.epro.model.mapper.RoleMapper;
+import de.thbingen.epro.security.AuthenticatedUser;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.hateoas.server.core.AnnotationLinkRelationProvider;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -28,18 +28,18 @@ public class RoleAssembler implements RepresentationModelAssembler<Role, RoleDto
 
     @Override
     public RoleDto toModel(Role entity) {
-        OkrUser okrUser = (OkrUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        AuthenticatedUser authenticatedUser = (AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
         RoleDto roleDto = roleMapper.roleToDto(entity)
-                .add(linkTo(methodOn(RoleController.class).findById(entity.getId())).withSelfRel());
+                .add(linkTo(methodOn(RoleController.class).findById(entity.getId(), null)).withSelfRel());
 
-        if (okrUser.hasPrivilege("view_users") && entity.getOkrUsers() != null && !entity.getOkrUsers().isEmpty()) {
+        if (authenticatedUser.hasPrivilege("view_users") && entity.getOkrUsers() != null && !entity.getOkrUsers().isEmpty()) {
             roleDto.add(
                     linkTo(methodOn(RoleController.class).findAllUsersWithRole(null, entity.getId()))
                             .withRel(annotationLinkRelationProvider.getCollectionResourceRelFor(OkrUserDto.class))
             );
         }
-        if (okrUser.hasPrivilege("access_privileges") && entity.getPrivileges() != null && !entity.getPrivileges().isEmpty()) {
+        if (authenticatedUser.hasPrivilege("access_privileges") && entity.getPrivileges() != null && !entity.getPrivileges().isEmpty()) {
             roleDto.add(
                     linkTo(methodOn(RoleController.class).findAllPrivilegesInRole(null, entity.getId()))
                             .withRel(annotationLinkRelationProvider.getCollectionResourceRelFor(PrivilegeDto.class))
@@ -0,0 +1,36 @@
+package de.thbingen.epro.model.dto;
+
+import de.thbingen.epro.exception.InvalidHistoryBucketException;
+
+import java.util.Locale;
+
+/**
+ * The size of the buckets, into which the history of a key result is aggregated. Each bucket starts at the beginning
+ * of its hour, day or week in UTC, weeks start on Monday.
+ */
+public enum HistoryBucket {
+    HOUR,
+    DAY,
+    WEEK;
+
+    /**
+     * @param name the name of the bucket as given in the request, regardless of case
+     * @return the bucket with the given name
+     * @throws InvalidHistoryBucketException if there is no bucket with the given name
+     */
+    public static HistoryBucket of(String name) {
+        for (HistoryBucket bucket : values()) {
+            if (bucket.name().equalsIgnoreCase(name)) {
+                return bucket;
+            }
+        }
+        throw new InvalidHistoryBucketException();
+    }
+
+    /**
+     * @return the field passed to {@code date_trunc} to find the start of the bucket of a point in time
+     */
+    public String getUnit() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,107 @@
+package de.thbingen.epro.model.dto;
+
+import org.springframework.hateoas.server.core.Relation;
+
+import java.time.OffsetDateTime;
+
+/**
+ * The changes of a key result within one bucket of its history. The values are the ones the key result had after each
+ * change, {@code changes} is the number of changes in the bucket.
+ */
+@Relation(collectionRelation = "keyResultHistoryBucketList", itemRelation = "keyResultHistoryBucket")
+public class KeyResultHistoryBucketDto {
+
+    private OffsetDateTime start;
+    private Long changes;
+    private Float lastValue;
+    private Float minValue;
+    private Float maxValue;
+    private Double avgValue;
+    private Float lastConfidenceLevel;
+    private Float minConfidenceLevel;
+    private Float maxConfidenceLevel;
+    private Double avgConfidenceLevel;
+
+    public KeyResultHistoryBucketDto() {
+    }
+
+    public OffsetDateTime getStart() {
+        return start;
+    }
+
+    public void setStart(OffsetDateTime start) {
+        this.start = start;
+    }
+
+    public Long getChanges() {
+        return changes;
+    }
+
+    public void setChanges(Long changes) {
+        this.changes = changes;
+    }
+
+    public Float getLastValue() {
+        return lastValue;
+    }
+
+    public void setLastValue(Float lastValue) {
+        this.lastValue = lastValue;
+    }
+
+    public Float getMinValue() {
+        return minValue;
+    }
+
+    public void setMinValue(Float minValue) {
+        this.minValue = minValue;
+    }
+
+    public Float getMaxValue() {
+        return maxValue;
+    }
+
+    public void setMaxValue(Float maxValue) {
+        this.maxValue = maxValue;
+    }
+
+    public Double getAvgValue() {
+        return avgValue;
+    }
+
+    public void setAvgValue(Double avgValue) {
+        this.avgValue = avgValue;
+    }
+
+    public Float getLastConfidenceLevel() {
+        return lastConfidenceLevel;
+    }
+
+    public void setLastConfidenceLevel(Float lastConfidenceLevel) {
+        this.lastConfidenceLevel = lastConfidenceLevel;
+    }
+
+    public Float getMinConfidenceLevel() {
+        return minConfidenceLevel;
+    }
+
+    public void setMinConfidenceLevel(Float minConfidenceLevel) {
+        this.minConfidenceLevel = minConfidenceLevel;
+    }
+
+    public Float getMaxConfidenceLevel() {
+        return maxConfidenceLevel;
+    }
+
+    public void setMaxConfidenceLevel(Float maxConfidenceLevel) {
+        this.maxConfidenceLevel = maxConfidenceLevel;
+    }
+
+    public Double getAvgConfidenceLevel() {
+        return avgConfidenceLevel;
+    }
+
+    public void setAvgConfidenceLevel(Double avgConfidenceLevel) {
+        this.avgConfidenceLevel = avgConfidenceLevel;
+    }
+}
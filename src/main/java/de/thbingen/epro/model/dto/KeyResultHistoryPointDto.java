@@ -0,0 +1,71 @@
+package de.thbingen.epro.model.dto;
+
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.server.core.Relation;
+
+import java.time.OffsetDateTime;
+
+/**
+ * The values of a key result, which were replaced at the {@code changeTimeStamp}. The full snapshot of the key result
+ * is linked.
+ */
+@Relation(collectionRelation = "keyResultHistoryPointList", itemRelation = "keyResultHistoryPoint")
+public class KeyResultHistoryPointDto extends RepresentationModel<KeyResultHistoryPointDto> {
+
+    private OffsetDateTime changeTimeStamp;
+    private Float currentValue;
+    private Float goalValue;
+    private Float confidenceLevel;
+    private Float achievement;
+
+    public KeyResultHistoryPointDto() {
+    }
+
+    public KeyResultHistoryPointDto(OffsetDateTime changeTimeStamp, Float currentValue, Float goalValue, Float confidenceLevel, Float achievement) {
+        this.changeTimeStamp = changeTimeStamp;
+        this.currentValue = currentValue;
+        this.goalValue = goalValue;
+        this.confidenceLevel = confidenceLevel;
+        this.achievement = achievement;
+    }
+
+    public OffsetDateTime getChangeTimeStamp() {
+        return changeTimeStamp;
+    }
+
+    public void setChangeTimeStamp(OffsetDateTime changeTimeStamp) {
+        this.changeTimeStamp = changeTimeStamp;
+    }
+
+    public Float getCurrentValue() {
+        return currentValue;
+    }
+
+    public void setCurrentValue(Float currentValue) {
+        this.currentValue = currentValue;
+    }
+
+    public Float getGoalValue() {
+        return goalValue;
+    }
+
+    public void setGoalValue(Float goalValue) {
+        this.goalValue = goalValue;
+    }
+
+    public Float getConfidenceLevel() {
+        return confidenceLevel;
+    }
+
+    public void setConfidenceLevel(Float confidenceLevel) {
+        this.confidenceLevel = confidenceLevel;
+    }
+
+    public Float getAchievement() {
+        return achievement;
+    }
+
+    public void setAchievement(Float achievement) {
+        this.achievement = achievement;
+    }
+}
@@ -0,0 +1,52 @@
+package de.thbingen.epro.model.dto.dashboard;
+
+import org.springframework.hateoas.RepresentationModel;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * The dashboard of a single {@link de.thbingen.epro.model.entity.BusinessUnit} on a certain date. The
+ * {@link de.thbingen.epro.model.entity.BusinessUnitObjective}s active on that date are grouped under the
+ * {@link de.thbingen.epro.model.entity.CompanyKeyResult} they reference, objectives without a reference are listed
+ * separately.
+ */
+public class BusinessUnitDashboard extends RepresentationModel<BusinessUnitDashboard> {
+
+    private LocalDate date;
+    private List<CompanyObjectiveDashboardItem> companyObjectiveDashboardItems;
+    private List<BusinessUnitDashboardItem> unreferencedBusinessUnitDashboardItems;
+
+    public BusinessUnitDashboard() {
+    }
+
+    public BusinessUnitDashboard(LocalDate date, List<CompanyObjectiveDashboardItem> companyObjectiveDashboardItems, List<BusinessUnitDashboardItem> unreferencedBusinessUnitDashboardItems) {
+        this.date = date;
+        this.companyObjectiveDashboardItems = companyObjectiveDashboardItems;
+        this.unreferencedBusinessUnitDashboardItems = unreferencedBusinessUnitDashboardItems;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public List<CompanyObjectiveDashboardItem> getCompanyObjectiveDashboardItems() {
+        return companyObjectiveDashboardItems;
+    }
+
+    public void setCompanyObjectiveDashboardItems(List<CompanyObjectiveDashboardItem> companyObjectiveDashboardItems) {
+        this.companyObjectiveDashboardItems = companyObjectiveDashboardItems;
+    }
+
+    public List<BusinessUnitDashboardItem> getUnreferencedBusinessUnitDashboardItems() {
+        return unreferencedBusinessUnitDashboardItems;
+    }
+
+    public void setUnreferencedBusinessUnitDashboardItems(List<BusinessUnitDashboardItem> unreferencedBusinessUnitDashboardItems) {
+        this.unreferencedBusinessUnitDashboardItems = unreferencedBusinessUnitDashboardItems;
+    }
+}
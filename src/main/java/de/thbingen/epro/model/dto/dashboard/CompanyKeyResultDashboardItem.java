@@ -0,0 +1,39 @@
+package de.thbingen.epro.model.dto.dashboard;
+
+import de.thbingen.epro.model.dto.CompanyKeyResultDto;
+
+import java.util.List;
+
+/**
+ * Container for a single {@link de.thbingen.epro.model.entity.CompanyKeyResult} and the
+ * {@link BusinessUnitDashboardItem}s of the {@link de.thbingen.epro.model.entity.BusinessUnitObjective}s referencing it
+ */
+public class CompanyKeyResultDashboardItem {
+
+    private CompanyKeyResultDto companyKeyResult;
+    private List<BusinessUnitDashboardItem> businessUnitDashboardItems;
+
+    public CompanyKeyResultDashboardItem() {
+    }
+
+    public CompanyKeyResultDashboardItem(CompanyKeyResultDto companyKeyResult, List<BusinessUnitDashboardItem> businessUnitDashboardItems) {
+        this.companyKeyResult = companyKeyResult;
+        this.businessUnitDashboardItems = businessUnitDashboardItems;
+    }
+
+    public CompanyKeyResultDto getCompanyKeyResult() {
+        return companyKeyResult;
+    }
+
+    public void setCompanyKeyResult(CompanyKeyResultDto companyKeyResult) {
+        this.companyKeyResult = companyKeyResult;
+    }
+
+    public List<BusinessUnitDashboardItem> getBusinessUnitDashboardItems() {
+        return businessUnitDashboardItems;
+    }
+
+    public void setBusinessUnitDashboardItems(List<BusinessUnitDashboardItem> businessUnitDashboardItems) {
+        this.businessUnitDashboardItems = businessUnitDashboardItems;
+    }
+}
@@ -0,0 +1,40 @@
+package de.thbingen.epro.model.dto.dashboard;
+
+import de.thbingen.epro.model.dto.CompanyObjectiveDto;
+
+import java.util.List;
+
+/**
+ * Container for a single {@link de.thbingen.epro.model.entity.CompanyObjective} and those of its
+ * {@link de.thbingen.epro.model.entity.CompanyKeyResult}s, which are referenced by the
+ * {@link de.thbingen.epro.model.entity.BusinessUnitObjective}s shown on a {@link BusinessUnitDashboard}
+ */
+public class CompanyObjectiveDashboardItem {
+
+    private CompanyObjectiveDto companyObjective;
+    private List<CompanyKeyResultDashboardItem> companyKeyResultDashboardItems;
+
+    public CompanyObjectiveDashboardItem() {
+    }
+
+    public CompanyObjectiveDashboardItem(CompanyObjectiveDto companyObjective, List<CompanyKeyResultDashboardItem> companyKeyResultDashboardItems) {
+        this.companyObjective = companyObjective;
+        this.companyKeyResultDashboardItems = companyKeyResultDashboardItems;
+    }
+
+    public CompanyObjectiveDto getCompanyObjective() {
+        return companyObjective;
+    }
+
+    public void setCompanyObjective(CompanyObjectiveDto companyObjective) {
+        this.companyObjective = companyObjective;
+    }
+
+    public List<CompanyKeyResultDashboardItem> getCompanyKeyResultDashboardItems() {
+        return companyKeyResultDashboardItems;
+    }
+
+    public void setCompanyKeyResultDashboardItems(List<CompanyKeyResultDashboardItem> companyKeyResultDashboardItems) {
+        this.companyKeyResultDashboardItems = companyKeyResultDashboardItems;
+    }
+}
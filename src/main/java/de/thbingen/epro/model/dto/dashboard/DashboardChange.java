@@ -0,0 +1,80 @@
+package de.thbingen.epro.model.dto.dashboard;
+
+import org.springframework.hateoas.RepresentationModel;
+
+/**
+ * A single change of the dashboard, which is pushed to the subscribers of the dashboard stream. A saved entry carries
+ * its new DTO as {@code content}, a removed entry only its {@code id}. Removing an objective implicitly removes all of
+ * its key results.
+ */
+public class DashboardChange {
+
+    public enum Type {
+        COMPANY_OBJECTIVE,
+        COMPANY_KEY_RESULT,
+        BUSINESS_UNIT_OBJECTIVE,
+        BUSINESS_UNIT_KEY_RESULT
+    }
+
+    public enum Action {
+        SAVED,
+        REMOVED
+    }
+
+    private Type type;
+    private Action action;
+    private Long id;
+    private Long objectiveId;
+    private RepresentationModel<?> content;
+
+    public DashboardChange() {
+    }
+
+    public DashboardChange(Type type, Action action, Long id, Long objectiveId, RepresentationModel<?> content) {
+        this.type = type;
+        this.action = action;
+        this.id = id;
+        this.objectiveId = objectiveId;
+        this.content = content;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    public void setAction(Action action) {
+        this.action = action;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getObjectiveId() {
+        return objectiveId;
+    }
+
+    public void setObjectiveId(Long objectiveId) {
+        this.objectiveId = objectiveId;
+    }
+
+    public RepresentationModel<?> getContent() {
+        return content;
+    }
+
+    public void setContent(RepresentationModel<?> content) {
+        this.content = content;
+    }
+}
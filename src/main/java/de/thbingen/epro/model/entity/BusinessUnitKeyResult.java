@@ -1,5 +1,6 @@
 package de.thbingen.epro.model.entity;
 
+import org.hibernate.annotations.Formula;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
@@ -49,6 +50,10 @@ public class BusinessUnitKeyResult {
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Set<BusinessUnitKeyResultHistory> businessUnitKeyResultHistories = new HashSet<>();
 
+    // read along with the key result, so the link to the history is built without loading the history itself
+    @Formula("(select exists(select 1 from business_unit_key_result_history h where h.ref_id = id))")
+    private boolean hasHistory;
+
     public BusinessUnitKeyResult() {
     }
 
@@ -147,6 +152,14 @@ public class BusinessUnitKeyResult {
         this.businessUnitKeyResultHistories = businessUnitKeyResultHistories;
     }
 
+    public boolean hasHistory() {
+        return hasHistory;
+    }
+
+    public void setHasHistory(boolean hasHistory) {
+        this.hasHistory = hasHistory;
+    }
+
     public OffsetDateTime getTimestamp() {
         return timestamp;
     }
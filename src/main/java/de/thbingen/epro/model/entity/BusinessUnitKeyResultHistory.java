@@ -3,6 +3,7 @@ package de.thbingen.epro.model.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.vladmihalcea.hibernate.type.json.JsonBinaryType;
 import org.hibernate.annotations.Type;
 import org.hibernate.annotations.TypeDef;
@@ -28,8 +29,20 @@ public class BusinessUnitKeyResultHistory {
     @JoinColumn(name = "ref_id")
     private BusinessUnitKeyResult currentBusinessUnitKeyResult;
 
+    @Column(nullable = false)
+    private boolean keyframe;
+
+    // a keyframe retained by the compaction, which holds the row at the end of its day or week instead of the replaced one
+    @Column(nullable = false)
+    private boolean compacted;
+
+    // a keyframe holds the whole replaced row, any other entry only the columns replaced by its change
     @Column(name = "historical_data", nullable = false, columnDefinition = "jsonb")
     @Type(type = "jsonb")
+    private JsonNode historicalData;
+
+    // the full snapshot, which is rebuilt from the historical data of this entry and the newer ones
+    @Transient
     private HistoricalBusinessUnitKeyResult historicalBusinessUnitKeyResult;
 
     @Transient
@@ -40,6 +53,7 @@ public class BusinessUnitKeyResultHistory {
         this.currentBusinessUnitKeyResult = currentBusinessUnitKeyResult;
         this.changeTimeStamp = changeTimeStamp;
         this.historicalBusinessUnitKeyResult = businessUnitKeyResultHistorical;
+        this.keyframe = true;
     }
 
     public BusinessUnitKeyResultHistory() {
@@ -69,6 +83,30 @@ public class BusinessUnitKeyResultHistory {
         this.currentBusinessUnitKeyResult = businessUnitKeyResultOrigin;
     }
 
+    public boolean isKeyframe() {
+        return keyframe;
+    }
+
+    public void setKeyframe(boolean keyframe) {
+        this.keyframe = keyframe;
+    }
+
+    public boolean isCompacted() {
+        return compacted;
+    }
+
+    public void setCompacted(boolean compacted) {
+        this.compacted = compacted;
+    }
+
+    public JsonNode getHistoricalData() {
+        return historicalData;
+    }
+
+    public void setHistoricalData(JsonNode historicalData) {
+        this.historicalData = historicalData;
+    }
+
     @JsonIgnore
     public HistoricalBusinessUnitKeyResult getHistoricalBusinessUnitKeyResult() {
         return historicalBusinessUnitKeyResult;
@@ -1,5 +1,7 @@
 package de.thbingen.epro.model.entity;
 
+import org.hibernate.annotations.Formula;
+
 import javax.persistence.*;
 import java.time.OffsetDateTime;
 import java.util.HashSet;
@@ -43,6 +45,10 @@ public class CompanyKeyResult {
     @OneToMany(mappedBy = "companyKeyResult", targetEntity = CompanyKeyResultHistory.class, cascade = CascadeType.ALL)
     private Set<CompanyKeyResultHistory> companyKeyResultHistories = new HashSet<>();
 
+    // evaluated in the same select as the key result, the assembler only needs to know whether there is a history
+    @Formula("(select exists(select 1 from company_key_result_history h where h.ref_id = id))")
+    private boolean hasHistory;
+
     @OneToMany(mappedBy = "companyKeyResult", targetEntity = BusinessUnitKeyResult.class, cascade = CascadeType.ALL)
     private Set<BusinessUnitKeyResult> businessUnitKeyResults = new HashSet<>();
 
@@ -162,6 +168,14 @@ public class CompanyKeyResult {
         this.companyKeyResultHistories = companyKeyResultHistories;
     }
 
+    public boolean hasHistory() {
+        return hasHistory;
+    }
+
+    public void setHasHistory(boolean hasHistory) {
+        this.hasHistory = hasHistory;
+    }
+
     public Set<BusinessUnitKeyResult> getBusinessUnitKeyResults() {
         return businessUnitKeyResults;
     }
@@ -1,5 +1,6 @@
 package de.thbingen.epro.model.entity;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.vladmihalcea.hibernate.type.json.JsonBinaryType;
 import org.hibernate.annotations.Type;
 import org.hibernate.annotations.TypeDef;
@@ -25,8 +26,20 @@ public class CompanyKeyResultHistory {
     @JoinColumn(name = "ref_id")
     private CompanyKeyResult companyKeyResult;
 
+    @Column(nullable = false)
+    private boolean keyframe;
+
+    // a keyframe retained by the compaction, which holds the row at the end of its day or week instead of the replaced one
+    @Column(nullable = false)
+    private boolean compacted;
+
+    // a keyframe holds the whole replaced row, any other entry only the columns replaced by its change
     @Column(name = "historical_data", nullable = false, columnDefinition = "jsonb")
     @Type(type = "jsonb")
+    private JsonNode historicalData;
+
+    // the full snapshot, which is rebuilt from the historical data of this entry and the newer ones
+    @Transient
     private HistoricalCompanyKeyResult historicalCompanyKeyResult;
 
     public CompanyKeyResultHistory() {
@@ -37,6 +50,7 @@ public class CompanyKeyResultHistory {
         this.changeTimeStamp = changeTimeStamp;
         this.companyKeyResult = companyKeyResult;
         this.historicalCompanyKeyResult = historicalCompanyKeyResult;
+        this.keyframe = true;
     }
 
     public Long getId() {
@@ -63,6 +77,30 @@ public class CompanyKeyResultHistory {
         this.companyKeyResult = companyKeyResult;
     }
 
+    public boolean isKeyframe() {
+        return keyframe;
+    }
+
+    public void setKeyframe(boolean keyframe) {
+        this.keyframe = keyframe;
+    }
+
+    public boolean isCompacted() {
+        return compacted;
+    }
+
+    public void setCompacted(boolean compacted) {
+        this.compacted = compacted;
+    }
+
+    public JsonNode getHistoricalData() {
+        return historicalData;
+    }
+
+    public void setHistoricalData(JsonNode historicalData) {
+        this.historicalData = historicalData;
+    }
+
     public HistoricalCompanyKeyResult getHistoricalCompanyKeyResult() {
         return historicalCompanyKeyResult;
     }
@@ -0,0 +1,161 @@
+package de.thbingen.epro.model.entity;
+
+import de.thbingen.epro.model.projection.KeyResultHistoryBucketProjection;
+
+import javax.persistence.*;
+import java.time.OffsetDateTime;
+
+/*
+ * The values of a CompanyKeyResultHistory, which are written by the historization trigger next to the jsonb snapshot and
+ * are read without parsing it
+ */
+@Entity
+@NamedNativeQuery(
+        name = "CompanyKeyResultHistoryPoint.findSeriesByCompanyKeyResultId",
+        // every point holds the values replaced by a change, so the values after it are the ones of the next point,
+        // of the first point after the time range or finally the current ones of the key result. Only a compacted
+        // point already holds the values after its change, at the end of its day or week
+        query = "with next_point as (" +
+                "    select n.current_value, n.confidence_level from company_key_result_history_point n " +
+                "    where n.ref_id = :companyKeyResultId and n.change_time_stamp >= :to " +
+                "    order by n.change_time_stamp, n.history_id limit 1" +
+                "), after_range as (" +
+                "    select current_value, confidence_level from next_point " +
+                "    union all " +
+                "    select kr.current_value, kr.confidence_level from company_key_result kr " +
+                "    where kr.id = :companyKeyResultId and not exists(select 1 from next_point)" +
+                "), changes as (" +
+                "    select p.history_id, p.change_time_stamp, " +
+                "           case when p.compacted then p.current_value " +
+                "                else coalesce(lead(p.current_value) over w, (select current_value from after_range)) end as current_value, " +
+                "           case when p.compacted then p.confidence_level " +
+                "                else coalesce(lead(p.confidence_level) over w, (select confidence_level from after_range)) end as confidence_level " +
+                "    from company_key_result_history_point p " +
+                "    where p.ref_id = :companyKeyResultId and p.change_time_stamp >= :from and p.change_time_stamp < :to " +
+                "    window w as (order by p.change_time_stamp, p.history_id)" +
+                ") " +
+                "select date_trunc(cast(:unit as text), c.change_time_stamp, 'UTC') as start, " +
+                "       count(*) as changes, " +
+                "       (array_agg(c.current_value order by c.change_time_stamp desc, c.history_id desc))[1] as last_value, " +
+                "       min(c.current_value) as min_value, " +
+                "       max(c.current_value) as max_value, " +
+                "       avg(c.current_value) as avg_value, " +
+                "       (array_agg(c.confidence_level order by c.change_time_stamp desc, c.history_id desc))[1] as last_confidence_level, " +
+                "       min(c.confidence_level) as min_confidence_level, " +
+                "       max(c.confidence_level) as max_confidence_level, " +
+                "       avg(c.confidence_level) as avg_confidence_level " +
+                "from changes c " +
+                "group by 1 " +
+                "order by 1",
+        resultSetMapping = "CompanyKeyResultHistoryBucket"
+)
+@SqlResultSetMapping(
+        name = "CompanyKeyResultHistoryBucket",
+        classes = @ConstructorResult(
+                targetClass = KeyResultHistoryBucketProjection.class,
+                columns = {
+                        @ColumnResult(name = "start", type = OffsetDateTime.class),
+                        @ColumnResult(name = "changes", type = Long.class),
+                        @ColumnResult(name = "last_value", type = Float.class),
+                        @ColumnResult(name = "min_value", type = Float.class),
+                        @ColumnResult(name = "max_value", type = Float.class),
+                        @ColumnResult(name = "avg_value", type = Double.class),
+                        @ColumnResult(name = "last_confidence_level", type = Float.class),
+                        @ColumnResult(name = "min_confidence_level", type = Float.class),
+                        @ColumnResult(name = "max_confidence_level", type = Float.class),
+                        @ColumnResult(name = "avg_confidence_level", type = Double.class)
+                }
+        )
+)
+public class CompanyKeyResultHistoryPoint {
+    @Id
+    @Column(updatable = false)
+    private Long historyId;
+
+    @Column(name = "ref_id", nullable = false, updatable = false)
+    private Long companyKeyResultId;
+
+    @Column(nullable = false, updatable = false)
+    private OffsetDateTime changeTimeStamp;
+
+    @Column(nullable = false, updatable = false)
+    private Float currentValue;
+
+    @Column(nullable = false, updatable = false)
+    private Float goalValue;
+
+    @Column(nullable = false, updatable = false)
+    private Float confidenceLevel;
+
+    @Column(nullable = false, updatable = false)
+    private Float achievement;
+
+    public CompanyKeyResultHistoryPoint() {
+    }
+
+    public CompanyKeyResultHistoryPoint(Long historyId, Long companyKeyResultId, OffsetDateTime changeTimeStamp, Float currentValue, Float goalValue, Float confidenceLevel, Float achievement) {
+        this.historyId = historyId;
+        this.companyKeyResultId = companyKeyResultId;
+        this.changeTimeStamp = changeTimeStamp;
+        this.currentValue = currentValue;
+        this.goalValue = goalValue;
+        this.confidenceLevel = confidenceLevel;
+        this.achievement = achievement;
+    }
+
+    public Long getHistoryId() {
+        return historyId;
+    }
+
+    public void setHistoryId(Long historyId) {
+        this.historyId = historyId;
+    }
+
+    public Long getCompanyKeyResultId() {
+        return companyKeyResultId;
+    }
+
+    public void setCompanyKeyResultId(Long companyKeyResultId) {
+        this.companyKeyResultId = companyKeyResultId;
+    }
+
+    public OffsetDateTime getChangeTimeStamp() {
+        return changeTimeStamp;
+    }
+
+    public void setChangeTimeStamp(OffsetDateTime changeTimeStamp) {
+        this.changeTimeStamp = changeTimeStamp;
+    }
+
+    public Float getCurrentValue() {
+        return currentValue;
+    }
+
+    public void setCurrentValue(Float currentValue) {
+        this.currentValue = currentValue;
+    }
+
+    public Float getGoalValue() {
+        return goalValue;
+    }
+
+    public void setGoalValue(Float goalValue) {
+        this.goalValue = goalValue;
+    }
+
+    public Float getConfidenceLevel() {
+        return confidenceLevel;
+    }
+
+    public void setConfidenceLevel(Float confidenceLevel) {
+        this.confidenceLevel = confidenceLevel;
+    }
+
+    public Float getAchievement() {
+        return achievement;
+    }
+
+    public void setAchievement(Float achievement) {
+        this.achievement = achievement;
+    }
+}
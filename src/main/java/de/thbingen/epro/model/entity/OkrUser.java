@@ -1,14 +1,11 @@
 package de.thbingen.epro.model.entity;
 
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import javax.persistence.*;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.Set;
 
 @Entity
 public class OkrUser implements UserDetails {
@@ -36,6 +33,10 @@ public class OkrUser implements UserDetails {
     @JoinColumn(name = "business_unit_id")
     private BusinessUnit businessUnit;
 
+    // only read and incremented by the queries of OkrUserRepository, which bypass the persistence context
+    @Column(name = "token_version", insertable = false, updatable = false)
+    private int tokenVersion;
+
     public OkrUser() {
     }
 
@@ -105,13 +106,10 @@ public class OkrUser implements UserDetails {
 
     @Override
     public Collection<GrantedAuthority> getAuthorities() {
-        List<GrantedAuthority> authorities = new ArrayList<>();
-        Set<Privilege> privileges = role.getPrivileges();
-
-        for (Privilege privilege : privileges) {
-            authorities.add(new SimpleGrantedAuthority(privilege.getName()));
+        if (role == null) {
+            return List.of();
         }
-        return authorities;
+        return role.getPrivilegeSet().getAuthorities();
     }
 
     @Override
@@ -135,7 +133,6 @@ public class OkrUser implements UserDetails {
     }
 
     public boolean hasPrivilege(String privilegeName) {
-        return role != null &&
-                role.getPrivileges().stream().anyMatch(privilege -> privilege.getName().equals(privilegeName));
+        return role != null && role.getPrivilegeSet().contains(privilegeName);
     }
 }
@@ -0,0 +1,43 @@
+package de.thbingen.epro.model.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import java.time.OffsetDateTime;
+
+/*
+ * The id of a token revoked by a logout, which is only kept until the token would have expired anyway
+ */
+@Entity
+public class RevokedToken {
+    @Id
+    @Column(updatable = false)
+    private String tokenId;
+
+    @Column(nullable = false)
+    private OffsetDateTime expiresAt;
+
+    public RevokedToken() {
+    }
+
+    public RevokedToken(String tokenId, OffsetDateTime expiresAt) {
+        this.tokenId = tokenId;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public void setTokenId(String tokenId) {
+        this.tokenId = tokenId;
+    }
+
+    public OffsetDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(OffsetDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -1,9 +1,12 @@
 package de.thbingen.epro.model.entity;
 
 
+import de.thbingen.epro.security.PrivilegeSet;
+
 import javax.persistence.*;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @Entity
 public class Role {
@@ -27,6 +30,10 @@ public class Role {
     @JoinColumn(name = "role_id")
     private Set<OkrUser> okrUsers = new HashSet<>();
 
+    // built from the privileges on first use, every change of the privileges through this entity rebuilds it
+    @Transient
+    private PrivilegeSet privilegeSet;
+
     public Role(Long id, String name) {
         this.id = id;
         this.name = name;
@@ -53,6 +60,31 @@ public class Role {
 
     public void setPrivileges(Set<Privilege> privileges) {
         this.privileges = privileges;
+        this.privilegeSet = null;
+    }
+
+    /**
+     * @return the names of the privileges of this role as an immutable bitset
+     */
+    public PrivilegeSet getPrivilegeSet() {
+        PrivilegeSet result = privilegeSet;
+        if (result == null) {
+            result = rebuildPrivilegeSet();
+        }
+        return result;
+    }
+
+    /**
+     * Builds the {@link PrivilegeSet} anew from the current privileges
+     *
+     * @return the rebuilt set
+     */
+    public PrivilegeSet rebuildPrivilegeSet() {
+        PrivilegeSet result = privileges == null ? PrivilegeSet.EMPTY : PrivilegeSet.of(
+                privileges.stream().map(Privilege::getName).collect(Collectors.toList())
+        );
+        privilegeSet = result;
+        return result;
     }
 
     public void setOkrUsers(Set<OkrUser> okrUsers) {
@@ -73,6 +105,7 @@ public class Role {
 
     public void addPrivilege(Privilege privilege) {
         privileges.add(privilege);
+        rebuildPrivilegeSet();
     }
 
 
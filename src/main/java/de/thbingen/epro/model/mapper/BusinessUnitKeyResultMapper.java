@@ -4,6 +4,7 @@ import de.thbingen.epro.model.dto.BusinessUnitKeyResultDto;
 import de.thbingen.epro.model.dto.BusinessUnitKeyResultPostDto;
 import de.thbingen.epro.model.dto.BusinessUnitKeyResultUpdateDto;
 import de.thbingen.epro.model.entity.BusinessUnitKeyResult;
+import de.thbingen.epro.model.projection.BusinessUnitKeyResultProjection;
 import org.mapstruct.*;
 
 @Mapper(componentModel = "spring")
@@ -12,6 +13,8 @@ public interface BusinessUnitKeyResultMapper {
     @Named("WithObjective")
     BusinessUnitKeyResultDto businessUnitKeyResultToDto(BusinessUnitKeyResult businessUnitKeyResult);
 
+    BusinessUnitKeyResultDto businessUnitKeyResultProjectionToDto(BusinessUnitKeyResultProjection businessUnitKeyResultProjection);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "companyKeyResult", ignore = true)
     @Mapping(target = "businessUnitObjective", ignore = true)
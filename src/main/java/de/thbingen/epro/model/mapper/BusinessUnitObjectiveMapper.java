@@ -2,6 +2,7 @@ package de.thbingen.epro.model.mapper;
 
 import de.thbingen.epro.model.dto.BusinessUnitObjectiveDto;
 import de.thbingen.epro.model.entity.BusinessUnitObjective;
+import de.thbingen.epro.model.projection.BusinessUnitObjectiveProjection;
 import org.mapstruct.*;
 
 @Mapper(componentModel = "spring")
@@ -9,6 +10,8 @@ public interface BusinessUnitObjectiveMapper {
 
     BusinessUnitObjectiveDto businessUnitObjectiveToDto(BusinessUnitObjective businessUnitObjective);
 
+    BusinessUnitObjectiveDto businessUnitObjectiveProjectionToDto(BusinessUnitObjectiveProjection businessUnitObjectiveProjection);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "companyKeyResult", ignore = true)
     @Mapping(target = "businessUnitKeyResults", ignore = true)
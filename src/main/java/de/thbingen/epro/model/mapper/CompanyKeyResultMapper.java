@@ -4,6 +4,7 @@ import de.thbingen.epro.model.dto.CompanyKeyResultDto;
 import de.thbingen.epro.model.dto.CompanyKeyResultPostDto;
 import de.thbingen.epro.model.dto.CompanyKeyResultUpdateDto;
 import de.thbingen.epro.model.entity.CompanyKeyResult;
+import de.thbingen.epro.model.projection.CompanyKeyResultProjection;
 import org.mapstruct.*;
 
 @Mapper(componentModel = "spring")
@@ -12,6 +13,8 @@ public interface CompanyKeyResultMapper {
 
     CompanyKeyResultDto companyKeyResultToDto(CompanyKeyResult companyKeyResult);
 
+    CompanyKeyResultDto companyKeyResultProjectionToDto(CompanyKeyResultProjection companyKeyResultProjection);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "companyObjective", ignore = true)
     @Mapping(target = "companyKeyResultHistories", ignore = true)
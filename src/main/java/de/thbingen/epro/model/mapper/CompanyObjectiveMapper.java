@@ -2,6 +2,7 @@ package de.thbingen.epro.model.mapper;
 
 import de.thbingen.epro.model.dto.CompanyObjectiveDto;
 import de.thbingen.epro.model.entity.CompanyObjective;
+import de.thbingen.epro.model.projection.CompanyObjectiveProjection;
 import org.mapstruct.*;
 
 @Mapper(componentModel = "spring")
@@ -9,6 +10,8 @@ public interface CompanyObjectiveMapper {
 
     CompanyObjectiveDto companyObjectiveToDto(CompanyObjective companyObjective);
 
+    CompanyObjectiveDto companyObjectiveProjectionToDto(CompanyObjectiveProjection companyObjectiveProjection);
+
     @Mapping(target = "companyKeyResults", ignore = true)
     @Mapping(target = "id", ignore = true)
     CompanyObjective dtoToCompanyObjective(CompanyObjectiveDto companyObjectiveDto);
@@ -0,0 +1,17 @@
+package de.thbingen.epro.model.mapper;
+
+import de.thbingen.epro.model.dto.KeyResultHistoryBucketDto;
+import de.thbingen.epro.model.dto.KeyResultHistoryPointDto;
+import de.thbingen.epro.model.entity.BusinessUnitKeyResultHistoryPoint;
+import de.thbingen.epro.model.entity.CompanyKeyResultHistoryPoint;
+import de.thbingen.epro.model.projection.KeyResultHistoryBucketProjection;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface KeyResultHistoryPointMapper {
+    KeyResultHistoryPointDto companyKeyResultHistoryPointToDto(CompanyKeyResultHistoryPoint companyKeyResultHistoryPoint);
+
+    KeyResultHistoryPointDto businessUnitKeyResultHistoryPointToDto(BusinessUnitKeyResultHistoryPoint businessUnitKeyResultHistoryPoint);
+
+    KeyResultHistoryBucketDto keyResultHistoryBucketToDto(KeyResultHistoryBucketProjection keyResultHistoryBucketProjection);
+}
@@ -10,5 +10,8 @@
  * <br>
  * {@link de.thbingen.epro.model.assembler} Contains the Assemblers which use mappers to turn the DB-Entities
  * into HATEOAS enabled DTOs
+ * <br>
+ * {@link de.thbingen.epro.model.projection} Contains the read-only projections, which are selected instead of the
+ * DB-Entities when they are only read to be returned
  */
 package de.thbingen.epro.model;
\ No newline at end of file
@@ -0,0 +1,86 @@
+package de.thbingen.epro.model.projection;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Read-only projection of a {@link de.thbingen.epro.model.entity.BusinessUnitKeyResult}
+ */
+public class BusinessUnitKeyResultProjection {
+
+    private final Long id;
+    private final String name;
+    private final Float currentValue;
+    private final Float goalValue;
+    private final Float confidenceLevel;
+    private final Float achievement;
+    private final String comment;
+    private final OffsetDateTime timestamp;
+    private final Long businessUnitObjectiveId;
+    private final Long companyKeyResultId;
+
+    private boolean hasHistory;
+
+    public BusinessUnitKeyResultProjection(Long id, String name, Float currentValue, Float goalValue, Float confidenceLevel, Float achievement, String comment, OffsetDateTime timestamp, Long businessUnitObjectiveId, Long companyKeyResultId) {
+        this.id = id;
+        this.name = name;
+        this.currentValue = currentValue;
+        this.goalValue = goalValue;
+        this.confidenceLevel = confidenceLevel;
+        this.achievement = achievement;
+        this.comment = comment;
+        this.timestamp = timestamp;
+        this.businessUnitObjectiveId = businessUnitObjectiveId;
+        this.companyKeyResultId = companyKeyResultId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Float getCurrentValue() {
+        return currentValue;
+    }
+
+    public Float getGoalValue() {
+        return goalValue;
+    }
+
+    public Float getConfidenceLevel() {
+        return confidenceLevel;
+    }
+
+    public Float getAchievement() {
+        return achievement;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public OffsetDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public Long getBusinessUnitObjectiveId() {
+        return businessUnitObjectiveId;
+    }
+
+    /**
+     * @return the {@code id} of the referenced {@link de.thbingen.epro.model.entity.CompanyKeyResult}, or {@code null}
+     */
+    public Long getCompanyKeyResultId() {
+        return companyKeyResultId;
+    }
+
+    public boolean hasHistory() {
+        return hasHistory;
+    }
+
+    public void setHasHistory(boolean hasHistory) {
+        this.hasHistory = hasHistory;
+    }
+}
@@ -0,0 +1,66 @@
+package de.thbingen.epro.model.projection;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only projection of a {@link de.thbingen.epro.model.entity.BusinessUnitObjective}
+ */
+public class BusinessUnitObjectiveProjection {
+
+    private final Long id;
+    private final Float achievement;
+    private final String name;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final Long businessUnitId;
+    private final Long companyKeyResultId;
+
+    private final List<Long> businessUnitKeyResultIds = new ArrayList<>();
+
+    public BusinessUnitObjectiveProjection(Long id, Float achievement, String name, LocalDate startDate, LocalDate endDate, Long businessUnitId, Long companyKeyResultId) {
+        this.id = id;
+        this.achievement = achievement;
+        this.name = name;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.businessUnitId = businessUnitId;
+        this.companyKeyResultId = companyKeyResultId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Float getAchievement() {
+        return achievement;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public Long getBusinessUnitId() {
+        return businessUnitId;
+    }
+
+    /**
+     * @return the {@code id} of the referenced {@link de.thbingen.epro.model.entity.CompanyKeyResult}, or {@code null}
+     */
+    public Long getCompanyKeyResultId() {
+        return companyKeyResultId;
+    }
+
+    public List<Long> getBusinessUnitKeyResultIds() {
+        return businessUnitKeyResultIds;
+    }
+}
@@ -0,0 +1,89 @@
+package de.thbingen.epro.model.projection;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only projection of a {@link de.thbingen.epro.model.entity.CompanyKeyResult}
+ */
+public class CompanyKeyResultProjection {
+
+    private final Long id;
+    private final String name;
+    private final Float currentValue;
+    private final Float goalValue;
+    private final Float confidenceLevel;
+    private final Float achievement;
+    private final String comment;
+    private final OffsetDateTime timestamp;
+    private final Long companyObjectiveId;
+
+    private final List<Long> businessUnitObjectiveIds = new ArrayList<>();
+    private final List<Long> businessUnitKeyResultIds = new ArrayList<>();
+    private boolean hasHistory;
+
+    public CompanyKeyResultProjection(Long id, String name, Float currentValue, Float goalValue, Float confidenceLevel, Float achievement, String comment, OffsetDateTime timestamp, Long companyObjectiveId) {
+        this.id = id;
+        this.name = name;
+        this.currentValue = currentValue;
+        this.goalValue = goalValue;
+        this.confidenceLevel = confidenceLevel;
+        this.achievement = achievement;
+        this.comment = comment;
+        this.timestamp = timestamp;
+        this.companyObjectiveId = companyObjectiveId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Float getCurrentValue() {
+        return currentValue;
+    }
+
+    public Float getGoalValue() {
+        return goalValue;
+    }
+
+    public Float getConfidenceLevel() {
+        return confidenceLevel;
+    }
+
+    public Float getAchievement() {
+        return achievement;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public OffsetDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public Long getCompanyObjectiveId() {
+        return companyObjectiveId;
+    }
+
+    public List<Long> getBusinessUnitObjectiveIds() {
+        return businessUnitObjectiveIds;
+    }
+
+    public List<Long> getBusinessUnitKeyResultIds() {
+        return businessUnitKeyResultIds;
+    }
+
+    public boolean hasHistory() {
+        return hasHistory;
+    }
+
+    public void setHasHistory(boolean hasHistory) {
+        this.hasHistory = hasHistory;
+    }
+}
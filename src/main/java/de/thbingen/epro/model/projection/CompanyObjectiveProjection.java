@@ -0,0 +1,53 @@
+package de.thbingen.epro.model.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only projection of a {@link de.thbingen.epro.model.entity.CompanyObjective}
+ */
+public class CompanyObjectiveProjection {
+
+    private final Long id;
+    private final Float achievement;
+    private final String name;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+
+    private boolean hasCompanyKeyResults;
+
+    public CompanyObjectiveProjection(Long id, Float achievement, String name, LocalDate startDate, LocalDate endDate) {
+        this.id = id;
+        this.achievement = achievement;
+        this.name = name;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Float getAchievement() {
+        return achievement;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public boolean hasCompanyKeyResults() {
+        return hasCompanyKeyResults;
+    }
+
+    public void setHasCompanyKeyResults(boolean hasCompanyKeyResults) {
+        this.hasCompanyKeyResults = hasCompanyKeyResults;
+    }
+}
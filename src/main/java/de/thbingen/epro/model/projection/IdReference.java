@@ -0,0 +1,24 @@
+package de.thbingen.epro.model.projection;
+
+/**
+ * The {@code id} of an entity together with the {@code id} of the entity it references, used to load the ids of the
+ * children of a whole page of projections with a single query
+ */
+public class IdReference {
+
+    private final Long referencedId;
+    private final Long id;
+
+    public IdReference(Long referencedId, Long id) {
+        this.referencedId = referencedId;
+        this.id = id;
+    }
+
+    public Long getReferencedId() {
+        return referencedId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
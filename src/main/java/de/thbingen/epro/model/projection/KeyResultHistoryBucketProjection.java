@@ -0,0 +1,74 @@
+package de.thbingen.epro.model.projection;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Read-only projection of the changes of a key result within one bucket of its history, aggregated by the database.
+ * The values are the ones the key result had after each change.
+ */
+public class KeyResultHistoryBucketProjection {
+
+    private final OffsetDateTime start;
+    private final Long changes;
+    private final Float lastValue;
+    private final Float minValue;
+    private final Float maxValue;
+    private final Double avgValue;
+    private final Float lastConfidenceLevel;
+    private final Float minConfidenceLevel;
+    private final Float maxConfidenceLevel;
+    private final Double avgConfidenceLevel;
+
+    public KeyResultHistoryBucketProjection(OffsetDateTime start, Long changes, Float lastValue, Float minValue, Float maxValue, Double avgValue, Float lastConfidenceLevel, Float minConfidenceLevel, Float maxConfidenceLevel, Double avgConfidenceLevel) {
+        this.start = start;
+        this.changes = changes;
+        this.lastValue = lastValue;
+        this.minValue = minValue;
+        this.maxValue = maxValue;
+        this.avgValue = avgValue;
+        this.lastConfidenceLevel = lastConfidenceLevel;
+        this.minConfidenceLevel = minConfidenceLevel;
+        this.maxConfidenceLevel = maxConfidenceLevel;
+        this.avgConfidenceLevel = avgConfidenceLevel;
+    }
+
+    public OffsetDateTime getStart() {
+        return start;
+    }
+
+    public Long getChanges() {
+        return changes;
+    }
+
+    public Float getLastValue() {
+        return lastValue;
+    }
+
+    public Float getMinValue() {
+        return minValue;
+    }
+
+    public Float getMaxValue() {
+        return maxValue;
+    }
+
+    public Double getAvgValue() {
+        return avgValue;
+    }
+
+    public Float getLastConfidenceLevel() {
+        return lastConfidenceLevel;
+    }
+
+    public Float getMinConfidenceLevel() {
+        return minConfidenceLevel;
+    }
+
+    public Float getMaxConfidenceLevel() {
+        return maxConfidenceLevel;
+    }
+
+    public Double getAvgConfidenceLevel() {
+        return avgConfidenceLevel;
+    }
+}
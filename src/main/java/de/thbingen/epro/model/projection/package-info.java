@@ -0,0 +1,7 @@
+/**
+ * This Package contains the read-only projections of the entities. They are created directly by the constructor
+ * expressions of the queries in the repositories and hold only the columns and foreign key ids, which are needed to
+ * build the DTOs and their links. Unlike entities, they are neither managed by the persistence context nor do they
+ * load any associations.
+ */
+package de.thbingen.epro.model.projection;
@@ -0,0 +1,173 @@
+package de.thbingen.epro.notification;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.thbingen.epro.config.ChangeNotificationConfig;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Listens on the {@value #CHANNEL} channel of the database, which is fed by the key result triggers, and publishes
+ * every notification as {@link OkrChangeEvent}.
+ * <p>
+ * The listener holds one connection of the pool for as long as it runs and receives the notifications on its own
+ * thread. If the connection is lost, it reconnects after {@link ChangeNotificationConfig#getReconnectDelay()}
+ * milliseconds. As the notifications sent in the meantime are lost, an {@link OkrResyncEvent} is published after
+ * every (re)connect, upon which the caches built from the key results are rebuilt.
+ * <p>
+ * The events are handled synchronously on the listener thread, so a failing event listener must not end it. If the
+ * handling of a change fails, the caches are resynced instead, and if the resync fails as well, the listener
+ * reconnects, which resyncs once more.
+ */
+@Component
+@ConditionalOnProperty(prefix = "change-notification", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ChangeNotificationListener {
+
+    public static final String CHANNEL = "okr_change";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChangeNotificationListener.class);
+
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChangeNotificationConfig changeNotificationConfig;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    /**
+     * Default constructor to be used for Constructor Injection
+     *
+     * @param dataSource               The DataSource providing the connection to listen on
+     * @param objectMapper             The ObjectMapper used to read the JSON payload of the notifications
+     * @param eventPublisher           The publisher for the {@link OkrChangeEvent}s and {@link OkrResyncEvent}s
+     * @param changeNotificationConfig The configuration of the timeouts of the listener
+     */
+    public ChangeNotificationListener(DataSource dataSource, ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher, ChangeNotificationConfig changeNotificationConfig) {
+        this.dataSource = dataSource;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.changeNotificationConfig = changeNotificationConfig;
+    }
+
+    /**
+     * Starts listening once the application is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::listen, "change-notification-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    /**
+     * Stops listening and releases the connection
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+            listenerThread = null;
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                receiveNotifications(connection);
+            } catch (SQLException | RuntimeException e) {
+                if (running) {
+                    LOGGER.warn("Lost the {} channel, reconnecting", CHANNEL, e);
+                    waitBeforeReconnect();
+                }
+            }
+        }
+    }
+
+    private void receiveNotifications(Connection connection) throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN " + CHANNEL);
+        }
+        // only published once listening, so no change after the resync is missed
+        eventPublisher.publishEvent(new OkrResyncEvent());
+        try {
+            while (running) {
+                PGNotification[] notifications = pgConnection.getNotifications(changeNotificationConfig.getPollTimeout());
+                if (notifications != null) {
+                    boolean handled = true;
+                    for (PGNotification notification : notifications) {
+                        handled &= publish(notification.getParameter());
+                    }
+                    if (!handled) {
+                        // a failure here ends up in the reconnect, which tries the resync again
+                        eventPublisher.publishEvent(new OkrResyncEvent());
+                    }
+                }
+            }
+        } finally {
+            // the connection goes back into the pool, where nobody would consume the notifications anymore
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("UNLISTEN " + CHANNEL);
+            }
+        }
+    }
+
+    /**
+     * Publishes the given payload of a notification as {@link OkrChangeEvent}. Payloads, which can not be read, are
+     * ignored.
+     *
+     * @param payload the JSON payload as created by the {@code notify_okr_change} function of the database
+     * @return false if a listener failed to handle the change, which leaves its state outdated
+     */
+    boolean publish(String payload) {
+        OkrChangeEvent event;
+        try {
+            JsonNode node = objectMapper.readTree(payload);
+            event = new OkrChangeEvent(
+                    OkrChangeEvent.Entity.fromTableName(node.path("entity").asText()),
+                    OkrChangeEvent.Operation.valueOf(node.path("operation").asText()),
+                    node.path("id").asLong(),
+                    node.hasNonNull("objectiveId") ? node.get("objectiveId").asLong() : null
+            );
+        } catch (IOException | IllegalArgumentException e) {
+            // a notification of a newer or older schema, nothing this node can react to
+            return true;
+        }
+        try {
+            eventPublisher.publishEvent(event);
+            return true;
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not handle the change notification {}", payload, e);
+            return false;
+        }
+    }
+
+    private void waitBeforeReconnect() {
+        try {
+            Thread.sleep(changeNotificationConfig.getReconnectDelay());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
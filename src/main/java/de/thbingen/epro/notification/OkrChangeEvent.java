@@ -0,0 +1,62 @@
+package de.thbingen.epro.notification;
+
+/**
+ * Application event for a change of a key result, which was committed to the database by any node of the application
+ * or by direct SQL. It is published by the {@link ChangeNotificationListener}.
+ */
+public class OkrChangeEvent {
+
+    public enum Entity {
+        COMPANY_KEY_RESULT("company_key_result"),
+        BUSINESS_UNIT_KEY_RESULT("business_unit_key_result");
+
+        private final String tableName;
+
+        Entity(String tableName) {
+            this.tableName = tableName;
+        }
+
+        public static Entity fromTableName(String tableName) {
+            for (Entity entity : values()) {
+                if (entity.tableName.equals(tableName)) {
+                    return entity;
+                }
+            }
+            throw new IllegalArgumentException("Unknown table " + tableName);
+        }
+    }
+
+    public enum Operation {
+        INSERT,
+        UPDATE,
+        DELETE
+    }
+
+    private final Entity entity;
+    private final Operation operation;
+    private final Long id;
+    private final Long objectiveId;
+
+    public OkrChangeEvent(Entity entity, Operation operation, Long id, Long objectiveId) {
+        this.entity = entity;
+        this.operation = operation;
+        this.id = id;
+        this.objectiveId = objectiveId;
+    }
+
+    public Entity getEntity() {
+        return entity;
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getObjectiveId() {
+        return objectiveId;
+    }
+}
@@ -0,0 +1,9 @@
+package de.thbingen.epro.notification;
+
+/**
+ * Application event published by the {@link ChangeNotificationListener} whenever it has (re)connected to the database.
+ * The changes made while it was not listening are unknown, so everything derived from the key results has to be read
+ * again.
+ */
+public class OkrResyncEvent {
+}
@@ -0,0 +1,5 @@
+/**
+ * This Package contains everything that is used to receive the change notifications, which are sent by the triggers
+ * of the Database, and to turn them into application events
+ */
+package de.thbingen.epro.notification;
\ No newline at end of file
@@ -0,0 +1,93 @@
+package de.thbingen.epro.pagination;
+
+import de.thbingen.epro.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * The position of a row in the order by {@code changeTimeStamp} and {@code id}, both descending, together with the
+ * direction in which the page starting at this position is read. The {@code id} breaks the ties between rows, which
+ * were written in the same transaction and therefore share the same {@code changeTimeStamp}.
+ * <p>
+ * Clients only ever see the encoded form, so the format may change without breaking them.
+ */
+public class KeysetCursor {
+
+    /**
+     * The direction in which a page is read, starting at the position of the cursor
+     */
+    public enum Direction {
+        /**
+         * The rows after the position, which are older
+         */
+        OLDER,
+        /**
+         * The rows before the position, which are newer
+         */
+        NEWER
+    }
+
+    private static final String SEPARATOR = "|";
+
+    private final Direction direction;
+    private final OffsetDateTime changeTimeStamp;
+    private final Long id;
+
+    public KeysetCursor(Direction direction, OffsetDateTime changeTimeStamp, Long id) {
+        this.direction = direction;
+        this.changeTimeStamp = changeTimeStamp;
+        this.id = id;
+    }
+
+    /**
+     * Decodes a cursor, which was previously returned by {@link #encode()}
+     *
+     * @param encoded the cursor as given in the request, may be null
+     * @return the decoded cursor or {@code null}, if no cursor was given, which means the first page is requested
+     * @throws InvalidCursorException if the given value was not created by {@link #encode()}
+     */
+    public static KeysetCursor decode(String encoded) {
+        if (encoded == null || encoded.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("\\" + SEPARATOR, 3);
+            if (parts.length != 3) {
+                throw new InvalidCursorException();
+            }
+            return new KeysetCursor(
+                    Direction.valueOf(parts[0]),
+                    OffsetDateTime.ofInstant(Instant.parse(parts[1]), ZoneOffset.UTC),
+                    Long.valueOf(parts[2])
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    /**
+     * @return the opaque and URL safe form of this cursor, which is handed out to the clients
+     */
+    public String encode() {
+        String decoded = direction.name() + SEPARATOR + changeTimeStamp.toInstant() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(decoded.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    public OffsetDateTime getChangeTimeStamp() {
+        return changeTimeStamp;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
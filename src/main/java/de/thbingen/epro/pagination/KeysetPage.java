@@ -0,0 +1,117 @@
+package de.thbingen.epro.pagination;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A page of rows in the order by {@code changeTimeStamp} and {@code id}, both descending, together with the cursors
+ * of the pages before and after it
+ *
+ * @param <T> the type of the content
+ */
+public class KeysetPage<T> {
+
+    private final List<T> content;
+    private final KeysetCursor next;
+    private final KeysetCursor previous;
+    private final Long totalElements;
+
+    public KeysetPage(List<T> content, KeysetCursor next, KeysetCursor previous, Long totalElements) {
+        this.content = content;
+        this.next = next;
+        this.previous = previous;
+        this.totalElements = totalElements;
+    }
+
+    /**
+     * Builds the page from the rows read starting at the given cursor. The rows have to be read in the direction of
+     * the cursor and one more than {@code size} has to be requested, so the existence of a following page is known
+     * without counting.
+     *
+     * @param rows               at most {@code size + 1} rows, in the direction of the cursor
+     * @param cursor             the cursor the rows were read from, {@code null} for the first page
+     * @param size               the requested size of the page
+     * @param getChangeTimeStamp returns the {@code changeTimeStamp} of a row
+     * @param getId              returns the {@code id} of a row
+     * @param totalElements      the number of all rows, or {@code null} if they were not counted
+     * @param <T>                the type of the rows
+     * @return the page in descending order
+     */
+    public static <T> KeysetPage<T> of(
+            List<T> rows,
+            KeysetCursor cursor,
+            int size,
+            Function<T, OffsetDateTime> getChangeTimeStamp,
+            Function<T, Long> getId,
+            Long totalElements
+    ) {
+        boolean newer = cursor != null && cursor.getDirection() == KeysetCursor.Direction.NEWER;
+        boolean hasMore = rows.size() > size;
+
+        List<T> content = new ArrayList<>(rows.subList(0, Math.min(size, rows.size())));
+        if (newer) {
+            Collections.reverse(content);
+        }
+        if (content.isEmpty()) {
+            return new KeysetPage<>(content, null, null, totalElements);
+        }
+
+        // the row of the cursor itself lies on the side the page was read from
+        boolean hasOlder = newer || hasMore;
+        boolean hasNewer = newer ? hasMore : cursor != null;
+
+        T last = content.get(content.size() - 1);
+        T first = content.get(0);
+        return new KeysetPage<>(
+                content,
+                hasOlder ? new KeysetCursor(KeysetCursor.Direction.OLDER, getChangeTimeStamp.apply(last), getId.apply(last)) : null,
+                hasNewer ? new KeysetCursor(KeysetCursor.Direction.NEWER, getChangeTimeStamp.apply(first), getId.apply(first)) : null,
+                totalElements
+        );
+    }
+
+    /**
+     * Converts the content of this page with the given function, keeping the cursors
+     *
+     * @param converter the function to apply to every element of the content
+     * @param <U>       the type of the converted content
+     * @return the converted page
+     */
+    public <U> KeysetPage<U> map(Function<? super T, ? extends U> converter) {
+        return new KeysetPage<>(
+                content.stream().map(converter).collect(Collectors.toList()),
+                next,
+                previous,
+                totalElements
+        );
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    /**
+     * @return the cursor of the page with the older rows, or {@code null} if there is none
+     */
+    public KeysetCursor getNext() {
+        return next;
+    }
+
+    /**
+     * @return the cursor of the page with the newer rows, or {@code null} if there is none
+     */
+    public KeysetCursor getPrevious() {
+        return previous;
+    }
+
+    /**
+     * @return the number of all rows, or {@code null} if they were not counted
+     */
+    public Long getTotalElements() {
+        return totalElements;
+    }
+}
@@ -0,0 +1,28 @@
+package de.thbingen.epro.pagination;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.Link;
+
+/**
+ * The representation of a {@link KeysetPage}. The cursors are only part of the {@code next} and {@code prev} links,
+ * and the total number of elements is only rendered, if it was requested.
+ *
+ * @param <T> the type of the content
+ */
+public class KeysetPagedModel<T> extends CollectionModel<T> {
+
+    private final Long totalElements;
+
+    public KeysetPagedModel(Iterable<T> content, Iterable<Link> links, Long totalElements) {
+        super(content, links, null);
+        this.totalElements = totalElements;
+    }
+
+    @JsonProperty("totalElements")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Long getTotalElements() {
+        return totalElements;
+    }
+}
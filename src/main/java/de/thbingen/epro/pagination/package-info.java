@@ -0,0 +1,6 @@
+/**
+ * This Package contains the keyset pagination of the histories. Instead of skipping the rows of all previous pages with
+ * an offset, a page starts right after the row, which is identified by an opaque cursor, so every page is read with
+ * the same cost and without counting all rows.
+ */
+package de.thbingen.epro.pagination;
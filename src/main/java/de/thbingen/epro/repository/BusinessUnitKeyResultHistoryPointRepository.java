@@ -0,0 +1,22 @@
+package de.thbingen.epro.repository;
+
+import de.thbingen.epro.model.entity.BusinessUnitKeyResultHistoryPoint;
+import de.thbingen.epro.model.projection.KeyResultHistoryBucketProjection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public interface BusinessUnitKeyResultHistoryPointRepository extends JpaRepository<BusinessUnitKeyResultHistoryPoint, Long> {
+
+    @Query("select p from BusinessUnitKeyResultHistoryPoint p " +
+            "where p.businessUnitKeyResultId = :businessUnitKeyResultId " +
+            "and p.changeTimeStamp >= :from and p.changeTimeStamp < :to " +
+            "order by p.changeTimeStamp asc, p.historyId asc")
+    List<BusinessUnitKeyResultHistoryPoint> findAllByBusinessUnitKeyResultIdBetween(@Param("businessUnitKeyResultId") Long businessUnitKeyResultId, @Param("from") OffsetDateTime from, @Param("to") OffsetDateTime to);
+
+    // named native query declared on the entity, as its result is mapped to a projection
+    List<KeyResultHistoryBucketProjection> findSeriesByBusinessUnitKeyResultId(@Param("businessUnitKeyResultId") Long businessUnitKeyResultId, @Param("from") OffsetDateTime from, @Param("to") OffsetDateTime to, @Param("unit") String unit);
+}
@@ -1,14 +1,55 @@
 package de.thbingen.epro.repository;
 
 import de.thbingen.epro.model.entity.BusinessUnitKeyResult;
+import de.thbingen.epro.model.projection.BusinessUnitKeyResultProjection;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface BusinessUnitKeyResultRepository extends JpaRepository<BusinessUnitKeyResult, Long> {
     Page<BusinessUnitKeyResult> findAllByBusinessUnitObjectiveId(Long id, Pageable pageable);
 
     List<BusinessUnitKeyResult> findAllByBusinessUnitObjectiveId(Long id);
+
+    String PROJECTION = "select new de.thbingen.epro.model.projection.BusinessUnitKeyResultProjection(" +
+            "bukr.id, bukr.name, bukr.currentValue, bukr.goalValue, bukr.confidenceLevel, bukr.achievement, bukr.comment, bukr.timestamp, " +
+            "bukr.businessUnitObjective.id, bukr.companyKeyResult.id) " +
+            "from BusinessUnitKeyResult bukr ";
+
+    @Query(value = PROJECTION, countQuery = "select count(bukr) from BusinessUnitKeyResult bukr")
+    Page<BusinessUnitKeyResultProjection> findAllProjections(Pageable pageable);
+
+    @Query(value = PROJECTION + "where bukr.businessUnitObjective.id = :businessUnitObjectiveId",
+            countQuery = "select count(bukr) from BusinessUnitKeyResult bukr where bukr.businessUnitObjective.id = :businessUnitObjectiveId")
+    Page<BusinessUnitKeyResultProjection> findAllProjectionsByBusinessUnitObjectiveId(@Param("businessUnitObjectiveId") Long businessUnitObjectiveId, Pageable pageable);
+
+    @Query(PROJECTION + "where bukr.id = :id")
+    Optional<BusinessUnitKeyResultProjection> findProjectionById(@Param("id") Long id);
+
+    @Query("select bukr.businessUnitObjective.businessUnit.id from BusinessUnitKeyResult bukr where bukr.id = :id")
+    Optional<Long> findBusinessUnitIdById(@Param("id") Long id);
+
+    @Query("select distinct bukrh.currentBusinessUnitKeyResult.id from BusinessUnitKeyResultHistory bukrh where bukrh.currentBusinessUnitKeyResult.id in :ids")
+    List<Long> findIdsWithHistoryByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * @return the version of all business unit key results, read from the version of the business_unit_key_result table
+     */
+    @Query(value = "select table_versions('business_unit_key_result')", nativeQuery = true)
+    String getVersionOfAll();
+
+    /**
+     * @param id the requested {@code id}
+     * @return the version of the business unit key result, read from the transaction ids of its row and the rows it references
+     */
+    @Query(value = "select cast(row_version(bukr.xmin) as text) " +
+            "from business_unit_key_result bukr " +
+            "where bukr.id = :id", nativeQuery = true)
+    Optional<String> getVersionById(@Param("id") Long id);
 }
@@ -1,12 +1,22 @@
 package de.thbingen.epro.repository;
 
 import de.thbingen.epro.model.entity.BusinessUnitObjective;
+import de.thbingen.epro.model.projection.BusinessUnitObjectiveProjection;
+import de.thbingen.epro.model.projection.IdReference;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+
+import static org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH;
 
 public interface BusinessUnitObjectiveRepository extends JpaRepository<BusinessUnitObjective, Long> {
     Page<BusinessUnitObjective> findAllByBusinessUnitIdAndStartDateAfterAndEndDateBefore(Long businessUnit_id, LocalDate startDate, LocalDate endDate, Pageable pageable);
@@ -16,4 +26,68 @@ public interface BusinessUnitObjectiveRepository extends JpaRepository<BusinessU
     Page<BusinessUnitObjective> findAllByStartDateAfterAndEndDateBefore(LocalDate startDate, LocalDate endDate, Pageable pageable);
 
     List<BusinessUnitObjective> findAllByStartDateBeforeAndEndDateAfter(LocalDate startDate, LocalDate endDate);
+
+    List<BusinessUnitObjective> findAllByStartDateGreaterThanEqualAndStartDateBeforeAndEndDateAfter(LocalDate startedOnOrAfter, LocalDate startedBefore, LocalDate endDate);
+
+    @Query("select distinct buo from BusinessUnitObjective buo " +
+            "join fetch buo.businessUnit " +
+            "left join fetch buo.companyKeyResult buoCkr " +
+            "left join fetch buoCkr.companyObjective " +
+            "left join fetch buo.businessUnitKeyResults bukr " +
+            "left join fetch bukr.companyKeyResult bukrCkr " +
+            "left join fetch bukrCkr.companyObjective " +
+            "where buo.startDate < :date and buo.endDate > :date")
+    @QueryHints(@QueryHint(name = HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    List<BusinessUnitObjective> findAllActiveWithKeyResults(@Param("date") LocalDate date);
+
+    @Query("select distinct buo from BusinessUnitObjective buo " +
+            "join fetch buo.businessUnit " +
+            "left join fetch buo.companyKeyResult buoCkr " +
+            "left join fetch buoCkr.companyObjective " +
+            "left join fetch buo.businessUnitKeyResults bukr " +
+            "left join fetch bukr.companyKeyResult bukrCkr " +
+            "left join fetch bukrCkr.companyObjective " +
+            "where buo.businessUnit.id = :businessUnitId and buo.startDate < :date and buo.endDate > :date")
+    @QueryHints(@QueryHint(name = HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    List<BusinessUnitObjective> findAllActiveWithKeyResultsByBusinessUnitId(@Param("businessUnitId") Long businessUnitId, @Param("date") LocalDate date);
+
+    String PROJECTION = "select new de.thbingen.epro.model.projection.BusinessUnitObjectiveProjection(" +
+            "buo.id, buo.achievement, buo.name, buo.startDate, buo.endDate, buo.businessUnit.id, buo.companyKeyResult.id) " +
+            "from BusinessUnitObjective buo ";
+
+    @Query(value = PROJECTION + "where buo.businessUnit.id = :businessUnitId and buo.startDate >= :startDate and buo.endDate <= :endDate",
+            countQuery = "select count(buo) from BusinessUnitObjective buo " +
+                    "where buo.businessUnit.id = :businessUnitId and buo.startDate >= :startDate and buo.endDate <= :endDate")
+    Page<BusinessUnitObjectiveProjection> findAllProjectionsByBusinessUnitIdInTimeFrame(@Param("businessUnitId") Long businessUnitId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, Pageable pageable);
+
+    @Query(value = PROJECTION + "where buo.startDate > :startDate and buo.endDate < :endDate",
+            countQuery = "select count(buo) from BusinessUnitObjective buo where buo.startDate > :startDate and buo.endDate < :endDate")
+    Page<BusinessUnitObjectiveProjection> findAllProjectionsByStartDateAfterAndEndDateBefore(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, Pageable pageable);
+
+    @Query(PROJECTION + "where buo.id = :id")
+    Optional<BusinessUnitObjectiveProjection> findProjectionById(@Param("id") Long id);
+
+    @Query("select buo.businessUnit.id from BusinessUnitObjective buo where buo.id = :id")
+    Optional<Long> findBusinessUnitIdById(@Param("id") Long id);
+
+    @Query("select new de.thbingen.epro.model.projection.IdReference(bukr.businessUnitObjective.id, bukr.id) " +
+            "from BusinessUnitKeyResult bukr " +
+            "where bukr.businessUnitObjective.id in :ids")
+    List<IdReference> findBusinessUnitKeyResultReferencesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * @return the version of all business unit objectives, read from the versions of the business_unit_objective and business_unit_key_result tables
+     */
+    @Query(value = "select table_versions('business_unit_objective', 'business_unit_key_result')", nativeQuery = true)
+    String getVersionOfAll();
+
+    /**
+     * @param id the requested {@code id}
+     * @return the version of the business unit objective, read from the transaction ids of its row and the rows it references
+     */
+    @Query(value = "select concat_ws('.', row_version(buo.xmin), " +
+            "(select concat_ws('.', count(*), sum(row_version(bukr.xmin))) from business_unit_key_result bukr where bukr.business_unit_objective_id = buo.id)) " +
+            "from business_unit_objective buo " +
+            "where buo.id = :id", nativeQuery = true)
+    Optional<String> getVersionById(@Param("id") Long id);
 }
@@ -2,6 +2,26 @@ package de.thbingen.epro.repository;
 
 import de.thbingen.epro.model.entity.BusinessUnit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
 
 public interface BusinessUnitRepository extends JpaRepository<BusinessUnit, Long> {
+    /**
+     * @return the version of all business units, read from the versions of the business_unit, business_unit_objective and okr_user tables
+     */
+    @Query(value = "select table_versions('business_unit', 'business_unit_objective', 'okr_user')", nativeQuery = true)
+    String getVersionOfAll();
+
+    /**
+     * @param id the requested {@code id}
+     * @return the version of the business unit, read from the transaction ids of its row and the rows it references
+     */
+    @Query(value = "select concat_ws('.', row_version(bu.xmin), " +
+            "(select concat_ws('.', count(*), sum(row_version(buo.xmin))) from business_unit_objective buo where buo.business_unit_id = bu.id), " +
+            "(select concat_ws('.', count(*), sum(row_version(u.xmin))) from okr_user u where u.business_unit_id = bu.id)) " +
+            "from business_unit bu " +
+            "where bu.id = :id", nativeQuery = true)
+    Optional<String> getVersionById(@Param("id") Long id);
 }
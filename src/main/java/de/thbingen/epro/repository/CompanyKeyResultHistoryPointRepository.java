@@ -0,0 +1,22 @@
+package de.thbingen.epro.repository;
+
+import de.thbingen.epro.model.entity.CompanyKeyResultHistoryPoint;
+import de.thbingen.epro.model.projection.KeyResultHistoryBucketProjection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public interface CompanyKeyResultHistoryPointRepository extends JpaRepository<CompanyKeyResultHistoryPoint, Long> {
+
+    @Query("select p from CompanyKeyResultHistoryPoint p " +
+            "where p.companyKeyResultId = :companyKeyResultId " +
+            "and p.changeTimeStamp >= :from and p.changeTimeStamp < :to " +
+            "order by p.changeTimeStamp asc, p.historyId asc")
+    List<CompanyKeyResultHistoryPoint> findAllByCompanyKeyResultIdBetween(@Param("companyKeyResultId") Long companyKeyResultId, @Param("from") OffsetDateTime from, @Param("to") OffsetDateTime to);
+
+    // named native query declared on the entity, as its result is mapped to a projection
+    List<KeyResultHistoryBucketProjection> findSeriesByCompanyKeyResultId(@Param("companyKeyResultId") Long companyKeyResultId, @Param("from") OffsetDateTime from, @Param("to") OffsetDateTime to, @Param("unit") String unit);
+}
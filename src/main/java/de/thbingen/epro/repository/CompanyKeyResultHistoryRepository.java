@@ -1,10 +1,112 @@
 package de.thbingen.epro.repository;
 
 import de.thbingen.epro.model.entity.CompanyKeyResultHistory;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
 
 public interface CompanyKeyResultHistoryRepository extends JpaRepository<CompanyKeyResultHistory, Long> {
-    Page<CompanyKeyResultHistory> findAllByCompanyKeyResultIdOrderByChangeTimeStampDesc(Long companyKeyResult_id, Pageable pageable);
+    List<CompanyKeyResultHistory> findAllByCompanyKeyResultIdOrderByChangeTimeStampDescIdDesc(Long companyKeyResult_id, Pageable pageable);
+
+    @Query("select h from CompanyKeyResultHistory h " +
+            "where h.companyKeyResult.id = :companyKeyResultId " +
+            // redundant to the condition below, but lets the database skip the partitions of the other months
+            "and h.changeTimeStamp <= :changeTimeStamp " +
+            "and (h.changeTimeStamp < :changeTimeStamp or (h.changeTimeStamp = :changeTimeStamp and h.id < :id)) " +
+            "order by h.changeTimeStamp desc, h.id desc")
+    List<CompanyKeyResultHistory> findAllOlderByCompanyKeyResultId(@Param("companyKeyResultId") Long companyKeyResultId, @Param("changeTimeStamp") OffsetDateTime changeTimeStamp, @Param("id") Long id, Pageable pageable);
+
+    @Query("select h from CompanyKeyResultHistory h " +
+            "where h.companyKeyResult.id = :companyKeyResultId " +
+            "and h.changeTimeStamp >= :changeTimeStamp " +
+            "and (h.changeTimeStamp > :changeTimeStamp or (h.changeTimeStamp = :changeTimeStamp and h.id > :id)) " +
+            "order by h.changeTimeStamp asc, h.id asc")
+    List<CompanyKeyResultHistory> findAllNewerByCompanyKeyResultId(@Param("companyKeyResultId") Long companyKeyResultId, @Param("changeTimeStamp") OffsetDateTime changeTimeStamp, @Param("id") Long id, Pageable pageable);
+
+    @Query("select min(h.id) from CompanyKeyResultHistory h " +
+            "where h.companyKeyResult.id = :companyKeyResultId and h.keyframe = true and h.id >= :id")
+    Optional<Long> findNextKeyframeId(@Param("companyKeyResultId") Long companyKeyResultId, @Param("id") Long id);
+
+    @Query("select h from CompanyKeyResultHistory h " +
+            "where h.companyKeyResult.id = :companyKeyResultId and h.id between :oldestId and :newestId " +
+            "order by h.id desc")
+    List<CompanyKeyResultHistory> findAllBetweenByCompanyKeyResultId(@Param("companyKeyResultId") Long companyKeyResultId, @Param("oldestId") Long oldestId, @Param("newestId") Long newestId);
+
+    // the current row in the same form as the historical data written by the historization trigger
+    @Query(value = "select cast(to_jsonb(kr) as text) " +
+            "from company_key_result kr " +
+            "where kr.id = :companyKeyResultId", nativeQuery = true)
+    Optional<String> getCurrentDataByCompanyKeyResultId(@Param("companyKeyResultId") Long companyKeyResultId);
+
+    // the history is compacted one key result after the other, so each batch only reads the entries of one of them
+    @Query("select min(h.companyKeyResult.id) from CompanyKeyResultHistory h " +
+            "where h.companyKeyResult.id > :companyKeyResultId and h.changeTimeStamp < :compactBefore")
+    Optional<Long> findNextKeyResultIdToCompact(@Param("companyKeyResultId") Long companyKeyResultId, @Param("compactBefore") OffsetDateTime compactBefore);
+
+    // of all entries older than compactBefore only the newest of every day, or of every week before weeklyBefore, is
+    // retained. Those are rewritten as compacted keyframes, before the entries between them are deleted
+    @Query(value = "select cast(ranked.id as bigint) " +
+            "from (select h.id, h.compacted, row_number() over (" +
+            "partition by h.change_time_stamp < :weeklyBefore, " +
+            "date_trunc(case when h.change_time_stamp < :weeklyBefore then 'week' else 'day' end, h.change_time_stamp, 'UTC') " +
+            "order by h.change_time_stamp desc, h.id desc) as position " +
+            "from company_key_result_history h " +
+            "where h.ref_id = :companyKeyResultId and h.change_time_stamp < :compactBefore) ranked " +
+            "where ranked.position = 1 and not ranked.compacted " +
+            "order by ranked.id " +
+            "limit :limit", nativeQuery = true)
+    List<Long> findRetainedDeltaIds(@Param("companyKeyResultId") Long companyKeyResultId, @Param("compactBefore") OffsetDateTime compactBefore, @Param("weeklyBefore") OffsetDateTime weeklyBefore, @Param("limit") int limit);
+
+    // the points of the compacted entries take the values at the end of their day or week from the rewritten snapshot
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query(value = "update company_key_result_history_point p " +
+            "set current_value = cast(h.historical_data ->> 'current_value' as decimal), " +
+            "goal_value = cast(h.historical_data ->> 'goal_value' as decimal), " +
+            "confidence_level = cast(h.historical_data ->> 'confidence_level' as decimal), " +
+            "achievement = cast(h.historical_data ->> 'achievement' as decimal), " +
+            "compacted = true " +
+            "from company_key_result_history h " +
+            "where h.id in (:ids) and h.compacted " +
+            "and p.history_id = h.id and p.change_time_stamp = h.change_time_stamp", nativeQuery = true)
+    int compactPoints(@Param("ids") List<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query(value = "delete from company_key_result_history " +
+            "where id in (select ranked.id " +
+            "from (select h.id, row_number() over (" +
+            "partition by h.change_time_stamp < :weeklyBefore, " +
+            "date_trunc(case when h.change_time_stamp < :weeklyBefore then 'week' else 'day' end, h.change_time_stamp, 'UTC') " +
+            "order by h.change_time_stamp desc, h.id desc) as position " +
+            "from company_key_result_history h " +
+            "where h.ref_id = :companyKeyResultId and h.change_time_stamp < :compactBefore) ranked " +
+            "where ranked.position > 1 " +
+            "order by ranked.id " +
+            "limit :limit)", nativeQuery = true)
+    int deleteSuperseded(@Param("companyKeyResultId") Long companyKeyResultId, @Param("compactBefore") OffsetDateTime compactBefore, @Param("weeklyBefore") OffsetDateTime weeklyBefore, @Param("limit") int limit);
+
+    long countByCompanyKeyResultId(Long companyKeyResult_id);
+
+    /**
+     * @return the version of all company key result histories, read from the version of the company_key_result_history table
+     */
+    @Query(value = "select table_versions('company_key_result_history')", nativeQuery = true)
+    String getVersionOfAll();
+
+    /**
+     * @param id the requested {@code id}
+     * @return the version of the company key result history, read from the transaction ids of its row and the rows it references
+     */
+    @Query(value = "select cast(row_version(h.xmin) as text) " +
+            "from company_key_result_history h " +
+            "where h.id = :id", nativeQuery = true)
+    Optional<String> getVersionById(@Param("id") Long id);
 }
@@ -1,14 +1,109 @@
 package de.thbingen.epro.repository;
 
 import de.thbingen.epro.model.entity.CompanyKeyResult;
+import de.thbingen.epro.model.projection.CompanyKeyResultProjection;
+import de.thbingen.epro.model.projection.IdReference;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+
+import static org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH;
 
 public interface CompanyKeyResultRepository extends JpaRepository<CompanyKeyResult, Long> {
     Page<CompanyKeyResult> findAllByCompanyObjectiveId(Long companyObjective_id, Pageable pageable);
 
     List<CompanyKeyResult> findAllByCompanyObjectiveId(Long companyObjective_id);
+
+    @Query("select distinct ckr from CompanyKeyResult ckr " +
+            "left join fetch ckr.businessUnitObjectives buo " +
+            "left join fetch buo.businessUnit " +
+            "where ckr.companyObjective.startDate < :date and ckr.companyObjective.endDate > :date")
+    @QueryHints(@QueryHint(name = HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    List<CompanyKeyResult> fetchBusinessUnitObjectivesOfActiveObjectives(@Param("date") LocalDate date);
+
+    @Query("select distinct ckr from CompanyKeyResult ckr " +
+            "left join fetch ckr.businessUnitKeyResults bukr " +
+            "left join fetch bukr.businessUnitObjective buo " +
+            "left join fetch buo.businessUnit " +
+            "left join fetch buo.companyKeyResult buoCkr " +
+            "left join fetch buoCkr.companyObjective " +
+            "where ckr.companyObjective.startDate < :date and ckr.companyObjective.endDate > :date")
+    @QueryHints(@QueryHint(name = HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    List<CompanyKeyResult> fetchBusinessUnitKeyResultsOfActiveObjectives(@Param("date") LocalDate date);
+
+    @Query("select ckr from CompanyKeyResult ckr " +
+            "join fetch ckr.companyObjective " +
+            "where ckr.id in :ids")
+    List<CompanyKeyResult> findAllWithObjectiveByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select distinct ckr from CompanyKeyResult ckr " +
+            "left join fetch ckr.businessUnitObjectives buo " +
+            "left join fetch buo.businessUnit " +
+            "where ckr.id in :ids")
+    @QueryHints(@QueryHint(name = HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    List<CompanyKeyResult> fetchBusinessUnitObjectivesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select distinct ckr from CompanyKeyResult ckr " +
+            "left join fetch ckr.businessUnitKeyResults bukr " +
+            "left join fetch bukr.businessUnitObjective buo " +
+            "left join fetch buo.businessUnit " +
+            "left join fetch buo.companyKeyResult buoCkr " +
+            "left join fetch buoCkr.companyObjective " +
+            "where ckr.id in :ids")
+    @QueryHints(@QueryHint(name = HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    List<CompanyKeyResult> fetchBusinessUnitKeyResultsByIdIn(@Param("ids") Collection<Long> ids);
+
+    String PROJECTION = "select new de.thbingen.epro.model.projection.CompanyKeyResultProjection(" +
+            "ckr.id, ckr.name, ckr.currentValue, ckr.goalValue, ckr.confidenceLevel, ckr.achievement, ckr.comment, ckr.timestamp, " +
+            "ckr.companyObjective.id) " +
+            "from CompanyKeyResult ckr ";
+
+    @Query(value = PROJECTION, countQuery = "select count(ckr) from CompanyKeyResult ckr")
+    Page<CompanyKeyResultProjection> findAllProjections(Pageable pageable);
+
+    @Query(value = PROJECTION + "where ckr.companyObjective.id = :companyObjectiveId",
+            countQuery = "select count(ckr) from CompanyKeyResult ckr where ckr.companyObjective.id = :companyObjectiveId")
+    Page<CompanyKeyResultProjection> findAllProjectionsByCompanyObjectiveId(@Param("companyObjectiveId") Long companyObjectiveId, Pageable pageable);
+
+    @Query(PROJECTION + "where ckr.id = :id")
+    Optional<CompanyKeyResultProjection> findProjectionById(@Param("id") Long id);
+
+    @Query("select new de.thbingen.epro.model.projection.IdReference(buo.companyKeyResult.id, buo.id) " +
+            "from BusinessUnitObjective buo " +
+            "where buo.companyKeyResult.id in :ids")
+    List<IdReference> findBusinessUnitObjectiveReferencesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select new de.thbingen.epro.model.projection.IdReference(bukr.companyKeyResult.id, bukr.id) " +
+            "from BusinessUnitKeyResult bukr " +
+            "where bukr.companyKeyResult.id in :ids")
+    List<IdReference> findBusinessUnitKeyResultReferencesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select distinct ckrh.companyKeyResult.id from CompanyKeyResultHistory ckrh where ckrh.companyKeyResult.id in :ids")
+    List<Long> findIdsWithHistoryByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * @return the version of all company key results, read from the versions of the company_key_result, business_unit_objective and business_unit_key_result tables
+     */
+    @Query(value = "select table_versions('company_key_result', 'business_unit_objective', 'business_unit_key_result')", nativeQuery = true)
+    String getVersionOfAll();
+
+    /**
+     * @param id the requested {@code id}
+     * @return the version of the company key result, read from the transaction ids of its row and the rows it references
+     */
+    @Query(value = "select concat_ws('.', row_version(ckr.xmin), " +
+            "(select concat_ws('.', count(*), sum(row_version(buo.xmin))) from business_unit_objective buo where buo.company_key_result_ref = ckr.id), " +
+            "(select concat_ws('.', count(*), sum(row_version(bukr.xmin))) from business_unit_key_result bukr where bukr.company_key_result_ref = ckr.id)) " +
+            "from company_key_result ckr " +
+            "where ckr.id = :id", nativeQuery = true)
+    Optional<String> getVersionById(@Param("id") Long id);
 }
@@ -1,15 +1,68 @@
 package de.thbingen.epro.repository;
 
 import de.thbingen.epro.model.entity.CompanyObjective;
+import de.thbingen.epro.model.projection.CompanyObjectiveProjection;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+
+import static org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH;
 
 public interface CompanyObjectiveRepository extends JpaRepository<CompanyObjective, Long> {
     Page<CompanyObjective> findAllByStartDateAfterAndEndDateBefore(LocalDate startDate, LocalDate endDate, Pageable pageable);
 
     List<CompanyObjective> findAllByStartDateBeforeAndEndDateAfter(LocalDate startDate, LocalDate endDate);
-}
\ No newline at end of file
+
+    List<CompanyObjective> findAllByStartDateGreaterThanEqualAndStartDateBeforeAndEndDateAfter(LocalDate startedOnOrAfter, LocalDate startedBefore, LocalDate endDate);
+
+    @Query("select distinct co from CompanyObjective co " +
+            "left join fetch co.companyKeyResults " +
+            "where co.startDate < :date and co.endDate > :date")
+    @QueryHints(@QueryHint(name = HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    List<CompanyObjective> findAllActiveWithKeyResults(@Param("date") LocalDate date);
+
+    @Query("select distinct co from CompanyObjective co " +
+            "left join fetch co.companyKeyResults " +
+            "where co.id in :ids")
+    @QueryHints(@QueryHint(name = HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    List<CompanyObjective> fetchKeyResultsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "select new de.thbingen.epro.model.projection.CompanyObjectiveProjection(co.id, co.achievement, co.name, co.startDate, co.endDate) " +
+            "from CompanyObjective co " +
+            "where co.startDate > :startDate and co.endDate < :endDate",
+            countQuery = "select count(co) from CompanyObjective co where co.startDate > :startDate and co.endDate < :endDate")
+    Page<CompanyObjectiveProjection> findAllProjectionsByStartDateAfterAndEndDateBefore(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, Pageable pageable);
+
+    @Query("select new de.thbingen.epro.model.projection.CompanyObjectiveProjection(co.id, co.achievement, co.name, co.startDate, co.endDate) " +
+            "from CompanyObjective co " +
+            "where co.id = :id")
+    Optional<CompanyObjectiveProjection> findProjectionById(@Param("id") Long id);
+
+    @Query("select distinct ckr.companyObjective.id from CompanyKeyResult ckr where ckr.companyObjective.id in :ids")
+    List<Long> findIdsWithKeyResultsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * @return the version of all company objectives, read from the versions of the company_objective and company_key_result tables
+     */
+    @Query(value = "select table_versions('company_objective', 'company_key_result')", nativeQuery = true)
+    String getVersionOfAll();
+
+    /**
+     * @param id the requested {@code id}
+     * @return the version of the company objective, read from the transaction ids of its row and the rows it references
+     */
+    @Query(value = "select concat_ws('.', row_version(co.xmin), " +
+            "(select concat_ws('.', count(*), sum(row_version(ckr.xmin))) from company_key_result ckr where ckr.company_objective_id = co.id)) " +
+            "from company_objective co " +
+            "where co.id = :id", nativeQuery = true)
+    Optional<String> getVersionById(@Param("id") Long id);
+}
@@ -4,6 +4,10 @@ import de.thbingen.epro.model.entity.OkrUser;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -13,4 +17,46 @@ public interface OkrUserRepository extends JpaRepository<OkrUser, Long> {
     Optional<OkrUser> findByUsername(String username);
 
     Page<OkrUser> findAllByRoleId(Long roleId, Pageable pageable);
+
+    @Query("select u.tokenVersion from OkrUser u where u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
+
+    @Query("select u.tokenVersion from OkrUser u where u.username = :username")
+    Optional<Integer> findTokenVersionByUsername(@Param("username") String username);
+
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("update OkrUser u set u.tokenVersion = u.tokenVersion + 1 where u.id = :id")
+    void incrementTokenVersionById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("update OkrUser u set u.tokenVersion = u.tokenVersion + 1 where u.role.id = :roleId")
+    void incrementTokenVersionByRoleId(@Param("roleId") Long roleId);
+
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("update OkrUser u set u.tokenVersion = u.tokenVersion + 1 " +
+            "where u.role.id in (select r.id from Role r join r.privileges p where p.id = :privilegeId)")
+    void incrementTokenVersionByPrivilegeId(@Param("privilegeId") Long privilegeId);
+
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("update OkrUser u set u.password = :password where u.id = :id")
+    void updatePasswordById(@Param("id") Long id, @Param("password") String password);
+
+    /**
+     * @return the version of all users, read from the version of the okr_user table
+     */
+    @Query(value = "select table_versions('okr_user')", nativeQuery = true)
+    String getVersionOfAll();
+
+    /**
+     * @param id the requested {@code id}
+     * @return the version of the user, read from the transaction ids of its row and the rows it references
+     */
+    @Query(value = "select cast(row_version(u.xmin) as text) " +
+            "from okr_user u " +
+            "where u.id = :id", nativeQuery = true)
+    Optional<String> getVersionById(@Param("id") Long id);
 }
@@ -4,7 +4,27 @@ import de.thbingen.epro.model.entity.Privilege;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
 
 public interface PrivilegeRepository extends JpaRepository<Privilege, Long> {
     Page<Privilege> findAllByRoles_Id(Long roleId, Pageable pageable);
+
+    /**
+     * @return the version of all privileges, read from the versions of the privilege and privileges_in_role tables
+     */
+    @Query(value = "select table_versions('privilege', 'privileges_in_role')", nativeQuery = true)
+    String getVersionOfAll();
+
+    /**
+     * @param id the requested {@code id}
+     * @return the version of the privilege, read from the transaction ids of its row and the rows it references
+     */
+    @Query(value = "select concat_ws('.', row_version(p.xmin), " +
+            "(select concat_ws('.', count(*), sum(row_version(pir.xmin))) from privileges_in_role pir where pir.privilege_id = p.id)) " +
+            "from privilege p " +
+            "where p.id = :id", nativeQuery = true)
+    Optional<String> getVersionById(@Param("id") Long id);
 }
@@ -0,0 +1,28 @@
+package de.thbingen.epro.repository;
+
+import de.thbingen.epro.model.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    List<RevokedToken> findAllByExpiresAtAfter(OffsetDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RevokedToken t where t.expiresAt <= :now")
+    int deleteAllExpired(@Param("now") OffsetDateTime now);
+
+    // unlike save, which merges, this fails to insert a token revoked by another node in the meantime
+    @Transactional
+    @Modifying
+    @Query(value = "insert into revoked_token (token_id, expires_at) values (:tokenId, :expiresAt) " +
+            "on conflict (token_id) do nothing", nativeQuery = true)
+    int insertIfAbsent(@Param("tokenId") String tokenId, @Param("expiresAt") OffsetDateTime expiresAt);
+}
@@ -4,7 +4,28 @@ import de.thbingen.epro.model.entity.Role;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
 
 public interface RoleRepository extends JpaRepository<Role, Long> {
     Page<Role> findAllByPrivileges_Roles_Id(Long privileges_roles_id, Pageable pageable);
+
+    /**
+     * @return the version of all roles, read from the versions of the role, okr_user and privileges_in_role tables
+     */
+    @Query(value = "select table_versions('role', 'okr_user', 'privileges_in_role')", nativeQuery = true)
+    String getVersionOfAll();
+
+    /**
+     * @param id the requested {@code id}
+     * @return the version of the role, read from the transaction ids of its row and the rows it references
+     */
+    @Query(value = "select concat_ws('.', row_version(r.xmin), " +
+            "(select concat_ws('.', count(*), sum(row_version(u.xmin))) from okr_user u where u.role_id = r.id), " +
+            "(select concat_ws('.', count(*), sum(row_version(pir.xmin))) from privileges_in_role pir where pir.role_id = r.id)) " +
+            "from role r " +
+            "where r.id = :id", nativeQuery = true)
+    Optional<String> getVersionById(@Param("id") Long id);
 }
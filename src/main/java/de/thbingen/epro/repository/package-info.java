@@ -2,5 +2,11 @@
  * This package contains all repositories, which are used by spring to access the Database.
  * As the Repositories are documented well enough by Spring, and the few hand-defined method-stubs are quite
  * self-explanatory, the Repositories themselves are not documented.
+ * <p>
+ * The exception are the versions used as ETags, which are read without loading any entity. The version of a single
+ * entity is built from the transaction ids ({@code xmin}) of its row and of the rows referenced by its representation,
+ * so it changes whenever one of them is written. The version of a whole collection is built from the versions of the
+ * tables its representation is read from, which the database increments with every statement writing them, so it is
+ * read from a few rows instead of every row of these tables.
  */
 package de.thbingen.epro.repository;
\ No newline at end of file
@@ -0,0 +1,73 @@
+package de.thbingen.epro.security;
+
+/**
+ * The rules, which protect the endpoints of the application. A rule is granted, if the user has its
+ * {@link #getPrivilege() privilege}, or if the user has its {@link #getOwnPrivilege() own privilege} and owns the
+ * resource the request is about, i.e. the resource belongs to the business unit of the user or it is the user itself.
+ * <p>
+ * The rules use the names of the {@link de.thbingen.epro.model.entity.Privilege}s stored in the database.
+ */
+public enum AccessRule {
+
+    READ("read"),
+    VIEW_USERS("view_users"),
+    ADD_USERS("add_users"),
+    CHANGE_USERS("change_users"),
+    ACCESS_ROLES("access_roles"),
+    ACCESS_PRIVILEGES("access_privileges"),
+    CHANGE_CO_OKRS("change_CO_OKRs"),
+    CHANGE_ALL_BU_OKRS("change_all_BU_OKRs"),
+    /**
+     * Users may view themselves, users with {@code view_users} everyone
+     */
+    VIEW_USER_OR_SELF("view_users", "read", Ownership.SELF),
+    /**
+     * Business unit admins may change their own business unit, company admins all of them
+     */
+    CHANGE_BUSINESS_UNIT("change_all_BU_OKRs", "change_own_BU_OKRs", Ownership.BUSINESS_UNIT),
+    CHANGE_BUSINESS_UNIT_OBJECTIVE("change_all_BU_OKRs", "change_own_BU_OKRs", Ownership.BUSINESS_UNIT_OBJECTIVE),
+    CHANGE_BUSINESS_UNIT_KEY_RESULT("change_all_BU_OKRs", "change_own_BU_OKRs", Ownership.BUSINESS_UNIT_KEY_RESULT);
+
+    /**
+     * The kind of resource, whose id is compared against the principal by a rule
+     */
+    public enum Ownership {
+        NONE,
+        SELF,
+        BUSINESS_UNIT,
+        BUSINESS_UNIT_OBJECTIVE,
+        BUSINESS_UNIT_KEY_RESULT
+    }
+
+    private final String privilege;
+    private final String ownPrivilege;
+    private final Ownership ownership;
+
+    AccessRule(String privilege) {
+        this(privilege, null, Ownership.NONE);
+    }
+
+    AccessRule(String privilege, String ownPrivilege, Ownership ownership) {
+        this.privilege = privilege;
+        this.ownPrivilege = ownPrivilege;
+        this.ownership = ownership;
+    }
+
+    /**
+     * @return the privilege, which grants the rule for every resource
+     */
+    public String getPrivilege() {
+        return privilege;
+    }
+
+    /**
+     * @return the privilege, which grants the rule for owned resources, or {@code null} if the rule has none
+     */
+    public String getOwnPrivilege() {
+        return ownPrivilege;
+    }
+
+    public Ownership getOwnership() {
+        return ownership;
+    }
+}
@@ -0,0 +1,101 @@
+package de.thbingen.epro.security;
+
+import de.thbingen.epro.model.entity.OkrUser;
+import de.thbingen.epro.model.entity.Privilege;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * The principal of an authenticated request. It is an immutable copy of the parts of an {@link OkrUser}, which are
+ * needed for the authorization, so it can be shared between requests without holding on to a managed entity.
+ */
+public class AuthenticatedUser implements UserDetails {
+
+    private final Long id;
+    private final String username;
+    private final Long businessUnitId;
+    private final PrivilegeSet privileges;
+
+    public AuthenticatedUser(Long id, String username, Long businessUnitId, Set<String> privileges) {
+        this(id, username, businessUnitId, PrivilegeSet.of(privileges));
+    }
+
+    public AuthenticatedUser(Long id, String username, Long businessUnitId, PrivilegeSet privileges) {
+        this.id = id;
+        this.username = username;
+        this.businessUnitId = businessUnitId;
+        this.privileges = privileges;
+    }
+
+    /**
+     * Copies the given user together with the {@link Privilege}s of its role, whose {@link PrivilegeSet} is shared
+     *
+     * @param okrUser the user as loaded from the database
+     * @return the principal of the user
+     */
+    public static AuthenticatedUser of(OkrUser okrUser) {
+        PrivilegeSet privileges = okrUser.getRole() != null ? okrUser.getRole().getPrivilegeSet() : PrivilegeSet.EMPTY;
+        Long businessUnitId = okrUser.getBusinessUnit() != null ? okrUser.getBusinessUnit().getId() : null;
+        return new AuthenticatedUser(okrUser.getId(), okrUser.getUsername(), businessUnitId, privileges);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * @return the {@code id} of the business unit of the user, or {@code null} if it belongs to none
+     */
+    public Long getBusinessUnitId() {
+        return businessUnitId;
+    }
+
+    public boolean hasPrivilege(String privilegeName) {
+        return privileges.contains(privilegeName);
+    }
+
+    public PrivilegeSet getPrivileges() {
+        return privileges;
+    }
+
+    @Override
+    public Collection<GrantedAuthority> getAuthorities() {
+        return privileges.getAuthorities();
+    }
+
+    /**
+     * @return always {@code null}, the password hash is not kept in the principal
+     */
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
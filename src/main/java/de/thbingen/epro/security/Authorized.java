@@ -0,0 +1,23 @@
+package de.thbingen.epro.security;
+
+import java.lang.annotation.*;
+
+/**
+ * Protects a controller method, or all methods of a controller, with an {@link AccessRule}. The rule is checked by
+ * the {@link OkrAuthorizationManager} before the method is invoked.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Authorized {
+
+    /**
+     * @return the rule the principal has to fulfill
+     */
+    AccessRule value();
+
+    /**
+     * @return the name of the parameter holding the id of the resource, only used by rules checking the ownership
+     */
+    String id() default "id";
+}
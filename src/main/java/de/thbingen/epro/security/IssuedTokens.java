@@ -0,0 +1,24 @@
+package de.thbingen.epro.security;
+
+/**
+ * The tokens handed out by a login or a refresh: a short-lived access token, which authenticates the requests, and a
+ * refresh token, which can be redeemed once for new tokens without sending the password again.
+ */
+public class IssuedTokens {
+
+    private final String accessToken;
+    private final String refreshToken;
+
+    public IssuedTokens(String accessToken, String refreshToken) {
+        this.accessToken = accessToken;
+        this.refreshToken = refreshToken;
+    }
+
+    public String getAccessToken() {
+        return accessToken;
+    }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+}
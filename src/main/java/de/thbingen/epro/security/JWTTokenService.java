@@ -2,38 +2,48 @@ package de.thbingen.epro.security;
 
 import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableMap;
+import de.thbingen.epro.config.JwtConfig;
 import io.jsonwebtoken.*;
 import org.joda.time.DateTime;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.Date;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
 import static io.jsonwebtoken.SignatureAlgorithm.HS256;
 
 @Service
 public class JWTTokenService implements Clock, TokenService {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
-    @Value("${jwt.issuer}")
-    private String jwtIssuer;
-    @Value("${jwt.type}")
-    private String jwtType;
-    @Value("${jwt.audience}")
-    private String jwtAudience;
-    @Value("${jwt.expiration}")
-    private Long expiration;
+    private final String jwtSecret;
+    private final String jwtIssuer;
+    private final String jwtType;
+    private final String jwtAudience;
+    private final Long expiration;
+    private final VerifiedTokenCache verifiedTokenCache;
 
-    JWTTokenService() {
+    public JWTTokenService(JwtConfig jwtConfig, VerifiedTokenCache verifiedTokenCache) {
         super();
+        this.jwtSecret = jwtConfig.getSecret();
+        this.jwtIssuer = jwtConfig.getIssuer();
+        this.jwtType = jwtConfig.getType();
+        this.jwtAudience = jwtConfig.getAudience();
+        this.expiration = jwtConfig.getExpiration();
+        this.verifiedTokenCache = verifiedTokenCache;
     }
 
     @Override
     public String newToken(final Map<String, String> attributes) {
+        return newToken(attributes, expiration);
+    }
+
+    @Override
+    public String newToken(final Map<String, String> attributes, final long expiration) {
         final DateTime now = DateTime.now();
         final Claims claims = Jwts.claims()
+                .setId(UUID.randomUUID().toString())
                 .setIssuer(jwtIssuer)
                 .setSubject(attributes.get("username"))
                 .setIssuedAt(now.toDate())
@@ -50,8 +60,16 @@ public class JWTTokenService implements Clock, TokenService {
 
     @Override
     public Map<String, String> verify(final String token) {
+        final Optional<Map<String, String>> verified = verifiedTokenCache.get(token);
+        if (verified.isPresent()) {
+            return verified.get();
+        }
         final JwtParser parser = Jwts.parser().requireIssuer(jwtIssuer).setClock(this).setSigningKey(jwtSecret);
-        return parseClaims(() -> parser.parseClaimsJws(token).getBody());
+        final Map<String, String> claims = parseClaims(() -> parser.parseClaimsJws(token).getBody());
+        if (!claims.isEmpty()) {
+            verifiedTokenCache.put(token, claims);
+        }
+        return claims;
     }
 
     private static Map<String, String> parseClaims(final Supplier<Claims> toClaims) {
@@ -0,0 +1,111 @@
+package de.thbingen.epro.security;
+
+import de.thbingen.epro.config.LoginConfig;
+import de.thbingen.epro.exception.LoginRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the logins on a small pool of threads, so a burst of logins, each of which checks a BCrypt hash, only takes
+ * as much CPU as there are threads and leaves the rest to the other endpoints.
+ * <p>
+ * A login, which finds the queue full, is rejected right away with 429 - Too Many Requests. A login, which waited
+ * longer than {@link LoginConfig#getMaxWait()} for its result, is given up with 503 - Service Unavailable. The length
+ * of the queue, the busy threads and the rejections are published as metrics.
+ */
+@Component
+public class LoginExecutor {
+
+    private final LoginConfig loginConfig;
+    private final ThreadPoolExecutor executor;
+    private final Counter queueFullRejections;
+    private final Counter timeoutRejections;
+
+    /**
+     * Default constructor to be used for Constructor Injection
+     *
+     * @param loginConfig   The configuration of the size of the pool and its queue
+     * @param meterRegistry The registry, to which the metrics of the pool are published
+     */
+    public LoginExecutor(LoginConfig loginConfig, MeterRegistry meterRegistry) {
+        this.loginConfig = loginConfig;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                loginConfig.getThreads(),
+                loginConfig.getThreads(),
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(loginConfig.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "login-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        Gauge.builder("login.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Logins waiting for their password to be checked")
+                .register(meterRegistry);
+        Gauge.builder("login.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Logins, whose password is being checked")
+                .register(meterRegistry);
+        this.queueFullRejections = Counter.builder("login.rejected")
+                .description("Logins rejected without checking the password")
+                .tag("reason", "queue_full")
+                .register(meterRegistry);
+        this.timeoutRejections = Counter.builder("login.rejected")
+                .description("Logins rejected without checking the password")
+                .tag("reason", "timeout")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the given login on the login threads and waits for its result
+     *
+     * @param login the login, which checks the password
+     * @param <T>   the type of the result of the login
+     * @return the result of the login
+     * @throws LoginRejectedException if the queue is full or the result was not available in time
+     */
+    public <T> T execute(Supplier<T> login) {
+        final Future<T> future;
+        try {
+            future = executor.submit(login::get);
+        } catch (RejectedExecutionException e) {
+            queueFullRejections.increment();
+            throw new LoginRejectedException(HttpStatus.TOO_MANY_REQUESTS, loginConfig.getRetryAfter());
+        }
+        try {
+            return future.get(loginConfig.getMaxWait(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timeoutRejections.increment();
+            throw new LoginRejectedException(HttpStatus.SERVICE_UNAVAILABLE, loginConfig.getRetryAfter());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new LoginRejectedException(HttpStatus.SERVICE_UNAVAILABLE, loginConfig.getRetryAfter());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
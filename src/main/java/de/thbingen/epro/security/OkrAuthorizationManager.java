@@ -0,0 +1,122 @@
+package de.thbingen.epro.security;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Checks the {@link AccessRule} of methods annotated with {@link Authorized}. The annotation and the position of the
+ * id parameter are looked up once per method, after that a check only compares privilege names of the
+ * {@link AuthenticatedUser} and, for rules checking the ownership, asks {@link CustomExpressions} for the owner of
+ * the resource.
+ */
+@Component
+public class OkrAuthorizationManager implements AuthorizationManager<MethodInvocation> {
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private final CustomExpressions customExpressions;
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+    private final Map<Method, ResolvedRule> rules = new ConcurrentHashMap<>();
+
+    /**
+     * Default constructor to be used for Constructor Injection
+     *
+     * @param customExpressions The checks, which resolve the owner of a resource
+     */
+    public OkrAuthorizationManager(CustomExpressions customExpressions) {
+        this.customExpressions = customExpressions;
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        ResolvedRule resolvedRule = rules.computeIfAbsent(invocation.getMethod(), method -> resolve(method, invocation));
+        if (resolvedRule == null) {
+            return DENIED;
+        }
+        Authentication currentAuthentication = authentication.get();
+        if (currentAuthentication == null || !(currentAuthentication.getPrincipal() instanceof AuthenticatedUser user)) {
+            return DENIED;
+        }
+        return check(resolvedRule, user, invocation.getArguments()) ? GRANTED : DENIED;
+    }
+
+    /**
+     * Checks a single rule, without resolving it from the annotation of a method
+     *
+     * @param rule the rule to check
+     * @param user the principal of the request
+     * @param id   the id of the resource the request is about, only used if the rule checks the ownership
+     * @return true if the user is granted access
+     */
+    public boolean check(AccessRule rule, AuthenticatedUser user, Long id) {
+        if (user.hasPrivilege(rule.getPrivilege())) {
+            return true;
+        }
+        if (rule.getOwnership() == AccessRule.Ownership.NONE || !user.hasPrivilege(rule.getOwnPrivilege()) || id == null) {
+            return false;
+        }
+        return switch (rule.getOwnership()) {
+            case SELF -> customExpressions.isSameUser(id, user);
+            case BUSINESS_UNIT -> customExpressions.belongsToBusinessUnit(id, user);
+            case BUSINESS_UNIT_OBJECTIVE -> customExpressions.buObjectiveBelongsToSameBuAsUser(id, user);
+            case BUSINESS_UNIT_KEY_RESULT -> customExpressions.buKeyResultBelongsToSameBuAsUser(id, user);
+            case NONE -> false;
+        };
+    }
+
+    private boolean check(ResolvedRule resolvedRule, AuthenticatedUser user, Object[] arguments) {
+        Long id = null;
+        if (resolvedRule.idIndex >= 0 && arguments[resolvedRule.idIndex] instanceof Number number) {
+            id = number.longValue();
+        }
+        return check(resolvedRule.rule, user, id);
+    }
+
+    private ResolvedRule resolve(Method method, MethodInvocation invocation) {
+        Class<?> targetClass = invocation.getThis() != null ? AopUtils.getTargetClass(invocation.getThis()) : method.getDeclaringClass();
+        Method specificMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+        Authorized authorized = AnnotatedElementUtils.findMergedAnnotation(specificMethod, Authorized.class);
+        if (authorized == null) {
+            authorized = AnnotatedElementUtils.findMergedAnnotation(targetClass, Authorized.class);
+        }
+        if (authorized == null) {
+            return null;
+        }
+        if (authorized.value().getOwnership() == AccessRule.Ownership.NONE) {
+            return new ResolvedRule(authorized.value(), -1);
+        }
+        String[] parameterNames = parameterNameDiscoverer.getParameterNames(specificMethod);
+        if (parameterNames != null) {
+            for (int i = 0; i < parameterNames.length; i++) {
+                if (parameterNames[i].equals(authorized.id())) {
+                    return new ResolvedRule(authorized.value(), i);
+                }
+            }
+        }
+        throw new IllegalStateException("Method " + specificMethod + " has no parameter named " + authorized.id());
+    }
+
+    private static class ResolvedRule {
+
+        private final AccessRule rule;
+        private final int idIndex;
+
+        ResolvedRule(AccessRule rule, int idIndex) {
+            this.rule = rule;
+            this.idIndex = idIndex;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package de.thbingen.epro.security;
+
+import de.thbingen.epro.config.JwtConfig;
+import de.thbingen.epro.config.PrincipalCacheConfig;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the {@link AuthenticatedUser}s loaded for the tokens of the requests, so the user, its role and its
+ * privileges are not read from the database on every request. For self-contained tokens, which already carry the
+ * principal, only the current token version of the user is kept.
+ * <p>
+ * A principal is kept at most as long as a token issued at the time it was loaded stays valid, a token version at
+ * most {@link PrincipalCacheConfig#getTokenVersionMaxAge()} milliseconds. The services, which change users, roles or
+ * privileges, evict the affected entries after every write. Like in the {@link de.thbingen.epro.cache.ResponseCache},
+ * an entry is only stored if no eviction happened while it was loaded. Evictions, which happen inside a transaction,
+ * are repeated once the transaction completed, so an entry read from a not yet committed or a rolled back state is
+ * dropped as well.
+ */
+@Component
+public class PrincipalCache {
+
+    private final PrincipalCacheConfig principalCacheConfig;
+    private final long principalMaxAgeNanos;
+    private final long tokenVersionMaxAgeNanos;
+    private final Map<String, Entry<AuthenticatedUser>> principals;
+    private final Map<Long, Entry<Integer>> tokenVersions;
+    private long generation;
+
+    /**
+     * Default constructor to be used for Constructor Injection
+     *
+     * @param principalCacheConfig The configuration of the size of the cache
+     * @param jwtConfig            The configuration of the tokens, whose expiration bounds the time a principal is kept
+     */
+    public PrincipalCache(PrincipalCacheConfig principalCacheConfig, JwtConfig jwtConfig) {
+        this.principalCacheConfig = principalCacheConfig;
+        this.principalMaxAgeNanos = TimeUnit.MILLISECONDS.toNanos(jwtConfig.getExpiration());
+        this.tokenVersionMaxAgeNanos = TimeUnit.MILLISECONDS.toNanos(principalCacheConfig.getTokenVersionMaxAge());
+        this.principals = boundedMap(principalCacheConfig.getMaxEntries());
+        this.tokenVersions = boundedMap(principalCacheConfig.getMaxEntries());
+    }
+
+    /**
+     * Returns the principal stored for the given {@code username}, unless it is older than the lifetime of a token
+     *
+     * @param username the name of the user taken from the token
+     * @return the stored principal or an empty {@link Optional}, if there is none
+     */
+    public synchronized Optional<AuthenticatedUser> get(String username) {
+        return get(principals, username, principalMaxAgeNanos);
+    }
+
+    /**
+     * Returns the token version stored for the user with the given {@code id}
+     *
+     * @param okrUserId the {@code id} of the user taken from the token
+     * @return the stored token version or an empty {@link Optional}, if there is none
+     */
+    public synchronized Optional<Integer> getTokenVersion(Long okrUserId) {
+        return get(tokenVersions, okrUserId, tokenVersionMaxAgeNanos);
+    }
+
+    /**
+     * Returns the number of evictions so far, which has to be read before a principal or token version is loaded and
+     * passed to {@link #put(long, AuthenticatedUser)} or {@link #putTokenVersion(long, Long, int)} afterwards
+     *
+     * @return the current generation of the cache
+     */
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Stores the given principal, unless the cache was evicted since {@code generation} was read
+     *
+     * @param generation        the generation of the cache, which was read before the principal was loaded
+     * @param authenticatedUser the loaded principal
+     */
+    public synchronized void put(long generation, AuthenticatedUser authenticatedUser) {
+        if (principalCacheConfig.isEnabled() && this.generation == generation) {
+            principals.put(authenticatedUser.getUsername(), new Entry<>(authenticatedUser, System.nanoTime()));
+        }
+    }
+
+    /**
+     * Stores the given token version, unless the cache was evicted since {@code generation} was read
+     *
+     * @param generation   the generation of the cache, which was read before the token version was loaded
+     * @param okrUserId    the {@code id} of the user
+     * @param tokenVersion the loaded token version
+     */
+    public synchronized void putTokenVersion(long generation, Long okrUserId, int tokenVersion) {
+        if (principalCacheConfig.isEnabled() && this.generation == generation) {
+            tokenVersions.put(okrUserId, new Entry<>(tokenVersion, System.nanoTime()));
+        }
+    }
+
+    /**
+     * Removes the principal of the user with the given {@code id}, whose name, role or business unit was changed
+     *
+     * @param okrUserId the {@code id} of the changed user
+     */
+    public void evictUser(Long okrUserId) {
+        evictNowAndAfterCompletion(() -> {
+            principals.values().removeIf(entry -> okrUserId.equals(entry.value.getId()));
+            tokenVersions.remove(okrUserId);
+        });
+    }
+
+    /**
+     * Removes all principals, because a role or privilege, which may be shared by any number of users, was changed
+     */
+    public void evictAll() {
+        evictNowAndAfterCompletion(() -> {
+            principals.clear();
+            tokenVersions.clear();
+        });
+    }
+
+    private void evictNowAndAfterCompletion(Runnable eviction) {
+        evict(eviction);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(eviction);
+                }
+            });
+        }
+    }
+
+    private synchronized void evict(Runnable eviction) {
+        generation++;
+        eviction.run();
+    }
+
+    private static <K, V> Optional<V> get(Map<K, Entry<V>> entries, K key, long maxAgeNanos) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (System.nanoTime() - entry.loadedAt > maxAgeNanos) {
+            entries.remove(key);
+            return Optional.empty();
+        }
+        return Optional.of(entry.value);
+    }
+
+    private static <K, V> Map<K, V> boundedMap(int maxEntries) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    private static class Entry<T> {
+
+        private final T value;
+        private final long loadedAt;
+
+        Entry(T value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package de.thbingen.epro.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * An immutable set of privilege names, stored as a bitset. Every privilege name gets an ordinal the first time it is
+ * seen, together with a single {@link GrantedAuthority} shared by all sets containing it. A set is built once, e.g.
+ * when a {@link de.thbingen.epro.model.entity.Role} is loaded, and after that checking a privilege is a map lookup and
+ * a bit test, and the authorities are returned without allocating anything.
+ */
+public final class PrivilegeSet {
+
+    /**
+     * A set without any privileges
+     */
+    public static final PrivilegeSet EMPTY = new PrivilegeSet(new long[0], List.of());
+
+    private static final Map<String, InternedPrivilege> INTERNED_PRIVILEGES = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_ORDINAL = new AtomicInteger();
+
+    private final long[] bits;
+    private final List<GrantedAuthority> authorities;
+    private final Set<String> names;
+    private final String key;
+
+    private PrivilegeSet(long[] bits, List<GrantedAuthority> authorities) {
+        this.bits = bits;
+        this.authorities = authorities;
+        this.names = authorities.stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toUnmodifiableSet());
+        this.key = this.names.stream().sorted().collect(Collectors.joining(","));
+    }
+
+    /**
+     * @param privilegeNames the names of the privileges
+     * @return the set of the given privileges
+     */
+    public static PrivilegeSet of(Collection<String> privilegeNames) {
+        if (privilegeNames == null || privilegeNames.isEmpty()) {
+            return EMPTY;
+        }
+        long[] bits = new long[0];
+        List<GrantedAuthority> authorities = new ArrayList<>(privilegeNames.size());
+        for (String privilegeName : privilegeNames) {
+            InternedPrivilege privilege = intern(privilegeName);
+            int word = privilege.ordinal >>> 6;
+            if (word >= bits.length) {
+                bits = Arrays.copyOf(bits, word + 1);
+            }
+            long mask = 1L << privilege.ordinal;
+            if ((bits[word] & mask) == 0) {
+                bits[word] |= mask;
+                authorities.add(privilege.authority);
+            }
+        }
+        return new PrivilegeSet(bits, List.copyOf(authorities));
+    }
+
+    /**
+     * @param privilegeName the name of a privilege
+     * @return true if the set contains the privilege
+     */
+    public boolean contains(String privilegeName) {
+        if (privilegeName == null) {
+            return false;
+        }
+        InternedPrivilege privilege = INTERNED_PRIVILEGES.get(privilegeName);
+        if (privilege == null) {
+            return false;
+        }
+        int word = privilege.ordinal >>> 6;
+        return word < bits.length && (bits[word] & (1L << privilege.ordinal)) != 0;
+    }
+
+    /**
+     * @return the unmodifiable authorities of the privileges, one per privilege
+     */
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    /**
+     * @return the unmodifiable names of the privileges
+     */
+    public Set<String> getNames() {
+        return names;
+    }
+
+    /**
+     * @return the sorted, comma separated names of the privileges, which is the same for all equal sets
+     */
+    public String getKey() {
+        return key;
+    }
+
+    private static InternedPrivilege intern(String privilegeName) {
+        return INTERNED_PRIVILEGES.computeIfAbsent(
+                privilegeName,
+                name -> new InternedPrivilege(NEXT_ORDINAL.getAndIncrement(), new SimpleGrantedAuthority(name))
+        );
+    }
+
+    private static class InternedPrivilege {
+
+        private final int ordinal;
+        private final GrantedAuthority authority;
+
+        InternedPrivilege(int ordinal, GrantedAuthority authority) {
+            this.ordinal = ordinal;
+            this.authority = authority;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package de.thbingen.epro.security;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejects requests of clients, which exceeded the limit of the {@link RateLimiter} for the requested endpoint, with
+ * 429 - Too Many Requests and a Retry-After header. Logins are limited per IP address, requests changing data per
+ * user. It runs after the {@link TokenAuthenticationFilter}, so the user of a request is known.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final RequestMatcher loginUrls;
+
+    /**
+     * @param rateLimiter the buckets of the clients
+     * @param loginUrls   the endpoints, which hand out tokens
+     */
+    public RateLimitFilter(RateLimiter rateLimiter, RequestMatcher loginUrls) {
+        this.rateLimiter = rateLimiter;
+        this.loginUrls = loginUrls;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        RateLimiter.Group group = groupOf(request);
+        if (group != null && rateLimiter.isEnabled()) {
+            long wait = rateLimiter.tryAcquire(group, clientOf(group, request));
+            if (wait > 0) {
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds(wait)));
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    // rounded up, so a client following the header is not rejected again
+    private static long retryAfterSeconds(long waitNanos) {
+        long second = TimeUnit.SECONDS.toNanos(1);
+        return Math.max(1, (waitNanos + second - 1) / second);
+    }
+
+    private RateLimiter.Group groupOf(HttpServletRequest request) {
+        if (loginUrls.matches(request)) {
+            return RateLimiter.Group.LOGIN;
+        }
+        HttpMethod method = HttpMethod.resolve(request.getMethod());
+        if (method == HttpMethod.POST || method == HttpMethod.PUT || method == HttpMethod.PATCH || method == HttpMethod.DELETE) {
+            return RateLimiter.Group.WRITE;
+        }
+        return null;
+    }
+
+    private String clientOf(RateLimiter.Group group, HttpServletRequest request) {
+        if (group == RateLimiter.Group.WRITE) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser authenticatedUser) {
+                return "user:" + authenticatedUser.getId();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,154 @@
+package de.thbingen.epro.security;
+
+import de.thbingen.epro.config.RateLimitConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the requests of every client per endpoint {@link Group} with a token bucket. A bucket is kept as the single
+ * time at which it will be full again (the generic cell rate algorithm), so taking a token is one compare-and-set
+ * without any lock, and a bucket, which is full again, can be dropped, because it equals a new one.
+ * <p>
+ * Once the configured number of buckets is reached, a new client makes room by dropping the buckets, which are full
+ * again, or else the one, which will be full first. It holds the fewest taken tokens, so the clients, which used up
+ * most of their limit, stay limited, while an unknown client is never let through without a bucket.
+ * <p>
+ * The rejected requests, the dropped buckets and the number of tracked clients are published as metrics per group.
+ */
+@Component
+public class RateLimiter {
+
+    /**
+     * The groups of endpoints, which are limited independently of each other
+     */
+    public enum Group {
+        LOGIN,
+        WRITE
+    }
+
+    private final RateLimitConfig rateLimitConfig;
+    private final Map<Group, Buckets> buckets = new EnumMap<>(Group.class);
+
+    /**
+     * Default constructor to be used for Constructor Injection
+     *
+     * @param rateLimitConfig The configuration of the limits of the groups
+     * @param meterRegistry   The registry, to which the metrics of the groups are published
+     */
+    public RateLimiter(RateLimitConfig rateLimitConfig, MeterRegistry meterRegistry) {
+        this.rateLimitConfig = rateLimitConfig;
+        buckets.put(Group.LOGIN, new Buckets(Group.LOGIN, rateLimitConfig.getLogin(), meterRegistry));
+        buckets.put(Group.WRITE, new Buckets(Group.WRITE, rateLimitConfig.getWrite(), meterRegistry));
+    }
+
+    public boolean isEnabled() {
+        return rateLimitConfig.isEnabled();
+    }
+
+    /**
+     * Takes a token from the bucket of the given client
+     *
+     * @param group the group of the requested endpoint
+     * @param key   the client, i.e. the user or the IP address
+     * @return 0 if the request may pass, otherwise the number of nanoseconds until the next token is available
+     */
+    public long tryAcquire(Group group, String key) {
+        if (!rateLimitConfig.isEnabled()) {
+            return 0;
+        }
+        return buckets.get(group).tryAcquire(key, System.nanoTime());
+    }
+
+    /**
+     * Drops the buckets, which are full again, of all groups
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void prune() {
+        long now = System.nanoTime();
+        buckets.values().forEach(groupBuckets -> groupBuckets.prune(now));
+    }
+
+    private class Buckets {
+
+        private final long interval;
+        private final long burst;
+        private final Map<String, AtomicLong> fullAt = new ConcurrentHashMap<>();
+        private final Counter rejections;
+        private final Counter evictions;
+
+        Buckets(Group group, RateLimitConfig.Limit limit, MeterRegistry meterRegistry) {
+            this.interval = (long) (TimeUnit.SECONDS.toNanos(1) / limit.getRefillPerSecond());
+            this.burst = interval * limit.getCapacity();
+            String groupName = group.name().toLowerCase(Locale.ROOT);
+            this.rejections = Counter.builder("rate.limit.rejected")
+                    .description("Requests rejected, because the client exceeded its limit")
+                    .tag("group", groupName)
+                    .register(meterRegistry);
+            this.evictions = Counter.builder("rate.limit.evicted")
+                    .description("Buckets dropped before they were full again, to make room for a new client")
+                    .tag("group", groupName)
+                    .register(meterRegistry);
+            Gauge.builder("rate.limit.clients", fullAt, Map::size)
+                    .description("Clients, whose bucket is not full")
+                    .tag("group", groupName)
+                    .register(meterRegistry);
+        }
+
+        long tryAcquire(String key, long now) {
+            AtomicLong bucket = fullAt.get(key);
+            if (bucket == null) {
+                if (fullAt.size() >= rateLimitConfig.getMaxBuckets()) {
+                    makeRoom(now);
+                }
+                bucket = fullAt.computeIfAbsent(key, k -> new AtomicLong(now));
+            }
+            while (true) {
+                long current = bucket.get();
+                long next = Math.max(current, now) + interval;
+                long wait = next - now - burst;
+                if (wait > 0) {
+                    rejections.increment();
+                    return wait;
+                }
+                if (bucket.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        void prune(long now) {
+            fullAt.values().removeIf(bucket -> bucket.get() - now <= 0);
+        }
+
+        void makeRoom(long now) {
+            boolean pruned = false;
+            Map.Entry<String, AtomicLong> fullFirst = null;
+            long fullFirstAt = 0;
+            for (Iterator<Map.Entry<String, AtomicLong>> iterator = fullAt.entrySet().iterator(); iterator.hasNext(); ) {
+                Map.Entry<String, AtomicLong> entry = iterator.next();
+                long entryFullAt = entry.getValue().get();
+                if (entryFullAt - now <= 0) {
+                    iterator.remove();
+                    pruned = true;
+                } else if (fullFirst == null || entryFullAt - fullFirstAt < 0) {
+                    fullFirst = entry;
+                    fullFirstAt = entryFullAt;
+                }
+            }
+            if (!pruned && fullFirst != null && fullAt.remove(fullFirst.getKey(), fullFirst.getValue())) {
+                evictions.increment();
+            }
+        }
+    }
+}
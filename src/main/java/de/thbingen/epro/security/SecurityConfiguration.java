@@ -1,11 +1,20 @@
 package de.thbingen.epro.security;
 
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.Pointcuts;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Role;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
-import org.springframework.security.config.annotation.web.builders.WebSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.web.AuthenticationEntryPoint;
@@ -22,25 +31,28 @@ import static org.springframework.security.config.http.SessionCreationPolicy.STA
 
 @Configuration
 @EnableWebSecurity
-@EnableGlobalMethodSecurity(prePostEnabled = true)
+@EnableMethodSecurity(prePostEnabled = false)
 public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
 
     private static final RequestMatcher PUBLIC_URLS = new OrRequestMatcher(
-            new AntPathRequestMatcher("/login")
+            new AntPathRequestMatcher("/login"),
+            new AntPathRequestMatcher("/refresh")
     );
 
     private static final RequestMatcher PROTECTED_URLS = new NegatedRequestMatcher(PUBLIC_URLS);
 
+    private static final Pointcut AUTHORIZED_METHODS = Pointcuts.union(
+            new AnnotationMatchingPointcut(null, Authorized.class, true),
+            new AnnotationMatchingPointcut(Authorized.class, true)
+    );
+
     private TokenAuthenticationProvider provider;
+    private RateLimiter rateLimiter;
 
-    public SecurityConfiguration(TokenAuthenticationProvider provider) {
+    public SecurityConfiguration(TokenAuthenticationProvider provider, RateLimiter rateLimiter) {
         super();
         this.provider = provider;
-    }
-
-    @Override
-    public void configure(final WebSecurity web) {
-        web.ignoring().requestMatchers(PUBLIC_URLS);
+        this.rateLimiter = rateLimiter;
     }
 
     @Override
@@ -54,7 +66,11 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
                 .and()
                 .authenticationProvider(provider)
                 .addFilterBefore(authenticationFilter(), AnonymousAuthenticationFilter.class)
+                // not a bean, which would be registered a second time outside of the security filter chain
+                .addFilterAfter(new RateLimitFilter(rateLimiter, PUBLIC_URLS), AnonymousAuthenticationFilter.class)
                 .authorizeRequests()
+                .requestMatchers(PUBLIC_URLS)
+                .permitAll()
                 .requestMatchers(PROTECTED_URLS)
                 .authenticated()
                 .and()
@@ -65,6 +81,20 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
 
     }
 
+    /**
+     * Checks the {@link Authorized} rules of the controllers before their methods are invoked. The
+     * {@link OkrAuthorizationManager} is resolved lazily, so the repositories it needs are not created together with
+     * the infrastructure beans.
+     *
+     * @param authorizationManager the manager checking the rules
+     * @return the advisor, which is applied to every method annotated with {@link Authorized}
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor authorizedMethodInterceptor(@Lazy AuthorizationManager<MethodInvocation> authorizationManager) {
+        return new AuthorizationManagerBeforeMethodInterceptor(AUTHORIZED_METHODS, authorizationManager);
+    }
+
     @Bean
     AuthenticationEntryPoint forbiddenEntryPoint() {
         return new HttpStatusEntryPoint(HttpStatus.FORBIDDEN);
@@ -18,6 +18,12 @@ import static org.springframework.http.HttpHeaders.AUTHORIZATION;
 
 public class TokenAuthenticationFilter extends AbstractAuthenticationProcessingFilter {
 
+    /**
+     * The name of the request attribute holding the token of an authenticated request, whose credentials are erased
+     * after the authentication
+     */
+    public static final String TOKEN_ATTRIBUTE = "de.thbingen.epro.security.TokenAuthenticationFilter.token";
+
     public TokenAuthenticationFilter(final RequestMatcher authRequired) {
         super(authRequired);
     }
@@ -30,6 +36,7 @@ public class TokenAuthenticationFilter extends AbstractAuthenticationProcessingF
                 .map(String::trim).orElseThrow(() -> new BadCredentialsException("No token found"));
 
         final Authentication auth = new UsernamePasswordAuthenticationToken(token, token);
+        request.setAttribute(TOKEN_ATTRIBUTE, token);
         return getAuthenticationManager().authenticate(auth);
     }
 
@@ -1,12 +1,17 @@
 package de.thbingen.epro.security;
 
-import com.google.common.collect.ImmutableMap;
+import de.thbingen.epro.config.JwtConfig;
 import de.thbingen.epro.model.entity.OkrUser;
 import de.thbingen.epro.repository.OkrUserRepository;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 
 @Service
 public class TokenAuthenticationService implements UserAuthenticationService {
@@ -15,33 +20,150 @@ public class TokenAuthenticationService implements UserAuthenticationService {
     private final TokenService tokenService;
     private final OkrUserRepository okrUserRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
+    private final JwtConfig jwtConfig;
+    private final Timer hashTimer;
+    private final TokenRevocationStore tokenRevocationStore;
 
     public TokenAuthenticationService(TokenService tokenService,
                                       OkrUserRepository okrUserRepository,
-                                      PasswordEncoder passwordEncoder) {
+                                      PasswordEncoder passwordEncoder,
+                                      PrincipalCache principalCache,
+                                      JwtConfig jwtConfig,
+                                      MeterRegistry meterRegistry,
+                                      TokenRevocationStore tokenRevocationStore) {
         this.tokenService = tokenService;
         this.okrUserRepository = okrUserRepository;
         this.passwordEncoder = passwordEncoder;
+        this.principalCache = principalCache;
+        this.jwtConfig = jwtConfig;
+        this.hashTimer = Timer.builder("login.hash.time")
+                .description("Time taken to check the password of a login")
+                .register(meterRegistry);
+        this.tokenRevocationStore = tokenRevocationStore;
     }
 
     @Override
-    public Optional<String> login(final String username, final String password) {
+    public Optional<IssuedTokens> login(final String username, final String password) {
+        // read before the user, so a change in between leaves the token with an outdated version instead of outdated claims
+        final Optional<Integer> tokenVersion = okrUserRepository.findTokenVersionByUsername(username);
         return okrUserRepository
                 .findByUsername(username)
-                .filter(user -> passwordEncoder.matches(password, user.getPassword()))
-                .map(user -> tokenService.newToken(ImmutableMap.of("username", username)));
+                .filter(user -> hashTimer.record(() -> passwordEncoder.matches(password, user.getPassword())))
+                .flatMap(user -> {
+                    upgradePassword(user, password);
+                    return tokenVersion.map(version -> issueTokens(user, version, UUID.randomUUID().toString()));
+                });
     }
 
     @Override
-    public Optional<OkrUser> findByToken(final String token) {
+    public Optional<IssuedTokens> refresh(final String refreshToken) {
+        final Map<String, String> claims = tokenService.verify(refreshToken);
+        if (!TokenClaims.isRefreshToken(claims)) {
+            return Optional.empty();
+        }
+        final String familyId = claims.get(TokenClaims.FAMILY_ID);
+        if (tokenRevocationStore.isRevoked(familyId)) {
+            return Optional.empty();
+        }
+        final String username = claims.get(TokenClaims.USERNAME);
+        final Optional<Integer> tokenVersion = okrUserRepository.findTokenVersionByUsername(username);
+        // a change of the password or the privileges ends the session, refresh tokens issued before included
+        if (!claims.containsKey(TokenClaims.TOKEN_VERSION)
+                || tokenVersion.map(version -> version != TokenClaims.tokenVersionOf(claims)).orElse(true)) {
+            revokeFamily(familyId);
+            return Optional.empty();
+        }
+        final long expiresAt = Long.parseLong(claims.get(Claims.EXPIRATION)) * 1000;
+        if (!tokenRevocationStore.revokeOnce(claims.get(Claims.ID), expiresAt)) {
+            // a refresh token redeemed twice was copied, so neither of its holders gets new tokens anymore
+            revokeFamily(familyId);
+            return Optional.empty();
+        }
+        return okrUserRepository
+                .findByUsername(username)
+                .map(user -> issueTokens(user, tokenVersion.get(), familyId));
+    }
+
+    @Override
+    public Optional<AuthenticatedUser> findByToken(final String token) {
+        final Map<String, String> claims = tokenService.verify(token);
+        if (TokenClaims.isRefreshToken(claims)
+                || tokenRevocationStore.isRevoked(claims.get(Claims.ID))
+                || tokenRevocationStore.isRevoked(claims.get(TokenClaims.FAMILY_ID))) {
+            return Optional.empty();
+        }
+        if (TokenClaims.isSelfContained(claims)) {
+            final AuthenticatedUser authenticatedUser = TokenClaims.toPrincipal(claims);
+            return isCurrentTokenVersion(authenticatedUser.getId(), TokenClaims.tokenVersionOf(claims))
+                    ? Optional.of(authenticatedUser)
+                    : Optional.empty();
+        }
         return Optional
-                .of(tokenService.verify(token))
-                .map(map -> map.get("username"))
-                .flatMap(okrUserRepository::findByUsername);
+                .ofNullable(claims.get(TokenClaims.USERNAME))
+                .flatMap(this::findPrincipal);
     }
 
     @Override
-    public void logout(final OkrUser okrUser) {
+    public void logout(final String token) {
+        final Map<String, String> claims = tokenService.verify(token);
+        final String tokenId = claims.get(Claims.ID);
+        final String expiration = claims.get(Claims.EXPIRATION);
+        // tokens issued without an id can't be told apart and stay valid until they expire
+        if (tokenId != null && expiration != null) {
+            tokenRevocationStore.revoke(tokenId, Long.parseLong(expiration) * 1000);
+        }
+        if (claims.containsKey(TokenClaims.FAMILY_ID)) {
+            revokeFamily(claims.get(TokenClaims.FAMILY_ID));
+        }
+    }
+
+    // no token of the family outlives a refresh token issued right now
+    private void revokeFamily(final String familyId) {
+        tokenRevocationStore.revoke(familyId, System.currentTimeMillis() + jwtConfig.getRefreshExpiration());
+    }
+
+    private IssuedTokens issueTokens(final OkrUser okrUser, final int tokenVersion, final String familyId) {
+        return new IssuedTokens(
+                tokenService.newToken(TokenClaims.withFamily(claimsOf(okrUser, tokenVersion), familyId)),
+                tokenService.newToken(TokenClaims.refresh(okrUser.getUsername(), tokenVersion, familyId), jwtConfig.getRefreshExpiration())
+        );
+    }
+
+    // the password is only known here, so a hash of a different strength can only be replaced after a successful login
+    private void upgradePassword(final OkrUser okrUser, final String password) {
+        if (passwordEncoder.upgradeEncoding(okrUser.getPassword())) {
+            okrUserRepository.updatePasswordById(okrUser.getId(), passwordEncoder.encode(password));
+        }
+    }
+
+    private Map<String, String> claimsOf(final OkrUser okrUser, final int tokenVersion) {
+        if (jwtConfig.isSelfContained()) {
+            return TokenClaims.of(AuthenticatedUser.of(okrUser), tokenVersion);
+        }
+        return TokenClaims.of(okrUser.getUsername());
+    }
+
+    private boolean isCurrentTokenVersion(final Long okrUserId, final int tokenVersion) {
+        Optional<Integer> currentTokenVersion = principalCache.getTokenVersion(okrUserId);
+        if (currentTokenVersion.isEmpty()) {
+            final long generation = principalCache.getGeneration();
+            // empty if the user was deleted, which invalidates its tokens as well
+            currentTokenVersion = okrUserRepository.findTokenVersionById(okrUserId);
+            currentTokenVersion.ifPresent(version -> principalCache.putTokenVersion(generation, okrUserId, version));
+        }
+        return currentTokenVersion.map(version -> version == tokenVersion).orElse(false);
+    }
+
+    private Optional<AuthenticatedUser> findPrincipal(final String username) {
+        final Optional<AuthenticatedUser> cached = principalCache.get(username);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        final long generation = principalCache.getGeneration();
+        final Optional<AuthenticatedUser> loaded = okrUserRepository.findByUsername(username).map(AuthenticatedUser::of);
+        loaded.ifPresent(authenticatedUser -> principalCache.put(generation, authenticatedUser));
+        return loaded;
     }
 
 }
@@ -0,0 +1,123 @@
+package de.thbingen.epro.security;
+
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The claims of the tokens issued at login. A token only carries the {@value #USERNAME} claim, unless it is
+ * self-contained, in which case it carries the whole {@link AuthenticatedUser} together with the token version of the
+ * user at the time of the login.
+ * <p>
+ * The access and refresh tokens issued at one login share a {@value #FAMILY_ID}, which is kept by every refresh, so
+ * the whole session can be revoked at once. Refresh tokens always carry the token version of the user, so a change of
+ * the password or the privileges ends the session instead of being carried over by the next refresh.
+ */
+final class TokenClaims {
+
+    static final String USERNAME = "username";
+    static final String USER_ID = "userId";
+    static final String BUSINESS_UNIT_ID = "businessUnitId";
+    static final String PRIVILEGES = "privileges";
+    static final String TOKEN_VERSION = "tokenVersion";
+    static final String TOKEN_TYPE = "tokenType";
+    static final String FAMILY_ID = "familyId";
+
+    private static final String REFRESH = "refresh";
+
+    private TokenClaims() {
+    }
+
+    /**
+     * @param username the name of the user
+     * @return the claims of a token, for which the user is loaded on every request
+     */
+    static Map<String, String> of(String username) {
+        return ImmutableMap.of(USERNAME, username);
+    }
+
+    /**
+     * @param authenticatedUser the principal to embed into the token
+     * @param tokenVersion      the current token version of the user
+     * @return the claims of a self-contained token
+     */
+    static Map<String, String> of(AuthenticatedUser authenticatedUser, int tokenVersion) {
+        ImmutableMap.Builder<String, String> claims = ImmutableMap.<String, String>builder()
+                .put(USERNAME, authenticatedUser.getUsername())
+                .put(USER_ID, String.valueOf(authenticatedUser.getId()))
+                .put(PRIVILEGES, authenticatedUser.getAuthorities().stream()
+                        .map(Object::toString)
+                        .sorted()
+                        .collect(Collectors.joining(" ")))
+                .put(TOKEN_VERSION, String.valueOf(tokenVersion));
+        if (authenticatedUser.getBusinessUnitId() != null) {
+            claims.put(BUSINESS_UNIT_ID, String.valueOf(authenticatedUser.getBusinessUnitId()));
+        }
+        return claims.build();
+    }
+
+    /**
+     * @param claims   the claims of an access token
+     * @param familyId the id shared by the tokens of one login
+     * @return the claims together with the id of the family
+     */
+    static Map<String, String> withFamily(Map<String, String> claims, String familyId) {
+        return ImmutableMap.<String, String>builder()
+                .putAll(claims)
+                .put(FAMILY_ID, familyId)
+                .build();
+    }
+
+    /**
+     * @param username     the name of the user
+     * @param tokenVersion the current token version of the user
+     * @param familyId     the id shared by the tokens of one login
+     * @return the claims of a refresh token, which can't be used to authenticate a request
+     */
+    static Map<String, String> refresh(String username, int tokenVersion, String familyId) {
+        return ImmutableMap.of(USERNAME, username, TOKEN_VERSION, String.valueOf(tokenVersion), TOKEN_TYPE, REFRESH, FAMILY_ID, familyId);
+    }
+
+    /**
+     * @param claims the verified claims of a token
+     * @return true if the token may only be used to get new tokens
+     */
+    static boolean isRefreshToken(Map<String, String> claims) {
+        return REFRESH.equals(claims.get(TOKEN_TYPE)) && claims.containsKey(FAMILY_ID);
+    }
+
+    /**
+     * @param claims the verified claims of a token
+     * @return true if the token carries the principal itself
+     */
+    static boolean isSelfContained(Map<String, String> claims) {
+        return claims.containsKey(USER_ID) && claims.containsKey(TOKEN_VERSION);
+    }
+
+    /**
+     * Builds the principal from the claims of a self-contained token, without reading anything from the database
+     *
+     * @param claims the verified claims of a self-contained token
+     * @return the principal embedded into the token
+     */
+    static AuthenticatedUser toPrincipal(Map<String, String> claims) {
+        String privileges = claims.getOrDefault(PRIVILEGES, "");
+        return new AuthenticatedUser(
+                Long.valueOf(claims.get(USER_ID)),
+                claims.get(USERNAME),
+                claims.containsKey(BUSINESS_UNIT_ID) ? Long.valueOf(claims.get(BUSINESS_UNIT_ID)) : null,
+                privileges.isEmpty() ? Set.of() : Arrays.stream(privileges.split(" ")).collect(Collectors.toSet())
+        );
+    }
+
+    /**
+     * @param claims the verified claims of a self-contained or refresh token
+     * @return the token version of the user at the time the token was issued
+     */
+    static int tokenVersionOf(Map<String, String> claims) {
+        return Integer.parseInt(claims.get(TOKEN_VERSION));
+    }
+}
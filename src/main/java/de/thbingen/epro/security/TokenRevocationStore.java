@@ -0,0 +1,110 @@
+package de.thbingen.epro.security;
+
+import de.thbingen.epro.config.TokenRevocationConfig;
+import de.thbingen.epro.model.entity.RevokedToken;
+import de.thbingen.epro.repository.RevokedTokenRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the ids of the tokens revoked by a logout, until the tokens would have expired anyway. The ids are held in a
+ * hash set, so the check done for every authenticated request is a single lookup without any allocation, and it is
+ * skipped entirely as long as no token is revoked.
+ * <p>
+ * If {@link TokenRevocationConfig#isPersistent()} is set, the ids are stored in the database as well and the tokens
+ * revoked on other nodes are read every {@link TokenRevocationConfig#getPruneInterval()} milliseconds.
+ */
+@Component
+public class TokenRevocationStore {
+
+    private final TokenRevocationConfig tokenRevocationConfig;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final Map<String, Long> expirationsByTokenId = new ConcurrentHashMap<>();
+
+    /**
+     * Default constructor to be used for Constructor Injection
+     *
+     * @param tokenRevocationConfig  The configuration whether revoked tokens are stored in the database
+     * @param revokedTokenRepository The Repository for DB access to the revoked tokens
+     */
+    public TokenRevocationStore(TokenRevocationConfig tokenRevocationConfig, RevokedTokenRepository revokedTokenRepository) {
+        this.tokenRevocationConfig = tokenRevocationConfig;
+        this.revokedTokenRepository = revokedTokenRepository;
+    }
+
+    /**
+     * @param tokenId the {@code jti} claim of a verified token, {@code null} for tokens without one
+     * @return true if the token was revoked
+     */
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && !expirationsByTokenId.isEmpty() && expirationsByTokenId.containsKey(tokenId);
+    }
+
+    /**
+     * Revokes the token with the given id
+     *
+     * @param tokenId   the {@code jti} claim of the token
+     * @param expiresAt the time in milliseconds since the epoch, at which the token expires
+     */
+    public void revoke(String tokenId, long expiresAt) {
+        if (expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        expirationsByTokenId.put(tokenId, expiresAt);
+        persist(tokenId, expiresAt);
+    }
+
+    /**
+     * Revokes the token with the given id, unless it already is revoked. Used for tokens, which may only be used once.
+     * If the revoked tokens are persistent, the database decides, so a token is only used once across all nodes
+     *
+     * @param tokenId   the {@code jti} claim of the token
+     * @param expiresAt the time in milliseconds since the epoch, at which the token expires
+     * @return true if the token was revoked by this call, false if it was revoked before
+     */
+    public boolean revokeOnce(String tokenId, long expiresAt) {
+        if (expirationsByTokenId.putIfAbsent(tokenId, expiresAt) != null) {
+            return false;
+        }
+        return persist(tokenId, expiresAt);
+    }
+
+    /**
+     * Drops the revoked tokens, which have expired in the meantime, and reads the tokens revoked on other nodes
+     */
+    @Scheduled(fixedDelayString = "${token-revocation.prune-interval:60000}")
+    public void prune() {
+        long now = System.currentTimeMillis();
+        expirationsByTokenId.values().removeIf(expiresAt -> expiresAt <= now);
+        if (tokenRevocationConfig.isPersistent()) {
+            OffsetDateTime nowInDatabase = OffsetDateTime.ofInstant(Instant.ofEpochMilli(now), ZoneOffset.UTC);
+            revokedTokenRepository.deleteAllExpired(nowInDatabase);
+            for (RevokedToken revokedToken : revokedTokenRepository.findAllByExpiresAtAfter(nowInDatabase)) {
+                expirationsByTokenId.putIfAbsent(revokedToken.getTokenId(), revokedToken.getExpiresAt().toInstant().toEpochMilli());
+            }
+        }
+    }
+
+    /**
+     * @return false if the token was already stored by another node
+     */
+    private boolean persist(String tokenId, long expiresAt) {
+        if (tokenRevocationConfig.isPersistent()) {
+            return revokedTokenRepository.insertIfAbsent(tokenId, OffsetDateTime.ofInstant(Instant.ofEpochMilli(expiresAt), ZoneOffset.UTC)) == 1;
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of currently revoked tokens, which have not been pruned yet
+     */
+    public int size() {
+        return expirationsByTokenId.size();
+    }
+}
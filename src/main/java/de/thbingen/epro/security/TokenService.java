@@ -5,5 +5,7 @@ import java.util.Map;
 public interface TokenService {
     String newToken(final Map<String, String> attributes);
 
+    String newToken(final Map<String, String> attributes, final long expiration);
+
     Map<String, String> verify(String token);
 }
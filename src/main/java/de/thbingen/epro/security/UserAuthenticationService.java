@@ -1,13 +1,13 @@
 package de.thbingen.epro.security;
 
-import de.thbingen.epro.model.entity.OkrUser;
-
 import java.util.Optional;
 
 public interface UserAuthenticationService {
-    Optional<String> login(String username, String password);
+    Optional<IssuedTokens> login(String username, String password);
+
+    Optional<IssuedTokens> refresh(String refreshToken);
 
-    Optional<OkrUser> findByToken(String token);
+    Optional<AuthenticatedUser> findByToken(String token);
 
-    void logout(OkrUser okrUser);
+    void logout(String token);
 }
@@ -0,0 +1,100 @@
+package de.thbingen.epro.security;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import de.thbingen.epro.config.TokenCacheConfig;
+import io.jsonwebtoken.Claims;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps the claims of the tokens, whose signature was already verified, until the tokens expire. Clients send the
+ * same token with every request for as long as it is valid, so only the first request with a token pays for parsing
+ * it and checking its signature.
+ * <p>
+ * The tokens are stored by their SHA-256 hash, so the cache neither holds the tokens themselves nor can it be filled
+ * with claims of tokens, which were never verified.
+ * <p>
+ * Every authenticated request reads the cache, so it is a concurrent Guava {@link Cache}, whose reads take no lock,
+ * bounded to the least recently used entries. Expired entries are removed when they are read.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final TokenCacheConfig tokenCacheConfig;
+    private final Cache<HashCode, Entry> entries;
+
+    /**
+     * Default constructor to be used for Constructor Injection
+     *
+     * @param tokenCacheConfig The configuration of the size of the cache
+     */
+    public VerifiedTokenCache(TokenCacheConfig tokenCacheConfig) {
+        this.tokenCacheConfig = tokenCacheConfig;
+        this.entries = CacheBuilder.newBuilder()
+                .maximumSize(tokenCacheConfig.getMaxEntries())
+                .build();
+    }
+
+    /**
+     * Returns the claims stored for the given token, unless the token has expired in the meantime
+     *
+     * @param token the token as sent by the client
+     * @return the verified claims of the token or an empty {@link Optional}, if the token has to be verified
+     */
+    public Optional<Map<String, String>> get(String token) {
+        if (!tokenCacheConfig.isEnabled()) {
+            return Optional.empty();
+        }
+        HashCode key = hash(token);
+        Entry entry = entries.getIfPresent(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (System.currentTimeMillis() >= entry.expiresAt) {
+            entries.asMap().remove(key, entry);
+            return Optional.empty();
+        }
+        return Optional.of(entry.claims);
+    }
+
+    /**
+     * Stores the claims of the given token, which has just been verified. Tokens without an expiration are not stored.
+     *
+     * @param token  the token as sent by the client
+     * @param claims the claims of the token, as returned by {@link TokenService#verify(String)}
+     */
+    public void put(String token, Map<String, String> claims) {
+        String expiration = claims.get(Claims.EXPIRATION);
+        if (!tokenCacheConfig.isEnabled() || expiration == null) {
+            return;
+        }
+        long expiresAt;
+        try {
+            expiresAt = Long.parseLong(expiration) * 1000;
+        } catch (NumberFormatException e) {
+            return;
+        }
+        entries.put(hash(token), new Entry(claims, expiresAt));
+    }
+
+    private static HashCode hash(String token) {
+        return Hashing.sha256().hashString(token, StandardCharsets.UTF_8);
+    }
+
+    private static class Entry {
+
+        private final Map<String, String> claims;
+        private final long expiresAt;
+
+        Entry(Map<String, String> claims, long expiresAt) {
+            this.claims = claims;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
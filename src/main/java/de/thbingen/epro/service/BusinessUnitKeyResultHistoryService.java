@@ -1,15 +1,32 @@
 package de.thbingen.epro.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import de.thbingen.epro.model.assembler.BusinessUnitKeyResultHistoryAssembler;
+import de.thbingen.epro.model.assembler.BusinessUnitKeyResultHistoryPointAssembler;
 import de.thbingen.epro.model.dto.BusinessUnitKeyResultHistoryDto;
+import de.thbingen.epro.model.dto.HistoryBucket;
+import de.thbingen.epro.model.dto.KeyResultHistoryBucketDto;
+import de.thbingen.epro.model.dto.KeyResultHistoryPointDto;
+import de.thbingen.epro.model.entity.BusinessUnitKeyResult;
 import de.thbingen.epro.model.entity.BusinessUnitKeyResultHistory;
-import de.thbingen.epro.model.entity.CompanyKeyResult;
+import de.thbingen.epro.model.entity.BusinessUnitKeyResultHistoryPoint;
+import de.thbingen.epro.model.entity.HistoricalBusinessUnitKeyResult;
+import de.thbingen.epro.model.mapper.KeyResultHistoryPointMapper;
+import de.thbingen.epro.pagination.KeysetCursor;
+import de.thbingen.epro.pagination.KeysetPage;
+import de.thbingen.epro.repository.BusinessUnitKeyResultHistoryPointRepository;
 import de.thbingen.epro.repository.BusinessUnitKeyResultHistoryRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * This Service represents the interface between presentation logic and the data layer for everything related to
@@ -20,16 +37,28 @@ public class BusinessUnitKeyResultHistoryService {
 
     private final BusinessUnitKeyResultHistoryRepository businessUnitKeyResultHistoryRepository;
     private final BusinessUnitKeyResultHistoryAssembler assembler;
+    private final BusinessUnitKeyResultHistoryPointRepository businessUnitKeyResultHistoryPointRepository;
+    private final BusinessUnitKeyResultHistoryPointAssembler pointAssembler;
+    private final KeyResultHistoryPointMapper keyResultHistoryPointMapper;
+    private final ObjectMapper objectMapper;
 
     /**
      * Default constructor to be used for Constructor Injection
      *
-     * @param businessUnitKeyResultHistoryRepository The Repository for DB access
-     * @param assembler                              The RepresentationModelAssembler to add the hateoas relations
+     * @param businessUnitKeyResultHistoryRepository      The Repository for DB access
+     * @param assembler                                   The RepresentationModelAssembler to add the hateoas relations
+     * @param businessUnitKeyResultHistoryPointRepository The Repository for DB access to the typed values of the history
+     * @param pointAssembler                              The RepresentationModelAssembler to add the link to the full snapshot to the typed values
+     * @param keyResultHistoryPointMapper                 The Mapper to create the DTOs of the aggregated values
+     * @param objectMapper                                The ObjectMapper to read the rebuilt snapshots
      */
-    public BusinessUnitKeyResultHistoryService(BusinessUnitKeyResultHistoryRepository businessUnitKeyResultHistoryRepository, BusinessUnitKeyResultHistoryAssembler assembler) {
+    public BusinessUnitKeyResultHistoryService(BusinessUnitKeyResultHistoryRepository businessUnitKeyResultHistoryRepository, BusinessUnitKeyResultHistoryAssembler assembler, BusinessUnitKeyResultHistoryPointRepository businessUnitKeyResultHistoryPointRepository, BusinessUnitKeyResultHistoryPointAssembler pointAssembler, KeyResultHistoryPointMapper keyResultHistoryPointMapper, ObjectMapper objectMapper) {
         this.businessUnitKeyResultHistoryRepository = businessUnitKeyResultHistoryRepository;
         this.assembler = assembler;
+        this.businessUnitKeyResultHistoryPointRepository = businessUnitKeyResultHistoryPointRepository;
+        this.pointAssembler = pointAssembler;
+        this.keyResultHistoryPointMapper = keyResultHistoryPointMapper;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -42,6 +71,7 @@ public class BusinessUnitKeyResultHistoryService {
         Page<BusinessUnitKeyResultHistory> pagedResult = businessUnitKeyResultHistoryRepository.findAll(pageable);
 
         if (pagedResult.hasContent()) {
+            rebuildSnapshots(pagedResult.getContent());
             return pagedResult.map(assembler::toModel);
         } else {
             return Page.empty();
@@ -57,24 +87,145 @@ public class BusinessUnitKeyResultHistoryService {
      */
     public Optional<BusinessUnitKeyResultHistoryDto> findById(Long id) {
         Optional<BusinessUnitKeyResultHistory> businessUnitKeyResultHistory = businessUnitKeyResultHistoryRepository.findById(id);
+        businessUnitKeyResultHistory.ifPresent(history -> rebuildSnapshots(List.of(history)));
         return businessUnitKeyResultHistory.map(assembler::toModel);
     }
 
     /**
-     * Returns all {@link BusinessUnitKeyResultHistory}s belonging to a certain {@link CompanyKeyResult} as a
-     * Page of {@link BusinessUnitKeyResultHistoryDto}s.
+     * Returns the page of {@link BusinessUnitKeyResultHistory}s belonging to a certain
+     * {@link de.thbingen.epro.model.entity.BusinessUnitKeyResult}, which starts at the given cursor.
+     * The {@link BusinessUnitKeyResultHistory}s are ordered from the newest to the oldest, and every page is read with a single
+     * query, that seeks to the cursor instead of skipping the rows of all previous pages.
      *
-     * @param id       The {@code id} of the {@link CompanyKeyResult} for which to search the {@link BusinessUnitKeyResultHistory}s
-     * @param pageable Pagination information to request a specific {@link Page} of {@link BusinessUnitKeyResultHistory}s
-     * @return The requested {@link Page} of {@link BusinessUnitKeyResultHistory}s
+     * @param id        The {@code id} of the {@link de.thbingen.epro.model.entity.BusinessUnitKeyResult} for which to search the {@link BusinessUnitKeyResultHistory}s
+     * @param cursor    The cursor of the requested page, {@code null} for the first page
+     * @param size      The maximum number of {@link BusinessUnitKeyResultHistory}s in the page
+     * @param withTotal Whether the {@link BusinessUnitKeyResultHistory}s should be counted, which requires an additional query
+     * @return The requested {@link KeysetPage} of {@link BusinessUnitKeyResultHistoryDto}s
      */
-    public Page<BusinessUnitKeyResultHistoryDto> findAllByBusinessUnitKeyResultId(Long id, Pageable pageable) {
-        Page<BusinessUnitKeyResultHistory> pagedResult = businessUnitKeyResultHistoryRepository.findAllByCurrentBusinessUnitKeyResultIdOrderByChangeTimeStampDesc(id, pageable);
-
-        if (pagedResult.hasContent()) {
-            return pagedResult.map(assembler::toModel);
+    public KeysetPage<BusinessUnitKeyResultHistoryDto> findAllByBusinessUnitKeyResultId(Long id, KeysetCursor cursor, int size, boolean withTotal) {
+        Pageable limit = Pageable.ofSize(size + 1);
+        List<BusinessUnitKeyResultHistory> rows;
+        if (cursor == null) {
+            rows = businessUnitKeyResultHistoryRepository.findAllByCurrentBusinessUnitKeyResultIdOrderByChangeTimeStampDescIdDesc(id, limit);
+        } else if (cursor.getDirection() == KeysetCursor.Direction.NEWER) {
+            rows = businessUnitKeyResultHistoryRepository.findAllNewerByCurrentBusinessUnitKeyResultId(id, cursor.getChangeTimeStamp(), cursor.getId(), limit);
         } else {
-            return Page.empty();
+            rows = businessUnitKeyResultHistoryRepository.findAllOlderByCurrentBusinessUnitKeyResultId(id, cursor.getChangeTimeStamp(), cursor.getId(), limit);
+        }
+        rebuildSnapshots(rows);
+        Long totalElements = withTotal ? businessUnitKeyResultHistoryRepository.countByCurrentBusinessUnitKeyResultId(id) : null;
+
+        return KeysetPage.of(rows, cursor, size, BusinessUnitKeyResultHistory::getChangeTimeStamp, BusinessUnitKeyResultHistory::getId, totalElements)
+                .map(assembler::toModel);
+    }
+
+    /**
+     * Returns the values of the {@link BusinessUnitKeyResultHistory}s belonging to a certain
+     * {@link BusinessUnitKeyResult}, which were replaced in the given time range, from the oldest to the newest.
+     * The values are read from their typed columns, the full snapshots are only linked.
+     *
+     * @param id   The {@code id} of the {@link BusinessUnitKeyResult} for which to search the values
+     * @param from The start of the time range, inclusive
+     * @param to   The end of the time range, exclusive
+     * @return The {@link KeyResultHistoryPointDto}s in the time range
+     */
+    public List<KeyResultHistoryPointDto> findPointsByBusinessUnitKeyResultId(Long id, OffsetDateTime from, OffsetDateTime to) {
+        List<BusinessUnitKeyResultHistoryPoint> points = businessUnitKeyResultHistoryPointRepository.findAllByBusinessUnitKeyResultIdBetween(id, from, to);
+        return points.stream().map(pointAssembler::toModel).toList();
+    }
+
+    /**
+     * Returns the values, which the {@link BusinessUnitKeyResult} had after its changes in the given time range, aggregated
+     * into buckets of the given size by the database. Only buckets with at least one change are returned, from the
+     * oldest to the newest.
+     *
+     * @param id     The {@code id} of the {@link BusinessUnitKeyResult} for which to aggregate the values
+     * @param from   The start of the time range, inclusive
+     * @param to     The end of the time range, exclusive
+     * @param bucket The size of the buckets
+     * @return The {@link KeyResultHistoryBucketDto}s in the time range
+     */
+    public List<KeyResultHistoryBucketDto> findSeriesByBusinessUnitKeyResultId(Long id, OffsetDateTime from, OffsetDateTime to, HistoryBucket bucket) {
+        return businessUnitKeyResultHistoryPointRepository.findSeriesByBusinessUnitKeyResultId(id, from, to, bucket.getUnit()).stream()
+                .map(keyResultHistoryPointMapper::keyResultHistoryBucketToDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return the version of all {@link BusinessUnitKeyResultHistory}s, to be used as ETag, see {@link BusinessUnitKeyResultHistoryRepository#getVersionOfAll()}
+     */
+    public String getVersionOfAll() {
+        return businessUnitKeyResultHistoryRepository.getVersionOfAll();
+    }
+
+    /**
+     * @param id the requested {@code id}
+     * @return the version of the {@link BusinessUnitKeyResultHistory}, to be used as ETag, see {@link BusinessUnitKeyResultHistoryRepository#getVersionById(Long)}
+     */
+    public Optional<String> getVersionById(Long id) {
+        return businessUnitKeyResultHistoryRepository.getVersionById(id);
+    }
+
+    /**
+     * Rebuilds the full snapshots of the given {@link BusinessUnitKeyResultHistory}s, which only hold the columns replaced by
+     * their change unless they are a keyframe. Entries, whose snapshot is already known, are skipped.
+     *
+     * @param entries the {@link BusinessUnitKeyResultHistory}s, whose snapshots are needed
+     */
+    private void rebuildSnapshots(List<BusinessUnitKeyResultHistory> entries) {
+        List<BusinessUnitKeyResultHistory> unresolved = entries.stream()
+                .filter(entry -> entry.getHistoricalBusinessUnitKeyResult() == null)
+                .collect(Collectors.toList());
+        Map<Long, JsonNode> snapshots = findSnapshots(unresolved);
+        for (BusinessUnitKeyResultHistory entry : unresolved) {
+            JsonNode snapshot = snapshots.get(entry.getId());
+            if (snapshot != null) {
+                entry.setHistoricalBusinessUnitKeyResult(objectMapper.convertValue(snapshot, HistoricalBusinessUnitKeyResult.class));
+            }
         }
     }
+
+    /**
+     * Returns the full snapshots of the given {@link BusinessUnitKeyResultHistory}s as written by the historization trigger.
+     * For every {@link BusinessUnitKeyResult} the entries up to the next newer keyframe are read with a single query, and the
+     * current row only if there is no newer keyframe.
+     *
+     * @param entries the {@link BusinessUnitKeyResultHistory}s, whose snapshots are needed
+     * @return the snapshots by the {@code id} of their entry
+     */
+    Map<Long, JsonNode> findSnapshots(List<BusinessUnitKeyResultHistory> entries) {
+        return findSnapshots(entries, false);
+    }
+
+    /**
+     * Returns the full snapshots of the {@link BusinessUnitKeyResult}s right after the change of the given
+     * {@link BusinessUnitKeyResultHistory}s, which are the snapshots of the next newer entries or the current rows
+     *
+     * @param entries the {@link BusinessUnitKeyResultHistory}s, whose following snapshots are needed
+     * @return the snapshots by the {@code id} of the entry, whose change they follow
+     */
+    Map<Long, JsonNode> findSnapshotsAfter(List<BusinessUnitKeyResultHistory> entries) {
+        return findSnapshots(entries, true);
+    }
+
+    private Map<Long, JsonNode> findSnapshots(List<BusinessUnitKeyResultHistory> entries, boolean afterChange) {
+        Map<Long, List<BusinessUnitKeyResultHistory>> entriesByBusinessUnitKeyResultId = entries.stream()
+                .collect(Collectors.groupingBy(entry -> entry.getCurrentBusinessUnitKeyResult().getId()));
+        Map<Long, JsonNode> snapshots = new HashMap<>();
+        entriesByBusinessUnitKeyResultId.forEach((businessUnitKeyResultId, entriesOfBusinessUnitKeyResult) -> {
+            long oldestId = entriesOfBusinessUnitKeyResult.stream().mapToLong(BusinessUnitKeyResultHistory::getId).min().orElseThrow();
+            long newestId = entriesOfBusinessUnitKeyResult.stream().mapToLong(BusinessUnitKeyResultHistory::getId).max().orElseThrow();
+            // the snapshot after the change of the newest entry can only be rebuilt from a keyframe newer than the entry
+            Optional<Long> keyframeId = businessUnitKeyResultHistoryRepository.findNextKeyframeId(businessUnitKeyResultId, afterChange ? newestId + 1 : newestId);
+            JsonNode current = keyframeId.isPresent()
+                    ? null
+                    : HistorySnapshots.read(objectMapper, businessUnitKeyResultHistoryRepository.getCurrentDataByBusinessUnitKeyResultId(businessUnitKeyResultId).orElse(null));
+            List<BusinessUnitKeyResultHistory> between = businessUnitKeyResultHistoryRepository.findAllBetweenByBusinessUnitKeyResultId(businessUnitKeyResultId, oldestId, keyframeId.orElse(Long.MAX_VALUE));
+            snapshots.putAll(afterChange
+                    ? HistorySnapshots.rebuildAfter(between, current, BusinessUnitKeyResultHistory::getId, BusinessUnitKeyResultHistory::isKeyframe, BusinessUnitKeyResultHistory::getHistoricalData)
+                    : HistorySnapshots.rebuild(between, current, BusinessUnitKeyResultHistory::getId, BusinessUnitKeyResultHistory::isKeyframe, BusinessUnitKeyResultHistory::getHistoricalData));
+        });
+        return snapshots;
+    }
 }
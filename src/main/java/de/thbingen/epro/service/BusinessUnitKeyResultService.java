@@ -1,5 +1,7 @@
 package de.thbingen.epro.service;
 
+import de.thbingen.epro.cache.CacheRegion;
+import de.thbingen.epro.cache.ResponseCache;
 import de.thbingen.epro.model.assembler.BusinessUnitKeyResultAssembler;
 import de.thbingen.epro.model.dto.BusinessUnitKeyResultDto;
 import de.thbingen.epro.model.dto.BusinessUnitKeyResultPostDto;
@@ -8,6 +10,7 @@ import de.thbingen.epro.model.dto.CompanyKeyResultDto;
 import de.thbingen.epro.model.entity.BusinessUnitKeyResult;
 import de.thbingen.epro.model.entity.CompanyKeyResult;
 import de.thbingen.epro.model.mapper.BusinessUnitKeyResultMapper;
+import de.thbingen.epro.model.projection.BusinessUnitKeyResultProjection;
 import de.thbingen.epro.repository.BusinessUnitKeyResultRepository;
 import de.thbingen.epro.repository.BusinessUnitObjectiveRepository;
 import de.thbingen.epro.repository.CompanyKeyResultRepository;
@@ -16,7 +19,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import javax.persistence.EntityNotFoundException;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * This Service represents the interface between presentation logic and the data layer for everything related to
@@ -30,6 +37,8 @@ public class BusinessUnitKeyResultService {
     private final BusinessUnitKeyResultAssembler businessUnitKeyResultAssembler;
     private final CompanyKeyResultRepository companyKeyResultRepository;
     private final BusinessUnitObjectiveRepository businessUnitObjectiveRepository;
+    private final DashboardService dashboardService;
+    private final ResponseCache responseCache;
 
     /**
      * Default constructor to be used for Constructor Injection
@@ -39,13 +48,17 @@ public class BusinessUnitKeyResultService {
      * @param businessUnitKeyResultAssembler  The RepresentationModelAssembler to add the hateoas relations
      * @param companyKeyResultRepository      The Repository for DB access to {@link CompanyKeyResult}s
      * @param businessUnitObjectiveRepository The Repository for DB access to {@link de.thbingen.epro.model.entity.BusinessUnitObjective}s
+     * @param dashboardService                The Service, which keeps the dashboard up to date
+     * @param responseCache                   The cache of the serialized responses, which are changed by the writes
      */
-    public BusinessUnitKeyResultService(BusinessUnitKeyResultRepository businessUnitKeyResultRepository, BusinessUnitKeyResultMapper businessUnitKeyResultMapper, BusinessUnitKeyResultAssembler businessUnitKeyResultAssembler, CompanyKeyResultRepository companyKeyResultRepository, BusinessUnitObjectiveRepository businessUnitObjectiveRepository) {
+    public BusinessUnitKeyResultService(BusinessUnitKeyResultRepository businessUnitKeyResultRepository, BusinessUnitKeyResultMapper businessUnitKeyResultMapper, BusinessUnitKeyResultAssembler businessUnitKeyResultAssembler, CompanyKeyResultRepository companyKeyResultRepository, BusinessUnitObjectiveRepository businessUnitObjectiveRepository, DashboardService dashboardService, ResponseCache responseCache) {
         this.businessUnitKeyResultRepository = businessUnitKeyResultRepository;
         this.businessUnitKeyResultMapper = businessUnitKeyResultMapper;
         this.businessUnitKeyResultAssembler = businessUnitKeyResultAssembler;
         this.companyKeyResultRepository = companyKeyResultRepository;
         this.businessUnitObjectiveRepository = businessUnitObjectiveRepository;
+        this.dashboardService = dashboardService;
+        this.responseCache = responseCache;
     }
 
     /**
@@ -55,9 +68,10 @@ public class BusinessUnitKeyResultService {
      * @return a Page of {@link BusinessUnitKeyResultDto}s
      */
     public Page<BusinessUnitKeyResultDto> findAllBusinessUnitKeyResults(Pageable pageable) {
-        Page<BusinessUnitKeyResult> pagedResult = businessUnitKeyResultRepository.findAll(pageable);
+        Page<BusinessUnitKeyResultProjection> pagedResult = businessUnitKeyResultRepository.findAllProjections(pageable);
 
         if (pagedResult.hasContent()) {
+            addHistoryFlags(pagedResult.getContent());
             return pagedResult.map(businessUnitKeyResultAssembler::toModel);
         } else {
             return Page.empty();
@@ -73,10 +87,11 @@ public class BusinessUnitKeyResultService {
      * @return The requested {@link Page} of {@link BusinessUnitKeyResult}s
      */
     public Page<BusinessUnitKeyResultDto> findAllByBusinessUnitObjectiveId(Long businessUnitObjectiveId, Pageable pageable) {
-        Page<BusinessUnitKeyResult> pagedResult =
-                businessUnitKeyResultRepository.findAllByBusinessUnitObjectiveId(businessUnitObjectiveId, pageable);
+        Page<BusinessUnitKeyResultProjection> pagedResult =
+                businessUnitKeyResultRepository.findAllProjectionsByBusinessUnitObjectiveId(businessUnitObjectiveId, pageable);
 
         if (pagedResult.hasContent()) {
+            addHistoryFlags(pagedResult.getContent());
             return pagedResult.map(businessUnitKeyResultAssembler::toModel);
         } else {
             return Page.empty();
@@ -95,7 +110,10 @@ public class BusinessUnitKeyResultService {
     public BusinessUnitKeyResultDto insertBusinessUnitKeyResultWithObjective(BusinessUnitKeyResultPostDto businessUnitKeyResultDto, Long id) {
         BusinessUnitKeyResult businessUnitKeyResult = businessUnitKeyResultMapper.postDtoToBusinessUnitKeyResult(businessUnitKeyResultDto);
         businessUnitKeyResult.setBusinessUnitObjective(businessUnitObjectiveRepository.getById(id));
-        return businessUnitKeyResultAssembler.toModel(businessUnitKeyResultRepository.save(businessUnitKeyResult));
+        BusinessUnitKeyResult saved = businessUnitKeyResultRepository.save(businessUnitKeyResult);
+        dashboardService.businessUnitKeyResultSaved(saved.getId());
+        responseCache.evict(CacheRegion.BUSINESS_UNIT_OBJECTIVES, CacheRegion.DASHBOARD);
+        return businessUnitKeyResultAssembler.toModel(saved);
     }
 
     /**
@@ -109,7 +127,10 @@ public class BusinessUnitKeyResultService {
         Optional<BusinessUnitKeyResult> businessUnitKeyResultOptional = businessUnitKeyResultRepository.findById(id);
         BusinessUnitKeyResult businessUnitKeyResult = businessUnitKeyResultOptional.orElseThrow(() -> new EntityNotFoundException("No BusinessUnitKeyResult with this id exists"));
         businessUnitKeyResultMapper.updateBusinessUnitKeyResultFromUpdateDto(businessUnitKeyResultDto, businessUnitKeyResult);
-        return businessUnitKeyResultAssembler.toModel(businessUnitKeyResultRepository.save(businessUnitKeyResult));
+        BusinessUnitKeyResult saved = businessUnitKeyResultRepository.save(businessUnitKeyResult);
+        dashboardService.businessUnitKeyResultSaved(saved.getId());
+        responseCache.evict(CacheRegion.BUSINESS_UNIT_OBJECTIVES, CacheRegion.DASHBOARD);
+        return businessUnitKeyResultAssembler.toModel(saved);
     }
 
     /**
@@ -119,6 +140,8 @@ public class BusinessUnitKeyResultService {
      */
     public void deleteById(Long id) {
         businessUnitKeyResultRepository.deleteById(id);
+        dashboardService.businessUnitKeyResultDeleted(id);
+        responseCache.evict(CacheRegion.BUSINESS_UNIT_OBJECTIVES, CacheRegion.DASHBOARD);
     }
 
     /**
@@ -139,7 +162,8 @@ public class BusinessUnitKeyResultService {
      * @return an {@link Optional} of the {@link BusinessUnitKeyResultDto}, which corresponds to the {@link BusinessUnitKeyResult} with the given {@code id}
      */
     public Optional<BusinessUnitKeyResultDto> findById(Long id) {
-        Optional<BusinessUnitKeyResult> optional = businessUnitKeyResultRepository.findById(id);
+        Optional<BusinessUnitKeyResultProjection> optional = businessUnitKeyResultRepository.findProjectionById(id);
+        optional.ifPresent(projection -> addHistoryFlags(List.of(projection)));
         return optional.map(businessUnitKeyResultAssembler::toModel);
     }
 
@@ -160,6 +184,8 @@ public class BusinessUnitKeyResultService {
 
         businessUnitKeyResult.setCompanyKeyResult(companyKeyResult);
         businessUnitKeyResultRepository.save(businessUnitKeyResult);
+        dashboardService.businessUnitKeyResultSaved(businessUnitKeyResult.getId());
+        responseCache.evict(CacheRegion.BUSINESS_UNIT_OBJECTIVES, CacheRegion.DASHBOARD);
         return true;
     }
 
@@ -177,6 +203,35 @@ public class BusinessUnitKeyResultService {
 
         businessUnitKeyResult.setCompanyKeyResult(null);
         businessUnitKeyResultRepository.save(businessUnitKeyResult);
+        dashboardService.businessUnitKeyResultSaved(businessUnitKeyResult.getId());
+        responseCache.evict(CacheRegion.BUSINESS_UNIT_OBJECTIVES, CacheRegion.DASHBOARD);
         return true;
     }
+
+    /**
+     * @return the version of all {@link BusinessUnitKeyResult}s, to be used as ETag, see {@link BusinessUnitKeyResultRepository#getVersionOfAll()}
+     */
+    public String getVersionOfAll() {
+        return businessUnitKeyResultRepository.getVersionOfAll();
+    }
+
+    /**
+     * @param id the requested {@code id}
+     * @return the version of the {@link BusinessUnitKeyResult}, to be used as ETag, see {@link BusinessUnitKeyResultRepository#getVersionById(Long)}
+     */
+    public Optional<String> getVersionById(Long id) {
+        return businessUnitKeyResultRepository.getVersionById(id);
+    }
+
+    /**
+     * Sets the {@code hasHistory} flag of all given projections with a single query
+     *
+     * @param projections the projections, which are to be converted into DTOs
+     */
+    private void addHistoryFlags(List<BusinessUnitKeyResultProjection> projections) {
+        Map<Long, BusinessUnitKeyResultProjection> projectionsById = projections.stream()
+                .collect(Collectors.toMap(BusinessUnitKeyResultProjection::getId, Function.identity()));
+        businessUnitKeyResultRepository.findIdsWithHistoryByIdIn(projectionsById.keySet())
+                .forEach(id -> projectionsById.get(id).setHasHistory(true));
+    }
 }
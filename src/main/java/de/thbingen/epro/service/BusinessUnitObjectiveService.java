@@ -1,11 +1,14 @@
 package de.thbingen.epro.service;
 
+import de.thbingen.epro.cache.CacheRegion;
+import de.thbingen.epro.cache.ResponseCache;
 import de.thbingen.epro.model.assembler.BusinessUnitObjectiveAssembler;
 import de.thbingen.epro.model.dto.BusinessUnitObjectiveDto;
 import de.thbingen.epro.model.dto.PrivilegeDto;
 import de.thbingen.epro.model.entity.BusinessUnitObjective;
 import de.thbingen.epro.model.entity.CompanyKeyResult;
 import de.thbingen.epro.model.mapper.BusinessUnitObjectiveMapper;
+import de.thbingen.epro.model.projection.BusinessUnitObjectiveProjection;
 import de.thbingen.epro.repository.BusinessUnitObjectiveRepository;
 import de.thbingen.epro.repository.BusinessUnitRepository;
 import de.thbingen.epro.repository.CompanyKeyResultRepository;
@@ -14,7 +17,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * This Service represents the interface between presentation logic and the data layer for everything related to
@@ -29,6 +36,8 @@ public class BusinessUnitObjectiveService {
 
     private final CompanyKeyResultRepository companyKeyResultRepository;
     private final BusinessUnitRepository businessUnitRepository;
+    private final DashboardService dashboardService;
+    private final ResponseCache responseCache;
 
     /**
      * Default constructor to be used for Constructor Injection
@@ -38,13 +47,17 @@ public class BusinessUnitObjectiveService {
      * @param businessUnitObjectiveMapper     The Mapstruct mapper to convert from DTO to entity and back
      * @param assembler                       The RepresentationModelAssembler to add the hateoas relations
      * @param businessUnitRepository          The Repository for DB access to {@link de.thbingen.epro.model.entity.BusinessUnit}
+     * @param dashboardService                The Service, which keeps the dashboard up to date
+     * @param responseCache                   The cache of the serialized responses, which are changed by the writes
      */
-    public BusinessUnitObjectiveService(BusinessUnitObjectiveRepository businessUnitObjectiveRepository, CompanyKeyResultRepository companyKeyResultRepository, BusinessUnitObjectiveMapper businessUnitObjectiveMapper, BusinessUnitObjectiveAssembler assembler, BusinessUnitRepository businessUnitRepository) {
+    public BusinessUnitObjectiveService(BusinessUnitObjectiveRepository businessUnitObjectiveRepository, CompanyKeyResultRepository companyKeyResultRepository, BusinessUnitObjectiveMapper businessUnitObjectiveMapper, BusinessUnitObjectiveAssembler assembler, BusinessUnitRepository businessUnitRepository, DashboardService dashboardService, ResponseCache responseCache) {
         this.businessUnitObjectiveRepository = businessUnitObjectiveRepository;
         this.companyKeyResultRepository = companyKeyResultRepository;
         this.businessUnitObjectiveMapper = businessUnitObjectiveMapper;
         this.assembler = assembler;
         this.businessUnitRepository = businessUnitRepository;
+        this.dashboardService = dashboardService;
+        this.responseCache = responseCache;
     }
 
     /**
@@ -61,9 +74,10 @@ public class BusinessUnitObjectiveService {
      * @return a Page of {@link BusinessUnitObjectiveDto}s
      */
     public Page<BusinessUnitObjectiveDto> findAllByBusinessUnitId(Long businessUnitId, Pageable pageable, LocalDate startDate, LocalDate endDate) {
-        Page<BusinessUnitObjective> pagedResult = businessUnitObjectiveRepository.findAllByBusinessUnitIdAndStartDateGreaterThanEqualAndEndDateLessThanEqual(businessUnitId, startDate, endDate, pageable);
+        Page<BusinessUnitObjectiveProjection> pagedResult = businessUnitObjectiveRepository.findAllProjectionsByBusinessUnitIdInTimeFrame(businessUnitId, startDate, endDate, pageable);
 
         if (pagedResult.hasContent()) {
+            addKeyResultReferences(pagedResult.getContent());
             return pagedResult.map(assembler::toModel);
         } else {
             return Page.empty();
@@ -82,9 +96,10 @@ public class BusinessUnitObjectiveService {
      * @return a Page of {@link BusinessUnitObjectiveDto}s
      */
     public Page<BusinessUnitObjectiveDto> getAllBusinessUnitObjectives(Pageable pageable, LocalDate startDate, LocalDate endDate) {
-        Page<BusinessUnitObjective> pagedResult = businessUnitObjectiveRepository.findAllByStartDateAfterAndEndDateBefore(startDate, endDate, pageable);
+        Page<BusinessUnitObjectiveProjection> pagedResult = businessUnitObjectiveRepository.findAllProjectionsByStartDateAfterAndEndDateBefore(startDate, endDate, pageable);
 
         if (pagedResult.hasContent()) {
+            addKeyResultReferences(pagedResult.getContent());
             return pagedResult.map(assembler::toModel);
         } else {
             return Page.empty();
@@ -101,7 +116,10 @@ public class BusinessUnitObjectiveService {
     public BusinessUnitObjectiveDto updateBusinessUnitObjective(Long id, BusinessUnitObjectiveDto businessUnitObjectiveDto) {
         BusinessUnitObjective businessUnitObjective = businessUnitObjectiveRepository.getById(id);
         businessUnitObjectiveMapper.updateBusinessUnitObjectiveFromDto(businessUnitObjectiveDto, businessUnitObjective);
-        return assembler.toModel(businessUnitObjectiveRepository.save(businessUnitObjective));
+        BusinessUnitObjective saved = businessUnitObjectiveRepository.save(businessUnitObjective);
+        dashboardService.businessUnitObjectiveSaved(saved.getId());
+        responseCache.evict(CacheRegion.BUSINESS_UNIT_OBJECTIVES, CacheRegion.DASHBOARD);
+        return assembler.toModel(saved);
     }
 
     /**
@@ -116,7 +134,10 @@ public class BusinessUnitObjectiveService {
     public BusinessUnitObjectiveDto insertBusinessUnitObjectiveWithBusinessUnit(BusinessUnitObjectiveDto businessUnitObjectiveDto, Long id) {
         BusinessUnitObjective businessUnitObjective = businessUnitObjectiveMapper.dtoToBusinessUnitObjective(businessUnitObjectiveDto);
         businessUnitObjective.setBusinessUnit(businessUnitRepository.getById(id));
-        return assembler.toModel(businessUnitObjectiveRepository.save(businessUnitObjective));
+        BusinessUnitObjective saved = businessUnitObjectiveRepository.save(businessUnitObjective);
+        dashboardService.businessUnitObjectiveSaved(saved.getId());
+        responseCache.evict(CacheRegion.BUSINESS_UNIT_OBJECTIVES, CacheRegion.DASHBOARD);
+        return assembler.toModel(saved);
     }
 
     /**
@@ -127,7 +148,8 @@ public class BusinessUnitObjectiveService {
      * @return an {@link Optional} of the {@link BusinessUnitObjectiveDto}, which corresponds to the {@link BusinessUnitObjective} with the given {@code id}
      */
     public Optional<BusinessUnitObjectiveDto> findById(Long id) {
-        Optional<BusinessUnitObjective> optional = businessUnitObjectiveRepository.findById(id);
+        Optional<BusinessUnitObjectiveProjection> optional = businessUnitObjectiveRepository.findProjectionById(id);
+        optional.ifPresent(projection -> addKeyResultReferences(List.of(projection)));
         return optional.map(assembler::toModel);
     }
 
@@ -138,6 +160,8 @@ public class BusinessUnitObjectiveService {
      */
     public void deleteById(Long id) {
         businessUnitObjectiveRepository.deleteById(id);
+        dashboardService.businessUnitObjectiveDeleted(id);
+        responseCache.evict(CacheRegion.BUSINESS_UNIT_OBJECTIVES, CacheRegion.DASHBOARD);
     }
 
     /**
@@ -167,6 +191,8 @@ public class BusinessUnitObjectiveService {
 
         businessUnitObjective.setCompanyKeyResult(companyKeyResult);
         businessUnitObjectiveRepository.save(businessUnitObjective);
+        dashboardService.businessUnitObjectiveSaved(businessUnitObjective.getId());
+        responseCache.evict(CacheRegion.BUSINESS_UNIT_OBJECTIVES, CacheRegion.DASHBOARD);
         return true;
     }
 
@@ -184,6 +210,36 @@ public class BusinessUnitObjectiveService {
 
         businessUnitObjective.setCompanyKeyResult(null);
         businessUnitObjectiveRepository.save(businessUnitObjective);
+        dashboardService.businessUnitObjectiveSaved(businessUnitObjective.getId());
+        responseCache.evict(CacheRegion.BUSINESS_UNIT_OBJECTIVES, CacheRegion.DASHBOARD);
         return true;
     }
+
+    /**
+     * @return the version of all {@link BusinessUnitObjective}s, to be used as ETag, see {@link BusinessUnitObjectiveRepository#getVersionOfAll()}
+     */
+    public String getVersionOfAll() {
+        return businessUnitObjectiveRepository.getVersionOfAll();
+    }
+
+    /**
+     * @param id the requested {@code id}
+     * @return the version of the {@link BusinessUnitObjective}, to be used as ETag, see {@link BusinessUnitObjectiveRepository#getVersionById(Long)}
+     */
+    public Optional<String> getVersionById(Long id) {
+        return businessUnitObjectiveRepository.getVersionById(id);
+    }
+
+    /**
+     * Loads the ids of the {@link de.thbingen.epro.model.entity.BusinessUnitKeyResult}s of all given projections with
+     * a single query
+     *
+     * @param projections the projections, which are to be converted into DTOs
+     */
+    private void addKeyResultReferences(List<BusinessUnitObjectiveProjection> projections) {
+        Map<Long, BusinessUnitObjectiveProjection> projectionsById = projections.stream()
+                .collect(Collectors.toMap(BusinessUnitObjectiveProjection::getId, Function.identity()));
+        businessUnitObjectiveRepository.findBusinessUnitKeyResultReferencesByIdIn(projectionsById.keySet())
+                .forEach(reference -> projectionsById.get(reference.getReferencedId()).getBusinessUnitKeyResultIds().add(reference.getId()));
+    }
 }
@@ -1,5 +1,7 @@
 package de.thbingen.epro.service;
 
+import de.thbingen.epro.cache.CacheRegion;
+import de.thbingen.epro.cache.ResponseCache;
 import de.thbingen.epro.model.assembler.BusinessUnitAssembler;
 import de.thbingen.epro.model.dto.BusinessUnitDto;
 import de.thbingen.epro.model.entity.BusinessUnit;
@@ -22,6 +24,8 @@ public class BusinessUnitService {
     private final BusinessUnitRepository businessUnitRepository;
     private final BusinessUnitMapper businessUnitMapper;
     private final BusinessUnitAssembler businessUnitAssembler;
+    private final DashboardService dashboardService;
+    private final ResponseCache responseCache;
 
     /**
      * Default constructor to be used for Constructor Injection
@@ -29,11 +33,15 @@ public class BusinessUnitService {
      * @param businessUnitRepository The Repository for DB access
      * @param businessUnitMapper     The Mapstruct mapper to convert from DTO to entity and back
      * @param businessUnitAssembler  The RepresentationModelAssembler to add the hateoas relations
+     * @param dashboardService       The Service, which keeps the dashboard up to date
+     * @param responseCache          The cache of the serialized responses, which are changed by the writes
      */
-    public BusinessUnitService(BusinessUnitRepository businessUnitRepository, BusinessUnitMapper businessUnitMapper, BusinessUnitAssembler businessUnitAssembler) {
+    public BusinessUnitService(BusinessUnitRepository businessUnitRepository, BusinessUnitMapper businessUnitMapper, BusinessUnitAssembler businessUnitAssembler, DashboardService dashboardService, ResponseCache responseCache) {
         this.businessUnitRepository = businessUnitRepository;
         this.businessUnitMapper = businessUnitMapper;
         this.businessUnitAssembler = businessUnitAssembler;
+        this.dashboardService = dashboardService;
+        this.responseCache = responseCache;
     }
 
     /**
@@ -106,5 +114,22 @@ public class BusinessUnitService {
      */
     public void deleteById(Long id) {
         businessUnitRepository.deleteById(id);
+        dashboardService.businessUnitDeleted(id);
+        responseCache.evict(CacheRegion.BUSINESS_UNIT_OBJECTIVES, CacheRegion.DASHBOARD);
+    }
+
+    /**
+     * @return the version of all {@link BusinessUnit}s, to be used as ETag, see {@link BusinessUnitRepository#getVersionOfAll()}
+     */
+    public String getVersionOfAll() {
+        return businessUnitRepository.getVersionOfAll();
+    }
+
+    /**
+     * @param id the requested {@code id}
+     * @return the version of the {@link BusinessUnit}, to be used as ETag, see {@link BusinessUnitRepository#getVersionById(Long)}
+     */
+    public Optional<String> getVersionById(Long id) {
+        return businessUnitRepository.getVersionById(id);
     }
 }
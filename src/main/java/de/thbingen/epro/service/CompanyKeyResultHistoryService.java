@@ -1,15 +1,32 @@
 package de.thbingen.epro.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import de.thbingen.epro.model.assembler.CompanyKeyResultHistoryAssembler;
+import de.thbingen.epro.model.assembler.CompanyKeyResultHistoryPointAssembler;
 import de.thbingen.epro.model.dto.CompanyKeyResultHistoryDto;
+import de.thbingen.epro.model.dto.HistoryBucket;
+import de.thbingen.epro.model.dto.KeyResultHistoryBucketDto;
+import de.thbingen.epro.model.dto.KeyResultHistoryPointDto;
 import de.thbingen.epro.model.entity.CompanyKeyResult;
 import de.thbingen.epro.model.entity.CompanyKeyResultHistory;
+import de.thbingen.epro.model.entity.CompanyKeyResultHistoryPoint;
+import de.thbingen.epro.model.entity.HistoricalCompanyKeyResult;
+import de.thbingen.epro.model.mapper.KeyResultHistoryPointMapper;
+import de.thbingen.epro.pagination.KeysetCursor;
+import de.thbingen.epro.pagination.KeysetPage;
+import de.thbingen.epro.repository.CompanyKeyResultHistoryPointRepository;
 import de.thbingen.epro.repository.CompanyKeyResultHistoryRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * This Service represents the interface between presentation logic and the data layer for everything related to
@@ -20,16 +37,28 @@ public class CompanyKeyResultHistoryService {
 
     private final CompanyKeyResultHistoryRepository companyKeyResultHistoryRepository;
     private final CompanyKeyResultHistoryAssembler assembler;
+    private final CompanyKeyResultHistoryPointRepository companyKeyResultHistoryPointRepository;
+    private final CompanyKeyResultHistoryPointAssembler pointAssembler;
+    private final KeyResultHistoryPointMapper keyResultHistoryPointMapper;
+    private final ObjectMapper objectMapper;
 
     /**
      * Default constructor to be used for Constructor Injection
      *
-     * @param companyKeyResultHistoryRepository The Repository for DB access
-     * @param assembler                         The RepresentationModelAssembler to add the hateoas relations
+     * @param companyKeyResultHistoryRepository      The Repository for DB access
+     * @param assembler                              The RepresentationModelAssembler to add the hateoas relations
+     * @param companyKeyResultHistoryPointRepository The Repository for DB access to the typed values of the history
+     * @param pointAssembler                         The RepresentationModelAssembler to add the link to the full snapshot to the typed values
+     * @param keyResultHistoryPointMapper            The Mapper to create the DTOs of the aggregated values
+     * @param objectMapper                           The ObjectMapper to read the rebuilt snapshots
      */
-    public CompanyKeyResultHistoryService(CompanyKeyResultHistoryRepository companyKeyResultHistoryRepository, CompanyKeyResultHistoryAssembler assembler) {
+    public CompanyKeyResultHistoryService(CompanyKeyResultHistoryRepository companyKeyResultHistoryRepository, CompanyKeyResultHistoryAssembler assembler, CompanyKeyResultHistoryPointRepository companyKeyResultHistoryPointRepository, CompanyKeyResultHistoryPointAssembler pointAssembler, KeyResultHistoryPointMapper keyResultHistoryPointMapper, ObjectMapper objectMapper) {
         this.companyKeyResultHistoryRepository = companyKeyResultHistoryRepository;
         this.assembler = assembler;
+        this.companyKeyResultHistoryPointRepository = companyKeyResultHistoryPointRepository;
+        this.pointAssembler = pointAssembler;
+        this.keyResultHistoryPointMapper = keyResultHistoryPointMapper;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -42,6 +71,7 @@ public class CompanyKeyResultHistoryService {
         Page<CompanyKeyResultHistory> pagedResult = companyKeyResultHistoryRepository.findAll(pageable);
 
         if (pagedResult.hasContent()) {
+            rebuildSnapshots(pagedResult.getContent());
             return pagedResult.map(assembler::toModel);
         } else {
             return Page.empty();
@@ -57,23 +87,145 @@ public class CompanyKeyResultHistoryService {
      */
     public Optional<CompanyKeyResultHistoryDto> findById(Long id) {
         Optional<CompanyKeyResultHistory> businessUnitKeyResultHistory = companyKeyResultHistoryRepository.findById(id);
+        businessUnitKeyResultHistory.ifPresent(history -> rebuildSnapshots(List.of(history)));
         return businessUnitKeyResultHistory.map(assembler::toModel);
     }
 
     /**
-     * Returns all {@link CompanyKeyResultHistory}s belonging to a certain {@link CompanyKeyResult} as a
-     * Page of {@link CompanyKeyResultHistoryDto}s.
+     * Returns the page of {@link CompanyKeyResultHistory}s belonging to a certain
+     * {@link CompanyKeyResult}, which starts at the given cursor.
+     * The {@link CompanyKeyResultHistory}s are ordered from the newest to the oldest, and every page is read with a single
+     * query, that seeks to the cursor instead of skipping the rows of all previous pages.
      *
-     * @param id       The {@code id} of the {@link CompanyKeyResult} for which to search the {@link CompanyKeyResultHistory}s
-     * @param pageable Pagination information to request a specific {@link Page} of {@link CompanyKeyResultHistory}s
-     * @return The requested {@link Page} of {@link CompanyKeyResultHistory}s
+     * @param id        The {@code id} of the {@link CompanyKeyResult} for which to search the {@link CompanyKeyResultHistory}s
+     * @param cursor    The cursor of the requested page, {@code null} for the first page
+     * @param size      The maximum number of {@link CompanyKeyResultHistory}s in the page
+     * @param withTotal Whether the {@link CompanyKeyResultHistory}s should be counted, which requires an additional query
+     * @return The requested {@link KeysetPage} of {@link CompanyKeyResultHistoryDto}s
      */
-    public Page<CompanyKeyResultHistoryDto> findAllByCompanyKeyResultId(Long id, Pageable pageable) {
-        Page<CompanyKeyResultHistory> pagedResult = companyKeyResultHistoryRepository.findAllByCompanyKeyResultIdOrderByChangeTimeStampDesc(id, pageable);
+    public KeysetPage<CompanyKeyResultHistoryDto> findAllByCompanyKeyResultId(Long id, KeysetCursor cursor, int size, boolean withTotal) {
+        Pageable limit = Pageable.ofSize(size + 1);
+        List<CompanyKeyResultHistory> rows;
+        if (cursor == null) {
+            rows = companyKeyResultHistoryRepository.findAllByCompanyKeyResultIdOrderByChangeTimeStampDescIdDesc(id, limit);
+        } else if (cursor.getDirection() == KeysetCursor.Direction.NEWER) {
+            rows = companyKeyResultHistoryRepository.findAllNewerByCompanyKeyResultId(id, cursor.getChangeTimeStamp(), cursor.getId(), limit);
+        } else {
+            rows = companyKeyResultHistoryRepository.findAllOlderByCompanyKeyResultId(id, cursor.getChangeTimeStamp(), cursor.getId(), limit);
+        }
+        rebuildSnapshots(rows);
+        Long totalElements = withTotal ? companyKeyResultHistoryRepository.countByCompanyKeyResultId(id) : null;
 
-        if (pagedResult.hasContent()) {
-            return pagedResult.map(assembler::toModel);
+        return KeysetPage.of(rows, cursor, size, CompanyKeyResultHistory::getChangeTimeStamp, CompanyKeyResultHistory::getId, totalElements)
+                .map(assembler::toModel);
+    }
+
+    /**
+     * Returns the values of the {@link CompanyKeyResultHistory}s belonging to a certain {@link CompanyKeyResult}, which were
+     * replaced in the given time range, from the oldest to the newest. The values are read from their typed columns,
+     * the full snapshots are only linked.
+     *
+     * @param id   The {@code id} of the {@link CompanyKeyResult} for which to search the values
+     * @param from The start of the time range, inclusive
+     * @param to   The end of the time range, exclusive
+     * @return The {@link KeyResultHistoryPointDto}s in the time range
+     */
+    public List<KeyResultHistoryPointDto> findPointsByCompanyKeyResultId(Long id, OffsetDateTime from, OffsetDateTime to) {
+        List<CompanyKeyResultHistoryPoint> points = companyKeyResultHistoryPointRepository.findAllByCompanyKeyResultIdBetween(id, from, to);
+        return points.stream().map(pointAssembler::toModel).toList();
+    }
+
+    /**
+     * Returns the values, which the {@link CompanyKeyResult} had after its changes in the given time range, aggregated
+     * into buckets of the given size by the database. Only buckets with at least one change are returned, from the
+     * oldest to the newest.
+     *
+     * @param id     The {@code id} of the {@link CompanyKeyResult} for which to aggregate the values
+     * @param from   The start of the time range, inclusive
+     * @param to     The end of the time range, exclusive
+     * @param bucket The size of the buckets
+     * @return The {@link KeyResultHistoryBucketDto}s in the time range
+     */
+    public List<KeyResultHistoryBucketDto> findSeriesByCompanyKeyResultId(Long id, OffsetDateTime from, OffsetDateTime to, HistoryBucket bucket) {
+        return companyKeyResultHistoryPointRepository.findSeriesByCompanyKeyResultId(id, from, to, bucket.getUnit()).stream()
+                .map(keyResultHistoryPointMapper::keyResultHistoryBucketToDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return the version of all {@link CompanyKeyResultHistory}s, to be used as ETag, see {@link CompanyKeyResultHistoryRepository#getVersionOfAll()}
+     */
+    public String getVersionOfAll() {
+        return companyKeyResultHistoryRepository.getVersionOfAll();
+    }
+
+    /**
+     * @param id the requested {@code id}
+     * @return the version of the {@link CompanyKeyResultHistory}, to be used as ETag, see {@link CompanyKeyResultHistoryRepository#getVersionById(Long)}
+     */
+    public Optional<String> getVersionById(Long id) {
+        return companyKeyResultHistoryRepository.getVersionById(id);
+    }
+
+    /**
+     * Rebuilds the full snapshots of the given {@link CompanyKeyResultHistory}s, which only hold the columns replaced by
+     * their change unless they are a keyframe. Entries, whose snapshot is already known, are skipped.
+     *
+     * @param entries the {@link CompanyKeyResultHistory}s, whose snapshots are needed
+     */
+    private void rebuildSnapshots(List<CompanyKeyResultHistory> entries) {
+        List<CompanyKeyResultHistory> unresolved = entries.stream()
+                .filter(entry -> entry.getHistoricalCompanyKeyResult() == null)
+                .collect(Collectors.toList());
+        Map<Long, JsonNode> snapshots = findSnapshots(unresolved);
+        for (CompanyKeyResultHistory entry : unresolved) {
+            JsonNode snapshot = snapshots.get(entry.getId());
+            if (snapshot != null) {
+                entry.setHistoricalCompanyKeyResult(objectMapper.convertValue(snapshot, HistoricalCompanyKeyResult.class));
+            }
         }
-        return Page.empty();
+    }
+
+    /**
+     * Returns the full snapshots of the given {@link CompanyKeyResultHistory}s as written by the historization trigger.
+     * For every {@link CompanyKeyResult} the entries up to the next newer keyframe are read with a single query, and the
+     * current row only if there is no newer keyframe.
+     *
+     * @param entries the {@link CompanyKeyResultHistory}s, whose snapshots are needed
+     * @return the snapshots by the {@code id} of their entry
+     */
+    Map<Long, JsonNode> findSnapshots(List<CompanyKeyResultHistory> entries) {
+        return findSnapshots(entries, false);
+    }
+
+    /**
+     * Returns the full snapshots of the {@link CompanyKeyResult}s right after the change of the given
+     * {@link CompanyKeyResultHistory}s, which are the snapshots of the next newer entries or the current rows
+     *
+     * @param entries the {@link CompanyKeyResultHistory}s, whose following snapshots are needed
+     * @return the snapshots by the {@code id} of the entry, whose change they follow
+     */
+    Map<Long, JsonNode> findSnapshotsAfter(List<CompanyKeyResultHistory> entries) {
+        return findSnapshots(entries, true);
+    }
+
+    private Map<Long, JsonNode> findSnapshots(List<CompanyKeyResultHistory> entries, boolean afterChange) {
+        Map<Long, List<CompanyKeyResultHistory>> entriesByCompanyKeyResultId = entries.stream()
+                .collect(Collectors.groupingBy(entry -> entry.getCompanyKeyResult().getId()));
+        Map<Long, JsonNode> snapshots = new HashMap<>();
+        entriesByCompanyKeyResultId.forEach((companyKeyResultId, entriesOfCompanyKeyResult) -> {
+            long oldestId = entriesOfCompanyKeyResult.stream().mapToLong(CompanyKeyResultHistory::getId).min().orElseThrow();
+            long newestId = entriesOfCompanyKeyResult.stream().mapToLong(CompanyKeyResultHistory::getId).max().orElseThrow();
+            // the snapshot after the change of the newest entry can only be rebuilt from a keyframe newer than the entry
+            Optional<Long> keyframeId = companyKeyResultHistoryRepository.findNextKeyframeId(companyKeyResultId, afterChange ? newestId + 1 : newestId);
+            JsonNode current = keyframeId.isPresent()
+                    ? null
+                    : HistorySnapshots.read(objectMapper, companyKeyResultHistoryRepository.getCurrentDataByCompanyKeyResultId(companyKeyResultId).orElse(null));
+            List<CompanyKeyResultHistory> between = companyKeyResultHistoryRepository.findAllBetweenByCompanyKeyResultId(companyKeyResultId, oldestId, keyframeId.orElse(Long.MAX_VALUE));
+            snapshots.putAll(afterChange
+                    ? HistorySnapshots.rebuildAfter(between, current, CompanyKeyResultHistory::getId, CompanyKeyResultHistory::isKeyframe, CompanyKeyResultHistory::getHistoricalData)
+                    : HistorySnapshots.rebuild(between, current, CompanyKeyResultHistory::getId, CompanyKeyResultHistory::isKeyframe, CompanyKeyResultHistory::getHistoricalData));
+        });
+        return snapshots;
     }
 }
@@ -1,18 +1,25 @@
 package de.thbingen.epro.service;
 
+import de.thbingen.epro.cache.CacheRegion;
+import de.thbingen.epro.cache.ResponseCache;
 import de.thbingen.epro.model.assembler.CompanyKeyResultAssembler;
 import de.thbingen.epro.model.dto.CompanyKeyResultDto;
 import de.thbingen.epro.model.dto.CompanyKeyResultPostDto;
 import de.thbingen.epro.model.dto.CompanyKeyResultUpdateDto;
 import de.thbingen.epro.model.entity.CompanyKeyResult;
 import de.thbingen.epro.model.mapper.CompanyKeyResultMapper;
+import de.thbingen.epro.model.projection.CompanyKeyResultProjection;
 import de.thbingen.epro.repository.CompanyKeyResultRepository;
 import de.thbingen.epro.repository.CompanyObjectiveRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * This Service represents the interface between presentation logic and the data layer for everything related to
@@ -25,6 +32,8 @@ public class CompanyKeyResultService {
     private final CompanyKeyResultRepository companyKeyResultRepository;
     private final CompanyKeyResultAssembler assembler;
     private final CompanyObjectiveRepository companyObjectiveRepository;
+    private final DashboardService dashboardService;
+    private final ResponseCache responseCache;
 
     /**
      * Default constructor to be used for Constructor Injection
@@ -33,12 +42,16 @@ public class CompanyKeyResultService {
      * @param companyKeyResultRepository The Repository for DB access to {@link CompanyKeyResult}s
      * @param assembler                  The RepresentationModelAssembler to add the hateoas relations
      * @param companyObjectiveRepository The Repository for DB access to {@link de.thbingen.epro.model.entity.CompanyObjective}s
+     * @param dashboardService           The Service, which keeps the dashboard up to date
+     * @param responseCache              The cache of the serialized responses, which are changed by the writes
      */
-    public CompanyKeyResultService(CompanyKeyResultMapper companyKeyResultMapper, CompanyKeyResultRepository companyKeyResultRepository, CompanyKeyResultAssembler assembler, CompanyObjectiveRepository companyObjectiveRepository) {
+    public CompanyKeyResultService(CompanyKeyResultMapper companyKeyResultMapper, CompanyKeyResultRepository companyKeyResultRepository, CompanyKeyResultAssembler assembler, CompanyObjectiveRepository companyObjectiveRepository, DashboardService dashboardService, ResponseCache responseCache) {
         this.companyKeyResultMapper = companyKeyResultMapper;
         this.companyKeyResultRepository = companyKeyResultRepository;
         this.assembler = assembler;
         this.companyObjectiveRepository = companyObjectiveRepository;
+        this.dashboardService = dashboardService;
+        this.responseCache = responseCache;
     }
 
     /**
@@ -48,9 +61,10 @@ public class CompanyKeyResultService {
      * @return a Page of {@link CompanyKeyResultDto}s
      */
     public Page<CompanyKeyResultDto> findAllCompanyKeyResults(Pageable pageable) {
-        Page<CompanyKeyResult> pagedResult = companyKeyResultRepository.findAll(pageable);
+        Page<CompanyKeyResultProjection> pagedResult = companyKeyResultRepository.findAllProjections(pageable);
 
         if (pagedResult.hasContent()) {
+            addReferences(pagedResult.getContent());
             return pagedResult.map(assembler::toModel);
         } else {
             return Page.empty();
@@ -65,7 +79,8 @@ public class CompanyKeyResultService {
      * @return an {@link Optional} of the {@link CompanyKeyResultDto}, which corresponds to the {@link CompanyKeyResult} with the given {@code id}
      */
     public Optional<CompanyKeyResultDto> findById(Long id) {
-        Optional<CompanyKeyResult> optional = companyKeyResultRepository.findById(id);
+        Optional<CompanyKeyResultProjection> optional = companyKeyResultRepository.findProjectionById(id);
+        optional.ifPresent(projection -> addReferences(List.of(projection)));
         return optional.map(assembler::toModel);
     }
 
@@ -78,9 +93,10 @@ public class CompanyKeyResultService {
      * @return The requested {@link Page} of {@link CompanyKeyResult}s
      */
     public Page<CompanyKeyResultDto> findAllByCompanyObjectiveId(Long id, Pageable pageable) {
-        Page<CompanyKeyResult> pagedResult = companyKeyResultRepository.findAllByCompanyObjectiveId(id, pageable);
+        Page<CompanyKeyResultProjection> pagedResult = companyKeyResultRepository.findAllProjectionsByCompanyObjectiveId(id, pageable);
 
         if (pagedResult.hasContent()) {
+            addReferences(pagedResult.getContent());
             return pagedResult.map(assembler::toModel);
         }
         return Page.empty();
@@ -98,7 +114,10 @@ public class CompanyKeyResultService {
     public CompanyKeyResultDto insertCompanyKeyResultWithObjective(CompanyKeyResultPostDto companyKeyResultDto, Long id) {
         CompanyKeyResult companyKeyResult = companyKeyResultMapper.postDtoToCompanyKeyResult(companyKeyResultDto);
         companyKeyResult.setCompanyObjective(companyObjectiveRepository.getById(id));
-        return assembler.toModel(companyKeyResultRepository.save(companyKeyResult));
+        CompanyKeyResult saved = companyKeyResultRepository.save(companyKeyResult);
+        dashboardService.companyKeyResultSaved(saved.getId());
+        responseCache.evict(CacheRegion.COMPANY_OBJECTIVES, CacheRegion.DASHBOARD);
+        return assembler.toModel(saved);
     }
 
     /**
@@ -111,7 +130,10 @@ public class CompanyKeyResultService {
     public CompanyKeyResultDto updateCompanyKeyResult(Long id, CompanyKeyResultUpdateDto companyKeyResultDto) {
         CompanyKeyResult companyKeyResult = companyKeyResultRepository.getById(id);
         companyKeyResultMapper.updateCompanyKeyResultFromUpdateDto(companyKeyResultDto, companyKeyResult);
-        return assembler.toModel(companyKeyResultRepository.save(companyKeyResult));
+        CompanyKeyResult saved = companyKeyResultRepository.save(companyKeyResult);
+        dashboardService.companyKeyResultSaved(saved.getId());
+        responseCache.evict(CacheRegion.COMPANY_OBJECTIVES, CacheRegion.DASHBOARD);
+        return assembler.toModel(saved);
     }
 
     /**
@@ -131,5 +153,41 @@ public class CompanyKeyResultService {
      */
     public void deleteById(Long id) {
         companyKeyResultRepository.deleteById(id);
+        dashboardService.companyKeyResultDeleted(id);
+        // the business unit objectives referencing the deleted key result lose that reference
+        responseCache.evict(CacheRegion.COMPANY_OBJECTIVES, CacheRegion.BUSINESS_UNIT_OBJECTIVES, CacheRegion.DASHBOARD);
+    }
+
+    /**
+     * @return the version of all {@link CompanyKeyResult}s, to be used as ETag, see {@link CompanyKeyResultRepository#getVersionOfAll()}
+     */
+    public String getVersionOfAll() {
+        return companyKeyResultRepository.getVersionOfAll();
+    }
+
+    /**
+     * @param id the requested {@code id}
+     * @return the version of the {@link CompanyKeyResult}, to be used as ETag, see {@link CompanyKeyResultRepository#getVersionById(Long)}
+     */
+    public Optional<String> getVersionById(Long id) {
+        return companyKeyResultRepository.getVersionById(id);
+    }
+
+    /**
+     * Loads the ids of the {@link de.thbingen.epro.model.entity.BusinessUnitObjective}s and
+     * {@link de.thbingen.epro.model.entity.BusinessUnitKeyResult}s referencing the given projections and whether they
+     * have a history, with one query each for all of them
+     *
+     * @param projections the projections, which are to be converted into DTOs
+     */
+    private void addReferences(List<CompanyKeyResultProjection> projections) {
+        Map<Long, CompanyKeyResultProjection> projectionsById = projections.stream()
+                .collect(Collectors.toMap(CompanyKeyResultProjection::getId, Function.identity()));
+        companyKeyResultRepository.findBusinessUnitObjectiveReferencesByIdIn(projectionsById.keySet())
+                .forEach(reference -> projectionsById.get(reference.getReferencedId()).getBusinessUnitObjectiveIds().add(reference.getId()));
+        companyKeyResultRepository.findBusinessUnitKeyResultReferencesByIdIn(projectionsById.keySet())
+                .forEach(reference -> projectionsById.get(reference.getReferencedId()).getBusinessUnitKeyResultIds().add(reference.getId()));
+        companyKeyResultRepository.findIdsWithHistoryByIdIn(projectionsById.keySet())
+                .forEach(id -> projectionsById.get(id).setHasHistory(true));
     }
 }
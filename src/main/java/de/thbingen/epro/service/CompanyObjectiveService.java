@@ -1,16 +1,22 @@
 package de.thbingen.epro.service;
 
+import de.thbingen.epro.cache.CacheRegion;
+import de.thbingen.epro.cache.ResponseCache;
 import de.thbingen.epro.model.assembler.CompanyObjectiveAssembler;
 import de.thbingen.epro.model.dto.CompanyObjectiveDto;
 import de.thbingen.epro.model.entity.CompanyObjective;
 import de.thbingen.epro.model.mapper.CompanyObjectiveMapper;
+import de.thbingen.epro.model.projection.CompanyObjectiveProjection;
 import de.thbingen.epro.repository.CompanyObjectiveRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * This Service represents the interface between presentation logic and the data layer for everything related to
@@ -22,6 +28,8 @@ public class CompanyObjectiveService {
     private final CompanyObjectiveRepository companyObjectiveRepository;
     private final CompanyObjectiveMapper companyObjectiveMapper;
     private final CompanyObjectiveAssembler companyObjectiveAssembler;
+    private final DashboardService dashboardService;
+    private final ResponseCache responseCache;
 
     /**
      * Default constructor to be used for Constructor Injection
@@ -29,11 +37,15 @@ public class CompanyObjectiveService {
      * @param companyObjectiveRepository The Repository for DB access
      * @param companyObjectiveMapper     The Mapstruct mapper to convert from DTO to entity and back
      * @param companyObjectiveAssembler  The RepresentationModelAssembler to add the hateoas relations
+     * @param dashboardService           The Service, which keeps the dashboard up to date
+     * @param responseCache              The cache of the serialized responses, which are changed by the writes
      */
-    public CompanyObjectiveService(CompanyObjectiveRepository companyObjectiveRepository, CompanyObjectiveMapper companyObjectiveMapper, CompanyObjectiveAssembler companyObjectiveAssembler) {
+    public CompanyObjectiveService(CompanyObjectiveRepository companyObjectiveRepository, CompanyObjectiveMapper companyObjectiveMapper, CompanyObjectiveAssembler companyObjectiveAssembler, DashboardService dashboardService, ResponseCache responseCache) {
         this.companyObjectiveRepository = companyObjectiveRepository;
         this.companyObjectiveMapper = companyObjectiveMapper;
         this.companyObjectiveAssembler = companyObjectiveAssembler;
+        this.dashboardService = dashboardService;
+        this.responseCache = responseCache;
     }
 
     /**
@@ -48,9 +60,13 @@ public class CompanyObjectiveService {
      * @return a Page of {@link CompanyObjectiveDto}s
      */
     public Page<CompanyObjectiveDto> getAllCompanyObjectives(Pageable pageable, LocalDate startDate, LocalDate endDate) {
-        Page<CompanyObjective> pagedResult = companyObjectiveRepository.findAllByStartDateAfterAndEndDateBefore(startDate, endDate, pageable);
+        Page<CompanyObjectiveProjection> pagedResult = companyObjectiveRepository.findAllProjectionsByStartDateAfterAndEndDateBefore(startDate, endDate, pageable);
 
         if (pagedResult.hasContent()) {
+            Map<Long, CompanyObjectiveProjection> projectionsById = pagedResult.stream()
+                    .collect(Collectors.toMap(CompanyObjectiveProjection::getId, Function.identity()));
+            companyObjectiveRepository.findIdsWithKeyResultsByIdIn(projectionsById.keySet())
+                    .forEach(id -> projectionsById.get(id).setHasCompanyKeyResults(true));
             return pagedResult.map(companyObjectiveAssembler::toModel);
         } else {
             return Page.empty();
@@ -65,8 +81,8 @@ public class CompanyObjectiveService {
      * @return an {@link Optional} of the {@link CompanyObjectiveDto}, which corresponds to the {@link CompanyObjective} with the given {@code id}
      */
     public Optional<CompanyObjectiveDto> findById(Long id) {
-        Optional<CompanyObjective> optional = companyObjectiveRepository.findById(id);
-        return optional.map(companyObjectiveMapper::companyObjectiveToDto);
+        Optional<CompanyObjectiveProjection> optional = companyObjectiveRepository.findProjectionById(id);
+        return optional.map(companyObjectiveMapper::companyObjectiveProjectionToDto);
     }
 
     /**
@@ -77,7 +93,10 @@ public class CompanyObjectiveService {
      */
     public CompanyObjectiveDto insertCompanyObjective(CompanyObjectiveDto companyObjectiveDto) {
         CompanyObjective companyObjective = companyObjectiveMapper.dtoToCompanyObjective(companyObjectiveDto);
-        return companyObjectiveAssembler.toModel(companyObjectiveRepository.save(companyObjective));
+        CompanyObjective saved = companyObjectiveRepository.save(companyObjective);
+        dashboardService.companyObjectiveSaved(saved.getId());
+        responseCache.evict(CacheRegion.COMPANY_OBJECTIVES, CacheRegion.DASHBOARD);
+        return companyObjectiveAssembler.toModel(saved);
     }
 
     /**
@@ -91,7 +110,10 @@ public class CompanyObjectiveService {
     public CompanyObjectiveDto updateCompanyObjective(Long id, CompanyObjectiveDto companyObjectiveDto) {
         CompanyObjective companyObjective = companyObjectiveRepository.getById(id);
         companyObjectiveMapper.updateCompanyObjectiveFromDto(companyObjectiveDto, companyObjective);
-        return companyObjectiveAssembler.toModel(companyObjectiveRepository.save(companyObjective));
+        CompanyObjective saved = companyObjectiveRepository.save(companyObjective);
+        dashboardService.companyObjectiveSaved(saved.getId());
+        responseCache.evict(CacheRegion.COMPANY_OBJECTIVES, CacheRegion.DASHBOARD);
+        return companyObjectiveAssembler.toModel(saved);
     }
 
     /**
@@ -112,5 +134,22 @@ public class CompanyObjectiveService {
      */
     public void deleteById(Long id) {
         companyObjectiveRepository.deleteById(id);
+        dashboardService.companyObjectiveDeleted(id);
+        responseCache.evict(CacheRegion.COMPANY_OBJECTIVES, CacheRegion.DASHBOARD);
+    }
+
+    /**
+     * @return the version of all {@link CompanyObjective}s, to be used as ETag, see {@link CompanyObjectiveRepository#getVersionOfAll()}
+     */
+    public String getVersionOfAll() {
+        return companyObjectiveRepository.getVersionOfAll();
+    }
+
+    /**
+     * @param id the requested {@code id}
+     * @return the version of the {@link CompanyObjective}, to be used as ETag, see {@link CompanyObjectiveRepository#getVersionById(Long)}
+     */
+    public Optional<String> getVersionById(Long id) {
+        return companyObjectiveRepository.getVersionById(id);
     }
 }
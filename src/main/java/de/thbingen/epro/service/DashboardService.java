@@ -4,25 +4,62 @@ import de.thbingen.epro.model.assembler.BusinessUnitKeyResultAssembler;
 import de.thbingen.epro.model.assembler.BusinessUnitObjectiveAssembler;
 import de.thbingen.epro.model.assembler.CompanyKeyResultAssembler;
 import de.thbingen.epro.model.assembler.CompanyObjectiveAssembler;
+import de.thbingen.epro.model.dto.BusinessUnitObjectiveDto;
+import de.thbingen.epro.model.dto.CompanyObjectiveDto;
+import de.thbingen.epro.model.dto.dashboard.BusinessUnitDashboard;
 import de.thbingen.epro.model.dto.dashboard.BusinessUnitDashboardItem;
 import de.thbingen.epro.model.dto.dashboard.CompanyDashboardItem;
+import de.thbingen.epro.model.dto.dashboard.DashboardChange;
+import de.thbingen.epro.model.dto.dashboard.CompanyKeyResultDashboardItem;
+import de.thbingen.epro.model.dto.dashboard.CompanyObjectiveDashboardItem;
 import de.thbingen.epro.model.dto.dashboard.DashboardItem;
+import de.thbingen.epro.model.entity.BusinessUnit;
 import de.thbingen.epro.model.entity.BusinessUnitKeyResult;
 import de.thbingen.epro.model.entity.BusinessUnitObjective;
 import de.thbingen.epro.model.entity.CompanyKeyResult;
 import de.thbingen.epro.model.entity.CompanyObjective;
+import de.thbingen.epro.notification.OkrChangeEvent;
+import de.thbingen.epro.notification.OkrResyncEvent;
 import de.thbingen.epro.repository.BusinessUnitKeyResultRepository;
 import de.thbingen.epro.repository.BusinessUnitObjectiveRepository;
 import de.thbingen.epro.repository.CompanyKeyResultRepository;
 import de.thbingen.epro.repository.CompanyObjectiveRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * This Service is for creating a List of Dashboard Items which show the User a collection of the current BUKRs and CKRs
+ * <p>
+ * The dashboard is kept in memory as a {@link DashboardSnapshot}, which is loaded on the first request and afterwards
+ * only patched: the services, which modify objectives and key results, report every write to this service, which
+ * then re-reads and replaces just the affected entries. When the date changes, objectives which are no longer active
+ * are dropped and only the objectives which became active are loaded. Every applied patch is published as
+ * {@link DashboardChange} application event.
  */
 @Service
 public class DashboardService {
@@ -37,10 +74,33 @@ public class DashboardService {
     private final BusinessUnitObjectiveAssembler businessUnitObjectiveAssembler;
     private final BusinessUnitKeyResultAssembler businessUnitKeyResultAssembler;
 
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate loadTransaction;
+    private final TransactionTemplate patchTransaction;
+
+    private final Object snapshotLock = new Object();
+    private volatile DashboardSnapshot snapshot;
+
+    // identifies this instance, so that equal counters of different nodes or restarts are different versions
+    private final String instanceId = UUID.randomUUID().toString();
+    private final AtomicLong version = new AtomicLong();
+
     /**
      * Default constructor to be used for Constructor Injection
+     *
+     * @param companyObjectiveRepository      The Repository for DB access to {@link CompanyObjective}s
+     * @param companyKeyResultRepository      The Repository for DB access to {@link CompanyKeyResult}s
+     * @param businessUnitObjectiveRepository The Repository for DB access to {@link BusinessUnitObjective}s
+     * @param businessUnitKeyResultRepository The Repository for DB access to {@link BusinessUnitKeyResult}s
+     * @param companyObjectiveAssembler       The RepresentationModelAssembler for {@link CompanyObjective}s
+     * @param companyKeyResultAssembler       The RepresentationModelAssembler for {@link CompanyKeyResult}s
+     * @param businessUnitObjectiveAssembler  The RepresentationModelAssembler for {@link BusinessUnitObjective}s
+     * @param businessUnitKeyResultAssembler  The RepresentationModelAssembler for {@link BusinessUnitKeyResult}s
+     * @param transactionManager              The TransactionManager used for loading and patching the dashboard
+     * @param eventPublisher                  The publisher for the {@link DashboardChange}s
      */
-    public DashboardService(CompanyObjectiveRepository companyObjectiveRepository, CompanyKeyResultRepository companyKeyResultRepository, BusinessUnitObjectiveRepository businessUnitObjectiveRepository, BusinessUnitKeyResultRepository businessUnitKeyResultRepository, CompanyObjectiveAssembler companyObjectiveAssembler, CompanyKeyResultAssembler companyKeyResultAssembler, BusinessUnitObjectiveAssembler businessUnitObjectiveAssembler, BusinessUnitKeyResultAssembler businessUnitKeyResultAssembler) {
+    public DashboardService(CompanyObjectiveRepository companyObjectiveRepository, CompanyKeyResultRepository companyKeyResultRepository, BusinessUnitObjectiveRepository businessUnitObjectiveRepository, BusinessUnitKeyResultRepository businessUnitKeyResultRepository, CompanyObjectiveAssembler companyObjectiveAssembler, CompanyKeyResultAssembler companyKeyResultAssembler, BusinessUnitObjectiveAssembler businessUnitObjectiveAssembler, BusinessUnitKeyResultAssembler businessUnitKeyResultAssembler, PlatformTransactionManager transactionManager, ApplicationEventPublisher eventPublisher) {
         this.companyObjectiveRepository = companyObjectiveRepository;
         this.companyKeyResultRepository = companyKeyResultRepository;
         this.businessUnitObjectiveRepository = businessUnitObjectiveRepository;
@@ -49,6 +109,15 @@ public class DashboardService {
         this.companyKeyResultAssembler = companyKeyResultAssembler;
         this.businessUnitObjectiveAssembler = businessUnitObjectiveAssembler;
         this.businessUnitKeyResultAssembler = businessUnitKeyResultAssembler;
+        this.eventPublisher = eventPublisher;
+
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setReadOnly(true);
+        // patches run after a write of the current request, so they need their own persistence context to see the
+        // values, which were generated by the database (e.g. the achievements)
+        this.patchTransaction = new TransactionTemplate(transactionManager);
+        this.patchTransaction.setReadOnly(true);
+        this.patchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     /**
@@ -56,38 +125,527 @@ public class DashboardService {
      * with the corresponding {@link BusinessUnitKeyResult}s which are active on the current Date.
      * Those Objects are wrapped in {@link CompanyDashboardItem}s and {@link BusinessUnitDashboardItem}s, which
      * are then wrapped in a {@link DashboardItem}.
+     * <p>
+     * The items are served from the in memory snapshot, the database is only accessed for the very first request and
+     * when the date has changed since the last request. The returned List must not be modified.
      *
      * @return a List of {@link DashboardItem}s
      */
     public List<DashboardItem> getDashboardItems() {
-        LocalDate currentDate = LocalDate.now();
-
-        List<DashboardItem> dashboardItems = new ArrayList<>();
-
-        List<CompanyObjective> companyObjectives = companyObjectiveRepository.findAllByStartDateBeforeAndEndDateAfter(currentDate, currentDate);
-        for (CompanyObjective objective :
-                companyObjectives) {
-
-            DashboardItem dashboardItem = new DashboardItem();
-
-            dashboardItem.setCompanyDashboardItem((new CompanyDashboardItem(
-                    companyObjectiveAssembler.toModel(objective),
-                    companyKeyResultAssembler.toCollectionModel(companyKeyResultRepository.findAllByCompanyObjectiveId(objective.getId())).getContent()
-            )));
-
-            List<BusinessUnitDashboardItem> businessUnitDashboardItems = new ArrayList<>();
-            List<BusinessUnitObjective> businessUnitObjectives = businessUnitObjectiveRepository.findAllByStartDateBeforeAndEndDateAfter(currentDate, currentDate);
-            for (BusinessUnitObjective bu :
-                    businessUnitObjectives) {
-                List<BusinessUnitKeyResult> businessUnitKeyResults = businessUnitKeyResultRepository.findAllByBusinessUnitObjectiveId(bu.getId());
-                BusinessUnitDashboardItem businessUnitDashboardItem = new BusinessUnitDashboardItem();
-                businessUnitDashboardItem.setBusinessUnitObjective(businessUnitObjectiveAssembler.toModel(bu));
-                businessUnitDashboardItem.setBusinessUnitKeyResults(businessUnitKeyResultAssembler.toCollectionModel(businessUnitKeyResults).getContent());
-                businessUnitDashboardItems.add(businessUnitDashboardItem);
+        DashboardSnapshot current = snapshot;
+        if (current == null || !current.getDate().equals(LocalDate.now())) {
+            current = currentSnapshot();
+        }
+        return current.getDashboardItems();
+    }
+
+    /**
+     * Returns the dashboard of the {@link BusinessUnit} with the given {@code businessUnitId} on the given {@code date}.
+     * <p>
+     * Only the {@link BusinessUnitObjective}s of that {@link BusinessUnit}, which are active on the given date, are
+     * loaded from the database. Each of them is placed under the {@link CompanyKeyResult} it references and only those
+     * {@link CompanyKeyResult}s and their {@link CompanyObjective}s are part of the result. Like the whole dashboard,
+     * it is loaded with a fixed number of set based queries.
+     *
+     * @param businessUnitId The {@code id} of the {@link BusinessUnit} for which the dashboard is requested
+     * @param date           The date on which the {@link BusinessUnitObjective}s have to be active
+     * @return the {@link BusinessUnitDashboard} of the {@link BusinessUnit}
+     */
+    @Transactional(readOnly = true)
+    public BusinessUnitDashboard getBusinessUnitDashboard(Long businessUnitId, LocalDate date) {
+        List<BusinessUnitObjective> businessUnitObjectives = businessUnitObjectiveRepository.findAllActiveWithKeyResultsByBusinessUnitId(businessUnitId, date);
+
+        Set<Long> companyKeyResultIds = businessUnitObjectives.stream()
+                .map(BusinessUnitObjective::getCompanyKeyResult)
+                .filter(Objects::nonNull)
+                .map(CompanyKeyResult::getId)
+                .collect(Collectors.toSet());
+        List<CompanyKeyResult> companyKeyResults = new ArrayList<>();
+        if (!companyKeyResultIds.isEmpty()) {
+            companyKeyResults = companyKeyResultRepository.findAllWithObjectiveByIdIn(companyKeyResultIds);
+            companyKeyResultRepository.fetchBusinessUnitObjectivesByIdIn(companyKeyResultIds);
+            companyKeyResultRepository.fetchBusinessUnitKeyResultsByIdIn(companyKeyResultIds);
+            companyObjectiveRepository.fetchKeyResultsByIdIn(companyKeyResults.stream()
+                    .map(companyKeyResult -> companyKeyResult.getCompanyObjective().getId())
+                    .collect(Collectors.toSet()));
+        }
+
+        Map<Long, List<BusinessUnitDashboardItem>> businessUnitDashboardItemsByReference = new HashMap<>();
+        List<BusinessUnitDashboardItem> unreferencedBusinessUnitDashboardItems = new ArrayList<>();
+        for (BusinessUnitObjective businessUnitObjective : sortedById(businessUnitObjectives, BusinessUnitObjective::getId)) {
+            List<BusinessUnitKeyResult> businessUnitKeyResults = sortedById(businessUnitObjective.getBusinessUnitKeyResults(), BusinessUnitKeyResult::getId);
+            BusinessUnitDashboardItem businessUnitDashboardItem = new BusinessUnitDashboardItem(
+                    businessUnitObjectiveAssembler.toModel(businessUnitObjective),
+                    businessUnitKeyResultAssembler.toCollectionModel(businessUnitKeyResults).getContent()
+            );
+            if (businessUnitObjective.getCompanyKeyResult() == null) {
+                unreferencedBusinessUnitDashboardItems.add(businessUnitDashboardItem);
+            } else {
+                businessUnitDashboardItemsByReference
+                        .computeIfAbsent(businessUnitObjective.getCompanyKeyResult().getId(), id -> new ArrayList<>())
+                        .add(businessUnitDashboardItem);
+            }
+        }
+
+        Map<Long, CompanyObjective> companyObjectives = new TreeMap<>();
+        Map<Long, List<CompanyKeyResultDashboardItem>> companyKeyResultDashboardItemsByObjectiveId = new HashMap<>();
+        for (CompanyKeyResult companyKeyResult : sortedById(companyKeyResults, CompanyKeyResult::getId)) {
+            CompanyObjective companyObjective = companyKeyResult.getCompanyObjective();
+            companyObjectives.putIfAbsent(companyObjective.getId(), companyObjective);
+            companyKeyResultDashboardItemsByObjectiveId
+                    .computeIfAbsent(companyObjective.getId(), id -> new ArrayList<>())
+                    .add(new CompanyKeyResultDashboardItem(
+                            companyKeyResultAssembler.toModel(companyKeyResult),
+                            businessUnitDashboardItemsByReference.get(companyKeyResult.getId())
+                    ));
+        }
+
+        List<CompanyObjectiveDashboardItem> companyObjectiveDashboardItems = new ArrayList<>();
+        for (CompanyObjective companyObjective : companyObjectives.values()) {
+            companyObjectiveDashboardItems.add(new CompanyObjectiveDashboardItem(
+                    companyObjectiveAssembler.toModel(companyObjective),
+                    companyKeyResultDashboardItemsByObjectiveId.get(companyObjective.getId())
+            ));
+        }
+        return new BusinessUnitDashboard(date, companyObjectiveDashboardItems, unreferencedBusinessUnitDashboardItems);
+    }
+
+    /**
+     * Returns the version of the dashboards, which changes with every change reported to this service, whether it
+     * affects the current snapshot or not, and with every change of the date. It has to be read before the dashboard,
+     * so that a response never carries a newer version than its content.
+     * <p>
+     * If the date has changed since the snapshot was taken, the snapshot is rolled over first, even if the scheduled
+     * {@link #rollOver()} has not run yet, so the first request of a day never matches the version of the day before.
+     *
+     * @return the current version of the dashboards, to be used as ETag
+     */
+    public String getVersion() {
+        DashboardSnapshot current = snapshot;
+        if (current != null && current.getDate().isBefore(LocalDate.now())) {
+            currentSnapshot();
+        }
+        return instanceId + "." + version.get();
+    }
+
+    /**
+     * Discards the in memory snapshot, so that the next request loads the whole dashboard from the database again.
+     * This is only needed if the data was changed without going through the services.
+     */
+    public void invalidate() {
+        synchronized (snapshotLock) {
+            version.incrementAndGet();
+            snapshot = null;
+        }
+    }
+
+    /**
+     * Moves the snapshot to the current date, so that the first request of the day does not have to do it.
+     */
+    @Scheduled(cron = "0 0 0 * * *")
+    public void rollOver() {
+        synchronized (snapshotLock) {
+            if (snapshot != null) {
+                currentSnapshot();
             }
-            dashboardItem.setBusinessUnitDashboardItems(businessUnitDashboardItems);
-            dashboardItems.add(dashboardItem);
         }
-        return dashboardItems;
+    }
+
+    private DashboardSnapshot currentSnapshot() {
+        synchronized (snapshotLock) {
+            LocalDate currentDate = LocalDate.now();
+            DashboardSnapshot current = snapshot;
+            if (current == null || current.getDate().isAfter(currentDate)) {
+                current = loadTransaction.execute(status -> loadSnapshot(currentDate));
+                snapshot = current;
+            } else if (current.getDate().isBefore(currentDate)) {
+                DashboardSnapshot outdated = current;
+                loadTransaction.executeWithoutResult(status -> rollOver(outdated, currentDate));
+                publishChanges(outdated);
+                version.incrementAndGet();
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Loads the whole dashboard for the given date.
+     * <p>
+     * The whole object graph, including every association the assemblers need for building their links, is loaded
+     * with a fixed number of set based queries and then stitched together in memory, so the number of executed SQL
+     * statements does not depend on the number of active objectives and key results.
+     */
+    private DashboardSnapshot loadSnapshot(LocalDate date) {
+        List<CompanyObjective> companyObjectives = companyObjectiveRepository.findAllActiveWithKeyResults(date);
+        List<BusinessUnitObjective> businessUnitObjectives = businessUnitObjectiveRepository.findAllActiveWithKeyResults(date);
+
+        // these queries only initialize the collections, which are needed by the assemblers, for all entities at once.
+        // The histories are not among them, the key results already know whether they have one.
+        if (!companyObjectives.isEmpty()) {
+            companyKeyResultRepository.fetchBusinessUnitObjectivesOfActiveObjectives(date);
+            companyKeyResultRepository.fetchBusinessUnitKeyResultsOfActiveObjectives(date);
+        }
+
+        DashboardSnapshot loaded = new DashboardSnapshot(date);
+        companyObjectives.forEach(companyObjective -> putCompanyObjectiveWithKeyResults(loaded, companyObjective));
+        businessUnitObjectives.forEach(businessUnitObjective -> putBusinessUnitObjectiveWithKeyResults(loaded, businessUnitObjective));
+        // a freshly loaded snapshot is not a change of the dashboard
+        loaded.drainChanges();
+        return loaded;
+    }
+
+    private void rollOver(DashboardSnapshot current, LocalDate date) {
+        LocalDate previousDate = current.getDate();
+        for (Long id : current.getCompanyObjectiveIds()) {
+            Optional<CompanyObjectiveDto> companyObjective = current.getCompanyObjective(id);
+            if (companyObjective.isPresent() && !isActive(companyObjective.get().getStartDate(), companyObjective.get().getEndDate(), date)) {
+                removeCompanyObjective(current, id);
+            }
+        }
+        for (Long id : current.getBusinessUnitObjectiveIds()) {
+            Optional<BusinessUnitObjectiveDto> businessUnitObjective = current.getBusinessUnitObjective(id);
+            if (businessUnitObjective.isPresent() && !isActive(businessUnitObjective.get().getStartDate(), businessUnitObjective.get().getEndDate(), date)) {
+                removeBusinessUnitObjective(current, id);
+            }
+        }
+        current.setDate(date);
+
+        // an objective is active if startDate < date, so everything which started on or after the previous date became active
+        companyObjectiveRepository.findAllByStartDateGreaterThanEqualAndStartDateBeforeAndEndDateAfter(previousDate, date, date)
+                .forEach(companyObjective -> putCompanyObjectiveWithKeyResults(current, companyObjective));
+        businessUnitObjectiveRepository.findAllByStartDateGreaterThanEqualAndStartDateBeforeAndEndDateAfter(previousDate, date, date)
+                .forEach(businessUnitObjective -> putBusinessUnitObjectiveWithKeyResults(current, businessUnitObjective));
+    }
+
+    /**
+     * Updates the dashboard after the {@link CompanyObjective} with the given {@code id} was inserted or updated
+     *
+     * @param id the {@code id} of the changed {@link CompanyObjective}
+     */
+    public void companyObjectiveSaved(Long id) {
+        patch(current -> {
+            boolean wasActive = current.containsCompanyObjective(id);
+            Optional<CompanyObjective> companyObjective = companyObjectiveRepository.findById(id);
+            if (companyObjective.isPresent() && isActive(companyObjective.get(), current.getDate())) {
+                if (wasActive) {
+                    current.putCompanyObjective(id, companyObjectiveAssembler.toModel(companyObjective.get()));
+                } else {
+                    putCompanyObjectiveWithKeyResults(current, companyObjective.get());
+                }
+            } else if (wasActive) {
+                removeCompanyObjective(current, id);
+            }
+        });
+    }
+
+    /**
+     * Updates the dashboard after the {@link CompanyObjective} with the given {@code id} was deleted
+     *
+     * @param id the {@code id} of the deleted {@link CompanyObjective}
+     */
+    public void companyObjectiveDeleted(Long id) {
+        patch(current -> removeCompanyObjective(current, id));
+    }
+
+    /**
+     * Updates the dashboard after the {@link CompanyKeyResult} with the given {@code id} was inserted or updated
+     *
+     * @param id the {@code id} of the changed {@link CompanyKeyResult}
+     */
+    public void companyKeyResultSaved(Long id) {
+        patch(current -> refreshCompanyKeyResult(current, id).ifPresent(companyObjectiveId -> refreshCompanyObjective(current, companyObjectiveId)));
+    }
+
+    /**
+     * Updates the dashboard after the {@link CompanyKeyResult} with the given {@code id} was deleted
+     *
+     * @param id the {@code id} of the deleted {@link CompanyKeyResult}
+     */
+    public void companyKeyResultDeleted(Long id) {
+        patch(current -> {
+            current.removeCompanyKeyResult(id).ifPresent(companyObjectiveId -> refreshCompanyObjective(current, companyObjectiveId));
+            refreshBusinessUnitEntriesReferencing(current, id);
+        });
+    }
+
+    /**
+     * Updates the dashboard after the {@link BusinessUnitObjective} with the given {@code id} was inserted or updated,
+     * this includes changes of the referenced {@link CompanyKeyResult}
+     *
+     * @param id the {@code id} of the changed {@link BusinessUnitObjective}
+     */
+    public void businessUnitObjectiveSaved(Long id) {
+        patch(current -> {
+            boolean wasActive = current.containsBusinessUnitObjective(id);
+            Optional<Long> previousReference = current.getCompanyKeyResultRefOfBusinessUnitObjective(id);
+            Optional<BusinessUnitObjective> businessUnitObjective = businessUnitObjectiveRepository.findById(id);
+            if (businessUnitObjective.isPresent() && isActive(businessUnitObjective.get(), current.getDate())) {
+                if (wasActive) {
+                    putBusinessUnitObjective(current, businessUnitObjective.get());
+                } else {
+                    putBusinessUnitObjectiveWithKeyResults(current, businessUnitObjective.get());
+                }
+                Optional.ofNullable(businessUnitObjective.get().getCompanyKeyResult())
+                        .ifPresent(companyKeyResult -> refreshCompanyKeyResultIfPresent(current, companyKeyResult.getId()));
+            } else if (wasActive) {
+                removeBusinessUnitObjective(current, id);
+            }
+            previousReference.ifPresent(companyKeyResultId -> refreshCompanyKeyResultIfPresent(current, companyKeyResultId));
+        });
+    }
+
+    /**
+     * Updates the dashboard after the {@link BusinessUnitObjective} with the given {@code id} was deleted
+     *
+     * @param id the {@code id} of the deleted {@link BusinessUnitObjective}
+     */
+    public void businessUnitObjectiveDeleted(Long id) {
+        patch(current -> removeBusinessUnitObjective(current, id));
+    }
+
+    /**
+     * Updates the dashboard after the {@link BusinessUnitKeyResult} with the given {@code id} was inserted or updated,
+     * this includes changes of the referenced {@link CompanyKeyResult}
+     *
+     * @param id the {@code id} of the changed {@link BusinessUnitKeyResult}
+     */
+    public void businessUnitKeyResultSaved(Long id) {
+        patch(current -> {
+            Optional<Long> previousReference = current.getCompanyKeyResultRefOfBusinessUnitKeyResult(id);
+            Optional<Long> previousObjectiveId = current.getBusinessUnitObjectiveIdOfKeyResult(id);
+            Optional<BusinessUnitKeyResult> businessUnitKeyResult = businessUnitKeyResultRepository.findById(id);
+            if (businessUnitKeyResult.isPresent() && current.containsBusinessUnitObjective(businessUnitKeyResult.get().getBusinessUnitObjective().getId())) {
+                putBusinessUnitKeyResult(current, businessUnitKeyResult.get());
+                refreshBusinessUnitObjective(current, businessUnitKeyResult.get().getBusinessUnitObjective().getId());
+                Optional.ofNullable(businessUnitKeyResult.get().getCompanyKeyResult())
+                        .ifPresent(companyKeyResult -> refreshCompanyKeyResultIfPresent(current, companyKeyResult.getId()));
+            } else {
+                current.removeBusinessUnitKeyResult(id);
+            }
+            previousObjectiveId.ifPresent(businessUnitObjectiveId -> refreshBusinessUnitObjective(current, businessUnitObjectiveId));
+            previousReference.ifPresent(companyKeyResultId -> refreshCompanyKeyResultIfPresent(current, companyKeyResultId));
+        });
+    }
+
+    /**
+     * Updates the dashboard after the {@link BusinessUnitKeyResult} with the given {@code id} was deleted
+     *
+     * @param id the {@code id} of the deleted {@link BusinessUnitKeyResult}
+     */
+    public void businessUnitKeyResultDeleted(Long id) {
+        patch(current -> {
+            Optional<Long> previousReference = current.getCompanyKeyResultRefOfBusinessUnitKeyResult(id);
+            current.removeBusinessUnitKeyResult(id).ifPresent(businessUnitObjectiveId -> refreshBusinessUnitObjective(current, businessUnitObjectiveId));
+            previousReference.ifPresent(companyKeyResultId -> refreshCompanyKeyResultIfPresent(current, companyKeyResultId));
+        });
+    }
+
+    /**
+     * Updates the dashboard after the {@link BusinessUnit} with the given {@code id} and all of its objectives were deleted
+     *
+     * @param id the {@code id} of the deleted {@link BusinessUnit}
+     */
+    public void businessUnitDeleted(Long id) {
+        patch(current -> current.getBusinessUnitObjectiveIdsOfBusinessUnit(id)
+                .forEach(businessUnitObjectiveId -> removeBusinessUnitObjective(current, businessUnitObjectiveId)));
+    }
+
+    /**
+     * Updates the dashboard after a key result was changed by any node of the application or by direct SQL. Changes,
+     * which were made through the services of this node, have already been applied and are simply read again.
+     *
+     * @param okrChangeEvent the change notification of the database
+     */
+    @EventListener
+    public void onOkrChange(OkrChangeEvent okrChangeEvent) {
+        boolean deleted = okrChangeEvent.getOperation() == OkrChangeEvent.Operation.DELETE;
+        switch (okrChangeEvent.getEntity()) {
+            case COMPANY_KEY_RESULT -> {
+                if (deleted) {
+                    companyKeyResultDeleted(okrChangeEvent.getId());
+                } else {
+                    companyKeyResultSaved(okrChangeEvent.getId());
+                }
+            }
+            case BUSINESS_UNIT_KEY_RESULT -> {
+                if (deleted) {
+                    businessUnitKeyResultDeleted(okrChangeEvent.getId());
+                } else {
+                    businessUnitKeyResultSaved(okrChangeEvent.getId());
+                }
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the snapshot from the database, because changes made by other nodes or by direct SQL may have been
+     * missed while the change notifications were not received. Runs before the other listeners, so those already read
+     * the rebuilt dashboard.
+     *
+     * @param okrResyncEvent the (re)connect of the change notifications
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onOkrResync(OkrResyncEvent okrResyncEvent) {
+        synchronized (snapshotLock) {
+            boolean loaded = snapshot != null;
+            snapshot = null;
+            version.incrementAndGet();
+            // a snapshot, which was never requested, is still loaded lazily
+            if (loaded) {
+                currentSnapshot();
+            }
+        }
+    }
+
+    private void patch(Consumer<DashboardSnapshot> patch) {
+        synchronized (snapshotLock) {
+            DashboardSnapshot current = snapshot;
+            // without a snapshot there is nothing to patch, it will be loaded with the current data on the next request
+            if (current != null) {
+                patchTransaction.executeWithoutResult(status -> patch.accept(current));
+                publishChanges(current);
+            }
+            // only counted once applied, the dashboards of the business units are not part of the snapshot but may
+            // have changed as well
+            version.incrementAndGet();
+        }
+    }
+
+    private void publishChanges(DashboardSnapshot current) {
+        // still called while holding the lock, so that the listeners receive the changes in the order they were applied
+        current.drainChanges().forEach(eventPublisher::publishEvent);
+    }
+
+    private void refreshCompanyObjective(DashboardSnapshot current, Long id) {
+        if (!current.containsCompanyObjective(id)) {
+            return;
+        }
+        Optional<CompanyObjective> companyObjective = companyObjectiveRepository.findById(id);
+        if (companyObjective.isPresent() && isActive(companyObjective.get(), current.getDate())) {
+            current.putCompanyObjective(id, companyObjectiveAssembler.toModel(companyObjective.get()));
+        } else {
+            removeCompanyObjective(current, id);
+        }
+    }
+
+    private void removeCompanyObjective(DashboardSnapshot current, Long id) {
+        // business unit entries referencing the removed key results might have been deleted along with them
+        for (Long companyKeyResultId : current.removeCompanyObjective(id)) {
+            refreshBusinessUnitEntriesReferencing(current, companyKeyResultId);
+        }
+    }
+
+    /**
+     * @return the id of the {@link CompanyObjective} whose item changed, if it is part of the snapshot
+     */
+    private Optional<Long> refreshCompanyKeyResult(DashboardSnapshot current, Long id) {
+        Optional<CompanyKeyResult> companyKeyResult = companyKeyResultRepository.findById(id);
+        if (companyKeyResult.isPresent() && current.containsCompanyObjective(companyKeyResult.get().getCompanyObjective().getId())) {
+            putCompanyKeyResult(current, companyKeyResult.get());
+            return Optional.of(companyKeyResult.get().getCompanyObjective().getId());
+        }
+        return current.removeCompanyKeyResult(id);
+    }
+
+    private void refreshCompanyKeyResultIfPresent(DashboardSnapshot current, Long id) {
+        if (current.getCompanyObjectiveIdOfKeyResult(id).isPresent()) {
+            refreshCompanyKeyResult(current, id);
+        }
+    }
+
+    private void refreshBusinessUnitEntriesReferencing(DashboardSnapshot current, Long companyKeyResultId) {
+        for (Long businessUnitObjectiveId : current.getBusinessUnitObjectiveIdsReferencing(companyKeyResultId)) {
+            refreshBusinessUnitObjective(current, businessUnitObjectiveId);
+        }
+        for (Long businessUnitKeyResultId : current.getBusinessUnitKeyResultIdsReferencing(companyKeyResultId)) {
+            Optional<BusinessUnitKeyResult> businessUnitKeyResult = businessUnitKeyResultRepository.findById(businessUnitKeyResultId);
+            if (businessUnitKeyResult.isPresent() && current.containsBusinessUnitObjective(businessUnitKeyResult.get().getBusinessUnitObjective().getId())) {
+                putBusinessUnitKeyResult(current, businessUnitKeyResult.get());
+            } else {
+                current.removeBusinessUnitKeyResult(businessUnitKeyResultId)
+                        .ifPresent(businessUnitObjectiveId -> refreshBusinessUnitObjective(current, businessUnitObjectiveId));
+            }
+        }
+    }
+
+    private void refreshBusinessUnitObjective(DashboardSnapshot current, Long id) {
+        if (!current.containsBusinessUnitObjective(id)) {
+            return;
+        }
+        Optional<BusinessUnitObjective> businessUnitObjective = businessUnitObjectiveRepository.findById(id);
+        if (businessUnitObjective.isPresent() && isActive(businessUnitObjective.get(), current.getDate())) {
+            putBusinessUnitObjective(current, businessUnitObjective.get());
+        } else {
+            removeBusinessUnitObjective(current, id);
+        }
+    }
+
+    private void removeBusinessUnitObjective(DashboardSnapshot current, Long id) {
+        // the company key results link to the business unit entries referencing them, so their DTOs have to be rebuilt
+        for (Long companyKeyResultId : current.removeBusinessUnitObjective(id)) {
+            refreshCompanyKeyResultIfPresent(current, companyKeyResultId);
+        }
+    }
+
+    private void putCompanyObjectiveWithKeyResults(DashboardSnapshot current, CompanyObjective companyObjective) {
+        current.putCompanyObjective(companyObjective.getId(), companyObjectiveAssembler.toModel(companyObjective));
+        for (CompanyKeyResult companyKeyResult : sortedById(companyObjective.getCompanyKeyResults(), CompanyKeyResult::getId)) {
+            putCompanyKeyResult(current, companyKeyResult);
+        }
+    }
+
+    private void putCompanyKeyResult(DashboardSnapshot current, CompanyKeyResult companyKeyResult) {
+        current.putCompanyKeyResult(companyKeyResult.getCompanyObjective().getId(), companyKeyResult.getId(), companyKeyResultAssembler.toModel(companyKeyResult));
+    }
+
+    private void putBusinessUnitObjectiveWithKeyResults(DashboardSnapshot current, BusinessUnitObjective businessUnitObjective) {
+        putBusinessUnitObjective(current, businessUnitObjective);
+        for (BusinessUnitKeyResult businessUnitKeyResult : sortedById(businessUnitObjective.getBusinessUnitKeyResults(), BusinessUnitKeyResult::getId)) {
+            putBusinessUnitKeyResult(current, businessUnitKeyResult);
+        }
+    }
+
+    private void putBusinessUnitObjective(DashboardSnapshot current, BusinessUnitObjective businessUnitObjective) {
+        current.putBusinessUnitObjective(
+                businessUnitObjective.getId(),
+                idOf(businessUnitObjective.getBusinessUnit(), BusinessUnit::getId),
+                idOf(businessUnitObjective.getCompanyKeyResult(), CompanyKeyResult::getId),
+                businessUnitObjectiveAssembler.toModel(businessUnitObjective)
+        );
+    }
+
+    private void putBusinessUnitKeyResult(DashboardSnapshot current, BusinessUnitKeyResult businessUnitKeyResult) {
+        current.putBusinessUnitKeyResult(
+                businessUnitKeyResult.getBusinessUnitObjective().getId(),
+                businessUnitKeyResult.getId(),
+                idOf(businessUnitKeyResult.getCompanyKeyResult(), CompanyKeyResult::getId),
+                businessUnitKeyResultAssembler.toModel(businessUnitKeyResult)
+        );
+    }
+
+    private static boolean isActive(CompanyObjective companyObjective, LocalDate date) {
+        return isActive(companyObjective.getStartDate(), companyObjective.getEndDate(), date);
+    }
+
+    private static boolean isActive(BusinessUnitObjective businessUnitObjective, LocalDate date) {
+        return isActive(businessUnitObjective.getStartDate(), businessUnitObjective.getEndDate(), date);
+    }
+
+    private static boolean isActive(LocalDate startDate, LocalDate endDate, LocalDate date) {
+        return startDate != null && endDate != null && startDate.isBefore(date) && endDate.isAfter(date);
+    }
+
+    private static <T> Long idOf(T entity, Function<T, Long> idExtractor) {
+        return entity == null ? null : idExtractor.apply(entity);
+    }
+
+    private static <T> List<T> sortedById(Collection<T> entities, Function<T, Long> idExtractor) {
+        if (entities == null) {
+            return new ArrayList<>();
+        }
+        List<T> sorted = new ArrayList<>(entities);
+        sorted.sort(Comparator.comparing(idExtractor));
+        return sorted;
     }
 }
@@ -0,0 +1,323 @@
+package de.thbingen.epro.service;
+
+import de.thbingen.epro.model.dto.BusinessUnitKeyResultDto;
+import de.thbingen.epro.model.dto.BusinessUnitObjectiveDto;
+import de.thbingen.epro.model.dto.CompanyKeyResultDto;
+import de.thbingen.epro.model.dto.CompanyObjectiveDto;
+import de.thbingen.epro.model.dto.dashboard.BusinessUnitDashboardItem;
+import de.thbingen.epro.model.dto.dashboard.CompanyDashboardItem;
+import de.thbingen.epro.model.dto.dashboard.DashboardChange;
+import de.thbingen.epro.model.dto.dashboard.DashboardItem;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * The materialized state of the dashboard for a single date.
+ * <p>
+ * The snapshot keeps the DTOs of all active objectives and key results indexed by the id of their entity, so that a
+ * change to a single entity only replaces the affected entries. The published list of {@link DashboardItem}s is
+ * immutable and only rebuilt (without any database access) when it is requested after a change. Every change is
+ * also recorded as a {@link DashboardChange}, until it is collected with {@link #drainChanges()}.
+ */
+class DashboardSnapshot {
+
+    private volatile LocalDate date;
+
+    private final Map<Long, CompanyObjectiveDto> companyObjectives = new TreeMap<>();
+    private final Map<Long, Map<Long, CompanyKeyResultDto>> companyKeyResultsByObjectiveId = new HashMap<>();
+    private final Map<Long, Long> companyObjectiveIdByKeyResultId = new HashMap<>();
+
+    private final Map<Long, BusinessUnitObjectiveDto> businessUnitObjectives = new TreeMap<>();
+    private final Map<Long, Map<Long, BusinessUnitKeyResultDto>> businessUnitKeyResultsByObjectiveId = new HashMap<>();
+    private final Map<Long, Long> businessUnitObjectiveIdByKeyResultId = new HashMap<>();
+    private final Map<Long, Long> businessUnitIdByObjectiveId = new HashMap<>();
+
+    private final Map<Long, Long> companyKeyResultRefByBusinessUnitObjectiveId = new HashMap<>();
+    private final Map<Long, Long> companyKeyResultRefByBusinessUnitKeyResultId = new HashMap<>();
+
+    private final Map<Long, CompanyDashboardItem> companyDashboardItems = new TreeMap<>();
+    private final Map<Long, BusinessUnitDashboardItem> businessUnitDashboardItems = new TreeMap<>();
+
+    private volatile List<DashboardItem> dashboardItems;
+
+    private final List<DashboardChange> changes = new ArrayList<>();
+
+    DashboardSnapshot(LocalDate date) {
+        this.date = date;
+    }
+
+    LocalDate getDate() {
+        return date;
+    }
+
+    void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    /**
+     * Returns the current dashboard. The returned list and its items must not be modified.
+     *
+     * @return the current dashboard
+     */
+    List<DashboardItem> getDashboardItems() {
+        List<DashboardItem> items = dashboardItems;
+        if (items == null) {
+            synchronized (this) {
+                items = dashboardItems;
+                if (items == null) {
+                    items = buildDashboardItems();
+                    dashboardItems = items;
+                }
+            }
+        }
+        return items;
+    }
+
+    private List<DashboardItem> buildDashboardItems() {
+        List<BusinessUnitDashboardItem> businessUnitItems = List.copyOf(businessUnitDashboardItems.values());
+        List<DashboardItem> items = new ArrayList<>(companyDashboardItems.size());
+        for (CompanyDashboardItem companyDashboardItem : companyDashboardItems.values()) {
+            items.add(new DashboardItem(businessUnitItems, companyDashboardItem));
+        }
+        return Collections.unmodifiableList(items);
+    }
+
+    private void publish() {
+        dashboardItems = null;
+    }
+
+    /**
+     * Returns all changes since the last call and forgets them
+     *
+     * @return the recorded changes in the order they were applied
+     */
+    synchronized List<DashboardChange> drainChanges() {
+        List<DashboardChange> drained = List.copyOf(changes);
+        changes.clear();
+        return drained;
+    }
+
+    synchronized boolean containsCompanyObjective(Long id) {
+        return companyObjectives.containsKey(id);
+    }
+
+    synchronized Set<Long> getCompanyObjectiveIds() {
+        return new HashSet<>(companyObjectives.keySet());
+    }
+
+    synchronized Optional<CompanyObjectiveDto> getCompanyObjective(Long id) {
+        return Optional.ofNullable(companyObjectives.get(id));
+    }
+
+    synchronized Optional<Long> getCompanyObjectiveIdOfKeyResult(Long companyKeyResultId) {
+        return Optional.ofNullable(companyObjectiveIdByKeyResultId.get(companyKeyResultId));
+    }
+
+    synchronized void putCompanyObjective(Long id, CompanyObjectiveDto companyObjective) {
+        companyObjectives.put(id, companyObjective);
+        companyKeyResultsByObjectiveId.computeIfAbsent(id, key -> new TreeMap<>());
+        rebuildCompanyDashboardItem(id);
+        changes.add(new DashboardChange(DashboardChange.Type.COMPANY_OBJECTIVE, DashboardChange.Action.SAVED, id, null, companyObjective));
+        publish();
+    }
+
+    /**
+     * Removes the {@link CompanyObjectiveDto} with the given id together with all of its key results
+     *
+     * @param id the id of the removed objective
+     * @return the ids of the removed key results
+     */
+    synchronized Set<Long> removeCompanyObjective(Long id) {
+        if (companyObjectives.remove(id) != null) {
+            changes.add(new DashboardChange(DashboardChange.Type.COMPANY_OBJECTIVE, DashboardChange.Action.REMOVED, id, null, null));
+        }
+        companyDashboardItems.remove(id);
+        Map<Long, CompanyKeyResultDto> keyResults = companyKeyResultsByObjectiveId.remove(id);
+        Set<Long> removedKeyResultIds = keyResults == null ? Set.of() : new HashSet<>(keyResults.keySet());
+        removedKeyResultIds.forEach(companyObjectiveIdByKeyResultId::remove);
+        publish();
+        return removedKeyResultIds;
+    }
+
+    synchronized void putCompanyKeyResult(Long companyObjectiveId, Long id, CompanyKeyResultDto companyKeyResult) {
+        Long previousObjectiveId = companyObjectiveIdByKeyResultId.get(id);
+        if (previousObjectiveId != null && !previousObjectiveId.equals(companyObjectiveId)) {
+            removeCompanyKeyResult(id);
+        }
+        companyKeyResultsByObjectiveId.computeIfAbsent(companyObjectiveId, key -> new TreeMap<>()).put(id, companyKeyResult);
+        companyObjectiveIdByKeyResultId.put(id, companyObjectiveId);
+        rebuildCompanyDashboardItem(companyObjectiveId);
+        changes.add(new DashboardChange(DashboardChange.Type.COMPANY_KEY_RESULT, DashboardChange.Action.SAVED, id, companyObjectiveId, companyKeyResult));
+        publish();
+    }
+
+    /**
+     * Removes the {@link CompanyKeyResultDto} with the given id
+     *
+     * @param id the id of the removed key result
+     * @return the id of the objective the key result belonged to, if it was part of the snapshot
+     */
+    synchronized Optional<Long> removeCompanyKeyResult(Long id) {
+        Long companyObjectiveId = companyObjectiveIdByKeyResultId.remove(id);
+        if (companyObjectiveId == null) {
+            return Optional.empty();
+        }
+        Map<Long, CompanyKeyResultDto> keyResults = companyKeyResultsByObjectiveId.get(companyObjectiveId);
+        if (keyResults != null) {
+            keyResults.remove(id);
+        }
+        rebuildCompanyDashboardItem(companyObjectiveId);
+        changes.add(new DashboardChange(DashboardChange.Type.COMPANY_KEY_RESULT, DashboardChange.Action.REMOVED, id, companyObjectiveId, null));
+        publish();
+        return Optional.of(companyObjectiveId);
+    }
+
+    private void rebuildCompanyDashboardItem(Long companyObjectiveId) {
+        CompanyObjectiveDto companyObjective = companyObjectives.get(companyObjectiveId);
+        if (companyObjective == null) {
+            return;
+        }
+        Map<Long, CompanyKeyResultDto> keyResults = companyKeyResultsByObjectiveId.getOrDefault(companyObjectiveId, Map.of());
+        companyDashboardItems.put(companyObjectiveId, new CompanyDashboardItem(companyObjective, List.copyOf(keyResults.values())));
+    }
+
+    synchronized boolean containsBusinessUnitObjective(Long id) {
+        return businessUnitObjectives.containsKey(id);
+    }
+
+    synchronized Set<Long> getBusinessUnitObjectiveIds() {
+        return new HashSet<>(businessUnitObjectives.keySet());
+    }
+
+    synchronized Optional<BusinessUnitObjectiveDto> getBusinessUnitObjective(Long id) {
+        return Optional.ofNullable(businessUnitObjectives.get(id));
+    }
+
+    synchronized Optional<Long> getBusinessUnitObjectiveIdOfKeyResult(Long businessUnitKeyResultId) {
+        return Optional.ofNullable(businessUnitObjectiveIdByKeyResultId.get(businessUnitKeyResultId));
+    }
+
+    synchronized Optional<Long> getCompanyKeyResultRefOfBusinessUnitObjective(Long businessUnitObjectiveId) {
+        return Optional.ofNullable(companyKeyResultRefByBusinessUnitObjectiveId.get(businessUnitObjectiveId));
+    }
+
+    synchronized Optional<Long> getCompanyKeyResultRefOfBusinessUnitKeyResult(Long businessUnitKeyResultId) {
+        return Optional.ofNullable(companyKeyResultRefByBusinessUnitKeyResultId.get(businessUnitKeyResultId));
+    }
+
+    synchronized Set<Long> getBusinessUnitObjectiveIdsOfBusinessUnit(Long businessUnitId) {
+        Set<Long> ids = new HashSet<>();
+        businessUnitIdByObjectiveId.forEach((objectiveId, unitId) -> {
+            if (unitId.equals(businessUnitId)) {
+                ids.add(objectiveId);
+            }
+        });
+        return ids;
+    }
+
+    synchronized Set<Long> getBusinessUnitObjectiveIdsReferencing(Long companyKeyResultId) {
+        return keysWithValue(companyKeyResultRefByBusinessUnitObjectiveId, companyKeyResultId);
+    }
+
+    synchronized Set<Long> getBusinessUnitKeyResultIdsReferencing(Long companyKeyResultId) {
+        return keysWithValue(companyKeyResultRefByBusinessUnitKeyResultId, companyKeyResultId);
+    }
+
+    synchronized void putBusinessUnitObjective(Long id, Long businessUnitId, Long companyKeyResultRef, BusinessUnitObjectiveDto businessUnitObjective) {
+        businessUnitObjectives.put(id, businessUnitObjective);
+        businessUnitIdByObjectiveId.put(id, businessUnitId);
+        putOrRemove(companyKeyResultRefByBusinessUnitObjectiveId, id, companyKeyResultRef);
+        businessUnitKeyResultsByObjectiveId.computeIfAbsent(id, key -> new TreeMap<>());
+        rebuildBusinessUnitDashboardItem(id);
+        changes.add(new DashboardChange(DashboardChange.Type.BUSINESS_UNIT_OBJECTIVE, DashboardChange.Action.SAVED, id, null, businessUnitObjective));
+        publish();
+    }
+
+    /**
+     * Removes the {@link BusinessUnitObjectiveDto} with the given id together with all of its key results
+     *
+     * @param id the id of the removed objective
+     * @return the ids of all company key results, which were referenced by the removed objective or its key results
+     */
+    synchronized Set<Long> removeBusinessUnitObjective(Long id) {
+        Set<Long> companyKeyResultRefs = new HashSet<>();
+        if (businessUnitObjectives.remove(id) != null) {
+            changes.add(new DashboardChange(DashboardChange.Type.BUSINESS_UNIT_OBJECTIVE, DashboardChange.Action.REMOVED, id, null, null));
+        }
+        businessUnitDashboardItems.remove(id);
+        businessUnitIdByObjectiveId.remove(id);
+        Optional.ofNullable(companyKeyResultRefByBusinessUnitObjectiveId.remove(id)).ifPresent(companyKeyResultRefs::add);
+        Map<Long, BusinessUnitKeyResultDto> keyResults = businessUnitKeyResultsByObjectiveId.remove(id);
+        if (keyResults != null) {
+            for (Long keyResultId : keyResults.keySet()) {
+                businessUnitObjectiveIdByKeyResultId.remove(keyResultId);
+                Optional.ofNullable(companyKeyResultRefByBusinessUnitKeyResultId.remove(keyResultId)).ifPresent(companyKeyResultRefs::add);
+            }
+        }
+        publish();
+        return companyKeyResultRefs;
+    }
+
+    synchronized void putBusinessUnitKeyResult(Long businessUnitObjectiveId, Long id, Long companyKeyResultRef, BusinessUnitKeyResultDto businessUnitKeyResult) {
+        Long previousObjectiveId = businessUnitObjectiveIdByKeyResultId.get(id);
+        if (previousObjectiveId != null && !previousObjectiveId.equals(businessUnitObjectiveId)) {
+            removeBusinessUnitKeyResult(id);
+        }
+        businessUnitKeyResultsByObjectiveId.computeIfAbsent(businessUnitObjectiveId, key -> new TreeMap<>()).put(id, businessUnitKeyResult);
+        businessUnitObjectiveIdByKeyResultId.put(id, businessUnitObjectiveId);
+        putOrRemove(companyKeyResultRefByBusinessUnitKeyResultId, id, companyKeyResultRef);
+        rebuildBusinessUnitDashboardItem(businessUnitObjectiveId);
+        changes.add(new DashboardChange(DashboardChange.Type.BUSINESS_UNIT_KEY_RESULT, DashboardChange.Action.SAVED, id, businessUnitObjectiveId, businessUnitKeyResult));
+        publish();
+    }
+
+    /**
+     * Removes the {@link BusinessUnitKeyResultDto} with the given id
+     *
+     * @param id the id of the removed key result
+     * @return the id of the objective the key result belonged to, if it was part of the snapshot
+     */
+    synchronized Optional<Long> removeBusinessUnitKeyResult(Long id) {
+        Long businessUnitObjectiveId = businessUnitObjectiveIdByKeyResultId.remove(id);
+        companyKeyResultRefByBusinessUnitKeyResultId.remove(id);
+        if (businessUnitObjectiveId == null) {
+            return Optional.empty();
+        }
+        Map<Long, BusinessUnitKeyResultDto> keyResults = businessUnitKeyResultsByObjectiveId.get(businessUnitObjectiveId);
+        if (keyResults != null) {
+            keyResults.remove(id);
+        }
+        rebuildBusinessUnitDashboardItem(businessUnitObjectiveId);
+        changes.add(new DashboardChange(DashboardChange.Type.BUSINESS_UNIT_KEY_RESULT, DashboardChange.Action.REMOVED, id, businessUnitObjectiveId, null));
+        publish();
+        return Optional.of(businessUnitObjectiveId);
+    }
+
+    private void rebuildBusinessUnitDashboardItem(Long businessUnitObjectiveId) {
+        BusinessUnitObjectiveDto businessUnitObjective = businessUnitObjectives.get(businessUnitObjectiveId);
+        if (businessUnitObjective == null) {
+            return;
+        }
+        Map<Long, BusinessUnitKeyResultDto> keyResults = businessUnitKeyResultsByObjectiveId.getOrDefault(businessUnitObjectiveId, Map.of());
+        businessUnitDashboardItems.put(businessUnitObjectiveId, new BusinessUnitDashboardItem(businessUnitObjective, List.copyOf(keyResults.values())));
+    }
+
+    private static void putOrRemove(Map<Long, Long> map, Long key, Long value) {
+        if (value == null) {
+            map.remove(key);
+        } else {
+            map.put(key, value);
+        }
+    }
+
+    private static Set<Long> keysWithValue(Map<Long, Long> map, Long value) {
+        Set<Long> keys = new HashSet<>();
+        map.forEach((key, mapValue) -> {
+            if (mapValue.equals(value)) {
+                keys.add(key);
+            }
+        });
+        return keys;
+    }
+}
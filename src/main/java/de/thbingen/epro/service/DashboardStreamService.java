@@ -0,0 +1,237 @@
+package de.thbingen.epro.service;
+
+import de.thbingen.epro.config.DashboardStreamConfig;
+import de.thbingen.epro.model.dto.dashboard.DashboardChange;
+import de.thbingen.epro.notification.OkrResyncEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * This Service manages the subscribers of the dashboard stream.
+ * <p>
+ * Every subscriber is represented by an {@link SseEmitter}, so no request thread is bound to an idle connection. It
+ * first receives the whole dashboard and afterwards every {@link DashboardChange} published by the
+ * {@link DashboardService}. Every subscriber has its own bounded queue of events, which is drained by one of a fixed
+ * number of sender threads only while it holds events, so the events stay in order for every subscriber. A subscriber,
+ * whose queue overflows, is closed and has to reconnect, which sends it the whole dashboard again. A subscriber, whose
+ * send does not finish within {@link DashboardStreamConfig#getWriteTimeout()} milliseconds, is closed as well, so
+ * stalled clients can not take all the sender threads.
+ */
+@Service
+public class DashboardStreamService {
+
+    static final String DASHBOARD_EVENT = "dashboard";
+    static final String CHANGE_EVENT = "change";
+
+    private final DashboardService dashboardService;
+    private final DashboardStreamConfig dashboardStreamConfig;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService senders;
+
+    /**
+     * Default constructor to be used for Constructor Injection
+     *
+     * @param dashboardService      The Service which provides the initial dashboard
+     * @param dashboardStreamConfig The configuration of the timeouts and queues of the stream
+     */
+    public DashboardStreamService(DashboardService dashboardService, DashboardStreamConfig dashboardStreamConfig) {
+        this.dashboardService = dashboardService;
+        this.dashboardStreamConfig = dashboardStreamConfig;
+        // every subscriber is drained by at most one task at a time, so the tasks waiting are bounded by the subscribers
+        this.senders = Executors.newFixedThreadPool(dashboardStreamConfig.getSenderThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Registers a new subscriber of the dashboard stream. The current dashboard is sent as the first event.
+     *
+     * @return the {@link SseEmitter} of the new subscriber
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(dashboardStreamConfig.getTimeout());
+        Subscriber subscriber = new Subscriber(emitter, dashboardStreamConfig.getQueueCapacity());
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(throwable -> subscribers.remove(subscriber));
+
+        // the dashboard is read when it is sent, so changes published from now on are queued behind it
+        subscriber.enqueue(() -> SseEmitter.event()
+                .name(DASHBOARD_EVENT)
+                .data(dashboardService.getDashboardItems(), MediaType.APPLICATION_JSON));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Sends the given {@link DashboardChange} to every subscriber
+     *
+     * @param dashboardChange the change which was applied to the dashboard
+     */
+    @EventListener
+    public void onDashboardChange(DashboardChange dashboardChange) {
+        subscribers.forEach(subscriber -> subscriber.enqueue(() -> SseEmitter.event()
+                .name(CHANGE_EVENT)
+                .data(dashboardChange, MediaType.APPLICATION_JSON)));
+    }
+
+    /**
+     * Sends the whole dashboard to every subscriber again, as the changes missed by the change notifications have not
+     * been sent as {@link DashboardChange}s
+     *
+     * @param okrResyncEvent the (re)connect of the change notifications
+     */
+    @EventListener
+    public void onOkrResync(OkrResyncEvent okrResyncEvent) {
+        subscribers.forEach(subscriber -> subscriber.enqueue(() -> SseEmitter.event()
+                .name(DASHBOARD_EVENT)
+                .data(dashboardService.getDashboardItems(), MediaType.APPLICATION_JSON)));
+    }
+
+    /**
+     * Sends a comment to every subscriber, which keeps the connections open and removes the subscribers whose
+     * connection was closed by the client
+     */
+    @Scheduled(fixedDelayString = "${dashboard.stream.heartbeat-interval:15000}")
+    public void sendHeartbeat() {
+        subscribers.forEach(subscriber -> subscriber.enqueue(() -> SseEmitter.event().comment("heartbeat")));
+    }
+
+    /**
+     * Closes the subscribers, whose current send takes longer than the write timeout, and frees their sender threads
+     */
+    @Scheduled(fixedDelayString = "${dashboard.stream.write-timeout:10000}")
+    public void closeStalledSubscribers() {
+        long now = System.nanoTime();
+        long writeTimeout = TimeUnit.MILLISECONDS.toNanos(dashboardStreamConfig.getWriteTimeout());
+        subscribers.forEach(subscriber -> subscriber.closeIfStalled(now, writeTimeout));
+    }
+
+    /**
+     * @return the number of currently connected subscribers
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    /**
+     * A subscriber with the events, which still have to be sent to it
+     */
+    private class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<Supplier<SseEmitter.SseEventBuilder>> events;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        // the thread blocked in a send and since when, guarded by this subscriber
+        private Thread sendingThread;
+        private long sendStartedAt;
+        private volatile boolean stalled;
+
+        Subscriber(SseEmitter emitter, int queueCapacity) {
+            this.emitter = emitter;
+            this.events = new ArrayBlockingQueue<>(queueCapacity);
+        }
+
+        void enqueue(Supplier<SseEmitter.SseEventBuilder> event) {
+            if (!events.offer(event)) {
+                // the client does not keep up, it gets the whole dashboard again after reconnecting
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // shutting down
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Supplier<SseEmitter.SseEventBuilder> event;
+                while ((event = events.poll()) != null) {
+                    send(event.get());
+                }
+            } catch (IOException | IllegalStateException e) {
+                // the client is gone or the emitter already completed
+                subscribers.remove(this);
+                events.clear();
+                if (stalled) {
+                    emitter.completeWithError(e);
+                }
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // an event may have been queued after the queue was found empty, but before draining was reset
+            if (!events.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) throws IOException {
+            synchronized (this) {
+                sendingThread = Thread.currentThread();
+                sendStartedAt = System.nanoTime();
+            }
+            try {
+                emitter.send(event);
+            } finally {
+                synchronized (this) {
+                    sendingThread = null;
+                    // an interrupt of a stalled send must not hit the next subscriber drained by this thread
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        // the emitter is locked by the blocked send, so it is completed by the sender thread once the send failed
+        synchronized void closeIfStalled(long now, long writeTimeout) {
+            if (sendingThread != null && now - sendStartedAt > writeTimeout) {
+                stalled = true;
+                subscribers.remove(this);
+                events.clear();
+                // interrupts the blocked write, which then fails like one to a client, which is gone
+                sendingThread.interrupt();
+            }
+        }
+
+        private void close() {
+            subscribers.remove(this);
+            events.clear();
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package de.thbingen.epro.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Rebuilds the full snapshots of the history of a key result.
+ * <p>
+ * Every entry of the history holds the values replaced by its change: a keyframe the whole row, any other entry only
+ * the columns, which were changed. The snapshot of an entry is therefore the snapshot of the next newer entry, or the
+ * current row for the newest entry, overwritten with the columns the entry holds. Walking from the next newer keyframe
+ * or the current row towards the older entries rebuilds all snapshots in between. The keyframes retained by the
+ * compaction hold the row after their change instead, which no entry depends on, as all entries older than them are
+ * compacted as well.
+ */
+final class HistorySnapshots {
+
+    private HistorySnapshots() {
+    }
+
+    /**
+     * @param entries         the entries of a single key result from the newest to the oldest, which start with a
+     *                        keyframe or with the newest entry of the key result
+     * @param current         the current row of the key result, {@code null} if the entries start with a keyframe
+     * @param getId           returns the {@code id} of an entry
+     * @param isKeyframe      whether an entry holds the whole row
+     * @param getHistoricData returns the historical data of an entry
+     * @param <T>             the type of the entries
+     * @return the snapshots of all entries by their {@code id}
+     */
+    static <T> Map<Long, JsonNode> rebuild(List<T> entries, JsonNode current, Function<T, Long> getId, Predicate<T> isKeyframe, Function<T, JsonNode> getHistoricData) {
+        Map<Long, JsonNode> snapshots = new HashMap<>();
+        JsonNode snapshot = current;
+        for (T entry : entries) {
+            JsonNode historicData = getHistoricData.apply(entry);
+            if (isKeyframe.test(entry) || snapshot == null) {
+                snapshot = historicData;
+            } else {
+                // the entities must stay unchanged, so each snapshot is a copy
+                ObjectNode merged = snapshot.deepCopy();
+                merged.setAll((ObjectNode) historicData);
+                snapshot = merged;
+            }
+            snapshots.put(getId.apply(entry), snapshot);
+        }
+        return snapshots;
+    }
+
+    /**
+     * @param entries         the entries of a single key result from the newest to the oldest, which start with a
+     *                        keyframe or with the newest entry of the key result
+     * @param current         the current row of the key result, {@code null} if the entries start with a keyframe
+     * @param getId           returns the {@code id} of an entry
+     * @param isKeyframe      whether an entry holds the whole row
+     * @param getHistoricData returns the historical data of an entry
+     * @param <T>             the type of the entries
+     * @return the snapshots right after the change of each entry by its {@code id}, which are the snapshots of the next
+     * newer entries or the current row. The first entry is left out, if it is a keyframe
+     */
+    static <T> Map<Long, JsonNode> rebuildAfter(List<T> entries, JsonNode current, Function<T, Long> getId, Predicate<T> isKeyframe, Function<T, JsonNode> getHistoricData) {
+        Map<Long, JsonNode> snapshots = rebuild(entries, current, getId, isKeyframe, getHistoricData);
+        Map<Long, JsonNode> snapshotsAfter = new HashMap<>();
+        JsonNode after = current;
+        for (T entry : entries) {
+            Long id = getId.apply(entry);
+            if (after != null) {
+                snapshotsAfter.put(id, after);
+            }
+            after = snapshots.get(id);
+        }
+        return snapshotsAfter;
+    }
+
+    /**
+     * @param objectMapper the ObjectMapper to read the row with
+     * @param row          a row as returned by {@code to_jsonb}, may be {@code null}
+     * @return the row as {@link JsonNode}, {@code null} if there is none
+     */
+    static JsonNode read(ObjectMapper objectMapper, String row) {
+        if (row == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(row);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("The database returned a row, which is no valid JSON", e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package de.thbingen.epro.service;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shows the progress of the current or the last compaction of the key result history at
+ * {@code /actuator/historycompaction}
+ */
+@Component
+@Endpoint(id = "historycompaction")
+public class KeyResultHistoryCompactionEndpoint {
+
+    private final KeyResultHistoryCompactionService keyResultHistoryCompactionService;
+
+    /**
+     * Default constructor to be used for Constructor Injection
+     *
+     * @param keyResultHistoryCompactionService The Service compacting the key result history
+     */
+    public KeyResultHistoryCompactionEndpoint(KeyResultHistoryCompactionService keyResultHistoryCompactionService) {
+        this.keyResultHistoryCompactionService = keyResultHistoryCompactionService;
+    }
+
+    @ReadOperation
+    public KeyResultHistoryCompactionService.Progress progress() {
+        return keyResultHistoryCompactionService.getProgress();
+    }
+}
@@ -0,0 +1,340 @@
+package de.thbingen.epro.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import de.thbingen.epro.config.HistoryCompactionConfig;
+import de.thbingen.epro.model.entity.BusinessUnitKeyResultHistory;
+import de.thbingen.epro.model.entity.CompanyKeyResultHistory;
+import de.thbingen.epro.repository.BusinessUnitKeyResultHistoryRepository;
+import de.thbingen.epro.repository.CompanyKeyResultHistoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Thins out the history of the key results, which would otherwise grow without bound for key results updated every
+ * few minutes. Every entry younger than {@link HistoryCompactionConfig#getKeepAllDays()} days is kept, of the older
+ * entries only the newest of every day, and of the entries older than {@link HistoryCompactionConfig#getKeepDailyDays()}
+ * days only the newest of every week. The entries of the typed point tables are deleted together with their entries.
+ * <p>
+ * The entries hold the values replaced by their change, so the newest entry of a day holds the values before its last
+ * change. The retained entries are therefore first rewritten as compacted keyframes holding the values after their
+ * change, which are the values at the end of their day or week, and their points are updated alike. Only then the
+ * entries between them are deleted, as the snapshots of the retained entries could no longer be rebuilt otherwise.
+ * <p>
+ * The history is compacted one key result after the other, so every batch only reads the entries of a single key
+ * result. The batches run in their own short transaction each, with a pause after every batch changing anything. The
+ * progress of the current or last run is available through the {@code historycompaction} actuator endpoint, the
+ * rewritten and deleted entries are counted as metrics.
+ */
+@Service
+public class KeyResultHistoryCompactionService {
+
+    private static final String COMPANY_KEY_RESULT_HISTORY = "company_key_result_history";
+    private static final String BUSINESS_UNIT_KEY_RESULT_HISTORY = "business_unit_key_result_history";
+
+    private final HistoryCompactionConfig historyCompactionConfig;
+    private final CompanyKeyResultHistoryRepository companyKeyResultHistoryRepository;
+    private final BusinessUnitKeyResultHistoryRepository businessUnitKeyResultHistoryRepository;
+    private final CompanyKeyResultHistoryService companyKeyResultHistoryService;
+    private final BusinessUnitKeyResultHistoryService businessUnitKeyResultHistoryService;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate batchTransaction;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Progress progress = new Progress(null);
+
+    /**
+     * Default constructor to be used for Constructor Injection
+     *
+     * @param historyCompactionConfig                The configuration of the retention tiers and the batches
+     * @param companyKeyResultHistoryRepository      The Repository for DB access to {@link CompanyKeyResultHistory}s
+     * @param businessUnitKeyResultHistoryRepository The Repository for DB access to {@link BusinessUnitKeyResultHistory}s
+     * @param companyKeyResultHistoryService         The Service rebuilding the snapshots of {@link CompanyKeyResultHistory}s
+     * @param businessUnitKeyResultHistoryService    The Service rebuilding the snapshots of {@link BusinessUnitKeyResultHistory}s
+     * @param meterRegistry                          The registry, to which the rewritten and deleted entries are published
+     * @param transactionManager                     The TransactionManager used for the batches
+     */
+    public KeyResultHistoryCompactionService(HistoryCompactionConfig historyCompactionConfig, CompanyKeyResultHistoryRepository companyKeyResultHistoryRepository, BusinessUnitKeyResultHistoryRepository businessUnitKeyResultHistoryRepository, CompanyKeyResultHistoryService companyKeyResultHistoryService, BusinessUnitKeyResultHistoryService businessUnitKeyResultHistoryService, MeterRegistry meterRegistry, PlatformTransactionManager transactionManager) {
+        this.historyCompactionConfig = historyCompactionConfig;
+        this.companyKeyResultHistoryRepository = companyKeyResultHistoryRepository;
+        this.businessUnitKeyResultHistoryRepository = businessUnitKeyResultHistoryRepository;
+        this.companyKeyResultHistoryService = companyKeyResultHistoryService;
+        this.businessUnitKeyResultHistoryService = businessUnitKeyResultHistoryService;
+        this.meterRegistry = meterRegistry;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        Gauge.builder("history.compaction.running", running, isRunning -> isRunning.get() ? 1 : 0)
+                .description("Whether the key result history is being compacted")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the compaction, unless it is disabled
+     */
+    @Scheduled(cron = "${history-compaction.cron:0 30 3 * * *}")
+    public void compactScheduled() {
+        if (historyCompactionConfig.isEnabled()) {
+            compact();
+        }
+    }
+
+    /**
+     * Compacts the history of the {@link CompanyKeyResultHistory}s and of the {@link BusinessUnitKeyResultHistory}s.
+     * If a compaction is already running, nothing is done
+     *
+     * @return the progress of this run, or of the run already running
+     */
+    public Progress compact() {
+        if (!running.compareAndSet(false, true)) {
+            return progress;
+        }
+        try {
+            OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+            OffsetDateTime compactBefore = now.minusDays(historyCompactionConfig.getKeepAllDays());
+            OffsetDateTime weeklyBefore = now.minusDays(Math.max(historyCompactionConfig.getKeepDailyDays(), historyCompactionConfig.getKeepAllDays()));
+            Progress current = new Progress(now);
+            progress = current;
+
+            // an interrupted run stops as a whole, the next one continues with the entries left
+            boolean completed = compact(
+                    current,
+                    COMPANY_KEY_RESULT_HISTORY,
+                    keyResultId -> companyKeyResultHistoryRepository.findNextKeyResultIdToCompact(keyResultId, compactBefore),
+                    (keyResultId, limit) -> companyKeyResultHistoryRepository.findRetainedDeltaIds(keyResultId, compactBefore, weeklyBefore, limit),
+                    this::rewriteCompanyKeyResultHistoryAsKeyframes,
+                    (keyResultId, limit) -> companyKeyResultHistoryRepository.deleteSuperseded(keyResultId, compactBefore, weeklyBefore, limit)
+            ) && compact(
+                    current,
+                    BUSINESS_UNIT_KEY_RESULT_HISTORY,
+                    keyResultId -> businessUnitKeyResultHistoryRepository.findNextKeyResultIdToCompact(keyResultId, compactBefore),
+                    (keyResultId, limit) -> businessUnitKeyResultHistoryRepository.findRetainedDeltaIds(keyResultId, compactBefore, weeklyBefore, limit),
+                    this::rewriteBusinessUnitKeyResultHistoryAsKeyframes,
+                    (keyResultId, limit) -> businessUnitKeyResultHistoryRepository.deleteSuperseded(keyResultId, compactBefore, weeklyBefore, limit)
+            );
+            if (!completed) {
+                current.interrupt();
+            }
+
+            current.finish();
+            return current;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * @return the progress of the current run, or of the last run if none is running
+     */
+    public Progress getProgress() {
+        return progress;
+    }
+
+    /**
+     * Compacts the history stored in a single table, one key result after the other. A failure stops the compaction of
+     * the table, but not of the other one.
+     *
+     * @return false if the compaction was interrupted
+     */
+    private boolean compact(Progress progress, String table, Function<Long, Optional<Long>> findNextKeyResultIdToCompact, BiFunction<Long, Integer, List<Long>> findRetainedDeltaIds, ToIntFunction<List<Long>> rewriteAsKeyframes, ToIntBiFunction<Long, Integer> deleteSuperseded) {
+        int batchSize = historyCompactionConfig.getBatchSize();
+        Counter keyframes = Counter.builder("history.compaction.keyframes")
+                .description("History entries rewritten as keyframes, as they are retained by the compaction")
+                .tag("table", table)
+                .register(meterRegistry);
+        Counter reclaimed = Counter.builder("history.compaction.reclaimed")
+                .description("History entries deleted by the compaction")
+                .tag("table", table)
+                .register(meterRegistry);
+        try {
+            Optional<Long> keyResultId = findNextKeyResultIdToCompact.apply(0L);
+            while (keyResultId.isPresent()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return false;
+                }
+                Long id = keyResultId.get();
+                progress.start(table, Progress.REWRITING);
+                int rewritten;
+                while ((rewritten = batchTransaction.execute(status -> {
+                    List<Long> ids = findRetainedDeltaIds.apply(id, batchSize);
+                    if (ids.isEmpty()) {
+                        return 0;
+                    }
+                    int rewrittenOfBatch = rewriteAsKeyframes.applyAsInt(ids);
+                    if (rewrittenOfBatch != ids.size()) {
+                        throw new IllegalStateException("Not all snapshots retained in " + table + " could be rebuilt");
+                    }
+                    return rewrittenOfBatch;
+                })) > 0) {
+                    keyframes.increment(rewritten);
+                    progress.rewritten(rewritten);
+                    if (!pause()) {
+                        return false;
+                    }
+                }
+
+                // only reached once no retained entry of the key result depends on the deleted ones anymore
+                progress.start(table, Progress.DELETING);
+                int deleted;
+                while ((deleted = batchTransaction.execute(status -> deleteSuperseded.applyAsInt(id, batchSize))) > 0) {
+                    reclaimed.increment(deleted);
+                    progress.reclaimed(deleted);
+                    if (!pause()) {
+                        return false;
+                    }
+                }
+                keyResultId = findNextKeyResultIdToCompact.apply(id);
+            }
+        } catch (RuntimeException e) {
+            progress.fail(table, e);
+        }
+        return true;
+    }
+
+    private int rewriteCompanyKeyResultHistoryAsKeyframes(List<Long> ids) {
+        List<CompanyKeyResultHistory> entries = companyKeyResultHistoryRepository.findAllById(ids);
+        Map<Long, JsonNode> snapshots = companyKeyResultHistoryService.findSnapshotsAfter(entries);
+        int rewritten = 0;
+        for (CompanyKeyResultHistory entry : entries) {
+            JsonNode snapshot = snapshots.get(entry.getId());
+            if (snapshot != null) {
+                entry.setHistoricalData(snapshot);
+                entry.setKeyframe(true);
+                entry.setCompacted(true);
+                rewritten++;
+            }
+        }
+        companyKeyResultHistoryRepository.compactPoints(ids);
+        return rewritten;
+    }
+
+    private int rewriteBusinessUnitKeyResultHistoryAsKeyframes(List<Long> ids) {
+        List<BusinessUnitKeyResultHistory> entries = businessUnitKeyResultHistoryRepository.findAllById(ids);
+        Map<Long, JsonNode> snapshots = businessUnitKeyResultHistoryService.findSnapshotsAfter(entries);
+        int rewritten = 0;
+        for (BusinessUnitKeyResultHistory entry : entries) {
+            JsonNode snapshot = snapshots.get(entry.getId());
+            if (snapshot != null) {
+                entry.setHistoricalData(snapshot);
+                entry.setKeyframe(true);
+                entry.setCompacted(true);
+                rewritten++;
+            }
+        }
+        businessUnitKeyResultHistoryRepository.compactPoints(ids);
+        return rewritten;
+    }
+
+    /**
+     * @return false if the compaction was interrupted while pausing
+     */
+    private boolean pause() {
+        try {
+            Thread.sleep(historyCompactionConfig.getBatchDelay());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * The progress of a single compaction run, as shown by the actuator endpoint
+     */
+    public static class Progress {
+
+        static final String REWRITING = "rewriting";
+        static final String DELETING = "deleting";
+
+        private final OffsetDateTime startedAt;
+        private volatile OffsetDateTime finishedAt;
+        private volatile String table;
+        private volatile String phase;
+        private volatile long batches;
+        private volatile long rewritten;
+        private volatile long reclaimed;
+        private volatile String failure;
+
+        Progress(OffsetDateTime startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        void start(String table, String phase) {
+            this.table = table;
+            this.phase = phase;
+        }
+
+        void rewritten(int entries) {
+            batches++;
+            rewritten += entries;
+        }
+
+        void reclaimed(int entries) {
+            batches++;
+            reclaimed += entries;
+        }
+
+        void fail(String table, RuntimeException e) {
+            failure = table + ": " + e.getMessage();
+        }
+
+        void interrupt() {
+            failure = table + ": interrupted";
+        }
+
+        void finish() {
+            table = null;
+            phase = null;
+            finishedAt = OffsetDateTime.now(ZoneOffset.UTC);
+        }
+
+        public OffsetDateTime getStartedAt() {
+            return startedAt;
+        }
+
+        public OffsetDateTime getFinishedAt() {
+            return finishedAt;
+        }
+
+        public boolean isRunning() {
+            return startedAt != null && finishedAt == null;
+        }
+
+        public String getTable() {
+            return table;
+        }
+
+        public String getPhase() {
+            return phase;
+        }
+
+        public long getBatches() {
+            return batches;
+        }
+
+        public long getRewritten() {
+            return rewritten;
+        }
+
+        public long getReclaimed() {
+            return reclaimed;
+        }
+
+        public String getFailure() {
+            return failure;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package de.thbingen.epro.service;
+
+import de.thbingen.epro.config.HistoryPartitionConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Maintains the monthly partitions of the key result history and of its typed points. The partitions of the coming
+ * {@link HistoryPartitionConfig#getMonthsAhead()} months are created ahead of time, so the changes never end up in the
+ * default partitions, and the partitions older than {@link HistoryPartitionConfig#getRetainMonths()} months are
+ * detached and dropped as a whole. The DDL is done by the functions {@code create_history_partitions} and
+ * {@code expire_history_partitions} of the schema, each call in its own transaction. A failed maintenance, e.g. as a
+ * lock could not be taken in time, neither stops the start of the application nor the later runs, it is only logged
+ * and counted, the changes ending up in the default partitions in the meantime.
+ */
+@Service
+public class KeyResultHistoryPartitionService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(KeyResultHistoryPartitionService.class);
+
+    private final HistoryPartitionConfig historyPartitionConfig;
+    private final JdbcTemplate jdbcTemplate;
+    private final Counter createdPartitions;
+    private final Counter expiredPartitions;
+    private final Counter failedMaintenances;
+
+    /**
+     * Default constructor to be used for Constructor Injection
+     *
+     * @param historyPartitionConfig The configuration of the partitions created ahead and of their expiration
+     * @param jdbcTemplate           The JdbcTemplate calling the functions maintaining the partitions
+     * @param meterRegistry          The registry, to which the created and expired partitions are published
+     */
+    public KeyResultHistoryPartitionService(HistoryPartitionConfig historyPartitionConfig, JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.historyPartitionConfig = historyPartitionConfig;
+        this.jdbcTemplate = jdbcTemplate;
+        this.createdPartitions = Counter.builder("history.partitions.created")
+                .description("Monthly partitions of the key result history created ahead of time")
+                .register(meterRegistry);
+        this.expiredPartitions = Counter.builder("history.partitions.expired")
+                .description("Monthly partitions of the key result history detached after their retention")
+                .register(meterRegistry);
+        this.failedMaintenances = Counter.builder("history.partitions.failures")
+                .description("Maintenance runs of the key result history partitions, which failed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Maintains the partitions right after the start, as the application may have been down for the last runs
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void maintainAfterStart() {
+        maintainScheduled();
+    }
+
+    /**
+     * Maintains the partitions, unless it is disabled. The expiration is tried even if the creation failed
+     */
+    @Scheduled(cron = "${history-partitions.cron:0 0 3 * * *}")
+    public void maintainScheduled() {
+        if (historyPartitionConfig.isEnabled()) {
+            maintain("create", this::createPartitions);
+            maintain("expire", this::expirePartitions);
+        }
+    }
+
+    private void maintain(String step, Runnable maintenance) {
+        try {
+            maintenance.run();
+        } catch (RuntimeException e) {
+            failedMaintenances.increment();
+            LOGGER.warn("Could not {} the partitions of the key result history", step, e);
+        }
+    }
+
+    /**
+     * Creates the partitions of the current month and of the configured number of following months, which do not
+     * exist yet
+     *
+     * @return the number of created partitions
+     */
+    public int createPartitions() {
+        int created = jdbcTemplate.queryForObject(
+                "select create_history_partitions(now(), ?)",
+                Integer.class,
+                historyPartitionConfig.getMonthsAhead() + 1
+        );
+        createdPartitions.increment(created);
+        return created;
+    }
+
+    /**
+     * Detaches the partitions, whose month ended more than the configured number of months ago, and drops them unless
+     * they are to be kept as standalone tables
+     *
+     * @return the number of detached partitions
+     */
+    public int expirePartitions() {
+        if (historyPartitionConfig.getRetainMonths() <= 0) {
+            return 0;
+        }
+        int expired = jdbcTemplate.queryForObject(
+                "select expire_history_partitions(now() - make_interval(months => ?), ?)",
+                Integer.class,
+                historyPartitionConfig.getRetainMonths(),
+                historyPartitionConfig.isDropExpired()
+        );
+        expiredPartitions.increment(expired);
+        return expired;
+    }
+}
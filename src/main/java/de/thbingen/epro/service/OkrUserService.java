@@ -11,6 +11,7 @@ import de.thbingen.epro.model.mapper.OkrUserMapper;
 import de.thbingen.epro.repository.BusinessUnitRepository;
 import de.thbingen.epro.repository.OkrUserRepository;
 import de.thbingen.epro.repository.RoleRepository;
+import de.thbingen.epro.security.PrincipalCache;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -32,6 +33,7 @@ public class OkrUserService {
     private final PasswordEncoder passwordEncoder;
     private final OkrUserAssembler assembler;
     private final BusinessUnitRepository businessUnitRepository;
+    private final PrincipalCache principalCache;
 
     /**
      * Default constructor to be used for Constructor Injection
@@ -42,14 +44,16 @@ public class OkrUserService {
      * @param passwordEncoder        The Password Encoder
      * @param assembler              The RepresentationModelAssembler to add the hateoas relations
      * @param businessUnitRepository The Repository for DB access to Business Units
+     * @param principalCache         The cache of the principals, which is evicted whenever a user is changed
      */
-    public OkrUserService(OkrUserRepository okrUserRepository, OkrUserMapper okrUserMapper, RoleRepository roleRepository, PasswordEncoder passwordEncoder, OkrUserAssembler assembler, BusinessUnitRepository businessUnitRepository) {
+    public OkrUserService(OkrUserRepository okrUserRepository, OkrUserMapper okrUserMapper, RoleRepository roleRepository, PasswordEncoder passwordEncoder, OkrUserAssembler assembler, BusinessUnitRepository businessUnitRepository, PrincipalCache principalCache) {
         this.okrUserRepository = okrUserRepository;
         this.okrUserMapper = okrUserMapper;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
         this.assembler = assembler;
         this.businessUnitRepository = businessUnitRepository;
+        this.principalCache = principalCache;
     }
 
     /**
@@ -139,7 +143,10 @@ public class OkrUserService {
         OkrUser okrUser = okrUserRepository.getById(id);
         okrUserMapper.updateOkrUserFromUpdateDto(okrUserDto, okrUser);
         okrUser.setPassword(passwordEncoder.encode(okrUser.getPassword()));
-        return assembler.toModel(okrUserRepository.save(okrUser));
+        OkrUser savedOkrUser = okrUserRepository.save(okrUser);
+        okrUserRepository.incrementTokenVersionById(id);
+        principalCache.evictUser(id);
+        return assembler.toModel(savedOkrUser);
     }
 
     /**
@@ -159,6 +166,7 @@ public class OkrUserService {
      */
     public void deleteById(Long id) {
         okrUserRepository.deleteById(id);
+        principalCache.evictUser(id);
     }
 
     public void setRole(Long id, Long roleId) {
@@ -174,6 +182,8 @@ public class OkrUserService {
         Role role = roleResult.get();
         okrUser.setRole(role);
         okrUserRepository.save(okrUser);
+        okrUserRepository.incrementTokenVersionById(id);
+        principalCache.evictUser(id);
     }
 
     /**
@@ -209,5 +219,22 @@ public class OkrUserService {
         OkrUser okrUser = okrUserResult.get();
         okrUser.setBusinessUnit(businessUnitResult.get());
         okrUserRepository.save(okrUser);
+        okrUserRepository.incrementTokenVersionById(id);
+        principalCache.evictUser(id);
+    }
+
+    /**
+     * @return the version of all {@link OkrUser}s, to be used as ETag, see {@link OkrUserRepository#getVersionOfAll()}
+     */
+    public String getVersionOfAll() {
+        return okrUserRepository.getVersionOfAll();
+    }
+
+    /**
+     * @param id the requested {@code id}
+     * @return the version of the {@link OkrUser}, to be used as ETag, see {@link OkrUserRepository#getVersionById(Long)}
+     */
+    public Optional<String> getVersionById(Long id) {
+        return okrUserRepository.getVersionById(id);
     }
 }
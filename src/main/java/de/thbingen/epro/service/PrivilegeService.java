@@ -5,7 +5,9 @@ import de.thbingen.epro.model.dto.PrivilegeDto;
 import de.thbingen.epro.model.entity.Privilege;
 import de.thbingen.epro.model.entity.Role;
 import de.thbingen.epro.model.mapper.PrivilegeMapper;
+import de.thbingen.epro.repository.OkrUserRepository;
 import de.thbingen.epro.repository.PrivilegeRepository;
+import de.thbingen.epro.security.PrincipalCache;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -22,6 +24,8 @@ public class PrivilegeService {
     private final PrivilegeRepository privilegeRepository;
     private final PrivilegeMapper privilegeMapper;
     private final PrivilegeAssembler assembler;
+    private final PrincipalCache principalCache;
+    private final OkrUserRepository okrUserRepository;
 
     /**
      * Default constructor to be used for Constructor Injection
@@ -29,11 +33,15 @@ public class PrivilegeService {
      * @param privilegeRepository The Repository for DB access
      * @param privilegeMapper     The Mapstruct mapper to convert from DTO to entity and back
      * @param assembler           The RepresentationModelAssembler to add the hateoas relations
+     * @param principalCache      The cache of the principals, whose authorities are the names of the privileges
+     * @param okrUserRepository   The Repository for DB access to the token versions of the users holding a privilege
      */
-    public PrivilegeService(PrivilegeRepository privilegeRepository, PrivilegeMapper privilegeMapper, PrivilegeAssembler assembler) {
+    public PrivilegeService(PrivilegeRepository privilegeRepository, PrivilegeMapper privilegeMapper, PrivilegeAssembler assembler, PrincipalCache principalCache, OkrUserRepository okrUserRepository) {
         this.privilegeRepository = privilegeRepository;
         this.privilegeMapper = privilegeMapper;
         this.assembler = assembler;
+        this.principalCache = principalCache;
+        this.okrUserRepository = okrUserRepository;
     }
 
     /**
@@ -73,7 +81,10 @@ public class PrivilegeService {
     public PrivilegeDto updatePrivilege(Long id, PrivilegeDto privilegeDto) {
         Privilege privilege = privilegeRepository.getById(id);
         privilegeMapper.updatePrivilegeFromDto(privilegeDto, privilege);
-        return assembler.toModel(privilegeRepository.save(privilege));
+        Privilege savedPrivilege = privilegeRepository.save(privilege);
+        okrUserRepository.incrementTokenVersionByPrivilegeId(id);
+        principalCache.evictAll();
+        return assembler.toModel(savedPrivilege);
     }
 
     /**
@@ -102,7 +113,9 @@ public class PrivilegeService {
      * @param id the {@code id} for which a role shall be deleted
      */
     public void deleteById(Long id) {
+        okrUserRepository.incrementTokenVersionByPrivilegeId(id);
         privilegeRepository.deleteById(id);
+        principalCache.evictAll();
     }
 
     /**
@@ -120,4 +133,19 @@ public class PrivilegeService {
         }
         return Page.empty();
     }
+
+    /**
+     * @return the version of all {@link Privilege}s, to be used as ETag, see {@link PrivilegeRepository#getVersionOfAll()}
+     */
+    public String getVersionOfAll() {
+        return privilegeRepository.getVersionOfAll();
+    }
+
+    /**
+     * @param id the requested {@code id}
+     * @return the version of the {@link Privilege}, to be used as ETag, see {@link PrivilegeRepository#getVersionById(Long)}
+     */
+    public Optional<String> getVersionById(Long id) {
+        return privilegeRepository.getVersionById(id);
+    }
 }
@@ -5,8 +5,10 @@ import de.thbingen.epro.model.dto.RoleDto;
 import de.thbingen.epro.model.entity.Privilege;
 import de.thbingen.epro.model.entity.Role;
 import de.thbingen.epro.model.mapper.RoleMapper;
+import de.thbingen.epro.repository.OkrUserRepository;
 import de.thbingen.epro.repository.PrivilegeRepository;
 import de.thbingen.epro.repository.RoleRepository;
+import de.thbingen.epro.security.PrincipalCache;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -25,6 +27,8 @@ public class RoleService {
     private final RoleMapper roleMapper;
     private final RoleAssembler assembler;
     private final PrivilegeRepository privilegeRepository;
+    private final PrincipalCache principalCache;
+    private final OkrUserRepository okrUserRepository;
 
     /**
      * Default constructor to be used for Constructor Injection
@@ -33,12 +37,16 @@ public class RoleService {
      * @param roleMapper          The Mapstruct mapper to convert from DTO to entity and back
      * @param assembler           The RepresentationModelAssembler to add the hateoas relations
      * @param privilegeRepository The Repository for DB Access to Privileges
+     * @param principalCache      The cache of the principals, which is evicted whenever the privileges of a role change
+     * @param okrUserRepository   The Repository for DB access to the token versions of the users of a role
      */
-    public RoleService(RoleRepository roleRepository, RoleMapper roleMapper, RoleAssembler assembler, PrivilegeRepository privilegeRepository) {
+    public RoleService(RoleRepository roleRepository, RoleMapper roleMapper, RoleAssembler assembler, PrivilegeRepository privilegeRepository, PrincipalCache principalCache, OkrUserRepository okrUserRepository) {
         this.roleRepository = roleRepository;
         this.roleMapper = roleMapper;
         this.assembler = assembler;
         this.privilegeRepository = privilegeRepository;
+        this.principalCache = principalCache;
+        this.okrUserRepository = okrUserRepository;
     }
 
     /**
@@ -78,7 +86,9 @@ public class RoleService {
     public RoleDto updateRole(Long id, RoleDto roleDto) {
         Role role = roleRepository.getById(id);
         roleMapper.updateRoleFromDto(roleDto, role);
-        return assembler.toModel(roleRepository.save(role));
+        Role savedRole = roleRepository.save(role);
+        principalCache.evictAll();
+        return assembler.toModel(savedRole);
     }
 
     /**
@@ -107,7 +117,9 @@ public class RoleService {
      * @param id the {@code id} for which a role shall be deleted
      */
     public void deleteById(Long id) {
+        okrUserRepository.incrementTokenVersionByRoleId(id);
         roleRepository.deleteById(id);
+        principalCache.evictAll();
     }
 
     /**
@@ -135,5 +147,22 @@ public class RoleService {
 
         role.addPrivilege(privilege);
         roleRepository.save(role);
+        okrUserRepository.incrementTokenVersionByRoleId(id);
+        principalCache.evictAll();
+    }
+
+    /**
+     * @return the version of all {@link Role}s, to be used as ETag, see {@link RoleRepository#getVersionOfAll()}
+     */
+    public String getVersionOfAll() {
+        return roleRepository.getVersionOfAll();
+    }
+
+    /**
+     * @param id the requested {@code id}
+     * @return the version of the {@link Role}, to be used as ETag, see {@link RoleRepository#getVersionById(Long)}
+     */
+    public Optional<String> getVersionById(Long id) {
+        return roleRepository.getVersionById(id);
     }
 }
@@ -196,4 +196,28 @@ public class BusinessUnitKeyResultIntegrationTest extends IntegrationBase {
                     .andExpect(jsonPath("$.achievement", is(0.5)));
         }
     }
+
+    @Nested
+    class TestCasesWithBuAdminAccount {
+
+        @Test
+        @Transactional
+        void keyResultOfOtherBusinessUnitShouldNotBeUpdatable() throws Exception {
+            // vor.nach2 administrates the business unit IT, the key result belongs to Personal
+            String token = doLogin(UserLogin.BU_ADMIN);
+
+            BusinessUnitKeyResultDto updateKeyResult = new BusinessUnitKeyResultDto();
+            updateKeyResult.setName("New Name");
+            updateKeyResult.setComment("Change name");
+
+            mockMvc.perform(
+                            put("/businessUnitKeyResults/1")
+                                    .header("Authorization", "Bearer " + token)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(objectMapper.writeValueAsString(updateKeyResult))
+                                    .characterEncoding(Charset.defaultCharset())
+                    )
+                    .andExpect(status().is4xxClientError());
+        }
+    }
 }
@@ -0,0 +1,90 @@
+package de.thbingen.epro;
+
+import de.thbingen.epro.notification.OkrChangeEvent;
+import de.thbingen.epro.notification.OkrResyncEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+public class ChangeNotificationIntegrationTest extends IntegrationBase {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OkrChangeEventRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        recorder.events.clear();
+    }
+
+    @Test
+    void directSqlChangesOfCompanyKeyResultsArePublishedAsEvents() throws InterruptedException {
+        Long id = jdbcTemplate.queryForObject(
+                "insert into company_key_result (name, current_value, goal_value, confidence_level, comment, company_objective_id) " +
+                        "values ('Notified', 1, 10, 50, 'comment', 1) returning id", Long.class);
+        assertChangeEvent(OkrChangeEvent.Entity.COMPANY_KEY_RESULT, OkrChangeEvent.Operation.INSERT, id, 1L);
+
+        jdbcTemplate.update("update company_key_result set current_value = 2 where id = ?", id);
+        assertChangeEvent(OkrChangeEvent.Entity.COMPANY_KEY_RESULT, OkrChangeEvent.Operation.UPDATE, id, 1L);
+
+        jdbcTemplate.update("delete from company_key_result where id = ?", id);
+        assertChangeEvent(OkrChangeEvent.Entity.COMPANY_KEY_RESULT, OkrChangeEvent.Operation.DELETE, id, 1L);
+    }
+
+    @Test
+    void aLostConnectionIsFollowedByAResync() throws InterruptedException {
+        recorder.resyncs.clear();
+
+        jdbcTemplate.queryForList(
+                "select pg_terminate_backend(a.pid) from pg_stat_activity a where a.query = 'LISTEN okr_change'");
+
+        assertNotNull(recorder.resyncs.poll(20, TimeUnit.SECONDS));
+    }
+
+    private void assertChangeEvent(OkrChangeEvent.Entity entity, OkrChangeEvent.Operation operation, Long id, Long objectiveId) throws InterruptedException {
+        OkrChangeEvent event = recorder.events.poll(10, TimeUnit.SECONDS);
+        assertNotNull(event);
+        assertEquals(entity, event.getEntity());
+        assertEquals(operation, event.getOperation());
+        assertEquals(id, event.getId());
+        assertEquals(objectiveId, event.getObjectiveId());
+    }
+
+    static class OkrChangeEventRecorder {
+
+        private final BlockingQueue<OkrChangeEvent> events = new LinkedBlockingQueue<>();
+        private final BlockingQueue<OkrResyncEvent> resyncs = new LinkedBlockingQueue<>();
+
+        @EventListener
+        public void onOkrChange(OkrChangeEvent event) {
+            events.add(event);
+        }
+
+        @EventListener
+        public void onOkrResync(OkrResyncEvent event) {
+            resyncs.add(event);
+        }
+    }
+
+    @TestConfiguration
+    static class RecorderConfiguration {
+
+        @Bean
+        OkrChangeEventRecorder okrChangeEventRecorder() {
+            return new OkrChangeEventRecorder();
+        }
+    }
+}
@@ -1,25 +1,40 @@
 package de.thbingen.epro;
 
+import com.jayway.jsonpath.JsonPath;
 import de.thbingen.epro.model.dto.CompanyKeyResultDto;
 import de.thbingen.epro.model.dto.CompanyKeyResultHistoryDto;
 import de.thbingen.epro.model.dto.CompanyObjectiveDto;
+import de.thbingen.epro.model.dto.KeyResultHistoryBucketDto;
+import de.thbingen.epro.model.dto.KeyResultHistoryPointDto;
+import de.thbingen.epro.model.entity.CompanyKeyResult;
+import de.thbingen.epro.repository.CompanyKeyResultRepository;
+import de.thbingen.epro.service.KeyResultHistoryCompactionService;
+import de.thbingen.epro.service.KeyResultHistoryPartitionService;
 import de.thbingen.epro.util.UserLogin;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.LinkRelation;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.nio.charset.Charset;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -27,6 +42,18 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 public class CompanyKeyResultIntegrationTest extends IntegrationBase {
 
+    @Autowired
+    private CompanyKeyResultRepository companyKeyResultRepository;
+
+    @Autowired
+    private KeyResultHistoryCompactionService keyResultHistoryCompactionService;
+
+    @Autowired
+    private KeyResultHistoryPartitionService keyResultHistoryPartitionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Nested
     class TestCasesWithAdminAccount {
 
@@ -125,6 +152,234 @@ public class CompanyKeyResultIntegrationTest extends IntegrationBase {
                     .andExpect(jsonPath("$._embedded." + ckrhCollectionRelation + "[0]._links.companyKeyResult.href", endsWith("/companyKeyResults/" + id)));
         }
 
+        @Test
+        @Transactional
+        void keyResultShouldOnlyBeSentAgainAfterItWasUpdated() throws Exception {
+            String token = doLogin(UserLogin.CO_ADMIN);
+
+            String eTag = mockMvc.perform(
+                            get("/companyKeyResults/1")
+                                    .header("Authorization", "Bearer " + token)
+                    )
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+            assertNotNull(eTag);
+
+            mockMvc.perform(
+                            get("/companyKeyResults/1")
+                                    .header("Authorization", "Bearer " + token)
+                                    .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                    )
+                    .andExpect(status().isNotModified());
+
+            CompanyKeyResultDto updateKeyResult = new CompanyKeyResultDto();
+            updateKeyResult.setComment("Changed since the last request");
+            mockMvc.perform(
+                            put("/companyKeyResults/1")
+                                    .header("Authorization", "Bearer " + token)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(objectMapper.writeValueAsString(updateKeyResult))
+                                    .characterEncoding(Charset.defaultCharset())
+                    )
+                    .andExpect(status().isOk());
+
+            mockMvc.perform(
+                            get("/companyKeyResults/1")
+                                    .header("Authorization", "Bearer " + token)
+                                    .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                    )
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.comment", is("Changed since the last request")));
+        }
+
+        @Test
+        @Transactional
+        void historyShouldBePagedByCursorsFromTheNewestToTheOldestEntry() throws Exception {
+            String token = doLogin(UserLogin.CO_ADMIN);
+
+            // all entries share the same change time stamp inside the transaction, so only their ids order them
+            for (String comment : List.of("first", "second", "third")) {
+                CompanyKeyResult companyKeyResult = companyKeyResultRepository.findById(2L).orElseThrow();
+                companyKeyResult.setComment(comment);
+                companyKeyResultRepository.saveAndFlush(companyKeyResult);
+            }
+
+            LinkRelation ckrhCollectionRelation = annotationLinkRelationProvider.getCollectionResourceRelFor(CompanyKeyResultHistoryDto.class);
+
+            String firstPage = mockMvc.perform(
+                            get("/companyKeyResults/2/history?size=2&count=true")
+                                    .header("Authorization", "Bearer " + token)
+                    )
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalElements", is(3)))
+                    .andExpect(jsonPath("$._embedded." + ckrhCollectionRelation + ".length()", is(2)))
+                    .andExpect(jsonPath("$._embedded." + ckrhCollectionRelation + "[0].historicalCompanyKeyResult.comment", is("third")))
+                    .andExpect(jsonPath("$._embedded." + ckrhCollectionRelation + "[1].historicalCompanyKeyResult.comment", is("first")))
+                    .andExpect(jsonPath("$._links.prev").doesNotExist())
+                    .andExpect(jsonPath("$._links.next.href").exists())
+                    .andReturn().getResponse().getContentAsString();
+
+            String secondPage = mockMvc.perform(
+                            get(JsonPath.<String>read(firstPage, "$._links.next.href"))
+                                    .header("Authorization", "Bearer " + token)
+                    )
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$._embedded." + ckrhCollectionRelation + ".length()", is(1)))
+                    .andExpect(jsonPath("$._embedded." + ckrhCollectionRelation + "[0].historicalCompanyKeyResult.comment", is("Kommentar")))
+                    .andExpect(jsonPath("$._links.next").doesNotExist())
+                    .andExpect(jsonPath("$._links.prev.href").exists())
+                    .andReturn().getResponse().getContentAsString();
+
+            mockMvc.perform(
+                            get(JsonPath.<String>read(secondPage, "$._links.prev.href"))
+                                    .header("Authorization", "Bearer " + token)
+                    )
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$._embedded." + ckrhCollectionRelation + ".length()", is(2)))
+                    .andExpect(jsonPath("$._embedded." + ckrhCollectionRelation + "[0].historicalCompanyKeyResult.comment", is("third")))
+                    .andExpect(jsonPath("$._links.prev").doesNotExist());
+        }
+
+        @Test
+        @Transactional
+        void historyShouldRejectCursorsItDidNotHandOut() throws Exception {
+            String token = doLogin(UserLogin.CO_ADMIN);
+
+            mockMvc.perform(
+                            get("/companyKeyResults/1/history?cursor=not-a-cursor")
+                                    .header("Authorization", "Bearer " + token)
+                    )
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @Transactional
+        void historyPointsShouldContainTheReplacedValuesFromTheOldestToTheNewest() throws Exception {
+            String token = doLogin(UserLogin.CO_ADMIN);
+
+            for (float currentValue : List.of(0.25f, 0.75f)) {
+                CompanyKeyResult companyKeyResult = companyKeyResultRepository.findById(2L).orElseThrow();
+                companyKeyResult.setCurrentValue(currentValue);
+                companyKeyResultRepository.saveAndFlush(companyKeyResult);
+            }
+
+            LinkRelation pointCollectionRelation = annotationLinkRelationProvider.getCollectionResourceRelFor(KeyResultHistoryPointDto.class);
+            LinkRelation ckrhItemRelation = annotationLinkRelationProvider.getItemResourceRelFor(CompanyKeyResultHistoryDto.class);
+
+            mockMvc.perform(
+                            get("/companyKeyResults/2/history/points")
+                                    .header("Authorization", "Bearer " + token)
+                    )
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$._embedded." + pointCollectionRelation + ".length()", is(2)))
+                    .andExpect(jsonPath("$._embedded." + pointCollectionRelation + "[0].currentValue", is(1.0)))
+                    .andExpect(jsonPath("$._embedded." + pointCollectionRelation + "[1].currentValue", is(0.25)))
+                    .andExpect(jsonPath("$._embedded." + pointCollectionRelation + "[0]._links." + ckrhItemRelation + ".href").exists());
+        }
+
+        @Test
+        @Transactional
+        void historyPointsShouldRejectAnEmptyTimeRange() throws Exception {
+            String token = doLogin(UserLogin.CO_ADMIN);
+
+            mockMvc.perform(
+                            get("/companyKeyResults/2/history/points")
+                                    .param("from", "2022-02-01T00:00:00Z")
+                                    .param("to", "2022-01-01T00:00:00Z")
+                                    .header("Authorization", "Bearer " + token)
+                    )
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @Transactional
+        void historySeriesShouldAggregateTheValuesAfterEachChange() throws Exception {
+            String token = doLogin(UserLogin.CO_ADMIN);
+
+            for (float currentValue : List.of(0.25f, 0.75f)) {
+                CompanyKeyResult companyKeyResult = companyKeyResultRepository.findById(2L).orElseThrow();
+                companyKeyResult.setCurrentValue(currentValue);
+                companyKeyResultRepository.saveAndFlush(companyKeyResult);
+            }
+
+            LinkRelation bucketCollectionRelation = annotationLinkRelationProvider.getCollectionResourceRelFor(KeyResultHistoryBucketDto.class);
+
+            mockMvc.perform(
+                            get("/companyKeyResults/2/history/series")
+                                    .param("bucket", "hour")
+                                    .header("Authorization", "Bearer " + token)
+                    )
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$._embedded." + bucketCollectionRelation + ".length()", is(1)))
+                    .andExpect(jsonPath("$._embedded." + bucketCollectionRelation + "[0].changes", is(2)))
+                    .andExpect(jsonPath("$._embedded." + bucketCollectionRelation + "[0].lastValue", is(0.75)))
+                    .andExpect(jsonPath("$._embedded." + bucketCollectionRelation + "[0].minValue", is(0.25)))
+                    .andExpect(jsonPath("$._embedded." + bucketCollectionRelation + "[0].maxValue", is(0.75)))
+                    .andExpect(jsonPath("$._embedded." + bucketCollectionRelation + "[0].avgValue", is(0.5)));
+        }
+
+        @Test
+        @Transactional
+        void historySeriesShouldRejectUnknownBuckets() throws Exception {
+            String token = doLogin(UserLogin.CO_ADMIN);
+
+            mockMvc.perform(
+                            get("/companyKeyResults/2/history/series")
+                                    .param("bucket", "month")
+                                    .header("Authorization", "Bearer " + token)
+                    )
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @Transactional
+        void historyShouldBeStoredInThePartitionOfTheMonthOfTheChange() {
+            CompanyKeyResult companyKeyResult = companyKeyResultRepository.findById(2L).orElseThrow();
+            companyKeyResult.setComment("partitioned");
+            companyKeyResultRepository.saveAndFlush(companyKeyResult);
+
+            String partition = jdbcTemplate.queryForObject(
+                    "select cast(h.tableoid::regclass as text) from company_key_result_history h where h.ref_id = 2",
+                    String.class
+            );
+            String pointPartition = jdbcTemplate.queryForObject(
+                    "select cast(p.tableoid::regclass as text) from company_key_result_history_point p where p.ref_id = 2",
+                    String.class
+            );
+
+            String month = YearMonth.now(ZoneOffset.UTC).format(DateTimeFormatter.ofPattern("yyyy_MM"));
+            assertEquals("company_key_result_history_p" + month, partition);
+            assertEquals("company_key_result_history_point_p" + month, pointPartition);
+            assertEquals(0, keyResultHistoryPartitionService.createPartitions());
+        }
+
+        @Test
+        @Transactional
+        void compactionShouldOnlyKeepTheEndOfEveryDayOlderThanTheRetention() throws Exception {
+            String token = doLogin(UserLogin.CO_ADMIN);
+
+            for (String comment : List.of("first", "second", "third")) {
+                CompanyKeyResult companyKeyResult = companyKeyResultRepository.findById(2L).orElseThrow();
+                companyKeyResult.setComment(comment);
+                companyKeyResultRepository.saveAndFlush(companyKeyResult);
+            }
+            jdbcTemplate.update("update company_key_result_history set change_time_stamp = now() - interval '40 days' where ref_id = 2");
+
+            KeyResultHistoryCompactionService.Progress progress = keyResultHistoryCompactionService.compact();
+
+            assertEquals(1, progress.getRewritten());
+            assertEquals(2, progress.getReclaimed());
+            LinkRelation ckrhCollectionRelation = annotationLinkRelationProvider.getCollectionResourceRelFor(CompanyKeyResultHistoryDto.class);
+            mockMvc.perform(
+                            get("/companyKeyResults/2/history")
+                                    .header("Authorization", "Bearer " + token)
+                    )
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$._embedded." + ckrhCollectionRelation + ".length()", is(1)))
+                    .andExpect(jsonPath("$._embedded." + ckrhCollectionRelation + "[0].historicalCompanyKeyResult.comment", is("third")))
+                    .andExpect(jsonPath("$._embedded." + ckrhCollectionRelation + "[0].historicalCompanyKeyResult.name").exists());
+        }
+
         @Test
         @Disabled("This test can't be transactional, thus must be started in isolation, so that it does not interfere with other tests")
         void achievementShouldChangeAfterUpdatingCurrentValue() throws Exception {
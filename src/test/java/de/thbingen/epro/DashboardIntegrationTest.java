@@ -0,0 +1,150 @@
+package de.thbingen.epro;
+
+import de.thbingen.epro.model.dto.dashboard.BusinessUnitDashboard;
+import de.thbingen.epro.model.dto.dashboard.DashboardItem;
+import de.thbingen.epro.model.entity.*;
+import de.thbingen.epro.repository.*;
+import de.thbingen.epro.service.DashboardService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DashboardIntegrationTest extends IntegrationBase {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private CompanyObjectiveRepository companyObjectiveRepository;
+
+    @Autowired
+    private CompanyKeyResultRepository companyKeyResultRepository;
+
+    @Autowired
+    private BusinessUnitObjectiveRepository businessUnitObjectiveRepository;
+
+    @Autowired
+    private BusinessUnitKeyResultRepository businessUnitKeyResultRepository;
+
+    @Autowired
+    private BusinessUnitRepository businessUnitRepository;
+
+    @AfterEach
+    void tearDown() {
+        // the snapshot would otherwise keep the entities of the rolled back test transaction
+        dashboardService.invalidate();
+    }
+
+    @Test
+    @Transactional
+    void dashboardShouldBeLoadedWithAConstantNumberOfStatements() {
+        insertActiveObjectives(5);
+        long statementsForFewObjectives = countStatementsForLoadingDashboard(5);
+
+        insertActiveObjectives(50);
+        long statementsForManyObjectives = countStatementsForLoadingDashboard(55);
+
+        assertTrue(statementsForFewObjectives > 0);
+        assertEquals(statementsForFewObjectives, statementsForManyObjectives);
+    }
+
+    @Test
+    @Transactional
+    void dashboardShouldBeServedFromSnapshotWithoutStatements() {
+        insertActiveObjectives(5);
+        countStatementsForLoadingDashboard(5);
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<DashboardItem> dashboardItems = dashboardService.getDashboardItems();
+
+        assertEquals(5, dashboardItems.size());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @Transactional
+    void businessUnitDashboardShouldBeLoadedWithAConstantNumberOfStatements() {
+        insertActiveObjectives(5);
+        long statementsForFewObjectives = countStatementsForLoadingBusinessUnitDashboard(5);
+
+        insertActiveObjectives(50);
+        long statementsForManyObjectives = countStatementsForLoadingBusinessUnitDashboard(55);
+
+        assertTrue(statementsForFewObjectives > 0);
+        assertEquals(statementsForFewObjectives, statementsForManyObjectives);
+    }
+
+    private long countStatementsForLoadingBusinessUnitDashboard(int expectedObjectives) {
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        BusinessUnitDashboard businessUnitDashboard = dashboardService.getBusinessUnitDashboard(1L, LocalDate.now());
+        long statementCount = statistics.getPrepareStatementCount();
+
+        // every inserted business unit objective references the only key result of its own company objective
+        assertEquals(expectedObjectives, businessUnitDashboard.getCompanyObjectiveDashboardItems().size());
+        assertEquals(1, businessUnitDashboard.getCompanyObjectiveDashboardItems().get(0).getCompanyKeyResultDashboardItems().size());
+        assertEquals(1, businessUnitDashboard.getCompanyObjectiveDashboardItems().get(0).getCompanyKeyResultDashboardItems().get(0).getBusinessUnitDashboardItems().size());
+        assertTrue(businessUnitDashboard.getUnreferencedBusinessUnitDashboardItems().isEmpty());
+        return statementCount;
+    }
+
+    private long countStatementsForLoadingDashboard(int expectedObjectives) {
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        dashboardService.invalidate();
+        statistics.clear();
+        List<DashboardItem> dashboardItems = dashboardService.getDashboardItems();
+        long statementCount = statistics.getPrepareStatementCount();
+
+        assertEquals(expectedObjectives, dashboardItems.size());
+        assertEquals(expectedObjectives, dashboardItems.get(0).getBusinessUnitDashboardItems().size());
+        return statementCount;
+    }
+
+    private void insertActiveObjectives(int count) {
+        LocalDate today = LocalDate.now();
+        BusinessUnit businessUnit = businessUnitRepository.getById(1L);
+
+        for (int i = 0; i < count; i++) {
+            CompanyObjective companyObjective = companyObjectiveRepository.save(
+                    new CompanyObjective(null, 0f, "CO" + i, today.minusDays(10), today.plusDays(10)));
+
+            CompanyKeyResult companyKeyResult = new CompanyKeyResult(null, "CKR" + i, 1f, 10f, 0f, 50f, "comment", OffsetDateTime.now());
+            companyKeyResult.setCompanyObjective(companyObjective);
+            companyKeyResult = companyKeyResultRepository.save(companyKeyResult);
+
+            BusinessUnitObjective businessUnitObjective = businessUnitObjectiveRepository.save(
+                    new BusinessUnitObjective(null, 0f, "BUO" + i, businessUnit, companyKeyResult, today.minusDays(10), today.plusDays(10), null));
+
+            BusinessUnitKeyResult businessUnitKeyResult = new BusinessUnitKeyResult(null, "BUKR" + i, 1f, 10f, 50f, "comment", OffsetDateTime.now());
+            businessUnitKeyResult.setBusinessUnitObjective(businessUnitObjective);
+            businessUnitKeyResult.setCompanyKeyResult(companyKeyResult);
+            businessUnitKeyResultRepository.save(businessUnitKeyResult);
+        }
+        entityManager.flush();
+
+        // the historization triggers create a history entry for every updated key result
+        entityManager.createNativeQuery("update company_key_result set comment = 'updated'").executeUpdate();
+        entityManager.createNativeQuery("update business_unit_key_result set comment = 'updated'").executeUpdate();
+    }
+}
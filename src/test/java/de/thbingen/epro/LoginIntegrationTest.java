@@ -0,0 +1,145 @@
+package de.thbingen.epro;
+
+import de.thbingen.epro.controller.LoginController;
+import de.thbingen.epro.repository.OkrUserRepository;
+import de.thbingen.epro.util.UserLogin;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.servlet.http.Cookie;
+import java.nio.charset.Charset;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = "login.bcrypt-strength=4")
+public class LoginIntegrationTest extends IntegrationBase {
+
+    @Autowired
+    private OkrUserRepository okrUserRepository;
+
+    // the login runs on the login threads outside of any test transaction, so the rehashed password is committed,
+    // which leaves the password itself unchanged for the other tests
+    @Test
+    void passwordShouldBeRehashedWithTheConfiguredStrengthAfterLogin() throws Exception {
+        String token = doLogin(UserLogin.READ_ONLY_USER);
+        assertFalse(token.isEmpty());
+
+        String password = okrUserRepository.findByUsername("vor.nach3").orElseThrow().getPassword();
+        assertTrue(password.startsWith("$2a$04$"));
+
+        String newToken = doLogin(UserLogin.READ_ONLY_USER);
+        mockMvc.perform(
+                        get("/companyObjectives")
+                                .header("Authorization", "Bearer " + newToken)
+                )
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void tokenShouldBeRejectedAfterLogout() throws Exception {
+        String token = doLogin(UserLogin.READ_ONLY_USER);
+
+        mockMvc.perform(
+                        post("/logout")
+                                .header("Authorization", "Bearer " + token)
+                )
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(
+                        get("/companyObjectives")
+                                .header("Authorization", "Bearer " + token)
+                )
+                .andExpect(status().is4xxClientError());
+
+        String newToken = doLogin(UserLogin.READ_ONLY_USER);
+        mockMvc.perform(
+                        get("/companyObjectives")
+                                .header("Authorization", "Bearer " + newToken)
+                )
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void refreshTokenShouldOnlyBeRedeemableOnce() throws Exception {
+        MvcResult loginResult = mockMvc.perform(
+                        post("/login")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(UserLogin.READ_ONLY_USER.getLoginJson())
+                                .characterEncoding(Charset.defaultCharset())
+                )
+                .andExpect(status().isOk())
+                .andReturn();
+        Cookie refreshToken = loginResult.getResponse().getCookie(LoginController.REFRESH_TOKEN_COOKIE);
+        assertNotNull(refreshToken);
+
+        MvcResult refreshResult = mockMvc.perform(post("/refresh").cookie(refreshToken))
+                .andExpect(status().isOk())
+                .andReturn();
+        String refreshedAccessToken = refreshResult.getResponse().getContentAsString();
+        Cookie refreshedRefreshToken = refreshResult.getResponse().getCookie(LoginController.REFRESH_TOKEN_COOKIE);
+        assertNotNull(refreshedRefreshToken);
+
+        mockMvc.perform(
+                        get("/companyObjectives")
+                                .header("Authorization", "Bearer " + refreshedAccessToken)
+                )
+                .andExpect(status().isOk());
+
+        // redeeming the first refresh token again ends the whole session
+        mockMvc.perform(post("/refresh").cookie(refreshToken))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/refresh").cookie(refreshedRefreshToken))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(
+                        get("/companyObjectives")
+                                .header("Authorization", "Bearer " + refreshedAccessToken)
+                )
+                .andExpect(status().is4xxClientError());
+    }
+
+    @Test
+    void refreshTokenShouldBeRejectedAfterTheTokenVersionChanged() throws Exception {
+        MvcResult loginResult = mockMvc.perform(
+                        post("/login")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(UserLogin.READ_ONLY_USER.getLoginJson())
+                                .characterEncoding(Charset.defaultCharset())
+                )
+                .andExpect(status().isOk())
+                .andReturn();
+        Cookie refreshToken = loginResult.getResponse().getCookie(LoginController.REFRESH_TOKEN_COOKIE);
+        assertNotNull(refreshToken);
+
+        okrUserRepository.incrementTokenVersionById(okrUserRepository.findByUsername("vor.nach3").orElseThrow().getId());
+
+        mockMvc.perform(post("/refresh").cookie(refreshToken))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void refreshTokenShouldNotAuthenticateRequests() throws Exception {
+        MvcResult loginResult = mockMvc.perform(
+                        post("/login")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(UserLogin.READ_ONLY_USER.getLoginJson())
+                                .characterEncoding(Charset.defaultCharset())
+                )
+                .andReturn();
+        Cookie refreshToken = loginResult.getResponse().getCookie(LoginController.REFRESH_TOKEN_COOKIE);
+        assertNotNull(refreshToken);
+
+        mockMvc.perform(
+                        get("/companyObjectives")
+                                .header("Authorization", "Bearer " + refreshToken.getValue())
+                )
+                .andExpect(status().is4xxClientError());
+    }
+}
@@ -0,0 +1,51 @@
+package de.thbingen.epro;
+
+import de.thbingen.epro.util.UserLogin;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.charset.Charset;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = {
+        "rate-limit.enabled=true",
+        "rate-limit.login.capacity=2",
+        "rate-limit.login.refill-per-second=0.001",
+        "rate-limit.write.capacity=1",
+        "rate-limit.write.refill-per-second=0.001"
+})
+public class RateLimitIntegrationTest extends IntegrationBase {
+
+    @Test
+    void requestsExceedingTheLimitShouldBeRejectedWithRetryAfter() throws Exception {
+        String token = doLogin(UserLogin.READ_ONLY_USER);
+        String secondToken = doLogin(UserLogin.READ_ONLY_USER);
+
+        mockMvc.perform(
+                        post("/login")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(UserLogin.READ_ONLY_USER.getLoginJson())
+                                .characterEncoding(Charset.defaultCharset())
+                )
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+
+        // writes are limited per user, independently of the logins
+        mockMvc.perform(
+                        post("/logout")
+                                .header("Authorization", "Bearer " + token)
+                )
+                .andExpect(status().isNoContent());
+        mockMvc.perform(
+                        post("/logout")
+                                .header("Authorization", "Bearer " + secondToken)
+                )
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    }
+}
@@ -0,0 +1,106 @@
+package de.thbingen.epro;
+
+import de.thbingen.epro.cache.CacheRegion;
+import de.thbingen.epro.cache.ResponseCache;
+import de.thbingen.epro.model.dto.CompanyObjectiveDto;
+import de.thbingen.epro.model.entity.CompanyObjective;
+import de.thbingen.epro.repository.CompanyObjectiveRepository;
+import de.thbingen.epro.util.UserLogin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.Charset;
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ResponseCacheIntegrationTest extends IntegrationBase {
+
+    private static final String ALL_COMPANY_OBJECTIVES = "/companyObjectives?start=1900-01-01&end=2999-12-31";
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Autowired
+    private CompanyObjectiveRepository companyObjectiveRepository;
+
+    @AfterEach
+    void tearDown() {
+        // the cache would otherwise keep the responses rendered inside the rolled back test transaction
+        responseCache.evict(CacheRegion.values());
+    }
+
+    @Test
+    @Transactional
+    void companyObjectivesShouldBeServedFromTheCacheUntilTheyAreChangedThroughTheService() throws Exception {
+        String token = doLogin(UserLogin.CO_ADMIN);
+
+        String firstResponse = mockMvc.perform(
+                        get(ALL_COMPANY_OBJECTIVES)
+                                .header("Authorization", "Bearer " + token)
+                )
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // written past the service, so only a response rendered by the controller could contain the new name
+        CompanyObjective companyObjective = companyObjectiveRepository.findById(1L).orElseThrow();
+        companyObjective.setName("Changed past the service");
+        companyObjectiveRepository.saveAndFlush(companyObjective);
+
+        String secondResponse = mockMvc.perform(
+                        get(ALL_COMPANY_OBJECTIVES)
+                                .header("Authorization", "Bearer " + token)
+                )
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(firstResponse, secondResponse);
+
+        CompanyObjectiveDto update = new CompanyObjectiveDto(0f, "Changed through the service", LocalDate.parse("2021-01-01"), LocalDate.parse("2021-12-31"));
+        mockMvc.perform(
+                        put("/companyObjectives/1")
+                                .header("Authorization", "Bearer " + token)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(update))
+                                .characterEncoding(Charset.defaultCharset())
+                )
+                .andExpect(status().isOk());
+
+        mockMvc.perform(
+                        get(ALL_COMPANY_OBJECTIVES)
+                                .header("Authorization", "Bearer " + token)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded..name", hasItem("Changed through the service")));
+    }
+
+    @Test
+    @Transactional
+    void cachedResponseShouldBeAnsweredWithNotModifiedForItsETag() throws Exception {
+        String token = doLogin(UserLogin.CO_ADMIN);
+
+        String eTag = mockMvc.perform(
+                        get(ALL_COMPANY_OBJECTIVES)
+                                .header("Authorization", "Bearer " + token)
+                )
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+
+        mockMvc.perform(
+                        get(ALL_COMPANY_OBJECTIVES)
+                                .header("Authorization", "Bearer " + token)
+                                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                )
+                .andExpect(status().isNotModified());
+    }
+}
@@ -0,0 +1,46 @@
+package de.thbingen.epro;
+
+import de.thbingen.epro.service.RoleService;
+import de.thbingen.epro.util.UserLogin;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = "jwt.self-contained=true")
+public class SelfContainedTokenIntegrationTest extends IntegrationBase {
+
+    @Autowired
+    private RoleService roleService;
+
+    @Test
+    @Transactional
+    void tokensShouldBeRejectedAfterThePrivilegesOfTheRoleChanged() throws Exception {
+        String token = doLogin(UserLogin.READ_ONLY_USER);
+
+        mockMvc.perform(
+                        get("/companyObjectives")
+                                .header("Authorization", "Bearer " + token)
+                )
+                .andExpect(status().isOk());
+
+        // grants view_users to the Read_Only_User role
+        roleService.addNewPrivilegeToRole(3L, 3L);
+
+        mockMvc.perform(
+                        get("/companyObjectives")
+                                .header("Authorization", "Bearer " + token)
+                )
+                .andExpect(status().is4xxClientError());
+
+        String newToken = doLogin(UserLogin.READ_ONLY_USER);
+        mockMvc.perform(
+                        get("/users")
+                                .header("Authorization", "Bearer " + newToken)
+                )
+                .andExpect(status().isOk());
+    }
+}
@@ -22,6 +22,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -38,6 +39,8 @@ import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -120,6 +123,31 @@ public class CompanyObjectiveControllerTest {
                 .andExpect(jsonPath("$._links.self.href", endsWith("/companyObjectives/1")));
     }
 
+    @Test
+    @DisplayName("Get With ID and a current ETag should return 304 - Not Modified without loading the Company Objective")
+    public void getWithIdAndCurrentETagShouldReturnNotModified() throws Exception {
+        when(companyObjectiveService.getVersionById(1L)).thenReturn(Optional.of("1234"));
+        when(companyObjectiveService.findById(1L)).thenReturn(Optional.of(assembler.toModel(new CompanyObjective(1L, 0f, "name", LocalDate.now(), LocalDate.now()))));
+
+        String eTag = mockMvc.perform(get("/companyObjectives/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/companyObjectives/1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+        verify(companyObjectiveService, times(1)).findById(1L);
+
+        when(companyObjectiveService.getVersionById(1L)).thenReturn(Optional.of("1235"));
+        mockMvc.perform(get("/companyObjectives/1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+                .andExpect(jsonPath("$.name").value("name"));
+    }
+
     // endregion
 
     // region POST
@@ -0,0 +1,118 @@
+package de.thbingen.epro.security;
+
+import de.thbingen.epro.repository.BusinessUnitKeyResultRepository;
+import de.thbingen.epro.repository.BusinessUnitObjectiveRepository;
+import org.aopalliance.intercept.MethodInvocation;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.expression.Expression;
+import org.springframework.security.access.expression.ExpressionUtils;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures the time the authorization of a single controller call takes, once with the SpEL expressions formerly
+ * used in {@code @PreAuthorize} and once with the {@link OkrAuthorizationManager}. The ownership lookup is mocked, so
+ * only the cost of the evaluation itself is measured.
+ * <p>
+ * Not part of the test suite, run it with {@code mvn test-compile} followed by the {@link #main(String[])} method of
+ * this class, e.g. from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthorizationBenchmark {
+
+    private static final String READ_EXPRESSION = "hasAuthority('read')";
+    private static final String CHANGE_KEY_RESULT_EXPRESSION = "hasAuthority('change_all_BU_OKRs') or hasAuthority('change_own_BU_OKRs') and @customExpressions.buKeyResultBelongsToSameBuAsUser(#id, principal)";
+
+    private DefaultMethodSecurityExpressionHandler expressionHandler;
+    private Expression readExpression;
+    private Expression changeKeyResultExpression;
+    private OkrAuthorizationManager authorizationManager;
+    private Authentication authentication;
+    private MethodInvocation readInvocation;
+    private MethodInvocation changeKeyResultInvocation;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        BusinessUnitKeyResultRepository bukrRepository = Mockito.mock(BusinessUnitKeyResultRepository.class);
+        when(bukrRepository.findBusinessUnitIdById(1L)).thenReturn(Optional.of(1L));
+        CustomExpressions customExpressions = new CustomExpressions(
+                bukrRepository,
+                Mockito.mock(BusinessUnitObjectiveRepository.class)
+        );
+
+        StaticApplicationContext applicationContext = new StaticApplicationContext();
+        applicationContext.getBeanFactory().registerSingleton("customExpressions", customExpressions);
+        applicationContext.refresh();
+        expressionHandler = new DefaultMethodSecurityExpressionHandler();
+        expressionHandler.setApplicationContext(applicationContext);
+        readExpression = expressionHandler.getExpressionParser().parseExpression(READ_EXPRESSION);
+        changeKeyResultExpression = expressionHandler.getExpressionParser().parseExpression(CHANGE_KEY_RESULT_EXPRESSION);
+
+        authorizationManager = new OkrAuthorizationManager(customExpressions);
+
+        // a business unit admin, who has to be checked for the ownership of the key result
+        AuthenticatedUser user = new AuthenticatedUser(2L, "vor.nach2", 1L, Set.of("read", "view_users", "change_own_BU_OKRs"));
+        authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+
+        Controller controller = new Controller();
+        readInvocation = new SimpleMethodInvocation(controller, Controller.class.getMethod("findById", Long.class), 1L);
+        changeKeyResultInvocation = new SimpleMethodInvocation(controller, Controller.class.getMethod("updateById", Long.class), 1L);
+    }
+
+    @Benchmark
+    public boolean spelRead() {
+        return ExpressionUtils.evaluateAsBoolean(readExpression, expressionHandler.createEvaluationContext(authentication, readInvocation));
+    }
+
+    @Benchmark
+    public AuthorizationDecision typedRead() {
+        return authorizationManager.check(() -> authentication, readInvocation);
+    }
+
+    @Benchmark
+    public boolean spelChangeOwnKeyResult() {
+        return ExpressionUtils.evaluateAsBoolean(changeKeyResultExpression, expressionHandler.createEvaluationContext(authentication, changeKeyResultInvocation));
+    }
+
+    @Benchmark
+    public AuthorizationDecision typedChangeOwnKeyResult() {
+        return authorizationManager.check(() -> authentication, changeKeyResultInvocation);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AuthorizationBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+
+    public static class Controller {
+
+        @Authorized(AccessRule.READ)
+        public void findById(Long id) {
+        }
+
+        @Authorized(AccessRule.CHANGE_BUSINESS_UNIT_KEY_RESULT)
+        public void updateById(Long id) {
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package de.thbingen.epro.security;
+
+import de.thbingen.epro.config.JwtConfig;
+import de.thbingen.epro.config.PrincipalCacheConfig;
+import de.thbingen.epro.config.TokenCacheConfig;
+import de.thbingen.epro.config.TokenRevocationConfig;
+import de.thbingen.epro.repository.OkrUserRepository;
+import de.thbingen.epro.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures the time the authentication of a single request takes, once with every token being parsed and verified
+ * and once with the {@link VerifiedTokenCache}.
+ * <p>
+ * Not part of the test suite, run it with {@code mvn test-compile} followed by the {@link #main(String[])} method of
+ * this class, e.g. from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenAuthenticationBenchmark {
+
+    @Param({"false", "true"})
+    private boolean tokenCacheEnabled;
+
+    private JWTTokenService tokenService;
+    private TokenAuthenticationService authenticationService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.setSecret("JYGOeRqof8+hsg3/Zmle36y23ylzGw3YZA+Zt6VMhssGoLne4ekBBxsvIu+oh74fbIcsIdnjDZ0OwD6+vF5e+3jD9dVbV1RAQOHusAS4FgzPrLPz+vP1xCclE9TFhutLINGQKKzb3OmVqqcvSMAlw1TcrY2uD3jbQnwkF8/TkwbkcldqrRR+nOobNEzXLWeIv4bRtYSobgZlXZphpeYMifQXHJGARXrmXJSXxQ==");
+        jwtConfig.setIssuer("ThBingenEpro");
+        jwtConfig.setType("JWT");
+        jwtConfig.setAudience("okr.thbingen.de");
+        jwtConfig.setExpiration(3600000L);
+        jwtConfig.setSelfContained(true);
+
+        TokenCacheConfig tokenCacheConfig = new TokenCacheConfig();
+        tokenCacheConfig.setEnabled(tokenCacheEnabled);
+        tokenService = new JWTTokenService(jwtConfig, new VerifiedTokenCache(tokenCacheConfig));
+
+        // the token version is read once and then served by the principal cache, like on a busy server
+        OkrUserRepository okrUserRepository = Mockito.mock(OkrUserRepository.class);
+        when(okrUserRepository.findTokenVersionById(1L)).thenReturn(Optional.of(0));
+        authenticationService = new TokenAuthenticationService(
+                tokenService,
+                okrUserRepository,
+                NoOpPasswordEncoder.getInstance(),
+                new PrincipalCache(new PrincipalCacheConfig(), jwtConfig),
+                jwtConfig,
+                new SimpleMeterRegistry(),
+                new TokenRevocationStore(new TokenRevocationConfig(), Mockito.mock(RevokedTokenRepository.class))
+        );
+
+        AuthenticatedUser authenticatedUser = new AuthenticatedUser(1L, "vor.nach1", 1L, Set.of("read", "view_users", "change_own_BU_OKRs"));
+        token = tokenService.newToken(TokenClaims.of(authenticatedUser, 0));
+    }
+
+    @Benchmark
+    public Map<String, String> verify() {
+        return tokenService.verify(token);
+    }
+
+    @Benchmark
+    public Optional<AuthenticatedUser> findByToken() {
+        return authenticationService.findByToken(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TokenAuthenticationBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+}
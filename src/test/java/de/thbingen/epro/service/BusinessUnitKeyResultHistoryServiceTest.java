@@ -2,12 +2,22 @@ package de.thbingen.epro.service;
 
 import de.thbingen.epro.exception.RestExceptionHandler;
 import de.thbingen.epro.model.assembler.BusinessUnitKeyResultHistoryAssembler;
+import de.thbingen.epro.model.assembler.BusinessUnitKeyResultHistoryPointAssembler;
 import de.thbingen.epro.model.dto.BusinessUnitKeyResultDto;
 import de.thbingen.epro.model.dto.BusinessUnitKeyResultHistoryDto;
+import de.thbingen.epro.model.dto.HistoryBucket;
+import de.thbingen.epro.model.dto.KeyResultHistoryBucketDto;
+import de.thbingen.epro.model.dto.KeyResultHistoryPointDto;
 import de.thbingen.epro.model.entity.BusinessUnitKeyResult;
 import de.thbingen.epro.model.entity.BusinessUnitKeyResultHistory;
+import de.thbingen.epro.model.entity.BusinessUnitKeyResultHistoryPoint;
 import de.thbingen.epro.model.entity.HistoricalBusinessUnitKeyResult;
 import de.thbingen.epro.model.mapper.BusinessUnitKeyResultHistoryMapper;
+import de.thbingen.epro.model.mapper.KeyResultHistoryPointMapper;
+import de.thbingen.epro.model.projection.KeyResultHistoryBucketProjection;
+import de.thbingen.epro.pagination.KeysetCursor;
+import de.thbingen.epro.pagination.KeysetPage;
+import de.thbingen.epro.repository.BusinessUnitKeyResultHistoryPointRepository;
 import de.thbingen.epro.repository.BusinessUnitKeyResultHistoryRepository;
 import de.thbingen.epro.util.CamelCaseDisplayNameGenerator;
 import org.junit.jupiter.api.DisplayNameGeneration;
@@ -33,9 +43,13 @@ import java.util.Optional;
 import static de.thbingen.epro.util.SecurityContextInitializer.ReadOnlyUser;
 import static de.thbingen.epro.util.SecurityContextInitializer.initSecurityContextWithUser;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @WebMvcTest(controllers = {BusinessUnitService.class},
@@ -46,7 +60,9 @@ import static org.mockito.Mockito.when;
                         value = {
                                 BusinessUnitKeyResultHistoryService.class,
                                 BusinessUnitKeyResultHistoryMapper.class,
-                                BusinessUnitKeyResultHistoryAssembler.class
+                                BusinessUnitKeyResultHistoryAssembler.class,
+                                KeyResultHistoryPointMapper.class,
+                                BusinessUnitKeyResultHistoryPointAssembler.class
                         }
                 )
         }
@@ -65,6 +81,9 @@ public class BusinessUnitKeyResultHistoryServiceTest {
     @MockBean
     private BusinessUnitKeyResultHistoryRepository repository;
 
+    @MockBean
+    private BusinessUnitKeyResultHistoryPointRepository pointRepository;
+
     // region findAll
 
     @Test
@@ -164,12 +183,14 @@ public class BusinessUnitKeyResultHistoryServiceTest {
 
     @Test
     void findAllByBusinessUnitKeyResultIdReturnsEmptyPageWhenNoneExist() {
-        when(repository.findAllByCurrentBusinessUnitKeyResultIdOrderByChangeTimeStampDesc(anyLong(), any(Pageable.class)))
-                .thenReturn(Page.empty());
+        when(repository.findAllByCurrentBusinessUnitKeyResultIdOrderByChangeTimeStampDescIdDesc(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of());
 
-        Page<BusinessUnitKeyResultHistoryDto> returned = service.findAllByBusinessUnitKeyResultId(1L, Pageable.ofSize(10));
+        KeysetPage<BusinessUnitKeyResultHistoryDto> returned = service.findAllByBusinessUnitKeyResultId(1L, null, 10, false);
 
-        assertTrue(returned.isEmpty());
+        assertTrue(returned.getContent().isEmpty());
+        assertNull(returned.getNext());
+        assertNull(returned.getPrevious());
     }
 
     @Test
@@ -193,21 +214,134 @@ public class BusinessUnitKeyResultHistoryServiceTest {
                         null
                 )
         );
-        Pageable pageable = Pageable.ofSize(10);
-        when(repository.findAllByCurrentBusinessUnitKeyResultIdOrderByChangeTimeStampDesc(anyLong(), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(businessUnitKeyResultHistory), pageable, 1));
+        when(repository.findAllByCurrentBusinessUnitKeyResultIdOrderByChangeTimeStampDescIdDesc(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(businessUnitKeyResultHistory));
+        when(repository.countByCurrentBusinessUnitKeyResultId(anyLong())).thenReturn(1L);
 
-        Page<BusinessUnitKeyResultHistoryDto> returned = service.findAllByBusinessUnitKeyResultId(1L, pageable);
+        KeysetPage<BusinessUnitKeyResultHistoryDto> returned = service.findAllByBusinessUnitKeyResultId(1L, null, 10, true);
 
-        assertTrue(returned.hasContent());
+        assertFalse(returned.getContent().isEmpty());
+        assertNull(returned.getNext());
+        assertNull(returned.getPrevious());
+        assertEquals(1L, returned.getTotalElements());
         BusinessUnitKeyResultHistoryDto returnedHistory = returned.getContent().get(0);
         assertEquals("/businessUnitKeyResultHistory/1", returnedHistory.getRequiredLink(IanaLinkRelations.SELF).toUri().toString());
         assertTrue(returnedHistory.getLink(getItemLinkRelationFor(BusinessUnitKeyResultDto.class)).isPresent());
         assertEquals("/businessUnitKeyResults/1", returnedHistory.getLink(getItemLinkRelationFor(BusinessUnitKeyResultDto.class)).get().toUri().toString());
     }
 
+    @Test
+    void findAllByBusinessUnitKeyResultIdShouldReturnCursorOfOlderEntriesIfMoreEntriesExist() {
+        initSecurityContextWithUser(ReadOnlyUser);
+
+        OffsetDateTime changeTimeStamp = OffsetDateTime.parse("2022-01-01T12:00:00Z");
+        BusinessUnitKeyResult businessUnitKeyResult = new BusinessUnitKeyResult(1L, "Name", 10f, 100f, 100f, "comment", OffsetDateTime.now());
+        BusinessUnitKeyResultHistory newest = new BusinessUnitKeyResultHistory(
+                3L,
+                businessUnitKeyResult,
+                changeTimeStamp,
+                new HistoricalBusinessUnitKeyResult(1L, "oldName", 0f, 100f, 100f, 0f, "created", changeTimeStamp, 1L, null)
+        );
+        BusinessUnitKeyResultHistory middle = new BusinessUnitKeyResultHistory(
+                2L,
+                businessUnitKeyResult,
+                changeTimeStamp,
+                new HistoricalBusinessUnitKeyResult(1L, "oldName", 0f, 100f, 100f, 0f, "created", changeTimeStamp, 1L, null)
+        );
+        when(repository.findAllByCurrentBusinessUnitKeyResultIdOrderByChangeTimeStampDescIdDesc(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(newest, middle));
+
+        KeysetPage<BusinessUnitKeyResultHistoryDto> returned = service.findAllByBusinessUnitKeyResultId(1L, null, 1, false);
+
+        assertEquals(1, returned.getContent().size());
+        assertEquals("/businessUnitKeyResultHistory/3", returned.getContent().get(0).getRequiredLink(IanaLinkRelations.SELF).toUri().toString());
+        assertNull(returned.getPrevious());
+        assertNull(returned.getTotalElements());
+        assertEquals(KeysetCursor.Direction.OLDER, returned.getNext().getDirection());
+        assertEquals(3L, returned.getNext().getId());
+        verify(repository, never()).countByCurrentBusinessUnitKeyResultId(anyLong());
+    }
+
+    @Test
+    void findAllByBusinessUnitKeyResultIdWithCursorOfNewerEntriesShouldReturnThemNewestFirst() {
+        initSecurityContextWithUser(ReadOnlyUser);
+
+        OffsetDateTime changeTimeStamp = OffsetDateTime.parse("2022-01-01T12:00:00Z");
+        BusinessUnitKeyResult businessUnitKeyResult = new BusinessUnitKeyResult(1L, "Name", 10f, 100f, 100f, "comment", OffsetDateTime.now());
+        BusinessUnitKeyResultHistory middle = new BusinessUnitKeyResultHistory(
+                2L,
+                businessUnitKeyResult,
+                changeTimeStamp,
+                new HistoricalBusinessUnitKeyResult(1L, "oldName", 0f, 100f, 100f, 0f, "created", changeTimeStamp, 1L, null)
+        );
+        BusinessUnitKeyResultHistory newest = new BusinessUnitKeyResultHistory(
+                3L,
+                businessUnitKeyResult,
+                changeTimeStamp,
+                new HistoricalBusinessUnitKeyResult(1L, "oldName", 0f, 100f, 100f, 0f, "created", changeTimeStamp, 1L, null)
+        );
+        when(repository.findAllNewerByCurrentBusinessUnitKeyResultId(anyLong(), any(OffsetDateTime.class), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(middle, newest));
+
+        KeysetCursor cursor = KeysetCursor.decode(new KeysetCursor(KeysetCursor.Direction.NEWER, changeTimeStamp, 1L).encode());
+        KeysetPage<BusinessUnitKeyResultHistoryDto> returned = service.findAllByBusinessUnitKeyResultId(1L, cursor, 10, false);
+
+        assertEquals(2, returned.getContent().size());
+        assertEquals("/businessUnitKeyResultHistory/3", returned.getContent().get(0).getRequiredLink(IanaLinkRelations.SELF).toUri().toString());
+        assertEquals("/businessUnitKeyResultHistory/2", returned.getContent().get(1).getRequiredLink(IanaLinkRelations.SELF).toUri().toString());
+        assertNull(returned.getPrevious());
+        assertEquals(KeysetCursor.Direction.OLDER, returned.getNext().getDirection());
+        assertEquals(2L, returned.getNext().getId());
+        assertEquals(changeTimeStamp.toInstant(), returned.getNext().getChangeTimeStamp().toInstant());
+    }
+
     // endregion
 
+    // region findPointsByBusinessUnitKeyResultId
+
+    @Test
+    void findPointsByBusinessUnitKeyResultIdShouldReturnTheValuesLinkedToTheirSnapshot() {
+        initSecurityContextWithUser(ReadOnlyUser);
+
+        OffsetDateTime from = OffsetDateTime.parse("2022-01-01T00:00:00Z");
+        OffsetDateTime to = OffsetDateTime.parse("2022-02-01T00:00:00Z");
+        BusinessUnitKeyResultHistoryPoint point = new BusinessUnitKeyResultHistoryPoint(
+                4L, 1L, OffsetDateTime.parse("2022-01-15T12:00:00Z"), 5f, 10f, 80f, 0.5f
+        );
+        when(pointRepository.findAllByBusinessUnitKeyResultIdBetween(1L, from, to)).thenReturn(List.of(point));
+
+        List<KeyResultHistoryPointDto> returned = service.findPointsByBusinessUnitKeyResultId(1L, from, to);
+
+        assertEquals(1, returned.size());
+        KeyResultHistoryPointDto returnedPoint = returned.get(0);
+        assertEquals(5f, returnedPoint.getCurrentValue());
+        assertEquals(0.5f, returnedPoint.getAchievement());
+        assertEquals("/businessUnitKeyResultHistory/4", returnedPoint.getRequiredLink(getItemLinkRelationFor(BusinessUnitKeyResultHistoryDto.class)).toUri().toString());
+    }
+
+    // endregion
+
+    // region findSeriesByBusinessUnitKeyResultId
+
+    @Test
+    void findSeriesByBusinessUnitKeyResultIdShouldAggregateInBucketsOfTheRequestedUnit() {
+        OffsetDateTime from = OffsetDateTime.parse("2022-01-01T00:00:00Z");
+        OffsetDateTime to = OffsetDateTime.parse("2022-02-01T00:00:00Z");
+        KeyResultHistoryBucketProjection bucket = new KeyResultHistoryBucketProjection(
+                OffsetDateTime.parse("2022-01-10T00:00:00Z"), 3L, 7f, 2f, 7f, 4.5, 80f, 60f, 90f, 75.0
+        );
+        when(pointRepository.findSeriesByBusinessUnitKeyResultId(1L, from, to, "week")).thenReturn(List.of(bucket));
+
+        List<KeyResultHistoryBucketDto> returned = service.findSeriesByBusinessUnitKeyResultId(1L, from, to, HistoryBucket.WEEK);
+
+        assertEquals(1, returned.size());
+        KeyResultHistoryBucketDto returnedBucket = returned.get(0);
+        assertEquals(3L, returnedBucket.getChanges());
+        assertEquals(7f, returnedBucket.getLastValue());
+        assertEquals(4.5, returnedBucket.getAvgValue());
+        assertEquals(60f, returnedBucket.getMinConfidenceLevel());
+    }
+
     // region convenience Methods
 
     // Convenience Method for somewhat improved readability
@@ -1,10 +1,12 @@
 package de.thbingen.epro.service;
 
+import de.thbingen.epro.cache.ResponseCache;
 import de.thbingen.epro.exception.RestExceptionHandler;
 import de.thbingen.epro.model.assembler.BusinessUnitKeyResultAssembler;
 import de.thbingen.epro.model.dto.*;
 import de.thbingen.epro.model.entity.*;
 import de.thbingen.epro.model.mapper.BusinessUnitKeyResultMapper;
+import de.thbingen.epro.model.projection.BusinessUnitKeyResultProjection;
 import de.thbingen.epro.repository.BusinessUnitKeyResultRepository;
 import de.thbingen.epro.repository.BusinessUnitObjectiveRepository;
 import de.thbingen.epro.repository.CompanyKeyResultRepository;
@@ -31,12 +33,12 @@ import java.time.OffsetDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 import static de.thbingen.epro.util.SecurityContextInitializer.ReadOnlyUser;
 import static de.thbingen.epro.util.SecurityContextInitializer.initSecurityContextWithUser;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
@@ -77,13 +79,19 @@ public class BusinessUnitKeyResultServiceTest {
     @MockBean
     private BusinessUnitObjectiveRepository businessUnitObjectiveRepository;
 
+    @MockBean
+    private DashboardService dashboardService;
+
+    @MockBean
+    private ResponseCache responseCache;
+
     // region findAll
 
     @Test
     void findAllShouldReturnEmptyPageIfNoneExist() {
         initSecurityContextWithUser(ReadOnlyUser);
 
-        when(repository.findAll(any(Pageable.class))).thenReturn(Page.empty());
+        when(repository.findAllProjections(any(Pageable.class))).thenReturn(Page.empty());
 
         Page<BusinessUnitKeyResultDto> returned = service.findAllBusinessUnitKeyResults(Pageable.ofSize(10));
 
@@ -94,14 +102,13 @@ public class BusinessUnitKeyResultServiceTest {
     void findAllWithOnlyBUObjectivesShouldReturnOnlySelfAndBusinessUnitLink() {
         initSecurityContextWithUser(ReadOnlyUser);
 
-        BusinessUnitObjective rootBusinessUnitObjective = new BusinessUnitObjective(1L, 0f, "root", LocalDate.now(), LocalDate.now().plusDays(1));
-        List<BusinessUnitKeyResult> businessUnitKeyResults = List.of(
-                new BusinessUnitKeyResult(1L, "BUKR1", 0f, 100f, 100f, "comment", OffsetDateTime.now(), rootBusinessUnitObjective, null, Collections.emptySet()),
-                new BusinessUnitKeyResult(2L, "BUKR2", 0f, 100f, 50f, "comment", OffsetDateTime.now(), rootBusinessUnitObjective, null, Collections.emptySet())
+        List<BusinessUnitKeyResultProjection> businessUnitKeyResults = List.of(
+                new BusinessUnitKeyResultProjection(1L, "BUKR1", 0f, 100f, 100f, 0f, "comment", OffsetDateTime.now(), 1L, null),
+                new BusinessUnitKeyResultProjection(2L, "BUKR2", 0f, 100f, 50f, 0f, "comment", OffsetDateTime.now(), 1L, null)
         );
         Pageable pageable = Pageable.ofSize(10);
 
-        when(repository.findAll(any(Pageable.class)))
+        when(repository.findAllProjections(any(Pageable.class)))
                 .thenReturn(new PageImpl<>(businessUnitKeyResults, pageable, businessUnitKeyResults.size()));
 
         Page<BusinessUnitKeyResultDto> returned = service.findAllBusinessUnitKeyResults(pageable);
@@ -123,15 +130,13 @@ public class BusinessUnitKeyResultServiceTest {
 
         initSecurityContextWithUser(ReadOnlyUser);
 
-        BusinessUnitObjective rootBusinessUnitObjective = new BusinessUnitObjective(1L, 0f, "root", LocalDate.now(), LocalDate.now().plusDays(1));
-        CompanyKeyResult referencedCompanyKeyResult = new CompanyKeyResult(1L, "referenced", 0f, 100f, 0f, 100f, "I am referenced", OffsetDateTime.now());
-        List<BusinessUnitKeyResult> businessUnitKeyResults = List.of(
-                new BusinessUnitKeyResult(1L, "BUKR1", 0f, 100f, 100f, "comment", OffsetDateTime.now(), rootBusinessUnitObjective, referencedCompanyKeyResult, Collections.emptySet()),
-                new BusinessUnitKeyResult(2L, "BUKR2", 0f, 100f, 50f, "comment", OffsetDateTime.now(), rootBusinessUnitObjective, referencedCompanyKeyResult, Collections.emptySet())
+        List<BusinessUnitKeyResultProjection> businessUnitKeyResults = List.of(
+                new BusinessUnitKeyResultProjection(1L, "BUKR1", 0f, 100f, 100f, 0f, "comment", OffsetDateTime.now(), 1L, 1L),
+                new BusinessUnitKeyResultProjection(2L, "BUKR2", 0f, 100f, 50f, 0f, "comment", OffsetDateTime.now(), 1L, 1L)
         );
         Pageable pageable = Pageable.ofSize(10);
 
-        when(repository.findAll(any(Pageable.class)))
+        when(repository.findAllProjections(any(Pageable.class)))
                 .thenReturn(new PageImpl<>(businessUnitKeyResults, pageable, businessUnitKeyResults.size()));
 
         Page<BusinessUnitKeyResultDto> returned = service.findAllBusinessUnitKeyResults(pageable);
@@ -157,23 +162,15 @@ public class BusinessUnitKeyResultServiceTest {
 
         initSecurityContextWithUser(ReadOnlyUser);
 
-        BusinessUnitObjective rootBusinessUnitObjective = new BusinessUnitObjective(1L, 0f, "root", LocalDate.now(), LocalDate.now().plusDays(1));
-        CompanyKeyResult referencedCompanyKeyResult = new CompanyKeyResult(1L, "referenced", 0f, 100f, 0f, 100f, "I am referenced", OffsetDateTime.now());
-        List<BusinessUnitKeyResult> businessUnitKeyResults = List.of(
-                new BusinessUnitKeyResult(1L, "BUKR1", 0f, 100f, 100f, "comment", OffsetDateTime.now(), rootBusinessUnitObjective, referencedCompanyKeyResult, Collections.emptySet()),
-                new BusinessUnitKeyResult(2L, "BUKR2", 0f, 100f, 50f, "comment", OffsetDateTime.now(), rootBusinessUnitObjective, referencedCompanyKeyResult, Collections.emptySet())
-        );
-        BusinessUnitKeyResultHistory history = new BusinessUnitKeyResultHistory(
-                1L,
-                businessUnitKeyResults.get(0),
-                OffsetDateTime.now(),
-                new HistoricalBusinessUnitKeyResult(1L, "Test", 0f, 100f, 100f, 0f, "comment", OffsetDateTime.now(), 1L, null)
+        List<BusinessUnitKeyResultProjection> businessUnitKeyResults = List.of(
+                new BusinessUnitKeyResultProjection(1L, "BUKR1", 0f, 100f, 100f, 0f, "comment", OffsetDateTime.now(), 1L, 1L),
+                new BusinessUnitKeyResultProjection(2L, "BUKR2", 0f, 100f, 50f, 0f, "comment", OffsetDateTime.now(), 1L, 1L)
         );
-        businessUnitKeyResults.get(0).setBusinessUnitKeyResultHistories(Set.of(history));
         Pageable pageable = Pageable.ofSize(10);
 
-        when(repository.findAll(any(Pageable.class)))
+        when(repository.findAllProjections(any(Pageable.class)))
                 .thenReturn(new PageImpl<>(businessUnitKeyResults, pageable, businessUnitKeyResults.size()));
+        when(repository.findIdsWithHistoryByIdIn(anyCollection())).thenReturn(List.of(1L));
 
         Page<BusinessUnitKeyResultDto> returned = service.findAllBusinessUnitKeyResults(pageable);
 
@@ -204,7 +201,7 @@ public class BusinessUnitKeyResultServiceTest {
     void findAllByBusinessUnitObjectiveIdShouldReturnEmptyPageIfNoneExist() {
         initSecurityContextWithUser(ReadOnlyUser);
 
-        when(repository.findAllByBusinessUnitObjectiveId(anyLong(), any(Pageable.class))).thenReturn(Page.empty());
+        when(repository.findAllProjectionsByBusinessUnitObjectiveId(anyLong(), any(Pageable.class))).thenReturn(Page.empty());
 
         Page<BusinessUnitKeyResultDto> returned = service.findAllByBusinessUnitObjectiveId(1L, Pageable.ofSize(10));
 
@@ -215,14 +212,13 @@ public class BusinessUnitKeyResultServiceTest {
     void findAllByBusinessUnitObjectiveIdWithOnlyBUObjectivesShouldReturnOnlySelfAndBusinessUnitLink() {
         initSecurityContextWithUser(ReadOnlyUser);
 
-        BusinessUnitObjective rootBusinessUnitObjective = new BusinessUnitObjective(1L, 0f, "root", LocalDate.now(), LocalDate.now().plusDays(1));
-        List<BusinessUnitKeyResult> businessUnitKeyResults = List.of(
-                new BusinessUnitKeyResult(1L, "BUKR1", 0f, 100f, 100f, "comment", OffsetDateTime.now(), rootBusinessUnitObjective, null, Collections.emptySet()),
-                new BusinessUnitKeyResult(2L, "BUKR2", 0f, 100f, 50f, "comment", OffsetDateTime.now(), rootBusinessUnitObjective, null, Collections.emptySet())
+        List<BusinessUnitKeyResultProjection> businessUnitKeyResults = List.of(
+                new BusinessUnitKeyResultProjection(1L, "BUKR1", 0f, 100f, 100f, 0f, "comment", OffsetDateTime.now(), 1L, null),
+                new BusinessUnitKeyResultProjection(2L, "BUKR2", 0f, 100f, 50f, 0f, "comment", OffsetDateTime.now(), 1L, null)
         );
         Pageable pageable = Pageable.ofSize(10);
 
-        when(repository.findAllByBusinessUnitObjectiveId(anyLong(), any(Pageable.class)))
+        when(repository.findAllProjectionsByBusinessUnitObjectiveId(anyLong(), any(Pageable.class)))
                 .thenReturn(new PageImpl<>(businessUnitKeyResults, pageable, businessUnitKeyResults.size()));
 
         Page<BusinessUnitKeyResultDto> returned = service.findAllByBusinessUnitObjectiveId(1L, pageable);
@@ -244,15 +240,13 @@ public class BusinessUnitKeyResultServiceTest {
 
         initSecurityContextWithUser(ReadOnlyUser);
 
-        BusinessUnitObjective rootBusinessUnitObjective = new BusinessUnitObjective(1L, 0f, "root", LocalDate.now(), LocalDate.now().plusDays(1));
-        CompanyKeyResult referencedCompanyKeyResult = new CompanyKeyResult(1L, "referenced", 0f, 100f, 0f, 100f, "I am referenced", OffsetDateTime.now());
-        List<BusinessUnitKeyResult> businessUnitKeyResults = List.of(
-                new BusinessUnitKeyResult(1L, "BUKR1", 0f, 100f, 100f, "comment", OffsetDateTime.now(), rootBusinessUnitObjective, referencedCompanyKeyResult, Collections.emptySet()),
-                new BusinessUnitKeyResult(2L, "BUKR2", 0f, 100f, 50f, "comment", OffsetDateTime.now(), rootBusinessUnitObjective, referencedCompanyKeyResult, Collections.emptySet())
+        List<BusinessUnitKeyResultProjection> businessUnitKeyResults = List.of(
+                new BusinessUnitKeyResultProjection(1L, "BUKR1", 0f, 100f, 100f, 0f, "comment", OffsetDateTime.now(), 1L, 1L),
+                new BusinessUnitKeyResultProjection(2L, "BUKR2", 0f, 100f, 50f, 0f, "comment", OffsetDateTime.now(), 1L, 1L)
         );
         Pageable pageable = Pageable.ofSize(10);
 
-        when(repository.findAllByBusinessUnitObjectiveId(anyLong(), any(Pageable.class)))
+        when(repository.findAllProjectionsByBusinessUnitObjectiveId(anyLong(), any(Pageable.class)))
                 .thenReturn(new PageImpl<>(businessUnitKeyResults, pageable, businessUnitKeyResults.size()));
 
         Page<BusinessUnitKeyResultDto> returned = service.findAllByBusinessUnitObjectiveId(1L, pageable);
@@ -278,23 +272,15 @@ public class BusinessUnitKeyResultServiceTest {
 
         initSecurityContextWithUser(ReadOnlyUser);
 
-        BusinessUnitObjective rootBusinessUnitObjective = new BusinessUnitObjective(1L, 0f, "root", LocalDate.now(), LocalDate.now().plusDays(1));
-        CompanyKeyResult referencedCompanyKeyResult = new CompanyKeyResult(1L, "referenced", 0f, 100f, 0f, 100f, "I am referenced", OffsetDateTime.now());
-        List<BusinessUnitKeyResult> businessUnitKeyResults = List.of(
-                new BusinessUnitKeyResult(1L, "BUKR1", 0f, 100f, 100f, "comment", OffsetDateTime.now(), rootBusinessUnitObjective, referencedCompanyKeyResult, Collections.emptySet()),
-                new BusinessUnitKeyResult(2L, "BUKR2", 0f, 100f, 50f, "comment", OffsetDateTime.now(), rootBusinessUnitObjective, referencedCompanyKeyResult, Collections.emptySet())
-        );
-        BusinessUnitKeyResultHistory history = new BusinessUnitKeyResultHistory(
-                1L,
-                businessUnitKeyResults.get(0),
-                OffsetDateTime.now(),
-                new HistoricalBusinessUnitKeyResult(1L, "Test", 0f, 100f, 100f, 0f, "comment", OffsetDateTime.now(), 1L, null)
+        List<BusinessUnitKeyResultProjection> businessUnitKeyResults = List.of(
+                new BusinessUnitKeyResultProjection(1L, "BUKR1", 0f, 100f, 100f, 0f, "comment", OffsetDateTime.now(), 1L, 1L),
+                new BusinessUnitKeyResultProjection(2L, "BUKR2", 0f, 100f, 50f, 0f, "comment", OffsetDateTime.now(), 1L, 1L)
         );
-        businessUnitKeyResults.get(0).setBusinessUnitKeyResultHistories(Set.of(history));
         Pageable pageable = Pageable.ofSize(10);
 
-        when(repository.findAllByBusinessUnitObjectiveId(anyLong(), any(Pageable.class)))
+        when(repository.findAllProjectionsByBusinessUnitObjectiveId(anyLong(), any(Pageable.class)))
                 .thenReturn(new PageImpl<>(businessUnitKeyResults, pageable, businessUnitKeyResults.size()));
+        when(repository.findIdsWithHistoryByIdIn(anyCollection())).thenReturn(List.of(1L));
 
         Page<BusinessUnitKeyResultDto> returned = service.findAllByBusinessUnitObjectiveId(1L, pageable);
 
@@ -371,7 +357,7 @@ public class BusinessUnitKeyResultServiceTest {
 
     @Test
     void findByIdShouldReturnEmptyOptionalIfNoneExist() {
-        when(repository.findById(anyLong())).thenReturn(Optional.empty());
+        when(repository.findProjectionById(anyLong())).thenReturn(Optional.empty());
 
         Optional<BusinessUnitKeyResultDto> returned = service.findById(1L);
 
@@ -380,9 +366,9 @@ public class BusinessUnitKeyResultServiceTest {
 
     @Test
     void findByIdShouldReturnDtoIfExists() {
-        BusinessUnitKeyResult businessUnitKeyResult = new BusinessUnitKeyResult(1L, "Old name", 0f, 100f, 100f, "comment", OffsetDateTime.now());
+        BusinessUnitKeyResultProjection businessUnitKeyResult = new BusinessUnitKeyResultProjection(1L, "Old name", 0f, 100f, 100f, 0f, "comment", OffsetDateTime.now(), 1L, null);
 
-        when(repository.findById(anyLong())).thenReturn(Optional.of(businessUnitKeyResult));
+        when(repository.findProjectionById(anyLong())).thenReturn(Optional.of(businessUnitKeyResult));
 
         Optional<BusinessUnitKeyResultDto> returned = service.findById(1L);
 
@@ -1,12 +1,14 @@
 package de.thbingen.epro.service;
 
 
+import de.thbingen.epro.cache.ResponseCache;
 import de.thbingen.epro.exception.RestExceptionHandler;
 import de.thbingen.epro.model.assembler.BusinessUnitObjectiveAssembler;
 import de.thbingen.epro.model.dto.BusinessUnitObjectiveDto;
 import de.thbingen.epro.model.entity.BusinessUnit;
 import de.thbingen.epro.model.entity.BusinessUnitObjective;
 import de.thbingen.epro.model.mapper.BusinessUnitObjectiveMapper;
+import de.thbingen.epro.model.projection.BusinessUnitObjectiveProjection;
 import de.thbingen.epro.repository.BusinessUnitObjectiveRepository;
 import de.thbingen.epro.repository.BusinessUnitRepository;
 import de.thbingen.epro.repository.CompanyKeyResultRepository;
@@ -67,6 +69,12 @@ public class BusinessUnitObjectiveServiceTest {
     @MockBean
     private BusinessUnitRepository businessUnitRepository;
 
+    @MockBean
+    private DashboardService dashboardService;
+
+    @MockBean
+    private ResponseCache responseCache;
+
     @Autowired
     private AnnotationLinkRelationProvider annotationLinkRelationProvider;
 
@@ -81,16 +89,14 @@ public class BusinessUnitObjectiveServiceTest {
 
         LocalDate date = LocalDate.now();
 
-        BusinessUnit businessUnit = new BusinessUnit(1L, "BU1", null, null);
-
-        List<BusinessUnitObjective> businessUnitObjectives = List.of(
-                new BusinessUnitObjective(1L, 100f, "BUO1", businessUnit, null, LocalDate.now(), date.plusDays(1), null),
-                new BusinessUnitObjective(2L, 100f, "BUO2", businessUnit, null, LocalDate.now(), date.plusDays(1), null)
+        List<BusinessUnitObjectiveProjection> businessUnitObjectives = List.of(
+                new BusinessUnitObjectiveProjection(1L, 100f, "BUO1", LocalDate.now(), date.plusDays(1), 1L, null),
+                new BusinessUnitObjectiveProjection(2L, 100f, "BUO2", LocalDate.now(), date.plusDays(1), 1L, null)
         );
 
         Pageable pageable = Pageable.ofSize(10);
 
-        when(repository.findAllByBusinessUnitIdAndStartDateGreaterThanEqualAndEndDateLessThanEqual(
+        when(repository.findAllProjectionsByBusinessUnitIdInTimeFrame(
                 1L, date, date, pageable))
                 .thenReturn(new PageImpl<>(businessUnitObjectives, pageable, businessUnitObjectives.size()));
 
@@ -110,7 +116,7 @@ public class BusinessUnitObjectiveServiceTest {
 
         LocalDate date = LocalDate.now();
         Pageable pageable = Pageable.ofSize(10);
-        when(repository.findAllByBusinessUnitIdAndStartDateGreaterThanEqualAndEndDateLessThanEqual(
+        when(repository.findAllProjectionsByBusinessUnitIdInTimeFrame(
                 1L, date, date, pageable))
                 .thenReturn(Page.empty());
 
@@ -124,16 +130,14 @@ public class BusinessUnitObjectiveServiceTest {
 
         LocalDate date = LocalDate.now();
 
-        BusinessUnit businessUnit = new BusinessUnit(1L, "BU1", null, null);
-
-        List<BusinessUnitObjective> businessUnitObjectives = List.of(
-                new BusinessUnitObjective(1L, 100f, "BUO1", businessUnit, null, LocalDate.now(), date.plusDays(1), null),
-                new BusinessUnitObjective(2L, 100f, "BUO2", businessUnit, null, LocalDate.now(), date.plusDays(1), null)
+        List<BusinessUnitObjectiveProjection> businessUnitObjectives = List.of(
+                new BusinessUnitObjectiveProjection(1L, 100f, "BUO1", LocalDate.now(), date.plusDays(1), 1L, null),
+                new BusinessUnitObjectiveProjection(2L, 100f, "BUO2", LocalDate.now(), date.plusDays(1), 1L, null)
         );
 
         Pageable pageable = Pageable.ofSize(10);
 
-        when(repository.findAllByStartDateAfterAndEndDateBefore(
+        when(repository.findAllProjectionsByStartDateAfterAndEndDateBefore(
                 date, date, pageable))
                 .thenReturn(new PageImpl<>(businessUnitObjectives, pageable, businessUnitObjectives.size()));
 
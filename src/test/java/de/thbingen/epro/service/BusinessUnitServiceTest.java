@@ -1,5 +1,6 @@
 package de.thbingen.epro.service;
 
+import de.thbingen.epro.cache.ResponseCache;
 import de.thbingen.epro.exception.RestExceptionHandler;
 import de.thbingen.epro.model.assembler.BusinessUnitAssembler;
 import de.thbingen.epro.model.dto.BusinessUnitDto;
@@ -64,6 +65,12 @@ public class BusinessUnitServiceTest {
     @MockBean
     private OkrUserRepository okrUserRepository;
 
+    @MockBean
+    private DashboardService dashboardService;
+
+    @MockBean
+    private ResponseCache responseCache;
+
     @Autowired
     private AnnotationLinkRelationProvider annotationLinkRelationProvider;
 
@@ -1,14 +1,26 @@
 package de.thbingen.epro.service;
 
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import de.thbingen.epro.exception.RestExceptionHandler;
 import de.thbingen.epro.model.assembler.CompanyKeyResultHistoryAssembler;
+import de.thbingen.epro.model.assembler.CompanyKeyResultHistoryPointAssembler;
 import de.thbingen.epro.model.dto.CompanyKeyResultDto;
 import de.thbingen.epro.model.dto.CompanyKeyResultHistoryDto;
+import de.thbingen.epro.model.dto.HistoricalCompanyKeyResultDto;
+import de.thbingen.epro.model.dto.HistoryBucket;
+import de.thbingen.epro.model.dto.KeyResultHistoryBucketDto;
+import de.thbingen.epro.model.dto.KeyResultHistoryPointDto;
 import de.thbingen.epro.model.entity.CompanyKeyResult;
 import de.thbingen.epro.model.entity.CompanyKeyResultHistory;
+import de.thbingen.epro.model.entity.CompanyKeyResultHistoryPoint;
 import de.thbingen.epro.model.entity.HistoricalCompanyKeyResult;
 import de.thbingen.epro.model.mapper.CompanyKeyResultHistoryMapper;
+import de.thbingen.epro.model.mapper.KeyResultHistoryPointMapper;
+import de.thbingen.epro.model.projection.KeyResultHistoryBucketProjection;
+import de.thbingen.epro.pagination.KeysetCursor;
+import de.thbingen.epro.pagination.KeysetPage;
+import de.thbingen.epro.repository.CompanyKeyResultHistoryPointRepository;
 import de.thbingen.epro.repository.CompanyKeyResultHistoryRepository;
 import de.thbingen.epro.util.CamelCaseDisplayNameGenerator;
 import org.junit.jupiter.api.DisplayNameGeneration;
@@ -34,9 +46,14 @@ import java.util.Optional;
 import static de.thbingen.epro.util.SecurityContextInitializer.ReadOnlyUser;
 import static de.thbingen.epro.util.SecurityContextInitializer.initSecurityContextWithUser;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @WebMvcTest(controllers = {CompanyKeyResultHistoryService.class},
@@ -47,7 +64,9 @@ import static org.mockito.Mockito.when;
                         value = {
                                 CompanyKeyResultHistoryService.class,
                                 CompanyKeyResultHistoryMapper.class,
-                                CompanyKeyResultHistoryAssembler.class
+                                CompanyKeyResultHistoryAssembler.class,
+                                KeyResultHistoryPointMapper.class,
+                                CompanyKeyResultHistoryPointAssembler.class
                         }
                 )
         }
@@ -69,6 +88,9 @@ public class CompanyKeyResultHistoryServiceTest {
     @MockBean
     private CompanyKeyResultHistoryRepository repository;
 
+    @MockBean
+    private CompanyKeyResultHistoryPointRepository pointRepository;
+
     //region findAll
     @Test
     void findAllReturnsEmptyPageWhenNoneExist() {
@@ -160,18 +182,47 @@ public class CompanyKeyResultHistoryServiceTest {
         assertEquals("/companyKeyResults/1", returnedHistory.getLink(getItemLinkRelationFor(CompanyKeyResultDto.class)).get().toUri().toString());
     }
 
+    @Test
+    void findByIdShouldRebuildTheSnapshotOfAnEntryHoldingOnlyTheReplacedColumns() {
+        initSecurityContextWithUser(ReadOnlyUser);
+
+        CompanyKeyResultHistory companyKeyResultHistory = new CompanyKeyResultHistory();
+        companyKeyResultHistory.setId(2L);
+        companyKeyResultHistory.setChangeTimeStamp(OffsetDateTime.now());
+        companyKeyResultHistory.setCompanyKeyResult(new CompanyKeyResult(1L, "Name", 10f, 100f, 10f, 100f, "comment", OffsetDateTime.now()));
+        companyKeyResultHistory.setKeyframe(false);
+        companyKeyResultHistory.setHistoricalData(new ObjectMapper().createObjectNode().put("current_value", 5).put("achievement", 5));
+        when(repository.findById(2L)).thenReturn(Optional.of(companyKeyResultHistory));
+        when(repository.findNextKeyframeId(1L, 2L)).thenReturn(Optional.empty());
+        when(repository.findAllBetweenByCompanyKeyResultId(eq(1L), eq(2L), anyLong())).thenReturn(List.of(companyKeyResultHistory));
+        when(repository.getCurrentDataByCompanyKeyResultId(1L)).thenReturn(Optional.of(
+                "{\"id\": 1, \"name\": \"Name\", \"current_value\": 10, \"goal_value\": 100, \"achievement\": 10, \"confidence_level\": 100, \"comment\": \"comment\"}"
+        ));
+
+        Optional<CompanyKeyResultHistoryDto> returned = service.findById(2L);
+
+        assertTrue(returned.isPresent());
+        HistoricalCompanyKeyResultDto historicalCompanyKeyResult = returned.get().getHistoricalCompanyKeyResult();
+        assertEquals(5, historicalCompanyKeyResult.getCurrentValue());
+        assertEquals(5, historicalCompanyKeyResult.getAchievement());
+        assertEquals(100, historicalCompanyKeyResult.getGoalValue());
+        assertEquals("Name", historicalCompanyKeyResult.getName());
+    }
+
     // endregion
 
     // region findAllByBusinessUnitKeyResultId
 
     @Test
     void findAllByCompanyKeyResultIdReturnsEmptyPageWhenNoneExist() {
-        when(repository.findAllByCompanyKeyResultIdOrderByChangeTimeStampDesc(anyLong(), any(Pageable.class)))
-                .thenReturn(Page.empty());
+        when(repository.findAllByCompanyKeyResultIdOrderByChangeTimeStampDescIdDesc(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of());
 
-        Page<CompanyKeyResultHistoryDto> returned = service.findAllByCompanyKeyResultId(1L, Pageable.ofSize(10));
+        KeysetPage<CompanyKeyResultHistoryDto> returned = service.findAllByCompanyKeyResultId(1L, null, 10, false);
 
-        assertTrue(returned.isEmpty());
+        assertTrue(returned.getContent().isEmpty());
+        assertNull(returned.getNext());
+        assertNull(returned.getPrevious());
     }
 
     @Test
@@ -194,21 +245,134 @@ public class CompanyKeyResultHistoryServiceTest {
                         1L
                 )
         );
-        Pageable pageable = Pageable.ofSize(10);
-        when(repository.findAllByCompanyKeyResultIdOrderByChangeTimeStampDesc(anyLong(), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(businessUnitKeyResultHistory), pageable, 1));
+        when(repository.findAllByCompanyKeyResultIdOrderByChangeTimeStampDescIdDesc(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(businessUnitKeyResultHistory));
+        when(repository.countByCompanyKeyResultId(anyLong())).thenReturn(1L);
 
-        Page<CompanyKeyResultHistoryDto> returned = service.findAllByCompanyKeyResultId(1L, pageable);
+        KeysetPage<CompanyKeyResultHistoryDto> returned = service.findAllByCompanyKeyResultId(1L, null, 10, true);
 
-        assertTrue(returned.hasContent());
+        assertFalse(returned.getContent().isEmpty());
+        assertNull(returned.getNext());
+        assertNull(returned.getPrevious());
+        assertEquals(1L, returned.getTotalElements());
         CompanyKeyResultHistoryDto returnedHistory = returned.getContent().get(0);
         assertEquals("/companyKeyResultHistory/1", returnedHistory.getRequiredLink(IanaLinkRelations.SELF).toUri().toString());
         assertTrue(returnedHistory.getLink(getItemLinkRelationFor(CompanyKeyResultDto.class)).isPresent());
         assertEquals("/companyKeyResults/1", returnedHistory.getLink(getItemLinkRelationFor(CompanyKeyResultDto.class)).get().toUri().toString());
     }
 
+    @Test
+    void findAllByCompanyKeyResultIdShouldReturnCursorOfOlderEntriesIfMoreEntriesExist() {
+        initSecurityContextWithUser(ReadOnlyUser);
+
+        OffsetDateTime changeTimeStamp = OffsetDateTime.parse("2022-01-01T12:00:00Z");
+        CompanyKeyResult companyKeyResult = new CompanyKeyResult(1L, "Name", 10f, 100f, 0f, 100f, "comment", OffsetDateTime.now());
+        CompanyKeyResultHistory newest = new CompanyKeyResultHistory(
+                3L,
+                changeTimeStamp,
+                companyKeyResult,
+                new HistoricalCompanyKeyResult(1L, "oldName", 0, 100, 100, 0, "created", changeTimeStamp, 1L)
+        );
+        CompanyKeyResultHistory middle = new CompanyKeyResultHistory(
+                2L,
+                changeTimeStamp,
+                companyKeyResult,
+                new HistoricalCompanyKeyResult(1L, "oldName", 0, 100, 100, 0, "created", changeTimeStamp, 1L)
+        );
+        when(repository.findAllByCompanyKeyResultIdOrderByChangeTimeStampDescIdDesc(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(newest, middle));
+
+        KeysetPage<CompanyKeyResultHistoryDto> returned = service.findAllByCompanyKeyResultId(1L, null, 1, false);
+
+        assertEquals(1, returned.getContent().size());
+        assertEquals("/companyKeyResultHistory/3", returned.getContent().get(0).getRequiredLink(IanaLinkRelations.SELF).toUri().toString());
+        assertNull(returned.getPrevious());
+        assertNull(returned.getTotalElements());
+        assertEquals(KeysetCursor.Direction.OLDER, returned.getNext().getDirection());
+        assertEquals(3L, returned.getNext().getId());
+        verify(repository, never()).countByCompanyKeyResultId(anyLong());
+    }
+
+    @Test
+    void findAllByCompanyKeyResultIdWithCursorOfNewerEntriesShouldReturnThemNewestFirst() {
+        initSecurityContextWithUser(ReadOnlyUser);
+
+        OffsetDateTime changeTimeStamp = OffsetDateTime.parse("2022-01-01T12:00:00Z");
+        CompanyKeyResult companyKeyResult = new CompanyKeyResult(1L, "Name", 10f, 100f, 0f, 100f, "comment", OffsetDateTime.now());
+        CompanyKeyResultHistory middle = new CompanyKeyResultHistory(
+                2L,
+                changeTimeStamp,
+                companyKeyResult,
+                new HistoricalCompanyKeyResult(1L, "oldName", 0, 100, 100, 0, "created", changeTimeStamp, 1L)
+        );
+        CompanyKeyResultHistory newest = new CompanyKeyResultHistory(
+                3L,
+                changeTimeStamp,
+                companyKeyResult,
+                new HistoricalCompanyKeyResult(1L, "oldName", 0, 100, 100, 0, "created", changeTimeStamp, 1L)
+        );
+        when(repository.findAllNewerByCompanyKeyResultId(anyLong(), any(OffsetDateTime.class), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(middle, newest));
+
+        KeysetCursor cursor = KeysetCursor.decode(new KeysetCursor(KeysetCursor.Direction.NEWER, changeTimeStamp, 1L).encode());
+        KeysetPage<CompanyKeyResultHistoryDto> returned = service.findAllByCompanyKeyResultId(1L, cursor, 10, false);
+
+        assertEquals(2, returned.getContent().size());
+        assertEquals("/companyKeyResultHistory/3", returned.getContent().get(0).getRequiredLink(IanaLinkRelations.SELF).toUri().toString());
+        assertEquals("/companyKeyResultHistory/2", returned.getContent().get(1).getRequiredLink(IanaLinkRelations.SELF).toUri().toString());
+        assertNull(returned.getPrevious());
+        assertEquals(KeysetCursor.Direction.OLDER, returned.getNext().getDirection());
+        assertEquals(2L, returned.getNext().getId());
+        assertEquals(changeTimeStamp.toInstant(), returned.getNext().getChangeTimeStamp().toInstant());
+    }
+
+    // endregion
+
+    // region findPointsByCompanyKeyResultId
+
+    @Test
+    void findPointsByCompanyKeyResultIdShouldReturnTheValuesLinkedToTheirSnapshot() {
+        initSecurityContextWithUser(ReadOnlyUser);
+
+        OffsetDateTime from = OffsetDateTime.parse("2022-01-01T00:00:00Z");
+        OffsetDateTime to = OffsetDateTime.parse("2022-02-01T00:00:00Z");
+        CompanyKeyResultHistoryPoint point = new CompanyKeyResultHistoryPoint(
+                4L, 1L, OffsetDateTime.parse("2022-01-15T12:00:00Z"), 5f, 10f, 80f, 0.5f
+        );
+        when(pointRepository.findAllByCompanyKeyResultIdBetween(1L, from, to)).thenReturn(List.of(point));
+
+        List<KeyResultHistoryPointDto> returned = service.findPointsByCompanyKeyResultId(1L, from, to);
+
+        assertEquals(1, returned.size());
+        KeyResultHistoryPointDto returnedPoint = returned.get(0);
+        assertEquals(5f, returnedPoint.getCurrentValue());
+        assertEquals(0.5f, returnedPoint.getAchievement());
+        assertEquals("/companyKeyResultHistory/4", returnedPoint.getRequiredLink(getItemLinkRelationFor(CompanyKeyResultHistoryDto.class)).toUri().toString());
+    }
+
     // endregion
 
+    // region findSeriesByCompanyKeyResultId
+
+    @Test
+    void findSeriesByCompanyKeyResultIdShouldAggregateInBucketsOfTheRequestedUnit() {
+        OffsetDateTime from = OffsetDateTime.parse("2022-01-01T00:00:00Z");
+        OffsetDateTime to = OffsetDateTime.parse("2022-02-01T00:00:00Z");
+        KeyResultHistoryBucketProjection bucket = new KeyResultHistoryBucketProjection(
+                OffsetDateTime.parse("2022-01-10T00:00:00Z"), 3L, 7f, 2f, 7f, 4.5, 80f, 60f, 90f, 75.0
+        );
+        when(pointRepository.findSeriesByCompanyKeyResultId(1L, from, to, "week")).thenReturn(List.of(bucket));
+
+        List<KeyResultHistoryBucketDto> returned = service.findSeriesByCompanyKeyResultId(1L, from, to, HistoryBucket.WEEK);
+
+        assertEquals(1, returned.size());
+        KeyResultHistoryBucketDto returnedBucket = returned.get(0);
+        assertEquals(3L, returnedBucket.getChanges());
+        assertEquals(7f, returnedBucket.getLastValue());
+        assertEquals(4.5, returnedBucket.getAvgValue());
+        assertEquals(60f, returnedBucket.getMinConfidenceLevel());
+    }
+
     // region convenience Methods
 
     // Convenience Method for somewhat improved readability
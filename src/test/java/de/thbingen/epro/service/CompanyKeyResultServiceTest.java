@@ -1,11 +1,14 @@
 package de.thbingen.epro.service;
 
 
+import de.thbingen.epro.cache.ResponseCache;
 import de.thbingen.epro.exception.RestExceptionHandler;
 import de.thbingen.epro.model.assembler.CompanyKeyResultAssembler;
 import de.thbingen.epro.model.dto.*;
 import de.thbingen.epro.model.entity.*;
 import de.thbingen.epro.model.mapper.CompanyKeyResultMapper;
+import de.thbingen.epro.model.projection.CompanyKeyResultProjection;
+import de.thbingen.epro.model.projection.IdReference;
 import de.thbingen.epro.repository.BusinessUnitKeyResultRepository;
 import de.thbingen.epro.repository.CompanyKeyResultRepository;
 import de.thbingen.epro.repository.CompanyObjectiveRepository;
@@ -30,12 +33,12 @@ import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 import static de.thbingen.epro.util.SecurityContextInitializer.ReadOnlyUser;
 import static de.thbingen.epro.util.SecurityContextInitializer.initSecurityContextWithUser;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
 
@@ -75,13 +78,19 @@ public class CompanyKeyResultServiceTest {
     @MockBean
     private CompanyObjectiveRepository companyObjectiveRepository;
 
+    @MockBean
+    private DashboardService dashboardService;
+
+    @MockBean
+    private ResponseCache responseCache;
+
     // region findAll
 
     @Test
     void findAllShouldReturnEmptyPageIfNoneExist() {
         initSecurityContextWithUser(ReadOnlyUser);
 
-        when(repository.findAll(any(Pageable.class))).thenReturn(Page.empty());
+        when(repository.findAllProjections(any(Pageable.class))).thenReturn(Page.empty());
 
         Page<CompanyKeyResultDto> returned = service.findAllCompanyKeyResults(Pageable.ofSize(10));
 
@@ -92,16 +101,13 @@ public class CompanyKeyResultServiceTest {
     void findAllWithOnlyCompanyObjectivesShouldReturnOnlySelf() {
         initSecurityContextWithUser(ReadOnlyUser);
 
-        CompanyObjective rootCompanyObjective = new CompanyObjective(1L, 0f, "root", LocalDate.now(), LocalDate.now().plusDays(1));
-        List<CompanyKeyResult> companyKeyResults = List.of(
-                new CompanyKeyResult(1L, "COKR1", 0f, 100f, 100f, 5f, "comment", OffsetDateTime.now()),
-                new CompanyKeyResult(2L, "COKR2", 0f, 100f, 100f, 5f, "comment", OffsetDateTime.now())
+        List<CompanyKeyResultProjection> companyKeyResults = List.of(
+                new CompanyKeyResultProjection(1L, "COKR1", 0f, 100f, 100f, 5f, "comment", OffsetDateTime.now(), 1L),
+                new CompanyKeyResultProjection(2L, "COKR2", 0f, 100f, 100f, 5f, "comment", OffsetDateTime.now(), 1L)
         );
-        companyKeyResults.get(0).setCompanyObjective(rootCompanyObjective);
-        companyKeyResults.get(1).setCompanyObjective(rootCompanyObjective);
         Pageable pageable = Pageable.ofSize(10);
 
-        when(repository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(companyKeyResults, pageable, companyKeyResults.size()));
+        when(repository.findAllProjections(any(Pageable.class))).thenReturn(new PageImpl<>(companyKeyResults, pageable, companyKeyResults.size()));
 
         Page<CompanyKeyResultDto> returned = service.findAllCompanyKeyResults(pageable);
 
@@ -122,27 +128,16 @@ public class CompanyKeyResultServiceTest {
 
         initSecurityContextWithUser(ReadOnlyUser);
 
-        CompanyObjective rootCompanyObjective = new CompanyObjective(1L, 0f, "root", LocalDate.now(), LocalDate.now().plusDays(1));
-        BusinessUnitKeyResult referencedBusinessUnitKeyResult = new BusinessUnitKeyResult(1L, "referenced", 0f, 100f, 0f, "I am referenced", OffsetDateTime.now());
-        List<CompanyKeyResult> companyKeyResults = List.of(
-                new CompanyKeyResult(1L, "COKR1", 0f, 100f, 100f, 5f, "comment", OffsetDateTime.now()),
-                new CompanyKeyResult(2L, "COKR2", 0f, 100f, 50f, 5f, "comment", OffsetDateTime.now())
+        List<CompanyKeyResultProjection> companyKeyResults = List.of(
+                new CompanyKeyResultProjection(1L, "COKR1", 0f, 100f, 100f, 5f, "comment", OffsetDateTime.now(), 1L),
+                new CompanyKeyResultProjection(2L, "COKR2", 0f, 100f, 50f, 5f, "comment", OffsetDateTime.now(), 1L)
         );
-        companyKeyResults.get(0).setCompanyObjective(rootCompanyObjective);
-        companyKeyResults.get(1).setCompanyObjective(rootCompanyObjective);
-        companyKeyResults.get(0).setBusinessUnitKeyResults(Set.of(referencedBusinessUnitKeyResult));
-        companyKeyResults.get(1).setBusinessUnitKeyResults(Set.of(referencedBusinessUnitKeyResult));
-        CompanyKeyResultHistory history = new CompanyKeyResultHistory(
-                1L,
-                OffsetDateTime.now(),
-                companyKeyResults.get(0),
-                new HistoricalCompanyKeyResult(1L, "Test", 0, 100, 100, 0, "comment", OffsetDateTime.now(), 1L)
-        );
-        companyKeyResults.get(0).setCompanyKeyResultHistories(Set.of(history));
         Pageable pageable = Pageable.ofSize(10);
 
-        when(repository.findAll(any(Pageable.class)))
+        when(repository.findAllProjections(any(Pageable.class)))
                 .thenReturn(new PageImpl<>(companyKeyResults, pageable, companyKeyResults.size()));
+        when(repository.findBusinessUnitKeyResultReferencesByIdIn(anyCollection())).thenReturn(List.of(new IdReference(1L, 1L)));
+        when(repository.findIdsWithHistoryByIdIn(anyCollection())).thenReturn(List.of(1L));
 
         Page<CompanyKeyResultDto> returned = service.findAllCompanyKeyResults(pageable);
 
@@ -167,7 +162,7 @@ public class CompanyKeyResultServiceTest {
     void findAllCompanyObjectiveIdShouldReturnEmptyPageIfNoneExist() {
         initSecurityContextWithUser(ReadOnlyUser);
 
-        when(repository.findAllByCompanyObjectiveId(anyLong(), any(Pageable.class))).thenReturn(Page.empty());
+        when(repository.findAllProjectionsByCompanyObjectiveId(anyLong(), any(Pageable.class))).thenReturn(Page.empty());
 
         Page<CompanyKeyResultDto> returned = service.findAllByCompanyObjectiveId(1L, Pageable.ofSize(10));
         assertTrue(returned.isEmpty());
@@ -177,16 +172,13 @@ public class CompanyKeyResultServiceTest {
     void findAllByCompanyObjectiveIdWithOnlyCompanyObjectivesShouldReturnOnlySelf() {
         initSecurityContextWithUser(ReadOnlyUser);
 
-        CompanyObjective rootCompanyObjective = new CompanyObjective(1L, 0f, "root", LocalDate.now(), LocalDate.now().plusDays(1));
-        List<CompanyKeyResult> companyKeyResults = List.of(
-                new CompanyKeyResult(1L, "COKR1", 0f, 100f, 100f, 5f, "comment", OffsetDateTime.now()),
-                new CompanyKeyResult(2L, "COKR2", 0f, 100f, 100f, 5f, "comment", OffsetDateTime.now())
+        List<CompanyKeyResultProjection> companyKeyResults = List.of(
+                new CompanyKeyResultProjection(1L, "COKR1", 0f, 100f, 100f, 5f, "comment", OffsetDateTime.now(), 1L),
+                new CompanyKeyResultProjection(2L, "COKR2", 0f, 100f, 100f, 5f, "comment", OffsetDateTime.now(), 1L)
         );
-        companyKeyResults.get(0).setCompanyObjective(rootCompanyObjective);
-        companyKeyResults.get(1).setCompanyObjective(rootCompanyObjective);
         Pageable pageable = Pageable.ofSize(10);
 
-        when(repository.findAllByCompanyObjectiveId(anyLong(), any(Pageable.class))).thenReturn(new PageImpl<>(companyKeyResults, pageable, companyKeyResults.size()));
+        when(repository.findAllProjectionsByCompanyObjectiveId(anyLong(), any(Pageable.class))).thenReturn(new PageImpl<>(companyKeyResults, pageable, companyKeyResults.size()));
 
         Page<CompanyKeyResultDto> returned = service.findAllByCompanyObjectiveId(1L, pageable);
 
@@ -219,7 +211,7 @@ public class CompanyKeyResultServiceTest {
 
     @Test
     void findByIdShouldReturnEmptyOptionalIfNoneExist() {
-        when(repository.findById(anyLong())).thenReturn(Optional.empty());
+        when(repository.findProjectionById(anyLong())).thenReturn(Optional.empty());
 
         Optional<CompanyKeyResultDto> returned = service.findById(1L);
 
@@ -228,9 +220,9 @@ public class CompanyKeyResultServiceTest {
 
     @Test
     void findByIdShouldReturnDtoIfExists() {
-        CompanyKeyResult companyKeyResult = new CompanyKeyResult(1L, "Old name", 0f, 100f, 0f, 100f, "comment", OffsetDateTime.now());
+        CompanyKeyResultProjection companyKeyResult = new CompanyKeyResultProjection(1L, "Old name", 0f, 100f, 0f, 100f, "comment", OffsetDateTime.now(), 1L);
 
-        when(repository.findById(anyLong())).thenReturn(Optional.of(companyKeyResult));
+        when(repository.findProjectionById(anyLong())).thenReturn(Optional.of(companyKeyResult));
 
         Optional<CompanyKeyResultDto> returned = service.findById(1L);
 
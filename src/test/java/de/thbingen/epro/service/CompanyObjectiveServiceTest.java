@@ -1,11 +1,13 @@
 package de.thbingen.epro.service;
 
 
+import de.thbingen.epro.cache.ResponseCache;
 import de.thbingen.epro.exception.RestExceptionHandler;
 import de.thbingen.epro.model.assembler.CompanyObjectiveAssembler;
 import de.thbingen.epro.model.dto.CompanyObjectiveDto;
 import de.thbingen.epro.model.entity.CompanyObjective;
 import de.thbingen.epro.model.mapper.CompanyObjectiveMapper;
+import de.thbingen.epro.model.projection.CompanyObjectiveProjection;
 import de.thbingen.epro.repository.CompanyKeyResultRepository;
 import de.thbingen.epro.repository.CompanyObjectiveRepository;
 import de.thbingen.epro.util.CamelCaseDisplayNameGenerator;
@@ -59,6 +61,12 @@ public class CompanyObjectiveServiceTest {
     @MockBean
     private CompanyKeyResultRepository companyKeyResultRepository;
 
+    @MockBean
+    private DashboardService dashboardService;
+
+    @MockBean
+    private ResponseCache responseCache;
+
     @Autowired
     private CompanyObjectiveMapper mapper;
 
@@ -70,14 +78,14 @@ public class CompanyObjectiveServiceTest {
 
         LocalDate date = LocalDate.now();
 
-        List<CompanyObjective> companyObjectives = List.of(
-                new CompanyObjective(1L, 0f, "CO1", date, date.plusDays(1)),
-                new CompanyObjective(1L, 0f, "CO2", date, date.plusDays(1))
+        List<CompanyObjectiveProjection> companyObjectives = List.of(
+                new CompanyObjectiveProjection(1L, 0f, "CO1", date, date.plusDays(1)),
+                new CompanyObjectiveProjection(1L, 0f, "CO2", date, date.plusDays(1))
         );
 
         Pageable pageable = Pageable.ofSize(10);
 
-        when(repository.findAllByStartDateAfterAndEndDateBefore(date, date.plusDays(1), pageable)).thenReturn(
+        when(repository.findAllProjectionsByStartDateAfterAndEndDateBefore(date, date.plusDays(1), pageable)).thenReturn(
                 new PageImpl<>(companyObjectives, pageable, companyObjectives.size()));
         Page<CompanyObjectiveDto> companyObjectiveDto = service.getAllCompanyObjectives(pageable, date, date.plusDays(1));
 
@@ -93,7 +101,7 @@ public class CompanyObjectiveServiceTest {
     void findByIdShouldReturnEmptyIfObjectiveDoesNotExist() {
         initSecurityContextWithUser(ReadOnlyUser);
 
-        when(repository.findById(any(Long.class))).thenReturn(Optional.empty());
+        when(repository.findProjectionById(any(Long.class))).thenReturn(Optional.empty());
 
         assertTrue(service.findById(1L).isEmpty());
     }
@@ -104,9 +112,9 @@ public class CompanyObjectiveServiceTest {
 
         LocalDate date = LocalDate.now();
 
-        CompanyObjective companyObjective = new CompanyObjective(1L, 0f, "CO1", date, date.plusDays(1));
+        CompanyObjectiveProjection companyObjective = new CompanyObjectiveProjection(1L, 0f, "CO1", date, date.plusDays(1));
 
-        when(repository.findById(1L)).thenReturn(Optional.of(companyObjective));
+        when(repository.findProjectionById(1L)).thenReturn(Optional.of(companyObjective));
 
         Optional<CompanyObjectiveDto> companyObjectiveDto = service.findById(1L);
         assertTrue(companyObjectiveDto.isPresent());
@@ -8,6 +8,9 @@ import de.thbingen.epro.model.assembler.CompanyKeyResultAssembler;
 import de.thbingen.epro.model.assembler.CompanyObjectiveAssembler;
 import de.thbingen.epro.model.dto.BusinessUnitKeyResultDto;
 import de.thbingen.epro.model.dto.CompanyKeyResultDto;
+import de.thbingen.epro.model.dto.dashboard.BusinessUnitDashboard;
+import de.thbingen.epro.model.dto.dashboard.CompanyKeyResultDashboardItem;
+import de.thbingen.epro.model.dto.dashboard.DashboardChange;
 import de.thbingen.epro.model.dto.dashboard.DashboardItem;
 import de.thbingen.epro.model.entity.*;
 import de.thbingen.epro.model.mapper.BusinessUnitKeyResultMapper;
@@ -19,6 +22,7 @@ import de.thbingen.epro.repository.BusinessUnitObjectiveRepository;
 import de.thbingen.epro.repository.CompanyKeyResultRepository;
 import de.thbingen.epro.repository.CompanyObjectiveRepository;
 import de.thbingen.epro.util.CamelCaseDisplayNameGenerator;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayNameGeneration;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,14 +32,19 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
 import org.springframework.context.annotation.Import;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @WebMvcTest(controllers = {DashboardService.class},
         useDefaultFilters = false,
@@ -59,6 +68,7 @@ import static org.mockito.Mockito.when;
 @Import({RestExceptionHandler.class})
 @AutoConfigureMockMvc(addFilters = false)
 @DisplayNameGeneration(CamelCaseDisplayNameGenerator.class)
+@RecordApplicationEvents
 public class DashboardServiceTest {
 
     @Autowired
@@ -82,6 +92,17 @@ public class DashboardServiceTest {
     @MockBean
     private BusinessUnitKeyResultRepository bukRepository;
 
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @BeforeEach
+    void setUp() {
+        service.invalidate();
+    }
+
     @Test
     void dashboardServiceReturnsListOfDashboardItems() {
         LocalDate date = LocalDate.now();
@@ -90,14 +111,15 @@ public class DashboardServiceTest {
         BusinessUnitKeyResult businessUnitKeyResult = new BusinessUnitKeyResult(1L, "BKR1", 0f, 100f, 5f, "comment", OffsetDateTime.now());
         businessUnitKeyResult.setBusinessUnitObjective(businessUnitObjective);
 
+        businessUnitObjective.setBusinessUnitKeyResults(Set.of(businessUnitKeyResult));
+
         CompanyObjective companyObjective = new CompanyObjective(1L, 0f, "CO1", date.minusDays(5), date.plusDays(5));
         CompanyKeyResult companyKeyResult = new CompanyKeyResult(1L, "CKR1", 0f, 100f, 5f, 10f, "comment", OffsetDateTime.now());
         companyKeyResult.setCompanyObjective(companyObjective);
+        companyObjective.setCompanyKeyResults(Set.of(companyKeyResult));
 
-        when(coRepository.findAllByStartDateBeforeAndEndDateAfter(any(LocalDate.class), any(LocalDate.class))).thenReturn(List.of(companyObjective));
-        when(ckRepository.findAllByCompanyObjectiveId(any(Long.class))).thenReturn(List.of(companyKeyResult));
-        when(buoRepository.findAllByStartDateBeforeAndEndDateAfter(any(LocalDate.class), any(LocalDate.class))).thenReturn(List.of(businessUnitObjective));
-        when(bukRepository.findAllByBusinessUnitObjectiveId(any(Long.class))).thenReturn(List.of(businessUnitKeyResult));
+        when(coRepository.findAllActiveWithKeyResults(any(LocalDate.class))).thenReturn(List.of(companyObjective));
+        when(buoRepository.findAllActiveWithKeyResults(any(LocalDate.class))).thenReturn(List.of(businessUnitObjective));
 
         List<DashboardItem> dashboardItems = service.getDashboardItems();
 
@@ -120,4 +142,99 @@ public class DashboardServiceTest {
         assertEquals(businessUnitKeyResultDto.getName(), includedBusinessUnitKeyResultDto.getName());
     }
 
+    @Test
+    void dashboardServiceSharesBusinessUnitDashboardItemsBetweenCompanyObjectives() {
+        LocalDate date = LocalDate.now();
+        BusinessUnit businessUnit = new BusinessUnit(1L, "BU1", null, null);
+        BusinessUnitObjective businessUnitObjective = new BusinessUnitObjective(1L, 0f, "BUO1", businessUnit, null, date.minusDays(5), date.plusDays(5), null);
+        businessUnitObjective.setBusinessUnitKeyResults(Set.of());
+
+        CompanyObjective firstCompanyObjective = new CompanyObjective(1L, 0f, "CO1", date.minusDays(5), date.plusDays(5));
+        CompanyObjective secondCompanyObjective = new CompanyObjective(2L, 0f, "CO2", date.minusDays(5), date.plusDays(5));
+
+        when(coRepository.findAllActiveWithKeyResults(any(LocalDate.class))).thenReturn(List.of(firstCompanyObjective, secondCompanyObjective));
+        when(buoRepository.findAllActiveWithKeyResults(any(LocalDate.class))).thenReturn(List.of(businessUnitObjective));
+
+        List<DashboardItem> dashboardItems = service.getDashboardItems();
+
+        assertEquals(2, dashboardItems.size());
+        assertEquals(1, dashboardItems.get(0).getBusinessUnitDashboardItems().size());
+        assertSame(dashboardItems.get(0).getBusinessUnitDashboardItems(), dashboardItems.get(1).getBusinessUnitDashboardItems());
+        verify(buoRepository, times(1)).findAllActiveWithKeyResults(any(LocalDate.class));
+        verifyNoInteractions(bukRepository);
+    }
+
+    @Test
+    void dashboardServiceOnlyReloadsChangedBusinessUnitKeyResult() {
+        LocalDate date = LocalDate.now();
+        BusinessUnit businessUnit = new BusinessUnit(1L, "BU1", null, null);
+        BusinessUnitObjective businessUnitObjective = new BusinessUnitObjective(1L, 0f, "BUO1", businessUnit, null, date.minusDays(5), date.plusDays(5), null);
+        BusinessUnitKeyResult businessUnitKeyResult = new BusinessUnitKeyResult(1L, "BKR1", 0f, 100f, 5f, "comment", OffsetDateTime.now());
+        businessUnitKeyResult.setBusinessUnitObjective(businessUnitObjective);
+        businessUnitObjective.setBusinessUnitKeyResults(Set.of(businessUnitKeyResult));
+
+        CompanyObjective companyObjective = new CompanyObjective(1L, 0f, "CO1", date.minusDays(5), date.plusDays(5));
+
+        when(coRepository.findAllActiveWithKeyResults(any(LocalDate.class))).thenReturn(List.of(companyObjective));
+        when(buoRepository.findAllActiveWithKeyResults(any(LocalDate.class))).thenReturn(List.of(businessUnitObjective));
+
+        List<DashboardItem> before = service.getDashboardItems();
+
+        businessUnitKeyResult.setName("BKR1 updated");
+        businessUnitKeyResult.setHasHistory(true);
+        when(bukRepository.findById(1L)).thenReturn(Optional.of(businessUnitKeyResult));
+        when(buoRepository.findById(1L)).thenReturn(Optional.of(businessUnitObjective));
+
+        service.businessUnitKeyResultSaved(1L);
+        List<DashboardItem> after = service.getDashboardItems();
+
+        BusinessUnitKeyResultDto includedBusinessUnitKeyResultDto = (BusinessUnitKeyResultDto) after.get(0).getBusinessUnitDashboardItems().get(0).getBusinessUnitKeyResults().toArray()[0];
+        assertEquals("BKR1 updated", includedBusinessUnitKeyResultDto.getName());
+        assertTrue(includedBusinessUnitKeyResultDto.getLinks().stream().anyMatch(link -> link.getHref().contains("/businessUnitKeyResults/1/history")));
+        assertSame(before.get(0).getCompanyDashboardItem(), after.get(0).getCompanyDashboardItem());
+        verify(coRepository, times(1)).findAllActiveWithKeyResults(any(LocalDate.class));
+        verify(buoRepository, times(1)).findAllActiveWithKeyResults(any(LocalDate.class));
+        verify(coRepository, never()).findById(any());
+
+        List<DashboardChange> changes = applicationEvents.stream(DashboardChange.class).toList();
+        assertTrue(changes.stream().anyMatch(change -> change.getType() == DashboardChange.Type.BUSINESS_UNIT_KEY_RESULT
+                && change.getAction() == DashboardChange.Action.SAVED
+                && change.getId().equals(1L)
+                && change.getObjectiveId().equals(1L)));
+        assertTrue(changes.stream().noneMatch(change -> change.getType() == DashboardChange.Type.COMPANY_OBJECTIVE));
+    }
+
+    @Test
+    void businessUnitDashboardGroupsBusinessUnitObjectivesUnderReferencedCompanyKeyResult() {
+        LocalDate date = LocalDate.now();
+        CompanyObjective companyObjective = new CompanyObjective(1L, 0f, "CO1", date.minusDays(5), date.plusDays(5));
+        CompanyKeyResult companyKeyResult = new CompanyKeyResult(1L, "CKR1", 0f, 100f, 5f, 10f, "comment", OffsetDateTime.now());
+        companyKeyResult.setCompanyObjective(companyObjective);
+        companyObjective.setCompanyKeyResults(Set.of(companyKeyResult));
+
+        BusinessUnit businessUnit = new BusinessUnit(1L, "BU1", null, null);
+        BusinessUnitObjective referencingObjective = new BusinessUnitObjective(1L, 0f, "BUO1", businessUnit, companyKeyResult, date.minusDays(5), date.plusDays(5), null);
+        referencingObjective.setBusinessUnitKeyResults(Set.of());
+        BusinessUnitObjective unreferencedObjective = new BusinessUnitObjective(2L, 0f, "BUO2", businessUnit, null, date.minusDays(5), date.plusDays(5), null);
+        unreferencedObjective.setBusinessUnitKeyResults(Set.of());
+
+        when(buoRepository.findAllActiveWithKeyResultsByBusinessUnitId(1L, date)).thenReturn(List.of(unreferencedObjective, referencingObjective));
+        when(ckRepository.findAllWithObjectiveByIdIn(Set.of(1L))).thenReturn(List.of(companyKeyResult));
+
+        BusinessUnitDashboard businessUnitDashboard = service.getBusinessUnitDashboard(1L, date);
+
+        assertEquals(date, businessUnitDashboard.getDate());
+        assertEquals(1, businessUnitDashboard.getCompanyObjectiveDashboardItems().size());
+        assertEquals("CO1", businessUnitDashboard.getCompanyObjectiveDashboardItems().get(0).getCompanyObjective().getName());
+
+        List<CompanyKeyResultDashboardItem> companyKeyResultDashboardItems = businessUnitDashboard.getCompanyObjectiveDashboardItems().get(0).getCompanyKeyResultDashboardItems();
+        assertEquals(1, companyKeyResultDashboardItems.size());
+        assertEquals("CKR1", companyKeyResultDashboardItems.get(0).getCompanyKeyResult().getName());
+        assertEquals(1, companyKeyResultDashboardItems.get(0).getBusinessUnitDashboardItems().size());
+        assertEquals("BUO1", companyKeyResultDashboardItems.get(0).getBusinessUnitDashboardItems().get(0).getBusinessUnitObjective().getName());
+
+        assertEquals(1, businessUnitDashboard.getUnreferencedBusinessUnitDashboardItems().size());
+        assertEquals("BUO2", businessUnitDashboard.getUnreferencedBusinessUnitDashboardItems().get(0).getBusinessUnitObjective().getName());
+        verify(coRepository, never()).findAllActiveWithKeyResults(any(LocalDate.class));
+    }
 }
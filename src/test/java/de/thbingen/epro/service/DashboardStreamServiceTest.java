@@ -0,0 +1,71 @@
+package de.thbingen.epro.service;
+
+import de.thbingen.epro.config.DashboardStreamConfig;
+import de.thbingen.epro.exception.RestExceptionHandler;
+import de.thbingen.epro.model.dto.dashboard.DashboardChange;
+import de.thbingen.epro.util.CamelCaseDisplayNameGenerator;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.*;
+
+@WebMvcTest(controllers = {DashboardStreamService.class},
+        useDefaultFilters = false,
+        includeFilters = {
+                @ComponentScan.Filter(
+                        type = FilterType.ASSIGNABLE_TYPE,
+                        value = {DashboardStreamService.class, DashboardStreamConfig.class}
+                )
+        }
+)
+@Import({RestExceptionHandler.class})
+@AutoConfigureMockMvc(addFilters = false)
+@DisplayNameGeneration(CamelCaseDisplayNameGenerator.class)
+public class DashboardStreamServiceTest {
+
+    @Autowired
+    private DashboardStreamService dashboardStreamService;
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @MockBean
+    private DashboardService dashboardService;
+
+    @Test
+    void subscribeRegistersSubscriberAndSendsCurrentDashboard() {
+        when(dashboardService.getDashboardItems()).thenReturn(List.of());
+        int subscribersBefore = dashboardStreamService.getSubscriberCount();
+
+        SseEmitter emitter = dashboardStreamService.subscribe();
+
+        assertNotNull(emitter);
+        assertEquals(subscribersBefore + 1, dashboardStreamService.getSubscriberCount());
+        verify(dashboardService, timeout(1000)).getDashboardItems();
+    }
+
+    @Test
+    void publishedDashboardChangesDoNotReloadDashboard() {
+        when(dashboardService.getDashboardItems()).thenReturn(List.of());
+        dashboardStreamService.subscribe();
+        verify(dashboardService, timeout(1000)).getDashboardItems();
+
+        applicationEventPublisher.publishEvent(new DashboardChange(DashboardChange.Type.COMPANY_KEY_RESULT, DashboardChange.Action.REMOVED, 1L, 1L, null));
+        dashboardStreamService.sendHeartbeat();
+
+        verify(dashboardService, after(200).times(1)).getDashboardItems();
+    }
+}
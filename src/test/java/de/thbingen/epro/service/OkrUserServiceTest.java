@@ -13,6 +13,7 @@ import de.thbingen.epro.model.mapper.OkrUserMapper;
 import de.thbingen.epro.repository.BusinessUnitRepository;
 import de.thbingen.epro.repository.OkrUserRepository;
 import de.thbingen.epro.repository.RoleRepository;
+import de.thbingen.epro.security.PrincipalCache;
 import de.thbingen.epro.util.CamelCaseDisplayNameGenerator;
 import org.junit.jupiter.api.DisplayNameGeneration;
 import org.junit.jupiter.api.Test;
@@ -39,6 +40,7 @@ import static de.thbingen.epro.util.SecurityContextInitializer.ReadOnlyUser;
 import static de.thbingen.epro.util.SecurityContextInitializer.initSecurityContextWithUser;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @WebMvcTest(controllers = {OkrUserService.class},
@@ -73,6 +75,9 @@ public class OkrUserServiceTest {
     @MockBean
     private PasswordEncoder passwordEncoder;
 
+    @MockBean
+    private PrincipalCache principalCache;
+
 
     @Autowired
     private AnnotationLinkRelationProvider annotationLinkRelationProvider;
@@ -221,6 +226,8 @@ public class OkrUserServiceTest {
         service.setRole(1L, 1L);
 
         assertTrue(okrUser.getRole() == role);
+        verify(repository).incrementTokenVersionById(1L);
+        verify(principalCache).evictUser(1L);
     }
 
     // endregion
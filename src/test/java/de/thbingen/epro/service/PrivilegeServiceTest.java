@@ -6,7 +6,9 @@ import de.thbingen.epro.model.dto.PrivilegeDto;
 import de.thbingen.epro.model.entity.Privilege;
 import de.thbingen.epro.model.entity.Role;
 import de.thbingen.epro.model.mapper.PrivilegeMapper;
+import de.thbingen.epro.repository.OkrUserRepository;
 import de.thbingen.epro.repository.PrivilegeRepository;
+import de.thbingen.epro.security.PrincipalCache;
 import de.thbingen.epro.util.CamelCaseDisplayNameGenerator;
 import org.junit.jupiter.api.DisplayNameGeneration;
 import org.junit.jupiter.api.Test;
@@ -32,6 +34,7 @@ import static de.thbingen.epro.util.SecurityContextInitializer.ReadOnlyUser;
 import static de.thbingen.epro.util.SecurityContextInitializer.initSecurityContextWithUser;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @WebMvcTest(controllers = {PrivilegeService.class},
@@ -54,6 +57,12 @@ public class PrivilegeServiceTest {
     @MockBean
     private PrivilegeRepository repository;
 
+    @MockBean
+    private PrincipalCache principalCache;
+
+    @MockBean
+    private OkrUserRepository okrUserRepository;
+
     @Autowired
     private PrivilegeMapper mapper;
 
@@ -108,6 +117,8 @@ public class PrivilegeServiceTest {
         PrivilegeDto updated = service.updatePrivilege(1L, updater);
         assertEquals(updater.getName(), updated.getName());
         assertDoesNotThrow(() -> updated.getRequiredLink(IanaLinkRelations.SELF));
+        verify(okrUserRepository).incrementTokenVersionByPrivilegeId(1L);
+        verify(principalCache).evictAll();
     }
 
     @Test
@@ -8,8 +8,10 @@ import de.thbingen.epro.model.entity.Privilege;
 import de.thbingen.epro.model.entity.Role;
 import de.thbingen.epro.model.mapper.PrivilegeMapper;
 import de.thbingen.epro.model.mapper.RoleMapper;
+import de.thbingen.epro.repository.OkrUserRepository;
 import de.thbingen.epro.repository.PrivilegeRepository;
 import de.thbingen.epro.repository.RoleRepository;
+import de.thbingen.epro.security.PrincipalCache;
 import de.thbingen.epro.util.CamelCaseDisplayNameGenerator;
 import org.junit.jupiter.api.DisplayNameGeneration;
 import org.junit.jupiter.api.Test;
@@ -35,6 +37,7 @@ import static de.thbingen.epro.util.SecurityContextInitializer.ReadOnlyUser;
 import static de.thbingen.epro.util.SecurityContextInitializer.initSecurityContextWithUser;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @WebMvcTest(controllers = {RoleService.class},
@@ -69,6 +72,12 @@ public class RoleServiceTest {
     @MockBean
     private PrivilegeRepository privilegeRepository;
 
+    @MockBean
+    private PrincipalCache principalCache;
+
+    @MockBean
+    private OkrUserRepository okrUserRepository;
+
     @Autowired
     private AnnotationLinkRelationProvider annotationLinkRelationProvider;
 
@@ -164,9 +173,13 @@ public class RoleServiceTest {
         when(repository.findById(1L)).thenReturn(Optional.of(role));
         when(repository.save(any(Role.class))).thenReturn(role);
         when(privilegeRepository.findById(1L)).thenReturn(Optional.of(privilege));
+        assertFalse(role.getPrivilegeSet().contains("P1"));
         service.addNewPrivilegeToRole(1L, 1L);
 
         assertTrue(role.getPrivileges().contains(privilege));
+        assertTrue(role.getPrivilegeSet().contains("P1"));
+        verify(okrUserRepository).incrementTokenVersionByRoleId(1L);
+        verify(principalCache).evictAll();
     }
 
     // endregion
@@ -1,6 +1,6 @@
 package de.thbingen.epro.util;
 
-import de.thbingen.epro.model.entity.OkrUser;
+import de.thbingen.epro.security.AuthenticatedUser;
 import org.mockito.Mockito;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
@@ -20,8 +20,8 @@ public class SecurityContextInitializer {
         when(securityContext.getAuthentication()).thenReturn(authentication);
         SecurityContextHolder.setContext(securityContext);
 
-        OkrUser okrUser = userRoleProvider.provideUser();
+        AuthenticatedUser authenticatedUser = AuthenticatedUser.of(userRoleProvider.provideUser());
 
-        when(securityContext.getAuthentication().getPrincipal()).thenReturn(okrUser);
+        when(securityContext.getAuthentication().getPrincipal()).thenReturn(authenticatedUser);
     }
 }